@@ -0,0 +1,68 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.cache.HttpCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sending a request whose response is cacheable for an hour, with and without an {@link HttpCache}.
+ * Cached calls are answered from the heap, so the difference is the cost of a loopback exchange and of reading its body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+  @Param({"100"})
+  int items;
+
+  LoopbackServer server;
+  EasyHttpClient client;
+  EasyHttpClient cachingClient;
+  HttpRequest request;
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), items), 4);
+    client = EasyHttpClientProvider.newClient(HttpClient.newHttpClient());
+    cachingClient = client.withHttpCache(HttpCache.inMemory(16 * 1024 * 1024));
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.CACHEABLE_PATH)).GET().build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public Payload network() {
+    return client.sendEasy(request, Payload.class).get().body();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Payload network_4threads() {
+    return client.sendEasy(request, Payload.class).get().body();
+  }
+
+  @Benchmark
+  public Payload cached() {
+    return cachingClient.sendEasy(request, Payload.class).get().body();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Payload cached_4threads() {
+    return cachingClient.sendEasy(request, Payload.class).get().body();
+  }
+}
@@ -0,0 +1,71 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import io.vavr.jackson.datatype.VavrModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating a client, alone and followed by a json request, for the defaults of
+ * {@link EasyHttpClientProvider#newClient()} and for a client built with its own {@link ObjectMapper} and {@link HttpClient},
+ * as {@code newClient()} did before sharing its HttpClient.
+ * <p>
+ * A fresh client pays for a new selector thread and a new connection to the server. Both pay for cold Jackson serializer
+ * caches, since each default client gets its own copy of the default ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientCreationBenchmark {
+
+  @Param({"10"})
+  int items;
+
+  LoopbackServer server;
+  HttpRequest request;
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), items), 4);
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.JSON_PATH)).GET().build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public EasyHttpClient create_shared() {
+    return EasyHttpClientProvider.newClient();
+  }
+
+  @Benchmark
+  public EasyHttpClient create_fresh() {
+    return freshClient();
+  }
+
+  @Benchmark
+  public Payload createAndSend_shared() {
+    return EasyHttpClientProvider.newClient().sendEasy(request, Payload.class).get().body();
+  }
+
+  @Benchmark
+  public Payload createAndSend_fresh() {
+    return freshClient().sendEasy(request, Payload.class).get().body();
+  }
+
+  private static EasyHttpClient freshClient() {
+    return EasyHttpClientProvider.newClient(new ObjectMapper().registerModules(new VavrModule(), new JavaTimeModule()), HttpClient.newHttpClient());
+  }
+}
@@ -0,0 +1,99 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import io.vavr.concurrent.Future;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires a burst of concurrent asynchronous requests and reports, next to the burst duration, the peak number of live
+ * threads observed while the requests were in flight (the {@code peakThreads} secondary metric).
+ * <p>
+ * {@code vavr_fromCompletableFuture} reproduces the bridge EasyHttp used before relying on a completion callback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentSendBenchmark {
+
+  @Param({"1000", "10000"})
+  int concurrency;
+
+  LoopbackServer server;
+  HttpClient httpClient;
+  EasyHttpClient easyClient;
+  HttpRequest request;
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Threads {
+    public long peakThreads;
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), 1), 64);
+    httpClient = HttpClient.newHttpClient();
+    easyClient = EasyHttpClientProvider.newClient(httpClient);
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.JSON_PATH)).GET().build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public void raw_sendAsync(Threads threads) {
+    val mxBean = resetPeak();
+    val futures = new ArrayList<CompletableFuture<?>>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(httpClient.sendAsync(request, BodyHandlers.ofString()));
+    }
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    threads.peakThreads = mxBean.getPeakThreadCount();
+  }
+
+  @Benchmark
+  public void vavr_fromCompletableFuture(Threads threads) {
+    val mxBean = resetPeak();
+    val futures = new ArrayList<Future<?>>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(Future.fromCompletableFuture(httpClient.sendAsync(request, BodyHandlers.ofString())));
+    }
+    Future.sequence(futures).get();
+    threads.peakThreads = mxBean.getPeakThreadCount();
+  }
+
+  @Benchmark
+  public void easy_sendAsyncEasy(Threads threads) {
+    val mxBean = resetPeak();
+    val futures = new ArrayList<Future<?>>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(easyClient.sendAsyncEasy(request, BodyHandlers.ofString()));
+    }
+    Future.sequence(futures).get();
+    threads.peakThreads = mxBean.getPeakThreadCount();
+  }
+
+  private static ThreadMXBean resetPeak() {
+    val mxBean = ManagementFactory.getThreadMXBean();
+    mxBean.resetPeakThreadCount();
+    return mxBean;
+  }
+}
@@ -0,0 +1,50 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link EasyHttpClient#createBodyPublisher(Object)} with a hand written jackson serialization.
+ * Run with {@code -prof gc} to compare the allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateBodyPublisherBenchmark {
+
+  @Param({"1", "100", "10000"})
+  int items;
+
+  EasyHttpClient easyClient;
+  Payload payload;
+
+  @Setup
+  public void setUp() {
+    easyClient = EasyHttpClientProvider.newClient();
+    payload = Payload.of(items);
+  }
+
+  @Benchmark
+  public BodyPublisher raw_writeValueAsString() throws JsonProcessingException {
+    return BodyPublishers.ofString(easyClient.getObjectMapper().writeValueAsString(payload));
+  }
+
+  @Benchmark
+  public BodyPublisher easy_createBodyPublisher() {
+    return easyClient.createBodyPublisher(payload);
+  }
+
+  @Benchmark
+  public BodyPublisher raw_writeValueAsBytes() throws JsonProcessingException {
+    return BodyPublishers.ofByteArray(easyClient.getObjectMapper().writeValueAsBytes(payload));
+  }
+}
@@ -0,0 +1,55 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.hedge.HedgePolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency distribution of {@link EasyHttpClient#sendAsyncEasy} with {@link EasyHttpClient#sendHedgedAsync}
+ * against a server delaying 2% of its exchanges. Compare the p99 of the sampled latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HedgeBenchmark {
+
+  LoopbackServer server;
+  EasyHttpClient easyClient;
+  HttpRequest request;
+  HedgePolicy policy;
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), 1), 64);
+    easyClient = EasyHttpClientProvider.newClient();
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.JITTERY_PATH)).GET().build();
+    policy = HedgePolicy.percentileDelay(95, Duration.ofMillis(5));
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public EasyHttpResponse<String> easy_sendAsyncEasy() {
+    return easyClient.sendAsyncEasy(request, BodyHandlers.ofString()).get();
+  }
+
+  @Benchmark
+  public EasyHttpResponse<String> easy_sendHedgedAsync() {
+    return easyClient.sendHedgedAsync(request, BodyHandlers.ofString(), policy).get();
+  }
+}
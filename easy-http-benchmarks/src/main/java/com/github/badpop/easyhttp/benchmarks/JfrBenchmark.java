@@ -0,0 +1,69 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.jfr.JfrEventListener;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link JfrEventListener} on a json request, without listener, with the listener while no recording
+ * enables its events, and while a recording enables them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JfrBenchmark {
+
+  @Param({"10"})
+  int items;
+
+  @Param({"false", "true"})
+  boolean recording;
+
+  LoopbackServer server;
+  HttpRequest request;
+  Recording jfr;
+  EasyHttpClient client;
+  EasyHttpClient observedClient;
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), items), 4);
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.JSON_PATH)).GET().build();
+    client = EasyHttpClientProvider.newClient();
+    observedClient = client.withEventListener(JfrEventListener.create());
+    if (recording) {
+      jfr = new Recording();
+      jfr.enable("com.github.badpop.easyhttp.Exchange");
+      jfr.enable("com.github.badpop.easyhttp.Deserialization");
+      jfr.start();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (jfr != null) {
+      jfr.close();
+    }
+    server.close();
+  }
+
+  @Benchmark
+  public Payload sendEasy_withoutListener() {
+    return client.sendEasy(request, Payload.class).get().body();
+  }
+
+  @Benchmark
+  public Payload sendEasy_withJfrListener() {
+    return observedClient.sendEasy(request, Payload.class).get().body();
+  }
+}
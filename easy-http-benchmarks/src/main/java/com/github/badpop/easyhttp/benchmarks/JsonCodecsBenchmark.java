@@ -0,0 +1,73 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.json.JsonCodecs;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a per call {@link ObjectMapper} lookup with the readers and writers cached by {@link JsonCodecs}.
+ * Small payloads make the type resolution and (de)serializer lookup dominant, which is what the cache removes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecsBenchmark {
+
+  @Param({"1", "100"})
+  int items;
+
+  ObjectMapper objectMapper;
+  JsonCodecs codecs;
+  byte[] json;
+  byte[] itemsJson;
+  Payload payload;
+
+  @Setup
+  public void setUp() throws IOException {
+    objectMapper = new ObjectMapper();
+    codecs = new JsonCodecs(objectMapper);
+    payload = Payload.of(items);
+    json = objectMapper.writeValueAsBytes(payload);
+    itemsJson = objectMapper.writeValueAsBytes(payload.getItems());
+  }
+
+  @Benchmark
+  public Payload objectMapper_readValue_class() throws IOException {
+    return objectMapper.readValue(json, Payload.class);
+  }
+
+  @Benchmark
+  public Payload codecs_readValue_class() throws IOException {
+    return codecs.readerFor(Payload.class).readValue(json);
+  }
+
+  @Benchmark
+  public List<Payload.Item> objectMapper_readValue_typeReference() throws IOException {
+    return objectMapper.readValue(itemsJson, new TypeReference<>() {
+    });
+  }
+
+  @Benchmark
+  public List<Payload.Item> codecs_readValue_typeReference() throws IOException {
+    return codecs.readerFor(new TypeReference<List<Payload.Item>>() {
+    }).readValue(itemsJson);
+  }
+
+  @Benchmark
+  public byte[] objectMapper_writeValue() throws IOException {
+    return objectMapper.canSerialize(Payload.class) ? objectMapper.writeValueAsBytes(payload) : null;
+  }
+
+  @Benchmark
+  public byte[] codecs_writeValue() throws IOException {
+    return codecs.writerFor(Payload.class).get().writeValueAsBytes(payload);
+  }
+}
@@ -0,0 +1,116 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A minimal in-process http server bound to the loopback interface, used as the target of every network benchmark.
+ *
+ * <ul>
+ *   <li>{@code GET /json} answers with the configured json payload</li>
+ *   <li>{@code POST /ingest} drains the request body and answers with a 204</li>
+ *   <li>{@code GET /cacheable} answers like {@code /json}, with a {@code Cache-Control: max-age=3600} header</li>
+ *   <li>{@code GET /jittery} answers like {@code /json}, but 2% of the exchanges are delayed by 50 milliseconds, like a slow replica</li>
+ * </ul>
+ */
+public final class LoopbackServer implements AutoCloseable {
+
+  public static final String JSON_PATH = "/json";
+  public static final String INGEST_PATH = "/ingest";
+  public static final String JITTERY_PATH = "/jittery";
+  public static final String CACHEABLE_PATH = "/cacheable";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final byte[] payload;
+
+  private LoopbackServer(HttpServer server, ExecutorService executor, byte[] payload) {
+    this.server = server;
+    this.executor = executor;
+    this.payload = payload;
+  }
+
+  /**
+   * Starts a new server on an ephemeral loopback port
+   *
+   * @param payload the json bytes returned by {@link #JSON_PATH}
+   * @param threads the number of threads handling exchanges
+   */
+  public static LoopbackServer start(byte[] payload, int threads) throws IOException {
+    // without TCP_NODELAY, Nagle and delayed ACKs add ~40ms to every exchange on the loopback interface
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    val server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+    val executor = Executors.newFixedThreadPool(threads, runnable -> {
+      val thread = new Thread(runnable, "loopback-server");
+      thread.setDaemon(true);
+      return thread;
+    });
+    val loopback = new LoopbackServer(server, executor, payload);
+    server.createContext(JSON_PATH, loopback::json);
+    server.createContext(INGEST_PATH, loopback::ingest);
+    server.createContext(JITTERY_PATH, loopback::jittery);
+    server.createContext(CACHEABLE_PATH, loopback::cacheable);
+    server.setExecutor(executor);
+    server.start();
+    return loopback;
+  }
+
+  public URI uri(String path) {
+    return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+  }
+
+  private void json(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      drain(exchange.getRequestBody());
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, payload.length);
+      exchange.getResponseBody().write(payload);
+    }
+  }
+
+  private void cacheable(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+    json(exchange);
+  }
+
+  private void jittery(HttpExchange exchange) throws IOException {
+    if (ThreadLocalRandom.current().nextInt(100) < 2) {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    json(exchange);
+  }
+
+  private void ingest(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      drain(exchange.getRequestBody());
+      exchange.sendResponseHeaders(204, -1);
+    }
+  }
+
+  private static void drain(InputStream body) throws IOException {
+    val buffer = new byte[8192];
+    while (body.read(buffer) != -1) {
+      // discard
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
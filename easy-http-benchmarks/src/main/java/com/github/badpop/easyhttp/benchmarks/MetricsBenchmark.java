@@ -0,0 +1,75 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.event.HttpExchange;
+import com.github.badpop.easyhttp.metrics.HttpMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link HttpMetrics}: the recording of an exchange alone, from 4 threads sharing the metrics, and
+ * a json request sent with and without the metrics listener.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+  @Param({"10"})
+  int items;
+
+  LoopbackServer server;
+  HttpRequest request;
+  HttpRequest[] recorded;
+  StubHttpResponse<byte[]> response;
+  HttpMetrics metrics;
+  EasyHttpClient client;
+  EasyHttpClient measuredClient;
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), items), 4);
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.JSON_PATH)).GET().build();
+    recorded = new HttpRequest[64];
+    for (int i = 0; i < recorded.length; i++) {
+      recorded[i] = HttpRequest.newBuilder(URI.create("https://api.domain.com/users/" + (1000 + i) + "/orders")).GET().build();
+    }
+    response = new StubHttpResponse<>(request, new byte[0]);
+    metrics = HttpMetrics.create();
+    client = EasyHttpClientProvider.newClient();
+    measuredClient = client.withEventListener(metrics);
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public HttpExchange record() {
+    var exchange = HttpExchange.start(metrics, recorded[ThreadLocalRandom.current().nextInt(recorded.length)]);
+    exchange.onResponse(response);
+    return exchange;
+  }
+
+  @Benchmark
+  public Payload sendEasy_withoutMetrics() {
+    return client.sendEasy(request, Payload.class).get().body();
+  }
+
+  @Benchmark
+  public Payload sendEasy_withMetrics() {
+    return measuredClient.sendEasy(request, Payload.class).get().body();
+  }
+}
@@ -0,0 +1,53 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The DTO serialized and deserialized by the benchmarks
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Payload {
+
+  private long id;
+  private String name;
+  private boolean active;
+  private double score;
+  private List<Item> items;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Item {
+    private int position;
+    private String label;
+    private long timestamp;
+  }
+
+  /**
+   * Builds a payload containing the given amount of items
+   */
+  public static Payload of(int items) {
+    List<Item> list = new ArrayList<>(items);
+    for (int i = 0; i < items; i++) {
+      list.add(new Item(i, "label-" + i, 1_650_000_000_000L + i));
+    }
+    return new Payload(42L, "easy-http-benchmark", true, 0.75, list);
+  }
+
+  /**
+   * Serializes a payload containing the given amount of items
+   */
+  @SneakyThrows
+  public static byte[] json(ObjectMapper objectMapper, int items) {
+    return objectMapper.writeValueAsBytes(of(items));
+  }
+}
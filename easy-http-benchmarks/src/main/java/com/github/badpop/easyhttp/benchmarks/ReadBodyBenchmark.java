@@ -0,0 +1,107 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares {@link EasyHttpResponse#readBody(Class)} and {@link EasyHttpResponse#readBody(TypeReference)} with a raw
+ * {@link ObjectMapper#readValue} for every body type supported by EasyHttp.
+ * <p>
+ * Bodies such as {@link java.io.InputStream} or {@link java.util.stream.Stream} can only be consumed once, so each
+ * invocation builds a fresh body, on both the EasyHttp and the raw side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBodyBenchmark {
+
+  private static final TypeReference<Payload> PAYLOAD_TYPE = new TypeReference<>() {
+  };
+
+  public enum BodyType {STRING, BYTE_ARRAY, INPUT_STREAM, PATH, LINES}
+
+  @Param({"STRING", "BYTE_ARRAY", "INPUT_STREAM", "PATH", "LINES"})
+  BodyType bodyType;
+
+  @Param({"1", "100"})
+  int items;
+
+  EasyHttpClient easyClient;
+  ObjectMapper objectMapper;
+  HttpRequest request;
+  byte[] json;
+  String jsonString;
+  Path jsonFile;
+
+  @Setup
+  public void setUp() throws IOException {
+    easyClient = EasyHttpClientProvider.newClient();
+    objectMapper = easyClient.getObjectMapper();
+    request = HttpRequest.newBuilder(URI.create("http://localhost/json")).GET().build();
+    json = Payload.json(objectMapper, items);
+    jsonString = new String(json, UTF_8);
+    jsonFile = Files.createTempFile("easy-http-benchmark", ".json");
+    Files.write(jsonFile, json);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(jsonFile);
+  }
+
+  @Benchmark
+  public Payload raw_readValue() throws IOException {
+    return switch (bodyType) {
+      case STRING -> objectMapper.readValue(jsonString, Payload.class);
+      case BYTE_ARRAY -> objectMapper.readValue(json, Payload.class);
+      case INPUT_STREAM -> objectMapper.readValue(new ByteArrayInputStream(json), Payload.class);
+      case PATH -> objectMapper.readValue(jsonFile.toFile(), Payload.class);
+      case LINES -> objectMapper.readValue(new BufferedReader(new StringReader(jsonString)).lines().collect(Collectors.joining()), Payload.class);
+    };
+  }
+
+  @Benchmark
+  public Payload easy_readBody_class() {
+    return response().readBody(Payload.class).get();
+  }
+
+  @Benchmark
+  public Payload easy_readBody_typeReference() {
+    return response().readBody(PAYLOAD_TYPE).get();
+  }
+
+  @SuppressWarnings("unchecked")
+  private EasyHttpResponse<Object> response() {
+    Object body = switch (bodyType) {
+      case STRING -> jsonString;
+      case BYTE_ARRAY -> json;
+      case INPUT_STREAM -> new ByteArrayInputStream(json);
+      case PATH -> jsonFile;
+      case LINES -> new BufferedReader(new StringReader(jsonString)).lines();
+    };
+    BodyHandler<Object> bodyHandler = (BodyHandler<Object>) (BodyHandler<?>) BodyHandlers.discarding();
+    return new EasyHttpResponse<>(new StubHttpResponse<>(request, body), bodyHandler, request, easyClient);
+  }
+}
@@ -0,0 +1,87 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.json.JsonBodyHandlers;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link EasyHttpClient#sendEasy} and {@link EasyHttpClient#sendAsyncEasy} with the raw {@link HttpClient} they wrap.
+ * Both sides share the same {@link HttpClient} so that only the EasyHttp overhead is measured.
+ * <p>
+ * {@code easy_sendEasy_thenReadBody} and {@code easy_sendEasy_typed} compare reading a DTO from an intermediate String
+ * with deserializing it straight from the received bytes, run them with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendBenchmark {
+
+  @Param({"1", "100"})
+  int items;
+
+  LoopbackServer server;
+  HttpClient httpClient;
+  EasyHttpClient easyClient;
+  HttpRequest request;
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), items), 4);
+    httpClient = HttpClient.newHttpClient();
+    easyClient = EasyHttpClientProvider.newClient(httpClient);
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.JSON_PATH)).GET().build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public HttpResponse<String> raw_send() throws IOException, InterruptedException {
+    return httpClient.send(request, BodyHandlers.ofString());
+  }
+
+  @Benchmark
+  public EasyHttpResponse<String> easy_sendEasy() {
+    return easyClient.sendEasy(request, BodyHandlers.ofString()).get();
+  }
+
+  @Benchmark
+  public Payload easy_sendEasy_thenReadBody() {
+    return easyClient.sendEasy(request, BodyHandlers.ofString()).get().readBody(Payload.class).get();
+  }
+
+  @Benchmark
+  public Payload easy_sendEasy_typed() {
+    return easyClient.sendEasy(request, Payload.class).get().body();
+  }
+
+  @Benchmark
+  public HttpResponse<String> raw_sendAsync() {
+    return httpClient.sendAsync(request, BodyHandlers.ofString()).join();
+  }
+
+  @Benchmark
+  public EasyHttpResponse<String> easy_sendAsyncEasy() {
+    return easyClient.sendAsyncEasy(request, BodyHandlers.ofString()).get();
+  }
+
+  @Benchmark
+  public Payload easy_sendAsyncEasy_jsonBody() {
+    return easyClient.sendAsyncEasy(request, JsonBodyHandlers.ofJsonBody(easyClient.getObjectMapper())).get().readBody(Payload.class).get();
+  }
+}
@@ -0,0 +1,48 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An in-memory {@link HttpResponse} used to benchmark body reading without any network I/O
+ */
+record StubHttpResponse<T>(HttpRequest request, T body) implements HttpResponse<T> {
+
+  private static final HttpHeaders HEADERS = HttpHeaders.of(Map.of(), (name, value) -> true);
+
+  @Override
+  public int statusCode() {
+    return 200;
+  }
+
+  @Override
+  public Optional<HttpResponse<T>> previousResponse() {
+    return Optional.empty();
+  }
+
+  @Override
+  public HttpHeaders headers() {
+    return HEADERS;
+  }
+
+  @Override
+  public Optional<SSLSession> sslSession() {
+    return Optional.empty();
+  }
+
+  @Override
+  public URI uri() {
+    return request.uri();
+  }
+
+  @Override
+  public Version version() {
+    return Version.HTTP_1_1;
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.json.JsonSequenceFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares uploading a large collection built in memory with {@link EasyHttpClient#createBodyPublisher(Object)},
+ * with lazily serializing the elements of a stream built on the fly with {@link EasyHttpClient#createBodyPublisher(Stream, JsonSequenceFormat)}.
+ * Run with {@code -prof gc} and a small heap, e.g. {@code -jvmArgs -Xmx64m}, to compare the memory required by each upload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class UploadSequenceBenchmark {
+
+  @Param({"100000"})
+  int elements;
+
+  LoopbackServer server;
+  EasyHttpClient easyClient;
+  URI uri;
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), 1), 4);
+    easyClient = EasyHttpClientProvider.newClient();
+    uri = server.uri(LoopbackServer.INGEST_PATH);
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public int easy_createBodyPublisher_collection() {
+    return send(easyClient.createBodyPublisher(items().toList()));
+  }
+
+  @Benchmark
+  public int easy_createBodyPublisher_stream() {
+    return send(easyClient.createBodyPublisher(items(), JsonSequenceFormat.ARRAY));
+  }
+
+  private Stream<Payload.Item> items() {
+    return IntStream.range(0, elements).mapToObj(i -> new Payload.Item(i, "label-" + i, 1_650_000_000_000L + i));
+  }
+
+  private int send(BodyPublisher body) {
+    return easyClient.sendEasy(HttpRequest.newBuilder(uri).POST(body).build(), BodyHandlers.discarding()).get().statusCode();
+  }
+}
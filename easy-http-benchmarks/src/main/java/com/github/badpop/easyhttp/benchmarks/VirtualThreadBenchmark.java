@@ -0,0 +1,119 @@
+package com.github.badpop.easyhttp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClient;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.concurrent.VirtualThreads;
+import io.vavr.concurrent.Future;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a burst of blocking {@code sendEasy} calls, each on its own virtual thread of a
+ * {@link EasyHttpClientProvider#newVirtualThreadClient()} client, with the same burst sent with {@code sendAsyncEasy}
+ * by a default client. Next to the burst duration, the {@code peakThreads} secondary metric reports the peak number
+ * of live platform threads.
+ * <p>
+ * The {@code virtual_*} benchmarks need a Java 21 runtime, they fail with an {@link UnsupportedOperationException} on
+ * older ones. A burst of 50 000 calls opens as many loopback connections, raise the open files limit if needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+  @Param({"50000"})
+  int concurrency;
+
+  LoopbackServer server;
+  EasyHttpClient asyncClient;
+  HttpRequest request;
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Threads {
+    public long peakThreads;
+  }
+
+  @State(Scope.Benchmark)
+  public static class VirtualThreadClient {
+    EasyHttpClient client;
+    ExecutorService callers;
+
+    @Setup
+    public void setUp() {
+      client = EasyHttpClientProvider.newVirtualThreadClient();
+      callers = VirtualThreads.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+      callers.shutdown();
+    }
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    server = LoopbackServer.start(Payload.json(new ObjectMapper(), 1), 64);
+    asyncClient = EasyHttpClientProvider.newClient();
+    request = HttpRequest.newBuilder(server.uri(LoopbackServer.JSON_PATH)).GET().build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public void easy_sendAsyncEasy(Threads threads) {
+    val mxBean = resetPeak();
+    val futures = new ArrayList<Future<?>>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(asyncClient.sendAsyncEasy(request, BodyHandlers.ofString()));
+    }
+    Future.sequence(futures).get();
+    threads.peakThreads = mxBean.getPeakThreadCount();
+  }
+
+  @Benchmark
+  public void virtual_sendEasy(VirtualThreadClient virtual, Threads threads) throws Exception {
+    val mxBean = resetPeak();
+    val calls = new ArrayList<java.util.concurrent.Future<?>>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      calls.add(virtual.callers.submit(() -> virtual.client.sendEasy(request, BodyHandlers.ofString()).get()));
+    }
+    for (val call : calls) {
+      call.get();
+    }
+    threads.peakThreads = mxBean.getPeakThreadCount();
+  }
+
+  @Benchmark
+  public void virtual_sendAsyncEasy(VirtualThreadClient virtual, Threads threads) {
+    val mxBean = resetPeak();
+    val futures = new ArrayList<Future<?>>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(virtual.client.sendAsyncEasy(request, BodyHandlers.ofString()));
+    }
+    Future.sequence(futures).get();
+    threads.peakThreads = mxBean.getPeakThreadCount();
+  }
+
+  private static ThreadMXBean resetPeak() {
+    val mxBean = ManagementFactory.getThreadMXBean();
+    mxBean.resetPeakThreadCount();
+    return mxBean;
+  }
+}
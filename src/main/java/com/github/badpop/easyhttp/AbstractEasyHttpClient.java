@@ -1,12 +1,32 @@
 package com.github.badpop.easyhttp;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.badpop.easyhttp.cache.HttpCache;
+import com.github.badpop.easyhttp.circuit.CircuitBreaker;
+import com.github.badpop.easyhttp.circuit.CircuitCall;
+import com.github.badpop.easyhttp.coalescing.RequestCoalescer;
+import com.github.badpop.easyhttp.concurrent.ExecutorGauges;
+import com.github.badpop.easyhttp.control.BufferedResponse;
 import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
+import com.github.badpop.easyhttp.event.HttpExchange;
+import com.github.badpop.easyhttp.hedge.HedgePolicy;
+import com.github.badpop.easyhttp.json.JsonCodecs;
+import com.github.badpop.easyhttp.limit.ConcurrencyLimiter;
+import com.github.badpop.easyhttp.limit.Permit;
+import com.github.badpop.easyhttp.ratelimit.RateLimiter;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
+import com.github.badpop.easyhttp.scatter.ScatterResult;
+import com.github.badpop.easyhttp.warmup.WarmUpPlan;
+import com.github.badpop.easyhttp.warmup.WarmUpReport;
+import io.vavr.collection.Seq;
 import io.vavr.concurrent.Future;
+import io.vavr.control.Option;
 import io.vavr.control.Try;
-import io.vavr.jackson.datatype.VavrModule;
+import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.Value;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
@@ -17,8 +37,21 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
+import static io.vavr.API.Try;
 import static lombok.AccessLevel.PROTECTED;
 
 @Value
@@ -28,25 +61,64 @@ public abstract sealed class AbstractEasyHttpClient permits EasyHttpClient {
 
   protected ObjectMapper objectMapper;
   protected HttpClient client;
+  protected Executor executor;
+  protected RetryPolicy retryPolicy;
+  protected RequestCoalescer requestCoalescer;
+  protected HttpCache httpCache;
+  protected ConcurrencyLimiter concurrencyLimiter;
+  protected CircuitBreaker circuitBreaker;
+  protected RateLimiter rateLimiter;
+  protected EasyHttpEventListener eventListener;
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  protected JsonCodecs jsonCodecs;
 
   protected AbstractEasyHttpClient() {
-    this.objectMapper = defaultObjectMapper();
-    this.client = defaultHttpClient();
+    this(defaultObjectMapper(), defaultHttpClient(), defaultExecutor());
   }
 
   protected AbstractEasyHttpClient(ObjectMapper objectMapper, HttpClient client) {
-    this.objectMapper = objectMapper;
-    this.client = client;
+    this(objectMapper, client, defaultExecutor());
   }
 
   protected AbstractEasyHttpClient(ObjectMapper objectMapper) {
-    this.objectMapper = objectMapper;
-    this.client = defaultHttpClient();
+    this(objectMapper, defaultHttpClient(), defaultExecutor());
   }
 
   protected AbstractEasyHttpClient(HttpClient httpClient) {
-    this.objectMapper = defaultObjectMapper();
-    this.client = httpClient;
+    this(defaultObjectMapper(), httpClient, defaultExecutor());
+  }
+
+  protected AbstractEasyHttpClient(Executor executor) {
+    this(defaultObjectMapper(), defaultHttpClient(), executor);
+  }
+
+  protected AbstractEasyHttpClient(ObjectMapper objectMapper, HttpClient client, Executor executor) {
+    this(objectMapper, client, executor, RetryPolicy.none(), RequestCoalescer.disabled(), HttpCache.disabled(), ConcurrencyLimiter.disabled(),
+      CircuitBreaker.disabled(), RateLimiter.disabled(), EasyHttpEventListener.none());
+  }
+
+  protected AbstractEasyHttpClient(ObjectMapper objectMapper,
+                                   HttpClient client,
+                                   Executor executor,
+                                   RetryPolicy retryPolicy,
+                                   RequestCoalescer requestCoalescer,
+                                   HttpCache httpCache,
+                                   ConcurrencyLimiter concurrencyLimiter,
+                                   CircuitBreaker circuitBreaker,
+                                   RateLimiter rateLimiter,
+                                   EasyHttpEventListener eventListener) {
+    this.objectMapper = objectMapper;
+    this.client = client;
+    this.executor = executor;
+    this.retryPolicy = retryPolicy;
+    this.requestCoalescer = requestCoalescer;
+    this.httpCache = httpCache;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.circuitBreaker = circuitBreaker;
+    this.rateLimiter = rateLimiter;
+    this.eventListener = eventListener;
+    this.jsonCodecs = new JsonCodecs(objectMapper);
   }
 
   /**
@@ -67,6 +139,118 @@ public abstract sealed class AbstractEasyHttpClient permits EasyHttpClient {
    */
   public abstract AbstractEasyHttpClient withClient(@NonNull HttpClient httpClient);
 
+  /**
+   * Builds a new instance by copying the current instance and using a new continuation {@link Executor}.
+   * <p>
+   * This executor runs the continuations of every {@link Future} returned by the client, it is not used by the underlying {@link HttpClient}.
+   *
+   * @param executor the {@link Executor} you want to use to build a new instance
+   * @return the current instance if the executor is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given executor is null
+   */
+  public abstract AbstractEasyHttpClient withExecutor(@NonNull Executor executor);
+
+  /**
+   * Builds a new instance by copying the current instance and using a new {@link RetryPolicy}.
+   * <p>
+   * The policy applies to every request sent by the new instance, unless a policy is given to the call itself.
+   *
+   * @param retryPolicy the {@link RetryPolicy} you want to use to build a new instance
+   * @return the current instance if the retry policy is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given retry policy is null
+   */
+  public abstract AbstractEasyHttpClient withRetryPolicy(@NonNull RetryPolicy retryPolicy);
+
+  /**
+   * Builds a new instance by copying the current instance and using a new {@link RequestCoalescer}.
+   * <p>
+   * The coalescer applies to the requests sent by {@link #send}, {@link #sendAsync}, {@link #sendEasy} and {@link #sendAsyncEasy}
+   * without an explicit retry policy. The body of a shared response is read in memory, then replayed into the body handler of each
+   * caller, so a streaming handler, e.g. {@link BodyHandlers#ofInputStream()}, only gets the body once it is entirely received.
+   * Use {@link RequestCoalescer#disabled()} to stop coalescing requests.
+   *
+   * @param requestCoalescer the {@link RequestCoalescer} you want to use to build a new instance
+   * @return the current instance if the coalescer is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given coalescer is null
+   */
+  public abstract AbstractEasyHttpClient withRequestCoalescer(@NonNull RequestCoalescer requestCoalescer);
+
+  /**
+   * Builds a new instance by copying the current instance and using a new {@link HttpCache}.
+   * <p>
+   * The cache applies to the requests sent by {@link #send}, {@link #sendAsync}, {@link #sendEasy} and {@link #sendAsyncEasy}
+   * without an explicit retry policy. Requests that must be sent on the network go through the {@link RequestCoalescer} and the
+   * {@link RetryPolicy} of the client. A response the cache may store is read in memory before being replayed into the body handler of
+   * the caller, any other response, e.g. a {@code no-store}, a 5xx or a too big response, is streamed to the handler as usual.
+   * Use {@link HttpCache#disabled()} to stop caching responses.
+   *
+   * @param httpCache the {@link HttpCache} you want to use to build a new instance
+   * @return the current instance if the cache is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given cache is null
+   */
+  public abstract AbstractEasyHttpClient withHttpCache(@NonNull HttpCache httpCache);
+
+  /**
+   * Builds a new instance by copying the current instance and using a new {@link ConcurrencyLimiter}.
+   * <p>
+   * The limiter applies to every request sent on the network by the new instance, including retries and hedged requests.
+   * A request rejected by the limiter fails with a {@link com.github.badpop.easyhttp.exception.LimitExceededException}.
+   * Use {@link ConcurrencyLimiter#disabled()} to stop limiting requests.
+   *
+   * @param concurrencyLimiter the {@link ConcurrencyLimiter} you want to use to build a new instance
+   * @return the current instance if the limiter is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given limiter is null
+   */
+  public abstract AbstractEasyHttpClient withConcurrencyLimiter(@NonNull ConcurrencyLimiter concurrencyLimiter);
+
+  /**
+   * Builds a new instance by copying the current instance and using a new {@link CircuitBreaker}.
+   * <p>
+   * The breaker applies to every request sent on the network by the new instance, including retries and hedged requests.
+   * A request to a host whose circuit is open fails fast with a {@link com.github.badpop.easyhttp.exception.CircuitBreakerOpenException}.
+   * Use {@link CircuitBreaker#disabled()} to stop breaking circuits.
+   *
+   * @param circuitBreaker the {@link CircuitBreaker} you want to use to build a new instance
+   * @return the current instance if the breaker is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given breaker is null
+   */
+  public abstract AbstractEasyHttpClient withCircuitBreaker(@NonNull CircuitBreaker circuitBreaker);
+
+  /**
+   * Builds a new instance by copying the current instance and using a new {@link RateLimiter}.
+   * <p>
+   * The limiter applies to every request sent on the network by the new instance, including retries and hedged requests.
+   * Synchronous requests park their thread while they wait, asynchronous requests are delayed without blocking any thread.
+   * A request that would wait too long fails with a {@link com.github.badpop.easyhttp.exception.RateLimitExceededException}.
+   * Use {@link RateLimiter#disabled()} to stop limiting the rate of requests.
+   *
+   * @param rateLimiter the {@link RateLimiter} you want to use to build a new instance
+   * @return the current instance if the limiter is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given limiter is null
+   */
+  public abstract AbstractEasyHttpClient withRateLimiter(@NonNull RateLimiter rateLimiter);
+
+  /**
+   * Builds a new instance by copying the current instance and using a new {@link EasyHttpEventListener}.
+   * <p>
+   * The listener is notified of every exchange, retry and {@code readBody} deserialization of the new instance,
+   * use {@link EasyHttpEventListener#composite(EasyHttpEventListener...)} to register several listeners.
+   *
+   * @param eventListener the {@link EasyHttpEventListener} you want to use to build a new instance
+   * @return the current instance if the event listener is the same as actual or a new instance with the new one
+   * @throws NullPointerException is the given event listener is null
+   */
+  public abstract AbstractEasyHttpClient withEventListener(@NonNull EasyHttpEventListener eventListener);
+
+  /**
+   * Provides gauges to monitor the continuation {@link Executor} of the client
+   *
+   * @return the {@link ExecutorGauges} of the current continuation executor
+   */
+  public ExecutorGauges executorGauges() {
+    return new ExecutorGauges(executor);
+  }
+
   /**
    * Sends a synchronous http request and wraps the processing in a functional {@link Try}.
    * <p>
@@ -107,24 +291,607 @@ public abstract sealed class AbstractEasyHttpClient permits EasyHttpClient {
    */
   public abstract <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request, @NonNull BodyHandler<T> responseBodyHandler);
 
+  /**
+   * Same as {@link #sendEasy(HttpRequest, BodyHandler)} but retries the request according to the given {@link RetryPolicy}
+   * instead of the policy of the client.
+   * <p>
+   * The calling thread waits for the delay between two attempts.
+   *
+   * @param request             the request to send
+   * @param responseBodyHandler a response body handler
+   * @param retryPolicy         the policy deciding when and how the request is retried
+   * @return the response of the last attempt, or its failure
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Try<EasyHttpResponse<T>> sendEasy(@NonNull HttpRequest request,
+                                                        @NonNull BodyHandler<T> responseBodyHandler,
+                                                        @NonNull RetryPolicy retryPolicy);
+
+  /**
+   * Same as {@link #sendAsyncEasy(HttpRequest, BodyHandler)} but retries the request according to the given {@link RetryPolicy}
+   * instead of the policy of the client.
+   * <p>
+   * Retries are scheduled after their delay without blocking any thread. Cancelling the returned future cancels the ongoing attempt
+   * and any scheduled retry.
+   *
+   * @param request             the request to send
+   * @param responseBodyHandler a response body handler
+   * @param retryPolicy         the policy deciding when and how the request is retried
+   * @return the response of the last attempt, or its failure
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request,
+                                                                @NonNull BodyHandler<T> responseBodyHandler,
+                                                                @NonNull RetryPolicy retryPolicy);
+
+  /**
+   * Sends an asynchronous http request and, if no response arrived after the hedge delay of the given {@link HedgePolicy},
+   * sends a duplicate of the request. The returned future completes with the first response received, and the other requests are cancelled.
+   * <p>
+   * Hedging trades a small amount of extra load for a lower tail latency against replicated backends, it must only be used with idempotent requests.
+   * The number of duplicates is capped by the budget of the policy. The future fails only if all the requests that were sent fail.
+   * The {@link RetryPolicy} of the client is not applied to hedged requests.
+   *
+   * @param request             the request to send
+   * @param responseBodyHandler a response body handler
+   * @param hedgePolicy         the policy deciding when duplicates are sent
+   * @return the first response received
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Future<EasyHttpResponse<T>> sendHedgedAsync(@NonNull HttpRequest request,
+                                                                  @NonNull BodyHandler<T> responseBodyHandler,
+                                                                  @NonNull HedgePolicy hedgePolicy);
+
+  /**
+   * Sends all the given requests asynchronously, with at most {@code parallelism} requests in flight, and collects their outcomes
+   * in the order of the requests.
+   * <p>
+   * Requests are pulled lazily from the iterable as slots free up, so the batch never has to be held in memory, and no future is
+   * kept for a completed request. Each request goes through the cache, coalescer, retry policy and limiters of the client like
+   * {@link #sendAsyncEasy(HttpRequest, BodyHandler)}. A failed request does not fail the batch, its outcome is a failed {@link Try}.
+   * Cancelling the returned future cancels the requests in flight.
+   *
+   * @param requests            the requests to send
+   * @param responseBodyHandler a response body handler
+   * @param parallelism         the maximum number of requests in flight
+   * @return the outcomes of the requests, in the order of the requests
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the parallelism is not strictly positive
+   */
+  public abstract <T> Future<Seq<Try<EasyHttpResponse<T>>>> sendAllAsync(@NonNull Iterable<HttpRequest> requests,
+                                                                        @NonNull BodyHandler<T> responseBodyHandler,
+                                                                        int parallelism);
+
+  /**
+   * Same as {@link #sendAllAsync(Iterable, BodyHandler, int)} but streams the outcomes in completion order while the stream is consumed.
+   * <p>
+   * A new request is sent each time an outcome is consumed, so the requests in flight and the outcomes waiting to be consumed never
+   * exceed the parallelism. The stream blocks until the next outcome is available. Closing the stream cancels the requests in flight.
+   *
+   * @param requests            the requests to send
+   * @param responseBodyHandler a response body handler
+   * @param parallelism         the maximum number of requests in flight
+   * @return a lazy sequential stream of the outcomes, in completion order
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the parallelism is not strictly positive
+   */
+  public abstract <T> Stream<Try<EasyHttpResponse<T>>> streamAll(@NonNull Iterable<HttpRequest> requests,
+                                                                @NonNull BodyHandler<T> responseBodyHandler,
+                                                                int parallelism);
+
+  /**
+   * Sends all the given requests at once, e.g. to several replicas, and completes with the first successful response.
+   * <p>
+   * A request succeeds when it is answered with a status code other than 5xx. As soon as a request succeeds, the other requests are
+   * cancelled to free their connections. If all the requests fail, the result holds the reasons of their failures.
+   *
+   * @param requests            the requests to send
+   * @param responseBodyHandler a response body handler
+   * @return the result of the scatter-gather, satisfied if one request succeeded
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Future<ScatterResult<EasyHttpResponse<T>>> sendFirstSuccessful(@NonNull Iterable<HttpRequest> requests,
+                                                                                    @NonNull BodyHandler<T> responseBodyHandler);
+
+  /**
+   * Same as {@link #sendFirstSuccessful(Iterable, BodyHandler)} but completes once {@code quorum} requests succeeded,
+   * or as soon as too many requests failed for the quorum to be reached
+   *
+   * @param requests            the requests to send
+   * @param responseBodyHandler a response body handler
+   * @param quorum              the number of successful responses to wait for
+   * @return the result of the scatter-gather, satisfied if the quorum was reached
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the quorum is not between 1 and the number of requests
+   */
+  public abstract <T> Future<ScatterResult<EasyHttpResponse<T>>> sendQuorum(@NonNull Iterable<HttpRequest> requests,
+                                                                           @NonNull BodyHandler<T> responseBodyHandler,
+                                                                           int quorum);
+
+  /**
+   * Sends all the given requests at once, e.g. to several shards, and completes once all of them completed or when the deadline is over.
+   * <p>
+   * When the deadline is over, the result holds the responses received so far, and the requests still in flight are cancelled.
+   *
+   * @param requests            the requests to send
+   * @param responseBodyHandler a response body handler
+   * @param deadline            the maximum time to wait for the responses
+   * @return the result of the scatter-gather, satisfied if all the requests succeeded
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the deadline is negative
+   */
+  public abstract <T> Future<ScatterResult<EasyHttpResponse<T>>> sendAllWithin(@NonNull Iterable<HttpRequest> requests,
+                                                                              @NonNull BodyHandler<T> responseBodyHandler,
+                                                                              @NonNull Duration deadline);
+
+  /**
+   * Warms up the client before it receives traffic, e.g. before a readiness probe succeeds.
+   * <p>
+   * Opens connections to the hosts of the plan, builds and caches the json codecs of its types, then sends its synthetic requests.
+   * Connection requests bypass the cache and the limiters of the client, synthetic requests go through all of them.
+   *
+   * @param plan the warm-up plan
+   * @return a future completed with the warm-up report once the warm-up is done
+   * @throws NullPointerException if the plan is null
+   */
+  public abstract Future<WarmUpReport> warmUp(@NonNull WarmUpPlan plan);
+
+  /**
+   * Sends a synchronous http request, wraps the processing in a functional {@link Try} and returns an {@link EasyHttpResponse}
+   * whose body is deserialized from json into an instance of the given class.
+   * <p>
+   * The body is deserialized straight from the received bytes, without building an intermediate {@link String}.
+   * Only 2xx response bodies are deserialized, the body of any other response is null.
+   *
+   * @param request      the request to send
+   * @param responseType the class whose instance you want to build from the body of the response
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Try<EasyHttpResponse<T>> sendEasy(@NonNull HttpRequest request, @NonNull Class<T> responseType);
+
+  /**
+   * Same as {@link #sendEasy(HttpRequest, Class)} but for a type referenced by a Jackson {@link TypeReference}
+   *
+   * @param request           the request to send
+   * @param responseReference a Jackson {@link TypeReference} defining which type of object you want to deserialize
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Try<EasyHttpResponse<T>> sendEasy(@NonNull HttpRequest request, @NonNull TypeReference<T> responseReference);
+
+  /**
+   * Same as {@link #sendEasy(HttpRequest, Class)} but sends the request asynchronously and wraps the processing in a functional {@link Future}
+   *
+   * @param request      the request to send
+   * @param responseType the class whose instance you want to build from the body of the response
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request, @NonNull Class<T> responseType);
+
+  /**
+   * Same as {@link #sendEasy(HttpRequest, TypeReference)} but sends the request asynchronously and wraps the processing in a functional {@link Future}
+   *
+   * @param request           the request to send
+   * @param responseReference a Jackson {@link TypeReference} defining which type of object you want to deserialize
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public abstract <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request, @NonNull TypeReference<T> responseReference);
+
   protected <T> EasyHttpResponse<T> execute(HttpRequest httpRequest, BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
-    val jdkResponse = client.send(httpRequest, bodyHandler);
-    return wrapResponse(httpRequest, jdkResponse, bodyHandler, (EasyHttpClient) this);
+    if (isObserved()) {
+      return executeObserved(httpRequest, bodyHandler);
+    }
+    return wrapResponse(httpRequest, exchange(httpRequest, bodyHandler), bodyHandler, (EasyHttpClient) this);
+  }
+
+  private <T> EasyHttpResponse<T> executeObserved(HttpRequest httpRequest, BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+    val exchange = HttpExchange.start(eventListener, httpRequest);
+    try {
+      val jdkResponse = exchange(exchange.observe(httpRequest), exchange.observe(bodyHandler));
+      exchange.onResponse(jdkResponse);
+      return wrapResponse(httpRequest, jdkResponse, bodyHandler, (EasyHttpClient) this);
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      exchange.onFailure(e);
+      throw e;
+    }
+  }
+
+  private <T> HttpResponse<T> exchange(HttpRequest httpRequest, BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+    if (rateLimiter.isEnabled()) {
+      rateLimiter.acquire(httpRequest.uri());
+    }
+    val jdkResponse = concurrencyLimiter.isEnabled() ? sendLimited(httpRequest, bodyHandler) : sendGuarded(httpRequest, bodyHandler);
+    if (rateLimiter.isEnabled()) {
+      rateLimiter.onResponse(httpRequest.uri(), jdkResponse);
+    }
+    return jdkResponse;
   }
 
   protected <T> CompletableFuture<HttpResponse<T>> executeAsync(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
-    return client.sendAsync(httpRequest, bodyHandler);
+    if (isObserved()) {
+      return executeAsyncObserved(httpRequest, bodyHandler);
+    }
+    return exchangeAsync(httpRequest, bodyHandler);
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> executeAsyncObserved(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    val exchange = HttpExchange.start(eventListener, httpRequest);
+    val result = new CompletableFuture<HttpResponse<T>>();
+    val jdkExchange = exchangeAsync(exchange.observe(httpRequest), exchange.observe(bodyHandler));
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        jdkExchange.cancel(true);
+      }
+    });
+    jdkExchange.whenComplete((response, throwable) -> {
+      if (throwable == null) {
+        exchange.onResponse(response);
+        result.complete(response);
+      } else {
+        exchange.onFailure(throwable);
+        result.completeExceptionally(throwable);
+      }
+    });
+    return result;
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> exchangeAsync(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    return rateLimiter.isEnabled() ? sendAsyncThrottled(httpRequest, bodyHandler) : sendAsyncPermitted(httpRequest, bodyHandler);
+  }
+
+  private boolean isObserved() {
+    return eventListener != EasyHttpEventListener.none() && eventListener.isActive();
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> sendAsyncPermitted(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    return concurrencyLimiter.isEnabled() ? sendAsyncLimited(httpRequest, bodyHandler) : sendAsyncGuarded(httpRequest, bodyHandler);
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> sendAsyncThrottled(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    val result = new CompletableFuture<HttpResponse<T>>();
+    val wait = rateLimiter.acquireAsync(httpRequest.uri(), executor);
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        wait.cancel(false);
+      }
+    });
+    wait.whenComplete((ignored, rejection) -> {
+      if (rejection != null) {
+        result.completeExceptionally(rejection);
+        return;
+      }
+      if (result.isDone()) {
+        return;
+      }
+      val exchange = sendAsyncPermitted(httpRequest, bodyHandler);
+      result.whenComplete((response, throwable) -> {
+        if (result.isCancelled()) {
+          exchange.cancel(true);
+        }
+      });
+      exchange.whenComplete((response, throwable) -> {
+        if (throwable == null) {
+          rateLimiter.onResponse(httpRequest.uri(), response);
+          result.complete(response);
+        } else {
+          result.completeExceptionally(throwable);
+        }
+      });
+    });
+    return result;
+  }
+
+  private <T> HttpResponse<T> sendGuarded(HttpRequest httpRequest, BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+    if (!circuitBreaker.isEnabled()) {
+      return client.send(httpRequest, bodyHandler);
+    }
+
+    val call = circuitBreaker.acquire(httpRequest.uri());
+    val start = System.nanoTime();
+    try {
+      val response = client.send(httpRequest, bodyHandler);
+      recordResponse(call, Duration.ofNanos(System.nanoTime() - start), httpRequest, response, bodyHandler);
+      return response;
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      call.onFailure(Duration.ofNanos(System.nanoTime() - start), e);
+      throw e;
+    }
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> sendAsyncGuarded(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    if (!circuitBreaker.isEnabled()) {
+      return client.sendAsync(httpRequest, bodyHandler);
+    }
+
+    final CircuitCall call;
+    try {
+      call = circuitBreaker.acquire(httpRequest.uri());
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    val start = System.nanoTime();
+    val result = new CompletableFuture<HttpResponse<T>>();
+    val exchange = client.sendAsync(httpRequest, bodyHandler);
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        exchange.cancel(true);
+      }
+    });
+    // the outcome is recorded before the result completes, so the next request sees the circuit it opened
+    exchange.whenComplete((response, throwable) -> {
+      val latency = Duration.ofNanos(System.nanoTime() - start);
+      if (throwable == null) {
+        recordResponse(call, latency, httpRequest, response, bodyHandler);
+        result.complete(response);
+      } else {
+        call.onFailure(latency, throwable);
+        result.completeExceptionally(throwable);
+      }
+    });
+    return result;
+  }
+
+  private <T> void recordResponse(CircuitCall call, Duration latency, HttpRequest httpRequest, HttpResponse<T> response, BodyHandler<T> bodyHandler) {
+    // the default failure predicate only needs the status code, so the response is only wrapped for a custom one
+    if (call.needsResponse()) {
+      call.onResponse(latency, wrapResponse(httpRequest, response, bodyHandler, (EasyHttpClient) this));
+    } else {
+      call.onResponse(latency, response.statusCode());
+    }
+  }
+
+  private <T> HttpResponse<T> sendLimited(HttpRequest httpRequest, BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+    val acquisition = concurrencyLimiter.acquire(httpRequest.uri());
+    final Permit permit;
+    try {
+      permit = acquisition.get();
+    } catch (InterruptedException e) {
+      acquisition.cancel(false);
+      acquisition.thenAccept(Permit::onIgnore);
+      throw e;
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(e.getCause());
+    }
+
+    val start = System.nanoTime();
+    try {
+      val response = sendGuarded(httpRequest, bodyHandler);
+      permit.onResponse(Duration.ofNanos(System.nanoTime() - start), response.statusCode());
+      return response;
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      permit.onFailure(e);
+      throw e;
+    }
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> sendAsyncLimited(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    val result = new CompletableFuture<HttpResponse<T>>();
+    val acquisition = concurrencyLimiter.acquire(httpRequest.uri());
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        acquisition.cancel(false);
+      }
+    });
+    acquisition.whenComplete((permit, rejection) -> {
+      if (rejection != null) {
+        result.completeExceptionally(rejection);
+        return;
+      }
+      if (result.isDone()) {
+        permit.onIgnore();
+        return;
+      }
+      val start = System.nanoTime();
+      val exchange = sendAsyncGuarded(httpRequest, bodyHandler);
+      result.whenComplete((response, throwable) -> {
+        if (result.isCancelled()) {
+          exchange.cancel(true);
+        }
+      });
+      exchange.whenComplete((response, throwable) -> {
+        if (throwable == null) {
+          permit.onResponse(Duration.ofNanos(System.nanoTime() - start), response.statusCode());
+          result.complete(response);
+        } else {
+          permit.onFailure(throwable);
+          result.completeExceptionally(throwable);
+        }
+      });
+    });
+    return result;
+  }
+
+  protected <T> Try<EasyHttpResponse<T>> executeEasy(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    httpCache.invalidate(httpRequest);
+    if (isCachedOrCoalesced(httpRequest)) {
+      return Try(() -> executeCachedOrCoalesced(httpRequest, bodyHandler).join())
+        .recoverWith(CompletionException.class, e -> Try.failure(e.getCause()));
+    }
+    return executeWithRetry(httpRequest, bodyHandler, retryPolicy);
+  }
+
+  protected <T> CompletableFuture<EasyHttpResponse<T>> executeAsyncEasy(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    httpCache.invalidate(httpRequest);
+    return isCachedOrCoalesced(httpRequest)
+      ? executeCachedOrCoalesced(httpRequest, bodyHandler)
+      : executeAsyncWithRetry(httpRequest, bodyHandler, retryPolicy);
+  }
+
+  private boolean isCachedOrCoalesced(HttpRequest httpRequest) {
+    return httpCache.canCache(httpRequest) || requestCoalescer.canCoalesce(httpRequest);
+  }
+
+  private <T> CompletableFuture<EasyHttpResponse<T>> executeCachedOrCoalesced(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    final CompletableFuture<? extends HttpResponse<T>> response = httpCache.canCache(httpRequest)
+      ? httpCache.send(httpRequest, bodyHandler, this::exchangeCoalesced)
+      : exchangeCoalesced(httpRequest, bodyHandler);
+    return response.thenApply(received -> wrapResponse(httpRequest, received, bodyHandler, (EasyHttpClient) this));
+  }
+
+  private <T> CompletableFuture<? extends HttpResponse<T>> exchangeCoalesced(HttpRequest httpRequest, BodyHandler<T> bodyHandler) {
+    if (!requestCoalescer.canCoalesce(httpRequest)) {
+      return executeAsyncWithRetry(httpRequest, bodyHandler, retryPolicy);
+    }
+    // the shared response is buffered, then each caller reads its own copy with its own handler
+    return requestCoalescer.coalesce(httpRequest, this::exchangeBuffered).thenCompose(response -> response.replay(httpRequest, bodyHandler));
+  }
+
+  private CompletableFuture<BufferedResponse> exchangeBuffered(HttpRequest httpRequest) {
+    return executeAsyncWithRetry(httpRequest, BodyHandlers.ofByteArray(), retryPolicy).thenApply(BufferedResponse::of);
+  }
+
+  protected <T> Try<EasyHttpResponse<T>> executeWithRetry(HttpRequest httpRequest, BodyHandler<T> bodyHandler, RetryPolicy policy) {
+    if (!policy.isEnabled()) {
+      return Try(() -> execute(httpRequest, bodyHandler));
+    }
+
+    for (int attempt = 1; ; attempt++) {
+      val outcome = Try(() -> execute(httpRequest, bodyHandler));
+      val delay = policy.delayBeforeRetry(attempt, outcome);
+      if (delay.isEmpty()) {
+        return outcome;
+      }
+      outcome.forEach(AbstractEasyHttpClient::discard);
+      if (isObserved()) {
+        eventListener.retryScheduled(httpRequest, attempt, delay.get(), System.nanoTime());
+      }
+      try {
+        TimeUnit.NANOSECONDS.sleep(delay.get().toNanos());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return Try.failure(e);
+      }
+    }
+  }
+
+  protected <T> CompletableFuture<EasyHttpResponse<T>> executeAsyncWithRetry(HttpRequest httpRequest, BodyHandler<T> bodyHandler, RetryPolicy policy) {
+    if (!policy.isEnabled()) {
+      val exchange = executeAsync(httpRequest, bodyHandler);
+      val result = exchange.thenApply(response -> wrapResponse(httpRequest, response, bodyHandler, (EasyHttpClient) this));
+      result.whenComplete((response, throwable) -> {
+        if (result.isCancelled()) {
+          exchange.cancel(true);
+        }
+      });
+      return result;
+    }
+
+    val result = new CompletableFuture<EasyHttpResponse<T>>();
+    val ongoing = new AtomicReference<CompletableFuture<?>>();
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        Option.of(ongoing.get()).forEach(attempt -> attempt.cancel(true));
+      }
+    });
+    attemptAsync(1, httpRequest, bodyHandler, policy, result, ongoing);
+    return result;
+  }
+
+  private <T> void attemptAsync(int attempt,
+                                HttpRequest httpRequest,
+                                BodyHandler<T> bodyHandler,
+                                RetryPolicy policy,
+                                CompletableFuture<EasyHttpResponse<T>> result,
+                                AtomicReference<CompletableFuture<?>> ongoing) {
+    if (result.isDone()) {
+      return;
+    }
+    val exchange = executeAsync(httpRequest, bodyHandler);
+    ongoing.set(exchange);
+    if (result.isCancelled()) {
+      exchange.cancel(true);
+      return;
+    }
+
+    exchange.whenComplete((response, throwable) -> {
+      val outcome = throwable == null
+        ? Try.success(wrapResponse(httpRequest, response, bodyHandler, (EasyHttpClient) this))
+        : Try.<EasyHttpResponse<T>>failure(throwable);
+      val delay = result.isDone() ? Option.<Duration>none() : policy.delayBeforeRetry(attempt, outcome);
+      if (delay.isEmpty()) {
+        outcome.toEither().fold(result::completeExceptionally, result::complete);
+        return;
+      }
+      outcome.forEach(AbstractEasyHttpClient::discard);
+      if (isObserved()) {
+        eventListener.retryScheduled(httpRequest, attempt, delay.get(), System.nanoTime());
+      }
+      CompletableFuture.delayedExecutor(delay.get().toNanos(), TimeUnit.NANOSECONDS, executor)
+        .execute(() -> attemptAsync(attempt + 1, httpRequest, bodyHandler, policy, result, ongoing));
+    });
+  }
+
+  protected <T> CompletableFuture<EasyHttpResponse<T>> executeHedgedAsync(HttpRequest httpRequest, BodyHandler<T> bodyHandler, HedgePolicy policy) {
+    policy.onRequest();
+    val result = new CompletableFuture<EasyHttpResponse<T>>();
+    val attempts = new ConcurrentLinkedQueue<CompletableFuture<?>>();
+    val pending = new AtomicInteger();
+    val answered = new AtomicBoolean();
+    val start = System.nanoTime();
+    result.whenComplete((response, throwable) -> attempts.forEach(attempt -> attempt.cancel(true)));
+
+    hedgeAttempt(httpRequest, bodyHandler, policy, start, result, attempts, pending, answered);
+    val delayNanos = policy.hedgeDelay().toNanos();
+    for (int hedge = 1; hedge <= policy.getMaxHedges(); hedge++) {
+      CompletableFuture.delayedExecutor(delayNanos * hedge, TimeUnit.NANOSECONDS, executor).execute(() -> {
+        if (!result.isDone() && policy.tryAcquireHedge()) {
+          hedgeAttempt(httpRequest, bodyHandler, policy, start, result, attempts, pending, answered);
+        }
+      });
+    }
+    return result;
+  }
+
+  private <T> void hedgeAttempt(HttpRequest httpRequest,
+                                BodyHandler<T> bodyHandler,
+                                HedgePolicy policy,
+                                long start,
+                                CompletableFuture<EasyHttpResponse<T>> result,
+                                Queue<CompletableFuture<?>> attempts,
+                                AtomicInteger pending,
+                                AtomicBoolean answered) {
+    pending.incrementAndGet();
+    val exchange = executeAsync(httpRequest, bodyHandler);
+    attempts.add(exchange);
+    if (result.isDone()) {
+      exchange.cancel(true);
+    }
+
+    exchange.whenComplete((response, throwable) -> {
+      val remaining = pending.decrementAndGet();
+      if (throwable == null) {
+        // the time to the first response is the latency of the primary attempt if it won, and a lower bound of it if a hedge won,
+        // recording only the primary attempts faster than the delay would make the percentile drift down
+        if (answered.compareAndSet(false, true)) {
+          policy.onResponse(Duration.ofNanos(System.nanoTime() - start));
+        }
+        if (!result.complete(wrapResponse(httpRequest, response, bodyHandler, (EasyHttpClient) this))) {
+          discard(response);
+        }
+      } else if (remaining == 0) {
+        result.completeExceptionally(throwable);
+      }
+    });
   }
 
   protected <T> EasyHttpResponse<T> wrapResponse(HttpRequest request, HttpResponse<T> response, BodyHandler<T> bodyHandler, EasyHttpClient usedClient) {
     return new EasyHttpResponse<>(response, bodyHandler, request, usedClient);
   }
 
-  private ObjectMapper defaultObjectMapper() {
-    return new ObjectMapper().registerModules(new VavrModule(), new JavaTimeModule());
+  private static void discard(HttpResponse<?> response) {
+    if (response.body() instanceof AutoCloseable closeable) {
+      Try.run(closeable::close);
+    }
+  }
+
+  private static ObjectMapper defaultObjectMapper() {
+    return SharedDefaults.objectMapper();
+  }
+
+  private static HttpClient defaultHttpClient() {
+    return SharedDefaults.httpClient();
   }
 
-  private HttpClient defaultHttpClient() {
-    return HttpClient.newHttpClient();
+  private static Executor defaultExecutor() {
+    return Future.DEFAULT_EXECUTOR;
   }
 }
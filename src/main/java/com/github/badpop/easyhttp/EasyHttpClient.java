@@ -1,14 +1,40 @@
 package com.github.badpop.easyhttp;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.badpop.easyhttp.batch.Batches;
+import com.github.badpop.easyhttp.cache.HttpCache;
+import com.github.badpop.easyhttp.circuit.CircuitBreaker;
+import com.github.badpop.easyhttp.coalescing.RequestCoalescer;
+import com.github.badpop.easyhttp.concurrent.Futures;
 import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
+import com.github.badpop.easyhttp.exception.WriteBodyException;
+import com.github.badpop.easyhttp.hedge.HedgePolicy;
+import com.github.badpop.easyhttp.json.JsonBodyHandlers;
+import com.github.badpop.easyhttp.json.JsonBodyPublishers;
+import com.github.badpop.easyhttp.json.JsonSequenceFormat;
+import com.github.badpop.easyhttp.limit.ConcurrencyLimiter;
+import com.github.badpop.easyhttp.ratelimit.RateLimiter;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
+import com.github.badpop.easyhttp.scatter.ScatterGather;
+import com.github.badpop.easyhttp.scatter.ScatterResult;
+import com.github.badpop.easyhttp.warmup.WarmUp;
+import com.github.badpop.easyhttp.warmup.WarmUpPlan;
+import com.github.badpop.easyhttp.warmup.WarmUpReport;
+import io.vavr.collection.Seq;
 import io.vavr.concurrent.Future;
+import io.vavr.control.Option;
 import io.vavr.control.Try;
+import lombok.AccessLevel;
+import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -16,6 +42,13 @@ import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static io.vavr.API.Try;
 
@@ -30,11 +63,38 @@ import static io.vavr.API.Try;
  * <ul>
  *   <li>{@link #withObjectMapper(ObjectMapper)}</li>
  *   <li>{@link #withClient(HttpClient)}</li>
+ *   <li>{@link #withExecutor(Executor)}</li>
+ *   <li>{@link #withRetryPolicy(RetryPolicy)}</li>
+ *   <li>{@link #withRequestCoalescer(RequestCoalescer)}</li>
+ *   <li>{@link #withHttpCache(HttpCache)}</li>
+ *   <li>{@link #withConcurrencyLimiter(ConcurrencyLimiter)}</li>
+ *   <li>{@link #withCircuitBreaker(CircuitBreaker)}</li>
+ *   <li>{@link #withRateLimiter(RateLimiter)}</li>
+ *   <li>{@link #withEventListener(EasyHttpEventListener)}</li>
+ *   <li>{@link #executorGauges()}</li>
  *   <li>{@link #send(HttpRequest, BodyHandler)}</li>
  *   <li>{@link #sendAsync(HttpRequest, BodyHandler)}</li>
  *   <li>{@link #sendEasy(HttpRequest, BodyHandler)}</li>
  *   <li>{@link #sendAsyncEasy(HttpRequest, BodyHandler)}</li>
+ *   <li>{@link #sendEasy(HttpRequest, BodyHandler, RetryPolicy)}</li>
+ *   <li>{@link #sendAsyncEasy(HttpRequest, BodyHandler, RetryPolicy)}</li>
+ *   <li>{@link #sendHedgedAsync(HttpRequest, BodyHandler, HedgePolicy)}</li>
+ *   <li>{@link #sendAllAsync(Iterable, BodyHandler, int)}</li>
+ *   <li>{@link #streamAll(Iterable, BodyHandler, int)}</li>
+ *   <li>{@link #sendFirstSuccessful(Iterable, BodyHandler)}</li>
+ *   <li>{@link #sendQuorum(Iterable, BodyHandler, int)}</li>
+ *   <li>{@link #sendAllWithin(Iterable, BodyHandler, Duration)}</li>
+ *   <li>{@link #warmUp(WarmUpPlan)}</li>
+ *   <li>{@link #sendEasy(HttpRequest, Class)}</li>
+ *   <li>{@link #sendEasy(HttpRequest, TypeReference)}</li>
+ *   <li>{@link #sendAsyncEasy(HttpRequest, Class)}</li>
+ *   <li>{@link #sendAsyncEasy(HttpRequest, TypeReference)}</li>
  *   <li>{@link #createBodyPublisher(Object)} </li>
+ *   <li>{@link #tryCreateBodyPublisher(Object)} </li>
+ *   <li>{@link #createBodyPublisher(Iterator, JsonSequenceFormat)} </li>
+ *   <li>{@link #createBodyPublisher(Stream, JsonSequenceFormat)} </li>
+ *   <li>{@link #createBodyPublisher(Supplier, JsonSequenceFormat)} </li>
+ *   <li>{@link #createBodyPublisher(Flow.Publisher, JsonSequenceFormat)} </li>
  * </ul>
  */
 @Slf4j
@@ -59,58 +119,297 @@ public class EasyHttpClient extends AbstractEasyHttpClient {
     super(objectMapper, client);
   }
 
+  EasyHttpClient(@NonNull Executor executor) {
+    super(executor);
+  }
+
+  EasyHttpClient(@NonNull ObjectMapper objectMapper, @NonNull HttpClient client, @NonNull Executor executor) {
+    super(objectMapper, client, executor);
+  }
+
+  // the withers copy this client with toBuilder(), so a new option only needs a new parameter here
+  @Builder(toBuilder = true, access = AccessLevel.PRIVATE)
+  private EasyHttpClient(@NonNull ObjectMapper objectMapper,
+                         @NonNull HttpClient client,
+                         @NonNull Executor executor,
+                         @NonNull RetryPolicy retryPolicy,
+                         @NonNull RequestCoalescer requestCoalescer,
+                         @NonNull HttpCache httpCache,
+                         @NonNull ConcurrencyLimiter concurrencyLimiter,
+                         @NonNull CircuitBreaker circuitBreaker,
+                         @NonNull RateLimiter rateLimiter,
+                         @NonNull EasyHttpEventListener eventListener) {
+    super(objectMapper, client, executor, retryPolicy, requestCoalescer, httpCache, concurrencyLimiter, circuitBreaker, rateLimiter, eventListener);
+  }
+
   @Override
   public EasyHttpClient withObjectMapper(@NonNull ObjectMapper objectMapper) {
-    return this.objectMapper == objectMapper ? this : new EasyHttpClient(objectMapper, this.client);
+    return this.objectMapper == objectMapper ? this : toBuilder().objectMapper(objectMapper).build();
   }
 
   @Override
   public EasyHttpClient withClient(@NonNull HttpClient httpClient) {
-    return this.client == httpClient ? this : new EasyHttpClient(this.objectMapper, httpClient);
+    return this.client == httpClient ? this : toBuilder().client(httpClient).build();
+  }
+
+  @Override
+  public EasyHttpClient withExecutor(@NonNull Executor executor) {
+    return this.executor == executor ? this : toBuilder().executor(executor).build();
+  }
+
+  @Override
+  public EasyHttpClient withRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+    return this.retryPolicy == retryPolicy ? this : toBuilder().retryPolicy(retryPolicy).build();
+  }
+
+  @Override
+  public EasyHttpClient withRequestCoalescer(@NonNull RequestCoalescer requestCoalescer) {
+    return this.requestCoalescer == requestCoalescer ? this : toBuilder().requestCoalescer(requestCoalescer).build();
+  }
+
+  @Override
+  public EasyHttpClient withHttpCache(@NonNull HttpCache httpCache) {
+    return this.httpCache == httpCache ? this : toBuilder().httpCache(httpCache).build();
+  }
+
+  @Override
+  public EasyHttpClient withConcurrencyLimiter(@NonNull ConcurrencyLimiter concurrencyLimiter) {
+    return this.concurrencyLimiter == concurrencyLimiter ? this : toBuilder().concurrencyLimiter(concurrencyLimiter).build();
+  }
+
+  @Override
+  public EasyHttpClient withCircuitBreaker(@NonNull CircuitBreaker circuitBreaker) {
+    return this.circuitBreaker == circuitBreaker ? this : toBuilder().circuitBreaker(circuitBreaker).build();
+  }
+
+  @Override
+  public EasyHttpClient withRateLimiter(@NonNull RateLimiter rateLimiter) {
+    return this.rateLimiter == rateLimiter ? this : toBuilder().rateLimiter(rateLimiter).build();
+  }
+
+  @Override
+  public EasyHttpClient withEventListener(@NonNull EasyHttpEventListener eventListener) {
+    return this.eventListener == eventListener ? this : toBuilder().eventListener(eventListener).build();
   }
 
   @Override
   public <T> Try<HttpResponse<T>> send(@NonNull HttpRequest request, @NonNull BodyHandler<T> responseBodyHandler) {
-    return Try(() -> execute(request, responseBodyHandler));
+    return Try.narrow(executeEasy(request, responseBodyHandler));
   }
 
   @Override
   public <T> Future<HttpResponse<T>> sendAsync(@NonNull HttpRequest request, @NonNull BodyHandler<T> responseBodyHandler) {
-    return Future.fromCompletableFuture(executeAsync(request, responseBodyHandler))
-      .mapTry(response -> wrapResponse(request, response, responseBodyHandler, this));
+    return Future.narrow(Futures.fromCompletableFuture(executor, executeAsyncEasy(request, responseBodyHandler)));
   }
 
   @Override
   public <T> Try<EasyHttpResponse<T>> sendEasy(@NonNull HttpRequest request, @NonNull BodyHandler<T> responseBodyHandler) {
-    return Try(() -> execute(request, responseBodyHandler));
+    return executeEasy(request, responseBodyHandler);
   }
 
   @Override
   public <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request, @NonNull BodyHandler<T> responseBodyHandler) {
-    return Future.fromCompletableFuture(executeAsync(request, responseBodyHandler))
-      .map(response -> wrapResponse(request, response, responseBodyHandler, this));
+    return Futures.fromCompletableFuture(executor, executeAsyncEasy(request, responseBodyHandler));
+  }
+
+  @Override
+  public <T> Try<EasyHttpResponse<T>> sendEasy(@NonNull HttpRequest request,
+                                               @NonNull BodyHandler<T> responseBodyHandler,
+                                               @NonNull RetryPolicy retryPolicy) {
+    return executeWithRetry(request, responseBodyHandler, retryPolicy);
+  }
+
+  @Override
+  public <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request,
+                                                       @NonNull BodyHandler<T> responseBodyHandler,
+                                                       @NonNull RetryPolicy retryPolicy) {
+    return Futures.fromCompletableFuture(executor, executeAsyncWithRetry(request, responseBodyHandler, retryPolicy));
+  }
+
+  @Override
+  public <T> Future<EasyHttpResponse<T>> sendHedgedAsync(@NonNull HttpRequest request,
+                                                         @NonNull BodyHandler<T> responseBodyHandler,
+                                                         @NonNull HedgePolicy hedgePolicy) {
+    return Futures.fromCompletableFuture(executor, executeHedgedAsync(request, responseBodyHandler, hedgePolicy));
+  }
+
+  @Override
+  public <T> Future<Seq<Try<EasyHttpResponse<T>>>> sendAllAsync(@NonNull Iterable<HttpRequest> requests,
+                                                                @NonNull BodyHandler<T> responseBodyHandler,
+                                                                int parallelism) {
+    return Futures.fromCompletableFuture(
+      executor,
+      Batches.sendAll(requests.iterator(), request -> executeAsyncEasy(request, responseBodyHandler), parallelism));
+  }
+
+  @Override
+  public <T> Stream<Try<EasyHttpResponse<T>>> streamAll(@NonNull Iterable<HttpRequest> requests,
+                                                        @NonNull BodyHandler<T> responseBodyHandler,
+                                                        int parallelism) {
+    return Batches.streamAll(requests.iterator(), request -> executeAsyncEasy(request, responseBodyHandler), parallelism);
+  }
+
+  @Override
+  public <T> Future<ScatterResult<EasyHttpResponse<T>>> sendFirstSuccessful(@NonNull Iterable<HttpRequest> requests,
+                                                                            @NonNull BodyHandler<T> responseBodyHandler) {
+    return Futures.fromCompletableFuture(executor, ScatterGather.firstSuccessful(requests, request -> executeAsyncEasy(request, responseBodyHandler)));
+  }
+
+  @Override
+  public <T> Future<ScatterResult<EasyHttpResponse<T>>> sendQuorum(@NonNull Iterable<HttpRequest> requests,
+                                                                   @NonNull BodyHandler<T> responseBodyHandler,
+                                                                   int quorum) {
+    return Futures.fromCompletableFuture(executor, ScatterGather.quorum(requests, request -> executeAsyncEasy(request, responseBodyHandler), quorum));
+  }
+
+  @Override
+  public <T> Future<ScatterResult<EasyHttpResponse<T>>> sendAllWithin(@NonNull Iterable<HttpRequest> requests,
+                                                                      @NonNull BodyHandler<T> responseBodyHandler,
+                                                                      @NonNull Duration deadline) {
+    return Futures.fromCompletableFuture(
+      executor,
+      ScatterGather.allWithin(requests, request -> executeAsyncEasy(request, responseBodyHandler), deadline, executor));
+  }
+
+  @Override
+  public Future<WarmUpReport> warmUp(@NonNull WarmUpPlan plan) {
+    return Futures.fromCompletableFuture(
+      executor,
+      WarmUp.run(
+        plan,
+        jsonCodecs,
+        request -> client.sendAsync(request, BodyHandlers.discarding()),
+        request -> executeAsyncEasy(request, BodyHandlers.ofByteArray()),
+        executor));
+  }
+
+  @Override
+  public <T> Try<EasyHttpResponse<T>> sendEasy(@NonNull HttpRequest request, @NonNull Class<T> responseType) {
+    return sendEasy(request, JsonBodyHandlers.<T>ofJson(jsonCodecs.readerFor(responseType)));
+  }
+
+  @Override
+  public <T> Try<EasyHttpResponse<T>> sendEasy(@NonNull HttpRequest request, @NonNull TypeReference<T> responseReference) {
+    return sendEasy(request, JsonBodyHandlers.<T>ofJson(jsonCodecs.readerFor(responseReference)));
+  }
+
+  @Override
+  public <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request, @NonNull Class<T> responseType) {
+    return sendAsyncEasy(request, JsonBodyHandlers.<T>ofJson(jsonCodecs.readerFor(responseType)));
+  }
+
+  @Override
+  public <T> Future<EasyHttpResponse<T>> sendAsyncEasy(@NonNull HttpRequest request, @NonNull TypeReference<T> responseReference) {
+    return sendAsyncEasy(request, JsonBodyHandlers.<T>ofJson(jsonCodecs.readerFor(responseReference)));
   }
 
   /**
    * Use this method to wrap a java object in a {@link BodyPublisher} by serializing the object to json
    * <p>
+   * The object is serialized straight into fixed size chunks streamed to the http client, without any intermediate {@link String}.
+   * The content length of the publisher is the exact size of the serialized json.
+   * <p>
    * Note: if the object passed as an argument is null or not serializable in json, this method returns {@link BodyPublishers#noBody()}.
    * Also, if an error occurs during the serialization you will also get a {@link BodyPublishers#noBody()}.
+   * Use {@link #tryCreateBodyPublisher(Object)} to be notified of these errors.
    *
    * @param body the object you want to serialize to json
-   * @return a {@link BodyPublishers#ofString(String)} if the object is not null, serializable and no error occurred while serializing it.
+   * @return a json {@link BodyPublisher} if the object is not null, serializable and no error occurred while serializing it.
    * Otherwise, it returns a {@link BodyPublishers#noBody()}
    */
   public <U> BodyPublisher createBodyPublisher(U body) {
-    if (body == null || !objectMapper.canSerialize(body.getClass())) {
-      log.warn("Unable to serialize object it may be null or not serializable, returning a noBody Publisher");
-      return BodyPublishers.noBody();
-    } else {
-      return Try(() -> objectMapper.writeValueAsString(body))
-        .map(BodyPublishers::ofString)
-        .toEither()
-        .peekLeft(throwable -> log.warn("Unable to serialize object into json, returning a noBody publisher", throwable))
-        .getOrElse(BodyPublishers::noBody);
+    return tryCreateBodyPublisher(body)
+      .onFailure(throwable -> log.warn("Unable to serialize object into json, returning a noBody publisher", throwable))
+      .getOrElse(BodyPublishers::noBody);
+  }
+
+  /**
+   * Use this method to wrap a java object in a {@link BodyPublisher} by serializing the object to json
+   * <p>
+   * The object is serialized straight into fixed size chunks streamed to the http client, without any intermediate {@link String}.
+   * The content length of the publisher is the exact size of the serialized json.
+   *
+   * @param body the object you want to serialize to json
+   * @return a {@link Try} containing the json {@link BodyPublisher},
+   * or a {@link WriteBodyException} if the object is null, not serializable or if an error occurred while serializing it
+   */
+  public <U> Try<BodyPublisher> tryCreateBodyPublisher(U body) {
+    val writer = body == null ? Option.<ObjectWriter>none() : jsonCodecs.writerFor(body.getClass());
+    if (writer.isEmpty()) {
+      return Try.failure(new WriteBodyException("Unable to serialize object it may be null or not serializable", body));
     }
+    return Try(() -> JsonBodyPublishers.ofJson(writer.get(), body))
+      .recoverWith(throwable -> Try.failure(new WriteBodyException("Unable to serialize object into json", body, throwable)));
+  }
+
+  /**
+   * Use this method to upload the elements of an iterator, e.g. a database cursor, as a json array or as NDJSON
+   * <p>
+   * Elements are lazily serialized when the http client requests the next chunk of the body,
+   * so the memory used by the upload stays constant whatever the number of elements. The content length of the publisher is unknown.
+   * <p>
+   * Note: the iterator can only be consumed once, so a request using this publisher can not be retried.
+   * Use {@link #createBodyPublisher(Supplier, JsonSequenceFormat)} if the request may be retried.
+   *
+   * @param elements the elements you want to serialize to json
+   * @param format   the format of the body, a json array or NDJSON
+   * @return a {@link BodyPublisher} streaming the elements
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public <U> BodyPublisher createBodyPublisher(@NonNull Iterator<U> elements, @NonNull JsonSequenceFormat format) {
+    return JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), format, elements);
+  }
+
+  /**
+   * Use this method to upload the elements of a stream as a json array or as NDJSON
+   * <p>
+   * Elements are lazily serialized when the http client requests the next chunk of the body,
+   * so the memory used by the upload stays constant whatever the number of elements. The content length of the publisher is unknown.
+   * The stream is closed once it is entirely uploaded or when the upload is abandoned.
+   * <p>
+   * Note: the stream can only be consumed once, so a request using this publisher can not be retried.
+   * Use {@link #createBodyPublisher(Supplier, JsonSequenceFormat)} if the request may be retried.
+   *
+   * @param elements the elements you want to serialize to json
+   * @param format   the format of the body, a json array or NDJSON
+   * @return a {@link BodyPublisher} streaming the elements
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public <U> BodyPublisher createBodyPublisher(@NonNull Stream<U> elements, @NonNull JsonSequenceFormat format) {
+    return JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), format, elements);
+  }
+
+  /**
+   * Use this method to upload the elements of a stream as a json array or as NDJSON, with a publisher that can be replayed
+   * <p>
+   * Elements are lazily serialized when the http client requests the next chunk of the body,
+   * so the memory used by the upload stays constant whatever the number of elements. The content length of the publisher is unknown.
+   * A new stream is requested from the supplier each time the body is sent, so requests using this publisher can be retried,
+   * e.g. with {@link EasyHttpResponse#retry()}. Each stream is closed once it is entirely uploaded or when the upload is abandoned.
+   *
+   * @param elements supplies the elements you want to serialize to json, each time the body is sent
+   * @param format   the format of the body, a json array or NDJSON
+   * @return a {@link BodyPublisher} streaming the elements
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public <U> BodyPublisher createBodyPublisher(@NonNull Supplier<? extends Stream<U>> elements, @NonNull JsonSequenceFormat format) {
+    return JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), format, elements);
+  }
+
+  /**
+   * Use this method to upload the elements of a {@link Flow.Publisher} as a json array or as NDJSON
+   * <p>
+   * Elements are requested from the publisher by small batches, when the http client requests the next chunk of the body,
+   * so the memory used by the upload stays constant whatever the number of elements. The content length of the publisher is unknown.
+   * The given publisher is subscribed each time the body is sent, so requests using this publisher can be retried if the given publisher
+   * supports several subscriptions.
+   *
+   * @param elements the elements you want to serialize to json
+   * @param format   the format of the body, a json array or NDJSON
+   * @return a {@link BodyPublisher} streaming the elements
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public <U> BodyPublisher createBodyPublisher(@NonNull Flow.Publisher<U> elements, @NonNull JsonSequenceFormat format) {
+    return JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), format, elements);
   }
 }
@@ -1,18 +1,29 @@
 package com.github.badpop.easyhttp;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.concurrent.VirtualThreads;
 import lombok.NonNull;
+import lombok.val;
 
 import java.net.http.HttpClient;
+import java.util.concurrent.Executor;
 
 /**
  * Interface to be used to create new {@link EasyHttpClient} instances.
+ * <p>
+ * The default {@link HttpClient} is created once and shared by all the clients built without a custom one, so creating
+ * many clients does not create many connection pools. Each client built without a custom {@link ObjectMapper} gets its own
+ * copy of the default one, so configuring the ObjectMapper returned by {@code getObjectMapper()} only changes that client.
  *
  * <ul>
  *   <li>{@link #newClient()}</li>
  *   <li>{@link #newClient(ObjectMapper)}</li>
  *   <li>{@link #newClient(HttpClient)}</li>
  *   <li>{@link #newClient(ObjectMapper, HttpClient)}</li>
+ *   <li>{@link #newClient(Executor)}</li>
+ *   <li>{@link #newClient(ObjectMapper, HttpClient, Executor)}</li>
+ *   <li>{@link #newVirtualThreadClient()}</li>
+ *   <li>{@link #newVirtualThreadClient(ObjectMapper)}</li>
  * </ul>
  */
 public interface EasyHttpClientProvider {
@@ -54,4 +65,57 @@ public interface EasyHttpClientProvider {
   static EasyHttpClient newClient(@NonNull ObjectMapper objectMapper, @NonNull HttpClient httpClient) {
     return new EasyHttpClient(objectMapper, httpClient);
   }
+
+  /**
+   * Builds a new {@link EasyHttpClient} with a default {@link ObjectMapper} and {@link HttpClient} and a custom continuation {@link Executor}
+   *
+   * @param executor the executor that will run the continuations of the futures returned by the EasyHttp client
+   * @throws NullPointerException if the given param is null
+   */
+  static EasyHttpClient newClient(@NonNull Executor executor) {
+    return new EasyHttpClient(executor);
+  }
+
+  /**
+   * Builds a new {@link EasyHttpClient} with a custom {@link ObjectMapper}, {@link HttpClient} and continuation {@link Executor}
+   * <p>
+   * The executor is dedicated to the continuations of the futures returned by the EasyHttp client,
+   * use {@link HttpClient.Builder#executor(Executor)} to configure the executor of the http client itself.
+   *
+   * @param objectMapper the objectMapper that will be used by the EasyHttp client
+   * @param httpClient   the httpClient that will be used by the EasyHttp client
+   * @param executor     the executor that will run the continuations of the futures returned by the EasyHttp client
+   * @throws NullPointerException if a param is null
+   */
+  static EasyHttpClient newClient(@NonNull ObjectMapper objectMapper, @NonNull HttpClient httpClient, @NonNull Executor executor) {
+    return new EasyHttpClient(objectMapper, httpClient, executor);
+  }
+
+  /**
+   * Same as {@link #newVirtualThreadClient(ObjectMapper)} with a default {@link ObjectMapper}
+   */
+  static EasyHttpClient newVirtualThreadClient() {
+    return newVirtualThreadClient(SharedDefaults.objectMapper());
+  }
+
+  /**
+   * Builds a new {@link EasyHttpClient} running on virtual threads, with a custom {@link ObjectMapper}
+   * <p>
+   * Both the underlying {@link HttpClient} and the continuations of the returned futures use a virtual thread per task
+   * executor, so the internals of the http client and the response callbacks run on virtual threads. Blocking sends, such
+   * as {@code send} and {@code sendEasy}, still run on the thread of their caller: the callers must already run on virtual
+   * threads not to tie up platform threads. EasyHttp itself only blocks on {@link java.util.concurrent.locks.ReentrantLock}
+   * and {@link java.util.concurrent.locks.LockSupport}, which release the carrier thread of a virtual thread while it waits.
+   * <p>
+   * The virtual thread {@link HttpClient} is created on first use and shared by all the virtual thread clients, like the
+   * default HttpClient of {@link #newClient()}.
+   *
+   * @param objectMapper the objectMapper that will be used by the EasyHttp client
+   * @throws NullPointerException          if the given param is null
+   * @throws UnsupportedOperationException if the running JVM does not support virtual threads, see {@link VirtualThreads#isSupported()}
+   */
+  static EasyHttpClient newVirtualThreadClient(@NonNull ObjectMapper objectMapper) {
+    val httpClient = SharedDefaults.virtualThreadHttpClient();
+    return new EasyHttpClient(objectMapper, httpClient, httpClient.executor().orElseThrow());
+  }
 }
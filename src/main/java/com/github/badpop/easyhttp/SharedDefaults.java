@@ -0,0 +1,65 @@
+package com.github.badpop.easyhttp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.badpop.easyhttp.concurrent.VirtualThreads;
+import io.vavr.control.Try;
+import io.vavr.jackson.datatype.VavrModule;
+import lombok.experimental.UtilityClass;
+
+import java.net.http.HttpClient;
+
+/**
+ * The defaults of every {@link EasyHttpClient} built without a custom {@link ObjectMapper} or {@link HttpClient}.
+ * <p>
+ * The default HttpClient is created on first use by a lazy holder class and shared, so all the default clients of the JVM
+ * reuse the same selector thread, connection pool and TLS sessions. The default ObjectMapper is not shared, since it is
+ * mutable and exposed by {@code getObjectMapper()}: each client gets a copy of a prototype configured once, so configuring
+ * the ObjectMapper of a client never changes the other clients.
+ *
+ * <ul>
+ *   <li>{@link #objectMapper()}</li>
+ *   <li>{@link #httpClient()}</li>
+ *   <li>{@link #virtualThreadHttpClient()}</li>
+ * </ul>
+ */
+@UtilityClass
+class SharedDefaults {
+
+  /**
+   * @return a new ObjectMapper, with the vavr and java time modules registered
+   */
+  ObjectMapper objectMapper() {
+    return Json.PROTOTYPE.copy();
+  }
+
+  /**
+   * @return the shared HttpClient
+   */
+  HttpClient httpClient() {
+    return Http.CLIENT;
+  }
+
+  /**
+   * @return the shared HttpClient running on a virtual thread per task executor
+   * @throws UnsupportedOperationException if the running JVM does not support virtual threads
+   */
+  HttpClient virtualThreadHttpClient() {
+    return VirtualThreadHttp.CLIENT.get();
+  }
+
+  private static final class Json {
+    // never used directly, only copied
+    private static final ObjectMapper PROTOTYPE = new ObjectMapper().registerModules(new VavrModule(), new JavaTimeModule());
+  }
+
+  private static final class Http {
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+  }
+
+  private static final class VirtualThreadHttp {
+    // a failure is kept rather than thrown, so that the holder class still initializes without virtual threads
+    private static final Try<HttpClient> CLIENT = Try.of(VirtualThreads::newVirtualThreadPerTaskExecutor)
+      .map(executor -> HttpClient.newBuilder().executor(executor).build());
+  }
+}
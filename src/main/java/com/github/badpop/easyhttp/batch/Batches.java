@@ -0,0 +1,80 @@
+package com.github.badpop.easyhttp.batch;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Try;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility methods to send large batches of independent requests with a bounded parallelism.
+ * <p>
+ * Requests are pulled lazily from their iterator, so a batch never has to be held in memory, and at most {@code parallelism}
+ * requests are in flight at any time. The outcome of each request is a {@link Try}, a failed request does not fail the batch.
+ *
+ * <ul>
+ *   <li>{@link #sendAll(Iterator, Function, int)}</li>
+ *   <li>{@link #streamAll(Iterator, Function, int)}</li>
+ * </ul>
+ */
+@UtilityClass
+public class Batches {
+
+  /**
+   * Sends all the requests and collects their outcomes in the order of the requests.
+   * <p>
+   * Cancelling the returned future stops pulling requests and cancels the requests in flight.
+   *
+   * @param requests    the requests to send
+   * @param send        the function sending a request
+   * @param parallelism the maximum number of requests in flight
+   * @return a future completed once all the requests completed, or failed if the iterator failed
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the parallelism is not strictly positive
+   */
+  public <T, R> CompletableFuture<Seq<Try<R>>> sendAll(@NonNull Iterator<T> requests,
+                                                      @NonNull Function<T, CompletableFuture<R>> send,
+                                                      int parallelism) {
+    checkParallelism(parallelism);
+    return new OrderedBatch<>(requests, send, parallelism).start();
+  }
+
+  /**
+   * Sends the requests while the returned stream is consumed, and streams their outcomes in completion order.
+   * <p>
+   * A new request is sent each time an outcome is consumed, so that the requests in flight and the outcomes waiting to be consumed
+   * never exceed the parallelism. Consuming the stream blocks until the next outcome is available.
+   * Closing the stream stops pulling requests and cancels the requests in flight.
+   *
+   * @param requests    the requests to send
+   * @param send        the function sending a request
+   * @param parallelism the maximum number of requests in flight
+   * @return a lazy sequential stream of the outcomes
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the parallelism is not strictly positive
+   */
+  public <T, R> Stream<Try<R>> streamAll(@NonNull Iterator<T> requests, @NonNull Function<T, CompletableFuture<R>> send, int parallelism) {
+    checkParallelism(parallelism);
+    val batch = new CompletionOrderBatch<>(requests, send, parallelism);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batch, Spliterator.NONNULL), false).onClose(batch::close);
+  }
+
+  Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+  }
+
+  private void checkParallelism(int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("The parallelism must be strictly positive");
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.badpop.easyhttp.batch;
+
+import io.vavr.control.Try;
+import lombok.val;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Sends the requests of a batch with a bounded parallelism and iterates over their outcomes in completion order.
+ * <p>
+ * Requests are pulled and sent by the consuming thread only, when it asks for the next outcome. The requests in flight and the outcomes
+ * not consumed yet never exceed the parallelism, so a slow consumer slows down the batch instead of buffering its outcomes.
+ */
+final class CompletionOrderBatch<T, R> implements Iterator<Try<R>>, AutoCloseable {
+
+  private final Iterator<T> requests;
+  private final Function<T, CompletableFuture<R>> send;
+  private final int parallelism;
+  private final BlockingQueue<Try<R>> outcomes = new LinkedBlockingQueue<>();
+  private final Set<CompletableFuture<R>> inFlight = ConcurrentHashMap.newKeySet();
+  private int outstanding;
+  private volatile boolean closed;
+
+  CompletionOrderBatch(Iterator<T> requests, Function<T, CompletableFuture<R>> send, int parallelism) {
+    this.requests = requests;
+    this.send = send;
+    this.parallelism = parallelism;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!closed && outstanding < parallelism && requests.hasNext()) {
+      dispatch(requests.next());
+    }
+    return outstanding > 0;
+  }
+
+  @Override
+  public Try<R> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      val outcome = outcomes.take();
+      outstanding--;
+      return outcome;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      return Try.failure(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    inFlight.forEach(exchange -> exchange.cancel(true));
+  }
+
+  private void dispatch(T request) {
+    outstanding++;
+    final CompletableFuture<R> exchange;
+    try {
+      exchange = send.apply(request);
+    } catch (RuntimeException e) {
+      outcomes.add(Try.failure(e));
+      return;
+    }
+    inFlight.add(exchange);
+    exchange.whenComplete((response, throwable) -> {
+      inFlight.remove(exchange);
+      outcomes.add(throwable == null ? Try.success(response) : Try.failure(Batches.unwrap(throwable)));
+    });
+    if (closed) {
+      exchange.cancel(true);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.github.badpop.easyhttp.batch;
+
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import io.vavr.control.Try;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Sends the requests of a batch with a bounded parallelism and collects their outcomes in the order of the requests.
+ * <p>
+ * Requests are pulled from their iterator only when a slot is free. Dispatching is serialized by a work-in-progress counter instead of
+ * recursion, so that requests completing synchronously, e.g. from a cache, do not grow the stack.
+ */
+final class OrderedBatch<T, R> {
+
+  private final Iterator<T> requests;
+  private final Function<T, CompletableFuture<R>> send;
+  private final CompletableFuture<Seq<Try<R>>> result = new CompletableFuture<>();
+  private final Set<CompletableFuture<R>> inFlight = ConcurrentHashMap.newKeySet();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ArrayList<Try<R>> outcomes = new ArrayList<>();
+  private final AtomicInteger credits;
+  private final AtomicInteger completed = new AtomicInteger();
+  private final AtomicInteger wip = new AtomicInteger();
+  private int dispatched;
+  private boolean exhausted;
+
+  OrderedBatch(Iterator<T> requests, Function<T, CompletableFuture<R>> send, int parallelism) {
+    this.requests = requests;
+    this.send = send;
+    this.credits = new AtomicInteger(parallelism);
+    result.whenComplete((outcomes, throwable) -> {
+      if (result.isCancelled()) {
+        inFlight.forEach(exchange -> exchange.cancel(true));
+      }
+    });
+  }
+
+  CompletableFuture<Seq<Try<R>>> start() {
+    drain();
+    return result;
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      while (!exhausted && !result.isDone() && credits.get() > 0) {
+        final T request;
+        try {
+          if (!requests.hasNext()) {
+            exhausted = true;
+            break;
+          }
+          request = requests.next();
+        } catch (RuntimeException e) {
+          result.completeExceptionally(e);
+          break;
+        }
+        credits.decrementAndGet();
+        dispatch(dispatched++, request);
+      }
+      if (exhausted && completed.get() == dispatched && !result.isDone()) {
+        lock.lock();
+        try {
+          result.complete(Vector.ofAll(outcomes));
+        } finally {
+          lock.unlock();
+        }
+      }
+    } while (wip.decrementAndGet() != 0);
+  }
+
+  private void dispatch(int index, T request) {
+    lock.lock();
+    try {
+      outcomes.add(null);
+    } finally {
+      lock.unlock();
+    }
+
+    final CompletableFuture<R> exchange;
+    try {
+      exchange = send.apply(request);
+    } catch (RuntimeException e) {
+      complete(index, null, e);
+      return;
+    }
+    inFlight.add(exchange);
+    exchange.whenComplete((response, throwable) -> {
+      inFlight.remove(exchange);
+      complete(index, response, throwable);
+    });
+    if (result.isCancelled()) {
+      exchange.cancel(true);
+    }
+  }
+
+  private void complete(int index, R response, Throwable throwable) {
+    val outcome = throwable == null ? Try.success(response) : Try.<R>failure(Batches.unwrap(throwable));
+    lock.lock();
+    try {
+      outcomes.set(index, outcome);
+    } finally {
+      lock.unlock();
+    }
+    completed.incrementAndGet();
+    credits.incrementAndGet();
+    drain();
+  }
+}
@@ -0,0 +1,77 @@
+package com.github.badpop.easyhttp.cache;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import lombok.Value;
+import lombok.val;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * The directives of the {@code Cache-Control} headers of a request or a response, as defined by RFC 7234 and RFC 5861.
+ * <p>
+ * Only the directives relevant to a private client cache are kept. Unknown directives are ignored.
+ */
+@Value
+class CacheControl {
+
+  boolean noStore;
+  boolean noCache;
+  boolean mustRevalidate;
+  Option<Duration> maxAge;
+  Option<Duration> staleWhileRevalidate;
+
+  static CacheControl of(HttpHeaders headers) {
+    val directives = List.ofAll(headers.allValues("Cache-Control"))
+      .flatMap(value -> List.of(value.split(",")))
+      .map(String::trim)
+      .filter(directive -> !directive.isEmpty())
+      .toMap(CacheControl::name, CacheControl::argument);
+    return new CacheControl(
+      directives.containsKey("no-store"),
+      directives.containsKey("no-cache"),
+      directives.containsKey("must-revalidate") || directives.containsKey("proxy-revalidate"),
+      seconds(directives, "max-age"),
+      seconds(directives, "stale-while-revalidate"));
+  }
+
+  static Option<Instant> parseDate(HttpHeaders headers, String name) {
+    return Option.ofOptional(headers.firstValue(name))
+      .flatMap(value -> Try.of(() -> ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()).toOption());
+  }
+
+  static Option<Duration> parseSeconds(String value) {
+    return Try.of(() -> Long.parseLong(value.trim()))
+      .filter(seconds -> seconds >= 0)
+      .map(Duration::ofSeconds)
+      .toOption();
+  }
+
+  private static String name(String directive) {
+    val separator = directive.indexOf('=');
+    return (separator < 0 ? directive : directive.substring(0, separator)).trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static Option<String> argument(String directive) {
+    val separator = directive.indexOf('=');
+    if (separator < 0) {
+      return Option.none();
+    }
+    val argument = directive.substring(separator + 1).trim();
+    return Option.of(argument.length() > 1 && argument.startsWith("\"") && argument.endsWith("\"")
+      ? argument.substring(1, argument.length() - 1)
+      : argument);
+  }
+
+  private static Option<Duration> seconds(Map<String, Option<String>> directives, String name) {
+    // an invalid delta-seconds makes the response stale instead of being ignored, RFC 7234 section 4.2.1
+    return directives.get(name).map(argument -> argument.flatMap(CacheControl::parseSeconds).getOrElse(Duration.ZERO));
+  }
+}
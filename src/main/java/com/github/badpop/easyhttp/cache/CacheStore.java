@@ -0,0 +1,68 @@
+package com.github.badpop.easyhttp.cache;
+
+import io.vavr.control.Option;
+import lombok.NonNull;
+
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+
+/**
+ * Stores the responses of an {@link HttpCache}.
+ * <p>
+ * A store only keeps entries, the {@link HttpCache} decides what is stored and when an entry can be used.
+ * Implementations must be thread safe, and may evict any entry at any time, e.g. to bound their size.
+ *
+ * <ul>
+ *   <li>{@link #get(String)}</li>
+ *   <li>{@link #put(String, CachedResponse)}</li>
+ *   <li>{@link #remove(String)}</li>
+ *   <li>{@link #clear()}</li>
+ *   <li>{@link #maxBodySize()}</li>
+ *   <li>{@link #bodySubscriber()}</li>
+ * </ul>
+ */
+public interface CacheStore {
+
+  /**
+   * @param key the key of the entry
+   * @return the entry stored with the given key, if any
+   */
+  Option<CachedResponse> get(@NonNull String key);
+
+  /**
+   * Stores an entry, replacing the entry previously stored with the same key
+   *
+   * @param key   the key of the entry
+   * @param entry the entry to store
+   */
+  void put(@NonNull String key, @NonNull CachedResponse entry);
+
+  /**
+   * Removes the entry stored with the given key, if any
+   *
+   * @param key the key of the entry
+   */
+  void remove(@NonNull String key);
+
+  /**
+   * Removes all the entries
+   */
+  void clear();
+
+  /**
+   * @return the size in bytes of the biggest body this store can keep, {@link Integer#MAX_VALUE} by default since a body is held by
+   * a single {@link java.nio.ByteBuffer}. The {@link HttpCache} streams the responses announcing a bigger {@code Content-Length}
+   * to their caller instead of buffering them
+   */
+  default long maxBodySize() {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * @return a new subscriber buffering the body of a response the {@link HttpCache} is about to store, in a heap array by default
+   */
+  default BodySubscriber<ByteBuffer> bodySubscriber() {
+    return BodySubscribers.mapping(BodySubscribers.ofByteArray(), ByteBuffer::wrap);
+  }
+}
@@ -0,0 +1,216 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+import lombok.val;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A response stored by a {@link CacheStore}, with everything needed to compute its age and freshness as defined by RFC 7234.
+ *
+ * <ul>
+ *   <li>{@link #of(HttpRequest, BufferedResponse, Instant, Instant)}</li>
+ *   <li>{@link #matches(HttpRequest)}</li>
+ *   <li>{@link #age(Instant)}</li>
+ *   <li>{@link #isFresh(Instant)}</li>
+ *   <li>{@link #weight()}</li>
+ * </ul>
+ */
+@Value
+public class CachedResponse {
+
+  private static final Set<String> NOT_UPDATED_HEADERS = Set.of("content-length", "content-encoding", "transfer-encoding");
+
+  BufferedResponse response;
+  Map<String, List<String>> selectingHeaders;
+  Instant responseTime;
+  Duration initialAge;
+  @Getter(AccessLevel.PACKAGE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  CacheControl cacheControl;
+  Duration freshnessLifetime;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  long weight;
+
+  /**
+   * Builds a new entry
+   *
+   * @param response         the stored response
+   * @param selectingHeaders the values of the request headers a new request must match to be answered with this entry, by lower case name
+   * @param responseTime     the instant the response was received
+   * @param initialAge       the age of the response when it was received
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public CachedResponse(@NonNull BufferedResponse response,
+                        @NonNull Map<String, List<String>> selectingHeaders,
+                        @NonNull Instant responseTime,
+                        @NonNull Duration initialAge) {
+    this.response = response;
+    this.selectingHeaders = selectingHeaders;
+    this.responseTime = responseTime;
+    this.initialAge = initialAge;
+    this.cacheControl = CacheControl.of(response.getHeaders());
+    this.freshnessLifetime = freshnessLifetime(response.getHeaders(), cacheControl, responseTime);
+    this.weight = response.bodyLength()
+      + response.getUri().toString().length()
+      + headersWeight(response.getHeaders().map())
+      + headersWeight(selectingHeaders);
+  }
+
+  /**
+   * Builds a new entry from a response received from the network
+   *
+   * @param request      the request the response answers to
+   * @param response     the received response
+   * @param requestTime  the instant the request was sent
+   * @param responseTime the instant the response was received
+   * @return a new entry
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public static CachedResponse of(@NonNull HttpRequest request,
+                                  @NonNull BufferedResponse response,
+                                  @NonNull Instant requestTime,
+                                  @NonNull Instant responseTime) {
+    return new CachedResponse(response, selectingHeaders(request, response.getHeaders()), responseTime,
+      initialAge(response.getHeaders(), requestTime, responseTime));
+  }
+
+  /**
+   * @param request a new request
+   * @return true if the request has the same values as the stored request for the headers listed by {@code Vary} and for {@code Authorization}
+   */
+  public boolean matches(@NonNull HttpRequest request) {
+    return selectingHeaders.entrySet().stream()
+      .allMatch(header -> request.headers().allValues(header.getKey()).equals(header.getValue()));
+  }
+
+  /**
+   * @param now the current instant
+   * @return the current age of the response, RFC 7234 section 4.2.3
+   */
+  public Duration age(@NonNull Instant now) {
+    val residentTime = Duration.between(responseTime, now);
+    return residentTime.isNegative() ? initialAge : initialAge.plus(residentTime);
+  }
+
+  /**
+   * @param now the current instant
+   * @return true if the response can be used without being revalidated, RFC 7234 section 4.2
+   */
+  public boolean isFresh(@NonNull Instant now) {
+    return !cacheControl.isNoCache() && age(now).compareTo(freshnessLifetime) < 0;
+  }
+
+  /**
+   * @return the approximate number of bytes held by this entry, used to bound the size of a {@link CacheStore}
+   */
+  public long weight() {
+    return weight;
+  }
+
+  boolean canServeStale(Instant now) {
+    return !cacheControl.isMustRevalidate()
+      && !cacheControl.isNoCache()
+      && cacheControl.getStaleWhileRevalidate()
+      .map(window -> age(now).compareTo(freshnessLifetime.plus(window)) < 0)
+      .getOrElse(false);
+  }
+
+  Option<String> entityTag() {
+    return Option.ofOptional(response.getHeaders().firstValue("ETag"));
+  }
+
+  Option<String> lastModified() {
+    return Option.ofOptional(response.getHeaders().firstValue("Last-Modified"));
+  }
+
+  boolean hasValidator() {
+    return entityTag().isDefined() || lastModified().isDefined();
+  }
+
+  /**
+   * Builds the entry resulting from a successful revalidation: the stored headers are updated with the headers of the 304 response,
+   * RFC 7234 section 4.3.4
+   */
+  CachedResponse revalidated(HttpHeaders notModified, Instant requestTime, Instant responseTime) {
+    val headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+    headers.putAll(response.getHeaders().map());
+    notModified.map().forEach((name, values) -> {
+      if (!NOT_UPDATED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+        headers.put(name, values);
+      }
+    });
+    val updated = response.withHeaders(HttpHeaders.of(headers, (name, value) -> true));
+    return new CachedResponse(updated, selectingHeaders, responseTime, initialAge(notModified, requestTime, responseTime));
+  }
+
+  /**
+   * @return the stored response with an {@code Age} header, as served to the callers
+   */
+  BufferedResponse served(Instant now) {
+    val headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+    headers.putAll(response.getHeaders().map());
+    headers.put("Age", List.of(Long.toString(age(now).getSeconds())));
+    return response.withHeaders(HttpHeaders.of(headers, (name, value) -> true));
+  }
+
+  static Map<String, List<String>> selectingHeaders(HttpRequest request, HttpHeaders responseHeaders) {
+    return Vector.ofAll(responseHeaders.allValues("Vary"))
+      .flatMap(value -> Vector.of(value.split(",")))
+      .map(name -> name.trim().toLowerCase(Locale.ROOT))
+      .filter(name -> !name.isEmpty())
+      .append("authorization")
+      .distinct()
+      .toSortedMap(name -> name, name -> request.headers().allValues(name))
+      .toJavaMap();
+  }
+
+  private static Duration initialAge(HttpHeaders headers, Instant requestTime, Instant responseTime) {
+    val apparentAge = CacheControl.parseDate(headers, "Date")
+      .map(date -> Duration.between(date, responseTime))
+      .filter(age -> !age.isNegative())
+      .getOrElse(Duration.ZERO);
+    val responseDelay = Duration.between(requestTime, responseTime);
+    val correctedAge = Option.ofOptional(headers.firstValue("Age"))
+      .flatMap(CacheControl::parseSeconds)
+      .getOrElse(Duration.ZERO)
+      .plus(responseDelay.isNegative() ? Duration.ZERO : responseDelay);
+    return apparentAge.compareTo(correctedAge) > 0 ? apparentAge : correctedAge;
+  }
+
+  private static Duration freshnessLifetime(HttpHeaders headers, CacheControl cacheControl, Instant responseTime) {
+    if (cacheControl.getMaxAge().isDefined()) {
+      return cacheControl.getMaxAge().get();
+    }
+    return CacheControl.parseDate(headers, "Expires")
+      .map(expires -> Duration.between(CacheControl.parseDate(headers, "Date").getOrElse(responseTime), expires))
+      .filter(lifetime -> !lifetime.isNegative())
+      // an invalid Expires header, e.g. "0", means already expired, RFC 7234 section 5.3
+      .getOrElse(Duration.ZERO);
+  }
+
+  private static long headersWeight(Map<String, List<String>> headers) {
+    return headers.entrySet().stream()
+      .mapToLong(header -> header.getKey().length() + header.getValue().stream().mapToLong(String::length).sum())
+      .sum();
+  }
+}
@@ -0,0 +1,481 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A {@link CacheStore} keeping its entries in files, bounded by the total size of the files.
+ * <p>
+ * Each entry is stored in its own file, named after the hash of its key, holding the status, headers and body of the response.
+ * Entries are read by mapping their file in memory, so the body of a stored response is a slice of the mapped file and is never copied
+ * in the heap, which allows storing responses far bigger than the heap. The body of a response about to be stored is not buffered in
+ * the heap either: it is spooled to a temporary file of the directory as it is received, then mapped. Since a body is mapped as a single
+ * buffer, bodies bigger than 2 GB, i.e. {@link Integer#MAX_VALUE} bytes, are never stored. The files outlive the JVM: a store opened
+ * on the directory of a previous one serves its entries, e.g. for fast warm starts.
+ * <p>
+ * Several stores, in the same JVM or in different JVMs on the same host, can share a directory.
+ * Files are written aside and atomically renamed, so that a reader never sees a partially written entry, and writers are serialized
+ * by a lock on a {@code .lock} file of the directory. Since a JVM can hold a file lock only once, the stores of a JVM sharing a
+ * directory first take a lock shared by all of them, keyed by the real path of the directory.
+ * When the total size of the files exceeds the maximum size, the least recently used files are deleted. Since each entry has its
+ * own file, deleting an entry frees its space at once and the directory never needs to be compacted.
+ * <p>
+ * The {@link javax.net.ssl.SSLSession} of the responses is not stored.
+ *
+ * <ul>
+ *   <li>{@link #open(Path, long)}</li>
+ *   <li>{@link #size()}</li>
+ *   <li>{@link #evictions()}</li>
+ *   <li>{@link #close()}</li>
+ * </ul>
+ */
+@Slf4j
+@ToString(onlyExplicitlyIncluded = true)
+public final class DiskCacheStore implements CacheStore, Closeable {
+
+  private static final int MAGIC = 0xEA5CAC4E;
+  private static final int FORMAT = 1;
+  private static final String ENTRY_SUFFIX = ".entry";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  private static final String SPOOL_PREFIX = "spool-";
+  private static final String LOCK_FILE = ".lock";
+  private static final Duration ORPHAN_DELAY = Duration.ofHours(1);
+  private static final ConcurrentHashMap<Path, ReentrantLock> DIRECTORY_LOCKS = new ConcurrentHashMap<>();
+
+  @Getter
+  @ToString.Include
+  private final Path directory;
+  @Getter
+  @ToString.Include
+  private final long maxSize;
+  private final FileChannel lockChannel;
+  private final ReentrantLock lock;
+  private final AtomicLong size;
+  private final LongAdder evictions = new LongAdder();
+
+  private DiskCacheStore(Path directory, long maxSize, FileChannel lockChannel, ReentrantLock lock, long size) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.lockChannel = lockChannel;
+    this.lock = lock;
+    this.size = new AtomicLong(size);
+  }
+
+  /**
+   * Opens a store on the given directory, serving the entries already stored in it
+   *
+   * @param directory the directory holding the files, created if it does not exist
+   * @param maxSize   the maximum total size of the files in bytes
+   * @return a new store
+   * @throws IllegalArgumentException if the maximum size is not strictly positive
+   * @throws UncheckedIOException     if the directory can not be created or read
+   * @throws NullPointerException     if the directory is null
+   */
+  public static DiskCacheStore open(@NonNull Path directory, long maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("The maximum size must be strictly positive");
+    }
+    try {
+      Files.createDirectories(directory);
+      // a file lock held by another store of this JVM would throw an OverlappingFileLockException instead of waiting
+      val lock = DIRECTORY_LOCKS.computeIfAbsent(directory.toRealPath(), ignored -> new ReentrantLock());
+      val lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      val store = new DiskCacheStore(directory, maxSize, lockChannel, lock, 0);
+      store.locked(() -> {
+        store.deleteOrphanedFiles();
+        store.evict();
+      });
+      return store;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public Option<CachedResponse> get(@NonNull String key) {
+    val path = pathOf(key);
+    if (!Files.exists(path)) {
+      return Option.none();
+    }
+    return Try.of(() -> read(path, key))
+      .onSuccess(entry -> entry.forEach(ignored -> touch(path)))
+      .onFailure(throwable -> {
+        log.debug("Unable to read the cache entry {}, deleting it", path, throwable);
+        remove(key);
+      })
+      .getOrElse(Option.none());
+  }
+
+  @Override
+  public void put(@NonNull String key, @NonNull CachedResponse entry) {
+    val path = pathOf(key);
+    Try.run(() -> {
+      val header = header(key, entry);
+      val body = entry.getResponse().body();
+      val fileSize = (long) header.length + body.remaining();
+      if (fileSize > maxSize) {
+        remove(key);
+        return;
+      }
+      val temporary = Files.createTempFile(directory, path.getFileName().toString(), TEMPORARY_SUFFIX);
+      try (val channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        val buffers = new ByteBuffer[]{ByteBuffer.wrap(header), body};
+        while (buffers[0].hasRemaining() || body.hasRemaining()) {
+          channel.write(buffers);
+        }
+      }
+      locked(() -> {
+        val previous = Files.exists(path) ? Files.size(path) : 0;
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (size.addAndGet(fileSize - previous) > maxSize) {
+          evict();
+        }
+      });
+    }).onFailure(throwable -> log.debug("Unable to write the cache entry {}", path, throwable));
+  }
+
+  @Override
+  public void remove(@NonNull String key) {
+    val path = pathOf(key);
+    Try.run(() -> locked(() -> delete(path)))
+      .onFailure(throwable -> log.debug("Unable to delete the cache entry {}", path, throwable));
+  }
+
+  @Override
+  public void clear() {
+    Try.run(() -> locked(() -> {
+        deleteFiles(ENTRY_SUFFIX);
+        size.set(0);
+      }))
+      .onFailure(throwable -> log.debug("Unable to clear the cache directory {}", directory, throwable));
+  }
+
+  @Override
+  public long maxBodySize() {
+    return Math.min(maxSize, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @return a new subscriber spooling the body of a response to a temporary file of the directory, completed with the mapped file
+   */
+  @Override
+  public BodySubscriber<ByteBuffer> bodySubscriber() {
+    return new SpoolingSubscriber(directory);
+  }
+
+  /**
+   * @return the total size of the files, as last known by this store
+   */
+  public long size() {
+    return size.get();
+  }
+
+  /**
+   * @return the number of entries evicted by this store to respect the maximum size
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Releases the lock file of the store, the stored files are kept
+   */
+  @Override
+  public void close() throws IOException {
+    lockChannel.close();
+  }
+
+  private Option<CachedResponse> read(Path path, String key) throws IOException {
+    final ByteBuffer file;
+    try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (file.getInt() != MAGIC || file.getInt() != FORMAT) {
+      throw new IOException("Not a cache entry");
+    }
+    if (!key.equals(readString(file))) {
+      return Option.none();
+    }
+    val statusCode = file.getInt();
+    val version = Version.valueOf(readString(file));
+    val uri = URI.create(readString(file));
+    val responseTime = Instant.ofEpochSecond(file.getLong(), file.getInt());
+    val initialAge = Duration.ofNanos(file.getLong());
+    val headers = HttpHeaders.of(readHeaders(file), (name, value) -> true);
+    val selectingHeaders = readHeaders(file);
+    val bodyLength = file.getLong();
+    if (bodyLength != file.remaining()) {
+      throw new IOException("Truncated cache entry");
+    }
+    val response = new BufferedResponse(statusCode, headers, version, uri, null, file.slice());
+    return Option.of(new CachedResponse(response, selectingHeaders, responseTime, initialAge));
+  }
+
+  private static byte[] header(String key, CachedResponse entry) throws IOException {
+    val response = entry.getResponse();
+    val bytes = new ByteArrayOutputStream(512);
+    val output = new DataOutputStream(bytes);
+    output.writeInt(MAGIC);
+    output.writeInt(FORMAT);
+    writeString(output, key);
+    output.writeInt(response.getStatusCode());
+    writeString(output, response.getVersion().name());
+    writeString(output, response.getUri().toString());
+    output.writeLong(entry.getResponseTime().getEpochSecond());
+    output.writeInt(entry.getResponseTime().getNano());
+    output.writeLong(entry.getInitialAge().toNanos());
+    writeHeaders(output, response.getHeaders().map());
+    writeHeaders(output, entry.getSelectingHeaders());
+    output.writeLong(response.bodyLength());
+    output.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void writeHeaders(DataOutputStream output, Map<String, List<String>> headers) throws IOException {
+    output.writeInt(headers.size());
+    for (val header : headers.entrySet()) {
+      writeString(output, header.getKey());
+      output.writeInt(header.getValue().size());
+      for (val value : header.getValue()) {
+        writeString(output, value);
+      }
+    }
+  }
+
+  private static Map<String, List<String>> readHeaders(ByteBuffer input) {
+    val headers = new TreeMap<String, List<String>>();
+    val count = input.getInt();
+    for (int i = 0; i < count; i++) {
+      val name = readString(input);
+      headers.put(name, Vector.fill(input.getInt(), () -> readString(input)).toJavaList());
+    }
+    return headers;
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    val bytes = value.getBytes(UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(ByteBuffer input) {
+    val bytes = new byte[input.getInt()];
+    input.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private void evict() throws IOException {
+    val files = storedFiles(ENTRY_SUFFIX).sortBy(StoredFile::lastModified);
+    var total = files.map(StoredFile::size).sum().longValue();
+    for (val file : files) {
+      if (total <= maxSize) {
+        break;
+      }
+      if (Try.of(() -> Files.deleteIfExists(file.path())).getOrElse(false)) {
+        total -= file.size();
+        evictions.increment();
+      }
+    }
+    size.set(total);
+  }
+
+  private void deleteOrphanedFiles() throws IOException {
+    // temporary files are renamed once written, an old one was left by a writer that crashed
+    val expiry = FileTime.from(Instant.now().minus(ORPHAN_DELAY));
+    for (val file : storedFiles(TEMPORARY_SUFFIX).filter(file -> file.lastModified().compareTo(expiry) < 0)) {
+      Files.deleteIfExists(file.path());
+    }
+  }
+
+  private void delete(Path path) throws IOException {
+    if (Files.exists(path)) {
+      val fileSize = Files.size(path);
+      if (Files.deleteIfExists(path)) {
+        size.addAndGet(-fileSize);
+      }
+    }
+  }
+
+  private void deleteFiles(String suffix) throws IOException {
+    for (val file : storedFiles(suffix)) {
+      Files.deleteIfExists(file.path());
+    }
+  }
+
+  private Vector<StoredFile> storedFiles(String suffix) throws IOException {
+    try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, "*" + suffix)) {
+      return Vector.ofAll(paths)
+        .flatMap(path -> Try.of(() -> Files.readAttributes(path, BasicFileAttributes.class))
+          .map(attributes -> new StoredFile(path, attributes.lastModifiedTime(), attributes.size())));
+    }
+  }
+
+  private static void touch(Path path) {
+    // the modification time orders the files from the least to the most recently used for every store sharing the directory
+    Try.run(() -> Files.setLastModifiedTime(path, FileTime.from(Instant.now())));
+  }
+
+  private void locked(IORunnable action) throws IOException {
+    lock.lock();
+    try {
+      val fileLock = lockChannel.lock();
+      try {
+        action.run();
+      } finally {
+        fileLock.release();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Path pathOf(String key) {
+    try {
+      val hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(UTF_8));
+      return directory.resolve(HexFormat.of().formatHex(hash) + ENTRY_SUFFIX);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  private record StoredFile(Path path, FileTime lastModified, long size) {
+  }
+
+  /**
+   * Writes the body of a response to a temporary file as it is received, then maps the file and deletes it. The mapping stays valid
+   * once the file is deleted, and where an open file can not be deleted, the file is left to {@link #deleteOrphanedFiles()}.
+   */
+  private static final class SpoolingSubscriber implements BodySubscriber<ByteBuffer> {
+
+    private final Path directory;
+    private final CompletableFuture<ByteBuffer> body = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private Path spool;
+    private FileChannel channel;
+
+    private SpoolingSubscriber(Path directory) {
+      this.directory = directory;
+    }
+
+    @Override
+    public CompletionStage<ByteBuffer> getBody() {
+      return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      try {
+        spool = Files.createTempFile(directory, SPOOL_PREFIX, TEMPORARY_SUFFIX);
+        channel = FileChannel.open(spool, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        subscription.request(1);
+      } catch (IOException | RuntimeException e) {
+        subscription.cancel();
+        fail(e);
+      }
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+      if (body.isDone()) {
+        return;
+      }
+      try {
+        val buffers = item.toArray(new ByteBuffer[0]);
+        var remaining = Vector.of(buffers).map(ByteBuffer::remaining).sum().longValue();
+        while (remaining > 0) {
+          remaining -= channel.write(buffers);
+        }
+        if (channel.size() > Integer.MAX_VALUE) {
+          throw new IOException("The body is too big to be stored, it exceeds " + Integer.MAX_VALUE + " bytes");
+        }
+        subscription.request(1);
+      } catch (IOException | RuntimeException e) {
+        subscription.cancel();
+        fail(e);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      if (body.isDone()) {
+        return;
+      }
+      try {
+        val mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        release();
+        body.complete(mapped);
+      } catch (IOException | RuntimeException e) {
+        fail(e);
+      }
+    }
+
+    private void fail(Throwable throwable) {
+      release();
+      body.completeExceptionally(throwable);
+    }
+
+    private void release() {
+      if (channel != null) {
+        Try.run(channel::close);
+      }
+      if (spool != null) {
+        Try.run(() -> Files.deleteIfExists(spool))
+          .onFailure(throwable -> log.debug("Unable to delete the spool file {}", spool, throwable));
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface IORunnable {
+    void run() throws IOException;
+  }
+}
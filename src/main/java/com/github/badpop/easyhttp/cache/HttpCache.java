@@ -0,0 +1,299 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import io.vavr.collection.Set;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A private http cache following RFC 7234, storing its responses in a {@link CacheStore}.
+ * <p>
+ * Only {@code GET} requests without body are answered from the cache. A fresh response, according to its {@code Cache-Control: max-age}
+ * or {@code Expires} header, is served without any network exchange. A stale response having an {@code ETag} or a {@code Last-Modified}
+ * header is revalidated with a conditional request, and a {@code 304 Not Modified} answer is turned into the stored response.
+ * A stale response with a {@code stale-while-revalidate} directive, RFC 5861, is served at once while a single background request
+ * per entry refreshes it.
+ * <p>
+ * Requests with an unsafe method, e.g. {@code POST} or {@code DELETE}, invalidate the entry of their URI.
+ * A response is only stored if it has an explicit freshness or a validator, heuristic freshness is never used.
+ * Stored responses are selected by the request headers listed in their {@code Vary} header and by the {@code Authorization} header,
+ * so that the responses of a user are never served to another one. A single variant is stored by URI.
+ * <p>
+ * Whether a response may be stored is decided as soon as its headers are received. Only such a response is buffered by the store,
+ * see {@link CacheStore#bodySubscriber()}, then replayed into the body handler of the caller. Any other response, e.g. a
+ * {@code no-store} or a 5xx response, or a response whose {@code Content-Length} exceeds the {@link CacheStore#maxBodySize()}
+ * of the store, is streamed to the body handler of the caller.
+ *
+ * <ul>
+ *   <li>{@link #disabled()}</li>
+ *   <li>{@link #inMemory(long)}</li>
+ *   <li>{@link #of(CacheStore)}</li>
+ *   <li>{@link #canCache(HttpRequest)}</li>
+ *   <li>{@link #send(HttpRequest, BodyHandler, Exchange)}</li>
+ *   <li>{@link #invalidate(HttpRequest)}</li>
+ *   <li>{@link #hits()}</li>
+ *   <li>{@link #staleHits()}</li>
+ *   <li>{@link #misses()}</li>
+ *   <li>{@link #revalidations()}</li>
+ *   <li>{@link #notModified()}</li>
+ * </ul>
+ */
+@Slf4j
+@ToString(onlyExplicitlyIncluded = true)
+public final class HttpCache {
+
+  private static final HttpCache DISABLED = new HttpCache(null, Clock.systemUTC());
+  private static final Set<String> SAFE_METHODS = HashSet.of("GET", "HEAD", "OPTIONS", "TRACE");
+  private static final Set<Integer> CACHEABLE_STATUSES = HashSet.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+  private static final List<String> CONDITIONAL_HEADERS = List.of("If-None-Match", "If-Modified-Since", "If-Match", "If-Unmodified-Since", "If-Range", "Range");
+
+  @ToString.Include
+  private final CacheStore store;
+  private final Clock clock;
+  private final java.util.Set<String> refreshing = ConcurrentHashMap.newKeySet();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder staleHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+  private final LongAdder notModified = new LongAdder();
+
+  private HttpCache(CacheStore store, Clock clock) {
+    this.store = store;
+    this.clock = clock;
+  }
+
+  /**
+   * @return a cache never storing any response, it is the cache of a client unless configured otherwise
+   */
+  public static HttpCache disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @param maxWeight the maximum total size of the stored responses in bytes, see {@link MemoryCacheStore}
+   * @return a new cache storing its responses in the heap and evicting the least recently used ones
+   * @throws IllegalArgumentException if the maximum weight is not strictly positive
+   */
+  public static HttpCache inMemory(long maxWeight) {
+    return of(MemoryCacheStore.of(maxWeight));
+  }
+
+  /**
+   * @param store the store keeping the responses
+   * @return a new cache storing its responses in the given store
+   * @throws NullPointerException if the store is null
+   */
+  public static HttpCache of(@NonNull CacheStore store) {
+    return new HttpCache(store, Clock.systemUTC());
+  }
+
+  static HttpCache of(CacheStore store, Clock clock) {
+    return new HttpCache(store, clock);
+  }
+
+  /**
+   * @param request the request to check
+   * @return true if the cache is enabled and the given request can be answered from the cache
+   */
+  public boolean canCache(@NonNull HttpRequest request) {
+    return store != null
+      && "GET".equals(request.method())
+      && request.bodyPublisher().map(publisher -> publisher.contentLength() == 0).orElse(true)
+      && CONDITIONAL_HEADERS.forAll(header -> request.headers().firstValue(header).isEmpty())
+      && !CacheControl.of(request.headers()).isNoStore();
+  }
+
+  /**
+   * Answers the given request from the cache when possible, otherwise sends it and stores its response if allowed
+   *
+   * @param request  the request to answer, {@link #canCache(HttpRequest)} must be true
+   * @param handler  the handler reading the body of the response
+   * @param exchange sends a request on the network, only called when the network must be used
+   * @return the response to the request
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public <T> CompletableFuture<HttpResponse<T>> send(@NonNull HttpRequest request, @NonNull BodyHandler<T> handler, @NonNull Exchange exchange) {
+    val key = keyOf(request);
+    val cached = store.get(key).filter(entry -> entry.matches(request));
+    if (cached.isEmpty()) {
+      misses.increment();
+      return fetch(key, request, handler, exchange);
+    }
+
+    val entry = cached.get();
+    val now = clock.instant();
+    val requestControl = CacheControl.of(request.headers());
+    val acceptsStored = !requestControl.isNoCache() && requestControl.getMaxAge().forAll(maxAge -> entry.age(now).compareTo(maxAge) <= 0);
+    if (acceptsStored && entry.isFresh(now)) {
+      hits.increment();
+      return entry.served(now).replay(request, handler);
+    }
+    if (acceptsStored && entry.canServeStale(now)) {
+      staleHits.increment();
+      refresh(key, request, entry, exchange);
+      return entry.served(now).replay(request, handler);
+    }
+    if (entry.hasValidator()) {
+      return revalidate(key, request, entry, handler, exchange);
+    }
+    misses.increment();
+    return fetch(key, request, handler, exchange);
+  }
+
+  /**
+   * Removes the entry of the URI of the given request if its method is unsafe, RFC 7234 section 4.4
+   *
+   * @param request a request about to be sent
+   * @throws NullPointerException if the request is null
+   */
+  public void invalidate(@NonNull HttpRequest request) {
+    if (store != null && !SAFE_METHODS.contains(request.method())) {
+      store.remove(keyOf(request));
+    }
+  }
+
+  /**
+   * @return the number of requests answered with a fresh stored response
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of requests answered with a stale stored response while it was refreshed in the background
+   */
+  public long staleHits() {
+    return staleHits.sum();
+  }
+
+  /**
+   * @return the number of requests sent because no usable response was stored
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of conditional requests sent to revalidate a stale stored response
+   */
+  public long revalidations() {
+    return revalidations.sum();
+  }
+
+  /**
+   * @return the number of revalidations answered with {@code 304 Not Modified}
+   */
+  public long notModified() {
+    return notModified.sum();
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> fetch(String key, HttpRequest request, BodyHandler<T> handler, Exchange exchange) {
+    val requestTime = clock.instant();
+    val storing = new StoringBodyHandler<>(request, handler, this::isStorable, store::bodySubscriber);
+    return send(exchange, request, storing).thenApply(response -> {
+      store(key, request, response, storing, requestTime, clock.instant());
+      return response;
+    });
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> revalidate(String key,
+                                                            HttpRequest request,
+                                                            CachedResponse entry,
+                                                            BodyHandler<T> handler,
+                                                            Exchange exchange) {
+    revalidations.increment();
+    val conditional = HttpRequest.newBuilder(request, (name, value) -> true);
+    entry.entityTag().forEach(entityTag -> conditional.setHeader("If-None-Match", entityTag));
+    entry.lastModified().forEach(lastModified -> conditional.setHeader("If-Modified-Since", lastModified));
+    val storing = new StoringBodyHandler<>(request, handler, this::isStorable, store::bodySubscriber);
+    // a 304 has no body, the caller reads the stored one
+    final BodyHandler<T> notModifiedOrStoring = info -> info.statusCode() == 304 ? BodySubscribers.replacing(null) : storing.apply(info);
+    val requestTime = clock.instant();
+    return send(exchange, conditional.build(), notModifiedOrStoring).thenCompose(response -> {
+      val responseTime = clock.instant();
+      if (response.statusCode() != 304) {
+        store(key, request, response, storing, requestTime, responseTime);
+        return CompletableFuture.completedFuture(response);
+      }
+      notModified.increment();
+      val updated = entry.revalidated(response.headers(), requestTime, responseTime);
+      store.put(key, updated);
+      return updated.served(responseTime).replay(request, handler);
+    });
+  }
+
+  private void refresh(String key, HttpRequest request, CachedResponse entry, Exchange exchange) {
+    if (!refreshing.add(key)) {
+      return;
+    }
+    val refresh = entry.hasValidator()
+      ? revalidate(key, request, entry, BodyHandlers.discarding(), exchange)
+      : fetch(key, request, BodyHandlers.discarding(), exchange);
+    refresh.whenComplete((response, throwable) -> {
+      refreshing.remove(key);
+      if (throwable != null) {
+        log.debug("Unable to refresh the stale response of {}", key, throwable);
+      }
+    });
+  }
+
+  private boolean isStorable(ResponseInfo info) {
+    val headers = info.headers();
+    val cacheControl = CacheControl.of(headers);
+    return CACHEABLE_STATUSES.contains(info.statusCode())
+      && !cacheControl.isNoStore()
+      && headers.allValues("Vary").stream().noneMatch(vary -> vary.contains("*"))
+      && (cacheControl.getMaxAge().isDefined() || List.of("Expires", "ETag", "Last-Modified").exists(name -> headers.firstValue(name).isPresent()))
+      && headers.firstValueAsLong("Content-Length").orElse(0) <= store.maxBodySize();
+  }
+
+  private void store(String key, HttpRequest request, HttpResponse<?> response, StoringBodyHandler<?> storing, Instant requestTime, Instant responseTime) {
+    storing.body().forEach(body -> {
+      val buffered = new BufferedResponse(response.statusCode(), response.headers(), response.version(), response.uri(),
+        response.sslSession().orElse(null), body);
+      store.put(key, CachedResponse.of(request, buffered, requestTime, responseTime));
+    });
+  }
+
+  private static <T> CompletableFuture<HttpResponse<T>> send(Exchange exchange, HttpRequest request, BodyHandler<T> handler) {
+    try {
+      return exchange.send(request, handler).thenApply(response -> response);
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static String keyOf(HttpRequest request) {
+    return request.uri().toString();
+  }
+
+  /**
+   * Sends a request on the network for an {@link HttpCache}, e.g. with the retry policy of a client
+   */
+  @FunctionalInterface
+  public interface Exchange {
+
+    /**
+     * @param request the request to send
+     * @param handler the handler reading the body of the response
+     * @return the response to the request
+     */
+    <T> CompletableFuture<? extends HttpResponse<T>> send(HttpRequest request, BodyHandler<T> handler);
+  }
+}
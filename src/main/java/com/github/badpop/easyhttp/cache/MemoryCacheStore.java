@@ -0,0 +1,158 @@
+package com.github.badpop.easyhttp.cache;
+
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.val;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link CacheStore} keeping its entries in the heap, bounded by the total weight of its entries instead of their number.
+ * <p>
+ * When the total weight exceeds the maximum weight, the least recently used entries are evicted.
+ * An entry heavier than the maximum weight is never stored.
+ * <p>
+ * Hits never wait: entries are looked up in a concurrent map, and the recency of a hit is only recorded if the lock
+ * guarding the order of the entries is free at once. Under contention some hits are not recorded, so the eviction order
+ * is an approximation of the least recently used order, good enough since a hot entry is hit often.
+ *
+ * <ul>
+ *   <li>{@link #of(long)}</li>
+ *   <li>{@link #weight()}</li>
+ *   <li>{@link #size()}</li>
+ *   <li>{@link #evictions()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class MemoryCacheStore implements CacheStore {
+
+  @Getter
+  @ToString.Include
+  private final long maxWeight;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ConcurrentHashMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+  // the same entries, in access order, guarded by the lock
+  private final LinkedHashMap<String, CachedResponse> order = new LinkedHashMap<>(16, 0.75f, true);
+  private final LongAdder evictions = new LongAdder();
+  private long weight;
+
+  private MemoryCacheStore(long maxWeight) {
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @param maxWeight the maximum total weight of the entries, approximately their size in bytes, see {@link CachedResponse#weight()}
+   * @return a new empty store
+   * @throws IllegalArgumentException if the maximum weight is not strictly positive
+   */
+  public static MemoryCacheStore of(long maxWeight) {
+    if (maxWeight <= 0) {
+      throw new IllegalArgumentException("The maximum weight must be strictly positive");
+    }
+    return new MemoryCacheStore(maxWeight);
+  }
+
+  @Override
+  public Option<CachedResponse> get(@NonNull String key) {
+    val entry = entries.get(key);
+    if (entry != null && lock.tryLock()) {
+      try {
+        order.get(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+    return Option.of(entry);
+  }
+
+  @Override
+  public void put(@NonNull String key, @NonNull CachedResponse entry) {
+    val entryWeight = entry.weight();
+    lock.lock();
+    try {
+      val previous = order.remove(key);
+      if (previous != null) {
+        entries.remove(key);
+        weight -= previous.weight();
+      }
+      if (entryWeight > maxWeight) {
+        return;
+      }
+      order.put(key, entry);
+      entries.put(key, entry);
+      weight += entryWeight;
+      val eldest = order.entrySet().iterator();
+      while (weight > maxWeight) {
+        val evicted = eldest.next();
+        weight -= evicted.getValue().weight();
+        entries.remove(evicted.getKey());
+        eldest.remove();
+        evictions.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void remove(@NonNull String key) {
+    lock.lock();
+    try {
+      val previous = order.remove(key);
+      if (previous != null) {
+        entries.remove(key);
+        weight -= previous.weight();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long maxBodySize() {
+    return Math.min(maxWeight, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      order.clear();
+      entries.clear();
+      weight = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the total weight of the stored entries
+   */
+  public long weight() {
+    lock.lock();
+    try {
+      return weight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of stored entries
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the number of entries evicted to respect the maximum weight
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+}
@@ -0,0 +1,92 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import io.vavr.control.Option;
+import lombok.val;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Reads the responses received by an {@link HttpCache} for a caller. The cache decides from the status and the headers of a response
+ * whether it may be stored: such a response is buffered, then replayed into the handler of the caller, while any other response is read
+ * by the handler of the caller as it arrives, without being buffered.
+ * <p>
+ * The buffered body of the last response read is kept until the cache stores it. Responses are read one after the other, e.g. retries.
+ */
+final class StoringBodyHandler<T> implements BodyHandler<T> {
+
+  private final HttpRequest request;
+  private final BodyHandler<T> handler;
+  private final Predicate<ResponseInfo> storable;
+  private final Supplier<BodySubscriber<ByteBuffer>> buffering;
+  private volatile ByteBuffer body;
+
+  StoringBodyHandler(HttpRequest request, BodyHandler<T> handler, Predicate<ResponseInfo> storable, Supplier<BodySubscriber<ByteBuffer>> buffering) {
+    this.request = request;
+    this.handler = handler;
+    this.storable = storable;
+    this.buffering = buffering;
+  }
+
+  @Override
+  public BodySubscriber<T> apply(ResponseInfo info) {
+    body = null;
+    return storable.test(info) ? new BufferingSubscriber(info) : handler.apply(info);
+  }
+
+  /**
+   * @return the buffered body of the last response read, none if it could not be stored
+   */
+  Option<ByteBuffer> body() {
+    return Option.of(body);
+  }
+
+  private final class BufferingSubscriber implements BodySubscriber<T> {
+
+    private final BodySubscriber<ByteBuffer> buffer = buffering.get();
+    private final CompletionStage<T> replayed;
+
+    private BufferingSubscriber(ResponseInfo info) {
+      this.replayed = buffer.getBody().thenCompose(buffered -> {
+        val response = new BufferedResponse(info.statusCode(), info.headers(), info.version(), request.uri(), null, buffered);
+        body = response.body();
+        return response.replay(request, handler).thenApply(HttpResponse::body);
+      });
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+      return replayed;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      buffer.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+      buffer.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      buffer.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      buffer.onComplete();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.github.badpop.easyhttp.cache;
+
+import io.vavr.control.Option;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link CacheStore} made of two stores, e.g. a {@link MemoryCacheStore} in front of a {@link DiskCacheStore}.
+ * <p>
+ * Entries are written to both tiers, and read from the first tier holding them. An entry only found in the second tier
+ * is copied to the first one, so that the next reads do not reach the second tier. The bodies of the responses about to be stored
+ * are buffered by the tier accepting the biggest bodies, e.g. spooled to a file by a {@link DiskCacheStore}.
+ *
+ * <ul>
+ *   <li>{@link #of(CacheStore, CacheStore)}</li>
+ * </ul>
+ */
+@ToString
+public final class TieredCacheStore implements CacheStore {
+
+  private final CacheStore first;
+  private final CacheStore second;
+
+  private TieredCacheStore(CacheStore first, CacheStore second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  /**
+   * @param first  the tier read first, usually the fastest and smallest one
+   * @param second the tier read when an entry is not in the first one
+   * @return a new store made of the two given ones
+   * @throws NullPointerException if one of the stores is null
+   */
+  public static TieredCacheStore of(@NonNull CacheStore first, @NonNull CacheStore second) {
+    return new TieredCacheStore(first, second);
+  }
+
+  @Override
+  public Option<CachedResponse> get(@NonNull String key) {
+    return first.get(key).orElse(() -> second.get(key).peek(entry -> first.put(key, entry)));
+  }
+
+  @Override
+  public void put(@NonNull String key, @NonNull CachedResponse entry) {
+    first.put(key, entry);
+    second.put(key, entry);
+  }
+
+  @Override
+  public void remove(@NonNull String key) {
+    first.remove(key);
+    second.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    first.clear();
+    second.clear();
+  }
+
+  @Override
+  public long maxBodySize() {
+    return Math.max(first.maxBodySize(), second.maxBodySize());
+  }
+
+  @Override
+  public BodySubscriber<ByteBuffer> bodySubscriber() {
+    return first.maxBodySize() > second.maxBodySize() ? first.bodySubscriber() : second.bodySubscriber();
+  }
+}
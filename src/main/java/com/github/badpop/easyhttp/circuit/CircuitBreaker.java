@@ -0,0 +1,131 @@
+package com.github.badpop.easyhttp.circuit;
+
+import com.github.badpop.easyhttp.exception.CircuitBreakerOpenException;
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops sending requests to a host that keeps failing or answering slowly, according to a {@link CircuitBreakerPolicy}.
+ * <p>
+ * While the circuit of a host is open, requests to this host fail fast with a {@link CircuitBreakerOpenException} instead of wasting
+ * connections and threads on a dead dependency. The outcomes are recorded in a lock free sliding window, so the breaker adds no contention
+ * to the requests. Hosts are identified by their scheme, name and port.
+ *
+ * <ul>
+ *   <li>{@link #disabled()}</li>
+ *   <li>{@link #perHost(CircuitBreakerPolicy)}</li>
+ *   <li>{@link #isEnabled()}</li>
+ *   <li>{@link #acquire(URI)}</li>
+ *   <li>{@link #state(URI)}</li>
+ *   <li>{@link #failureRate(URI)}</li>
+ *   <li>{@link #slowCallRate(URI)}</li>
+ *   <li>{@link #rejected()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class CircuitBreaker {
+
+  private static final CircuitBreaker DISABLED = new CircuitBreaker(null, System::nanoTime);
+
+  @Getter
+  @ToString.Include
+  private final CircuitBreakerPolicy policy;
+  private final LongSupplier nanoClock;
+  private final Map<String, HostCircuit> hosts = new ConcurrentHashMap<>();
+  private final LongAdder rejected = new LongAdder();
+
+  private CircuitBreaker(CircuitBreakerPolicy policy, LongSupplier nanoClock) {
+    this.policy = policy;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * @return a breaker never opening any circuit, it is the breaker of a client unless configured otherwise
+   */
+  public static CircuitBreaker disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @param policy the policy applied to each host
+   * @return a new breaker with a circuit per host
+   * @throws NullPointerException if the policy is null
+   */
+  public static CircuitBreaker perHost(@NonNull CircuitBreakerPolicy policy) {
+    return new CircuitBreaker(policy, System::nanoTime);
+  }
+
+  static CircuitBreaker perHost(CircuitBreakerPolicy policy, LongSupplier nanoClock) {
+    return new CircuitBreaker(policy, nanoClock);
+  }
+
+  /**
+   * @return true if this breaker may open circuits
+   */
+  public boolean isEnabled() {
+    return policy != null;
+  }
+
+  /**
+   * Asks for the right to send a request to the host of the given URI
+   *
+   * @param uri the URI of the request
+   * @return a {@link CircuitCall} whose outcome must be reported once the request completed
+   * @throws CircuitBreakerOpenException if the circuit of the host is open, or half-open with all its probes in flight
+   * @throws NullPointerException        if the uri is null
+   * @throws IllegalStateException       if the breaker is disabled
+   */
+  public CircuitCall acquire(@NonNull URI uri) {
+    if (policy == null) {
+      throw new IllegalStateException("The circuit breaker is disabled");
+    }
+    return hosts.computeIfAbsent(hostOf(uri), host -> new HostCircuit(host, policy, nanoClock, rejected)).acquire();
+  }
+
+  /**
+   * @param uri any URI of the host
+   * @return the current state of the circuit of the host
+   */
+  public CircuitState state(@NonNull URI uri) {
+    return host(uri).map(HostCircuit::state).getOrElse(CircuitState.CLOSED);
+  }
+
+  /**
+   * @param uri any URI of the host
+   * @return the proportion of failed requests in the sliding window of the host, 0 if its circuit is not closed
+   */
+  public double failureRate(@NonNull URI uri) {
+    return host(uri).flatMap(circuit -> Option.of(circuit.phase().window())).map(SlidingWindow::failureRate).getOrElse(0.0);
+  }
+
+  /**
+   * @param uri any URI of the host
+   * @return the proportion of slow requests in the sliding window of the host, 0 if its circuit is not closed
+   */
+  public double slowCallRate(@NonNull URI uri) {
+    return host(uri).flatMap(circuit -> Option.of(circuit.phase().window())).map(SlidingWindow::slowCallRate).getOrElse(0.0);
+  }
+
+  /**
+   * @return the number of requests that failed fast, for all hosts
+   */
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  private Option<HostCircuit> host(URI uri) {
+    return Option.of(hosts.get(hostOf(uri)));
+  }
+
+  private static String hostOf(URI uri) {
+    return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.badpop.easyhttp.circuit;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.retry.RetryPredicates;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Describes when a {@link CircuitBreaker} opens and closes the circuit of a host.
+ * <p>
+ * The outcomes of the last {@code windowSize} requests to a host are recorded. Once at least {@code minimumCalls} requests
+ * were recorded, the circuit opens when the proportion of failures reaches {@code failureRateThreshold}, or when the proportion of
+ * requests slower than {@code slowCallDuration} reaches {@code slowCallRateThreshold}.
+ * A request fails when its response matches {@code failureOnResponse} or when its exception matches {@code failureOnException}.
+ * <p>
+ * After {@code openDuration}, the circuit becomes half-open and lets {@code halfOpenCalls} probe requests through.
+ * The circuit closes if all of them succeed quickly, and opens again otherwise. Policies are immutable, use the withers to customize them.
+ *
+ * <ul>
+ *   <li>{@link #defaultPolicy()}</li>
+ * </ul>
+ */
+@Value
+@With
+public class CircuitBreakerPolicy {
+
+  private static final Predicate<EasyHttpResponse<?>> FAILURE_ON_5XX = RetryPredicates.is5xx();
+
+  int windowSize;
+  int minimumCalls;
+  double failureRateThreshold;
+  double slowCallRateThreshold;
+  Duration slowCallDuration;
+  Duration openDuration;
+  int halfOpenCalls;
+  Predicate<EasyHttpResponse<?>> failureOnResponse;
+  Predicate<Throwable> failureOnException;
+
+  private CircuitBreakerPolicy(int windowSize,
+                               int minimumCalls,
+                               double failureRateThreshold,
+                               double slowCallRateThreshold,
+                               @NonNull Duration slowCallDuration,
+                               @NonNull Duration openDuration,
+                               int halfOpenCalls,
+                               @NonNull Predicate<EasyHttpResponse<?>> failureOnResponse,
+                               @NonNull Predicate<Throwable> failureOnException) {
+    if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+      throw new IllegalArgumentException("The window size and the minimum number of calls must be strictly positive, with minimumCalls <= windowSize");
+    }
+    if (!(failureRateThreshold > 0 && failureRateThreshold <= 1) || !(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+      throw new IllegalArgumentException("The rate thresholds must be in ]0, 1]");
+    }
+    if (slowCallDuration.isNegative() || slowCallDuration.isZero() || openDuration.isNegative()) {
+      throw new IllegalArgumentException("The slow call duration must be strictly positive and the open duration positive");
+    }
+    if (halfOpenCalls <= 0) {
+      throw new IllegalArgumentException("The number of half-open calls must be strictly positive");
+    }
+    this.windowSize = windowSize;
+    this.minimumCalls = minimumCalls;
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallDuration = slowCallDuration;
+    this.openDuration = openDuration;
+    this.halfOpenCalls = halfOpenCalls;
+    this.failureOnResponse = failureOnResponse;
+    this.failureOnException = failureOnException;
+  }
+
+  /**
+   * Builds a policy with:
+   * <ul>
+   *   <li>a window of the last 100 requests, evaluated from 20 requests</li>
+   *   <li>a circuit opening from 50% of failures, which are 5xx responses and {@link IOException}</li>
+   *   <li>a circuit opening from 80% of requests slower than 5 seconds</li>
+   *   <li>a circuit staying open 30 seconds, then probed with 5 requests</li>
+   * </ul>
+   *
+   * @return a new policy
+   */
+  public static CircuitBreakerPolicy defaultPolicy() {
+    return new CircuitBreakerPolicy(
+      100,
+      20,
+      0.5,
+      0.8,
+      Duration.ofSeconds(5),
+      Duration.ofSeconds(30),
+      5,
+      FAILURE_ON_5XX,
+      RetryPredicates.isInstanceOf(IOException.class));
+  }
+
+  /**
+   * @return true if {@code failureOnResponse} is the default one, which only needs the status code of a response
+   */
+  boolean hasDefaultFailureOnResponse() {
+    return failureOnResponse == FAILURE_ON_5XX;
+  }
+}
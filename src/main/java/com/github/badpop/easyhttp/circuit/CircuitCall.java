@@ -0,0 +1,97 @@
+package com.github.badpop.easyhttp.circuit;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import lombok.NonNull;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A request permitted by a {@link CircuitBreaker}, whose outcome must be reported exactly once with one of its methods.
+ * Reporting an outcome twice has no effect.
+ *
+ * <ul>
+ *   <li>{@link #needsResponse()}</li>
+ *   <li>{@link #onResponse(Duration, EasyHttpResponse)}</li>
+ *   <li>{@link #onResponse(Duration, int)}</li>
+ *   <li>{@link #onFailure(Duration, Throwable)}</li>
+ *   <li>{@link #onIgnore()}</li>
+ * </ul>
+ */
+public final class CircuitCall {
+
+  private final HostCircuit circuit;
+  private final HostCircuit.Phase phase;
+  private final AtomicBoolean reported = new AtomicBoolean();
+
+  CircuitCall(HostCircuit circuit, HostCircuit.Phase phase) {
+    this.circuit = circuit;
+    this.phase = phase;
+  }
+
+  /**
+   * @return true if the outcome of a response must be reported with {@link #onResponse(Duration, EasyHttpResponse)}, false if its status
+   * code is enough, i.e. when the {@code failureOnResponse} of the {@link CircuitBreakerPolicy} is the default one
+   */
+  public boolean needsResponse() {
+    return !circuit.policy().hasDefaultFailureOnResponse();
+  }
+
+  /**
+   * Reports a request that received a response, which is a failure if it matches the {@code failureOnResponse} of the {@link CircuitBreakerPolicy}
+   *
+   * @param latency  the time elapsed between the sending of the request and the reception of its response
+   * @param response the response
+   */
+  public void onResponse(@NonNull Duration latency, @NonNull EasyHttpResponse<?> response) {
+    if (reported.compareAndSet(false, true)) {
+      circuit.record(phase, circuit.policy().getFailureOnResponse().test(response), latency.toNanos());
+    }
+  }
+
+  /**
+   * Reports a request that received a response without building its {@link EasyHttpResponse}, which is a failure if its status code is 5xx.
+   * Only valid when {@link #needsResponse()} is false.
+   *
+   * @param latency    the time elapsed between the sending of the request and the reception of its response
+   * @param statusCode the status code of the response
+   * @throws IllegalStateException if the {@code failureOnResponse} of the {@link CircuitBreakerPolicy} needs the whole response
+   */
+  public void onResponse(@NonNull Duration latency, int statusCode) {
+    if (needsResponse()) {
+      throw new IllegalStateException("The failureOnResponse of the circuit breaker policy needs the whole response");
+    }
+    if (reported.compareAndSet(false, true)) {
+      // the default failureOnResponse, see EasyHttpResponse#is5xx
+      circuit.record(phase, statusCode >= 500 && statusCode <= 599, latency.toNanos());
+    }
+  }
+
+  /**
+   * Reports a request that failed, which is a failure if the exception matches the {@code failureOnException} of the {@link CircuitBreakerPolicy}.
+   * A cancelled request is ignored.
+   *
+   * @param latency   the time elapsed between the sending of the request and its failure
+   * @param throwable the failure
+   */
+  public void onFailure(@NonNull Duration latency, @NonNull Throwable throwable) {
+    val cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    if (cause instanceof CancellationException) {
+      onIgnore();
+    } else if (reported.compareAndSet(false, true)) {
+      circuit.record(phase, circuit.policy().getFailureOnException().test(cause), latency.toNanos());
+    }
+  }
+
+  /**
+   * Reports a request that was not sent or whose outcome says nothing about the host, e.g. a cancelled request
+   */
+  public void onIgnore() {
+    if (reported.compareAndSet(false, true)) {
+      circuit.ignore(phase);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.github.badpop.easyhttp.circuit;
+
+/**
+ * The states of the circuit of a host
+ */
+public enum CircuitState {
+  /**
+   * Requests are sent, and their outcome is recorded in a sliding window
+   */
+  CLOSED,
+  /**
+   * Requests fail fast without being sent
+   */
+  OPEN,
+  /**
+   * A few probe requests are sent to decide if the circuit closes or opens again
+   */
+  HALF_OPEN
+}
@@ -0,0 +1,111 @@
+package com.github.badpop.easyhttp.circuit;
+
+import com.github.badpop.easyhttp.exception.CircuitBreakerOpenException;
+import lombok.val;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The circuit of a single host.
+ * <p>
+ * The state of the circuit is an immutable {@link Phase} replaced with a compare-and-set on each transition.
+ * Each call records its outcome in the phase it was permitted in, so that the outcomes of calls started before a transition are ignored.
+ */
+final class HostCircuit {
+
+  private final String host;
+  private final CircuitBreakerPolicy policy;
+  private final LongSupplier nanoClock;
+  private final LongAdder rejected;
+  private final AtomicReference<Phase> phase;
+
+  HostCircuit(String host, CircuitBreakerPolicy policy, LongSupplier nanoClock, LongAdder rejected) {
+    this.host = host;
+    this.policy = policy;
+    this.nanoClock = nanoClock;
+    this.rejected = rejected;
+    this.phase = new AtomicReference<>(closed());
+  }
+
+  CircuitCall acquire() {
+    while (true) {
+      val current = phase.get();
+      switch (current.state()) {
+        case CLOSED:
+          return new CircuitCall(this, current);
+        case OPEN:
+          if (nanoClock.getAsLong() - current.openedAt() < policy.getOpenDuration().toNanos()) {
+            rejected.increment();
+            throw new CircuitBreakerOpenException("The circuit of " + host + " is open", host);
+          }
+          phase.compareAndSet(current, halfOpen());
+          break;
+        default:
+          if (current.probes().getAndDecrement() > 0) {
+            return new CircuitCall(this, current);
+          }
+          current.probes().getAndIncrement();
+          rejected.increment();
+          throw new CircuitBreakerOpenException("The circuit of " + host + " is half-open and probing", host);
+      }
+    }
+  }
+
+  void record(Phase callPhase, boolean failure, long latencyNanos) {
+    if (phase.get() != callPhase) {
+      return;
+    }
+    val slowCall = latencyNanos >= policy.getSlowCallDuration().toNanos();
+    if (callPhase.state() == CircuitState.CLOSED) {
+      val window = callPhase.window();
+      window.record(failure, slowCall);
+      if (window.recorded() >= policy.getMinimumCalls()
+        && (window.failureRate() >= policy.getFailureRateThreshold() || window.slowCallRate() >= policy.getSlowCallRateThreshold())) {
+        phase.compareAndSet(callPhase, open());
+      }
+    } else if (failure || slowCall) {
+      phase.compareAndSet(callPhase, open());
+    } else if (callPhase.successes().incrementAndGet() >= policy.getHalfOpenCalls()) {
+      phase.compareAndSet(callPhase, closed());
+    }
+  }
+
+  void ignore(Phase callPhase) {
+    if (callPhase.state() == CircuitState.HALF_OPEN && phase.get() == callPhase) {
+      callPhase.probes().incrementAndGet();
+    }
+  }
+
+  CircuitState state() {
+    val current = phase.get();
+    return current.state() == CircuitState.OPEN && nanoClock.getAsLong() - current.openedAt() >= policy.getOpenDuration().toNanos()
+      ? CircuitState.HALF_OPEN
+      : current.state();
+  }
+
+  Phase phase() {
+    return phase.get();
+  }
+
+  CircuitBreakerPolicy policy() {
+    return policy;
+  }
+
+  private Phase closed() {
+    return new Phase(CircuitState.CLOSED, 0, new SlidingWindow(policy.getWindowSize()), null, null);
+  }
+
+  private Phase open() {
+    return new Phase(CircuitState.OPEN, nanoClock.getAsLong(), null, null, null);
+  }
+
+  private Phase halfOpen() {
+    return new Phase(CircuitState.HALF_OPEN, 0, null, new AtomicInteger(policy.getHalfOpenCalls()), new AtomicInteger());
+  }
+
+  record Phase(CircuitState state, long openedAt, SlidingWindow window, AtomicInteger probes, AtomicInteger successes) {
+  }
+}
@@ -0,0 +1,58 @@
+package com.github.badpop.easyhttp.circuit;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free ring buffer holding the outcomes of the last requests, with running counts of the failed and slow ones.
+ * <p>
+ * Each slot holds the flags of one outcome. Recording an outcome replaces the oldest one and adjusts the counts by the difference,
+ * so that rates are read without iterating the window. Under contention the counts may briefly lag behind the slots.
+ */
+final class SlidingWindow {
+
+  private static final int RECORDED = 1;
+  private static final int FAILED = 2;
+  private static final int SLOW = 4;
+
+  private final AtomicIntegerArray outcomes;
+  private final AtomicLong cursor = new AtomicLong();
+  private final LongAdder recorded = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder slow = new LongAdder();
+
+  SlidingWindow(int size) {
+    this.outcomes = new AtomicIntegerArray(size);
+  }
+
+  void record(boolean failure, boolean slowCall) {
+    val outcome = RECORDED | (failure ? FAILED : 0) | (slowCall ? SLOW : 0);
+    val previous = outcomes.getAndSet((int) (cursor.getAndIncrement() % outcomes.length()), outcome);
+    if ((previous & RECORDED) == 0) {
+      recorded.increment();
+    }
+    failed.add(flag(outcome, FAILED) - flag(previous, FAILED));
+    slow.add(flag(outcome, SLOW) - flag(previous, SLOW));
+  }
+
+  long recorded() {
+    return recorded.sum();
+  }
+
+  double failureRate() {
+    val total = recorded.sum();
+    return total == 0 ? 0 : (double) failed.sum() / total;
+  }
+
+  double slowCallRate() {
+    val total = recorded.sum();
+    return total == 0 ? 0 : (double) slow.sum() / total;
+  }
+
+  private static int flag(int outcome, int flag) {
+    return (outcome & flag) == 0 ? 0 : 1;
+  }
+}
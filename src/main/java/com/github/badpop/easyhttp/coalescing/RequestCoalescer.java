@@ -0,0 +1,165 @@
+package com.github.badpop.easyhttp.coalescing;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Set;
+import io.vavr.collection.TreeMap;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.val;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Shares a single network exchange between identical requests in flight at the same time, also known as single-flight.
+ * <p>
+ * Only {@code GET} and {@code HEAD} requests without body are coalesced. Two requests are identical when they have the same method,
+ * URI, http version, and the same values for the headers the coalescer is configured with.
+ * The first request of a group, the leader, is sent and its body is buffered in memory. The requests arriving while it is in flight
+ * wait for its response instead of being sent, and each of them gets its own copy of the response read by its own body handler.
+ * Once the response of the leader is received, the next identical request starts a new exchange: responses are never reused afterwards.
+ * <p>
+ * Note: the exchange is performed with the timeout of the leader, and coalesced requests can not cancel it.
+ * Coalescing on a subset of the headers with {@link #onHeaders(String...)} shares responses between requests that differ on the other headers,
+ * only use it when these headers do not change the response.
+ *
+ * <ul>
+ *   <li>{@link #disabled()}</li>
+ *   <li>{@link #onAllHeaders()}</li>
+ *   <li>{@link #onHeaders(String...)}</li>
+ *   <li>{@link #canCoalesce(HttpRequest)}</li>
+ *   <li>{@link #coalesce(HttpRequest, Function)}</li>
+ *   <li>{@link #exchanges()}</li>
+ *   <li>{@link #coalesced()}</li>
+ *   <li>{@link #inFlight()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class RequestCoalescer {
+
+  private static final RequestCoalescer DISABLED = new RequestCoalescer(false, null);
+  private static final Set<String> METHODS = HashSet.of("GET", "HEAD");
+
+  @ToString.Include
+  private final boolean enabled;
+  @ToString.Include
+  private final Set<String> keyHeaders;
+  private final Map<Key, CompletableFuture<BufferedResponse>> flights = new ConcurrentHashMap<>();
+  private final LongAdder exchanges = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  private RequestCoalescer(boolean enabled, Set<String> keyHeaders) {
+    this.enabled = enabled;
+    this.keyHeaders = keyHeaders;
+  }
+
+  /**
+   * @return a coalescer never coalescing any request, it is the coalescer of a client unless configured otherwise
+   */
+  public static RequestCoalescer disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @return a new coalescer sharing exchanges between requests having exactly the same headers
+   */
+  public static RequestCoalescer onAllHeaders() {
+    return new RequestCoalescer(true, null);
+  }
+
+  /**
+   * @param headers the names of the headers whose values must be equal for two requests to be coalesced, case insensitive
+   * @return a new coalescer sharing exchanges between requests having the same values for the given headers
+   * @throws NullPointerException if the given names are null
+   */
+  public static RequestCoalescer onHeaders(@NonNull String... headers) {
+    return new RequestCoalescer(true, HashSet.of(headers).map(name -> name.toLowerCase(Locale.ROOT)));
+  }
+
+  /**
+   * @param request the request to check
+   * @return true if the coalescer is enabled and the given request can share its exchange
+   */
+  public boolean canCoalesce(@NonNull HttpRequest request) {
+    return enabled
+      && METHODS.contains(request.method())
+      && request.bodyPublisher().map(publisher -> publisher.contentLength() == 0).orElse(true);
+  }
+
+  /**
+   * Joins the exchange of an identical request if one is in flight, or starts a new one otherwise
+   *
+   * @param request  the request to send
+   * @param exchange sends the request and buffers its response, only called if no identical request is in flight
+   * @return the buffered response of the shared exchange
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public CompletableFuture<BufferedResponse> coalesce(@NonNull HttpRequest request,
+                                                      @NonNull Function<HttpRequest, CompletableFuture<BufferedResponse>> exchange) {
+    val key = keyOf(request);
+    val flight = new CompletableFuture<BufferedResponse>();
+    val existing = flights.putIfAbsent(key, flight);
+    if (existing != null) {
+      coalesced.increment();
+      return existing;
+    }
+
+    exchanges.increment();
+    try {
+      exchange.apply(request).whenComplete((response, throwable) -> land(key, flight, response, throwable));
+    } catch (RuntimeException e) {
+      land(key, flight, null, e);
+    }
+    return flight;
+  }
+
+  /**
+   * @return the number of exchanges sent on the network by this coalescer
+   */
+  public long exchanges() {
+    return exchanges.sum();
+  }
+
+  /**
+   * @return the number of requests that joined the exchange of an identical request instead of being sent
+   */
+  public long coalesced() {
+    return coalesced.sum();
+  }
+
+  /**
+   * @return the number of exchanges currently in flight
+   */
+  public int inFlight() {
+    return flights.size();
+  }
+
+  private void land(Key key, CompletableFuture<BufferedResponse> flight, BufferedResponse response, Throwable throwable) {
+    flights.remove(key, flight);
+    if (throwable == null) {
+      flight.complete(response);
+    } else {
+      flight.completeExceptionally(throwable);
+    }
+  }
+
+  private Key keyOf(HttpRequest request) {
+    val headers = TreeMap.ofAll(request.headers().map())
+      .mapKeys(name -> name.toLowerCase(Locale.ROOT))
+      .filterKeys(name -> keyHeaders == null || keyHeaders.contains(name));
+    return new Key(request.method(), request.uri(), request.version(), headers.toJavaMap());
+  }
+
+  private record Key(String method, URI uri, Optional<Version> version, Map<String, List<String>> headers) {
+  }
+}
@@ -0,0 +1,56 @@
+package com.github.badpop.easyhttp.concurrent;
+
+import io.vavr.control.Option;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static io.vavr.API.None;
+import static io.vavr.API.Some;
+
+/**
+ * Gauges reading the current state of an {@link Executor}.
+ * <p>
+ * Values can only be read from a {@link ThreadPoolExecutor} or a {@link ForkJoinPool}, other executors do not expose them.
+ *
+ * <ul>
+ *   <li>{@link #queueDepth()}</li>
+ *   <li>{@link #activeCount()}</li>
+ * </ul>
+ */
+@Value
+public class ExecutorGauges {
+
+  @NonNull Executor executor;
+
+  /**
+   * Reads the number of tasks waiting to be run by the executor
+   *
+   * @return an {@link Option} containing the queue depth, or an empty Option if the executor does not expose it
+   */
+  public Option<Integer> queueDepth() {
+    if (executor instanceof ThreadPoolExecutor threadPool) {
+      return Some(threadPool.getQueue().size());
+    } else if (executor instanceof ForkJoinPool forkJoinPool) {
+      return Some((int) Math.min(Integer.MAX_VALUE, forkJoinPool.getQueuedSubmissionCount() + forkJoinPool.getQueuedTaskCount()));
+    }
+    return None();
+  }
+
+  /**
+   * Reads the number of threads currently running a task
+   *
+   * @return an {@link Option} containing the active count, or an empty Option if the executor does not expose it
+   */
+  public Option<Integer> activeCount() {
+    if (executor instanceof ThreadPoolExecutor threadPool) {
+      return Some(threadPool.getActiveCount());
+    } else if (executor instanceof ForkJoinPool forkJoinPool) {
+      return Some(forkJoinPool.getActiveThreadCount());
+    }
+    return None();
+  }
+}
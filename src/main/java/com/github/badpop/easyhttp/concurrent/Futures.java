@@ -0,0 +1,59 @@
+package com.github.badpop.easyhttp.concurrent;
+
+import io.vavr.concurrent.Future;
+import io.vavr.concurrent.Promise;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Utility methods to bridge {@link CompletableFuture} and vavr {@link Future}.
+ *
+ * <ul>
+ *   <li>{@link #fromCompletableFuture(CompletableFuture)}</li>
+ *   <li>{@link #fromCompletableFuture(Executor, CompletableFuture)}</li>
+ * </ul>
+ */
+@UtilityClass
+public class Futures {
+
+  /**
+   * Same as {@link #fromCompletableFuture(Executor, CompletableFuture)} using the default vavr executor
+   */
+  public <T> Future<T> fromCompletableFuture(@NonNull CompletableFuture<T> completableFuture) {
+    return fromCompletableFuture(Future.DEFAULT_EXECUTOR, completableFuture);
+  }
+
+  /**
+   * Converts a {@link CompletableFuture} into a vavr {@link Future} by registering a completion callback.
+   * <p>
+   * Unlike {@link Future#fromCompletableFuture(Executor, CompletableFuture)}, no task is submitted to the executor
+   * until the given future completes, so the number of pending futures is not bound to the executor capacity.
+   * Cancelling the returned future also cancels the given one.
+   *
+   * @param executor          the executor running the callbacks of the returned future
+   * @param completableFuture the future to convert
+   * @return a new Future completed with the same value or failure as the given CompletableFuture
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public <T> Future<T> fromCompletableFuture(@NonNull Executor executor, @NonNull CompletableFuture<T> completableFuture) {
+    val promise = Promise.<T>make(executor);
+    completableFuture.whenComplete((value, throwable) -> {
+      if (throwable == null) {
+        promise.trySuccess(value);
+      } else {
+        promise.tryFailure(throwable);
+      }
+    });
+
+    return promise.future().onFailure(throwable -> {
+      if (throwable instanceof CancellationException) {
+        completableFuture.cancel(true);
+      }
+    });
+  }
+}
@@ -0,0 +1,61 @@
+package com.github.badpop.easyhttp.concurrent;
+
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import lombok.experimental.UtilityClass;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Access to the virtual threads of Java 21 from a library compiled for Java 17.
+ * <p>
+ * {@code Executors.newVirtualThreadPerTaskExecutor()} is looked up once, when this class is initialized, and probed so
+ * that a Java 19 or 20 runtime without {@code --enable-preview} is reported as not supporting virtual threads.
+ *
+ * <ul>
+ *   <li>{@link #isSupported()}</li>
+ *   <li>{@link #newVirtualThreadPerTaskExecutor()}</li>
+ * </ul>
+ */
+@UtilityClass
+public class VirtualThreads {
+
+  private static final Option<MethodHandle> NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookupExecutorFactory();
+
+  /**
+   * @return true if the running JVM supports virtual threads
+   */
+  public boolean isSupported() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.isDefined();
+  }
+
+  /**
+   * Creates an executor starting a new virtual thread for each task.
+   * <p>
+   * Such an executor does not hold any thread while it is idle, it does not need to be shut down.
+   *
+   * @return a new virtual thread per task executor
+   * @throws UnsupportedOperationException if the running JVM does not support virtual threads
+   */
+  public ExecutorService newVirtualThreadPerTaskExecutor() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR
+      .map(VirtualThreads::invoke)
+      .getOrElseThrow(() -> new UnsupportedOperationException("Virtual threads require Java 21 or later, running on Java " + Runtime.version()));
+  }
+
+  private static Option<MethodHandle> lookupExecutorFactory() {
+    return Try.of(() -> MethodHandles.publicLookup()
+        .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", methodType(ExecutorService.class)))
+      .filter(factory -> Try.run(() -> invoke(factory).shutdown()).isSuccess())
+      .toOption();
+  }
+
+  private static ExecutorService invoke(MethodHandle factory) {
+    return Try.of(() -> (ExecutorService) factory.invokeExact()).get();
+  }
+}
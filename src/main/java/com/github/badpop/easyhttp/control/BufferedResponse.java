@@ -0,0 +1,175 @@
+package com.github.badpop.easyhttp.control;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+import lombok.val;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * An immutable snapshot of an http response whose body was entirely received in memory.
+ * <p>
+ * A buffered response can be replayed any number of times into any {@link BodyHandler}, so that a single exchange
+ * can serve several callers, each one reading the body with its own handler. The body is never copied when replayed.
+ *
+ * <ul>
+ *   <li>{@link #of(HttpResponse)}</li>
+ *   <li>{@link #body()}</li>
+ *   <li>{@link #bodyLength()}</li>
+ *   <li>{@link #withHeaders(HttpHeaders)}</li>
+ *   <li>{@link #replay(HttpRequest, BodyHandler)}</li>
+ * </ul>
+ */
+@Value
+public class BufferedResponse {
+
+  int statusCode;
+  HttpHeaders headers;
+  Version version;
+  URI uri;
+  @ToString.Exclude
+  SSLSession sslSession;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  ByteBuffer body;
+
+  /**
+   * Builds a new buffered response.
+   * The given body is not copied, it must not be modified afterwards.
+   */
+  public BufferedResponse(int statusCode,
+                          @NonNull HttpHeaders headers,
+                          @NonNull Version version,
+                          @NonNull URI uri,
+                          SSLSession sslSession,
+                          @NonNull byte[] body) {
+    this(statusCode, headers, version, uri, sslSession, ByteBuffer.wrap(body));
+  }
+
+  /**
+   * Builds a new buffered response whose body is the remaining content of the given buffer, e.g. a slice of a memory-mapped file.
+   * The content of the buffer is not copied, it must not be modified afterwards.
+   */
+  public BufferedResponse(int statusCode,
+                          @NonNull HttpHeaders headers,
+                          @NonNull Version version,
+                          @NonNull URI uri,
+                          SSLSession sslSession,
+                          @NonNull ByteBuffer body) {
+    this.statusCode = statusCode;
+    this.headers = headers;
+    this.version = version;
+    this.uri = uri;
+    this.sslSession = sslSession;
+    this.body = body.slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * @param response a response whose body was read as a byte array
+   * @return a new buffered response holding the same status, headers and body
+   * @throws NullPointerException if the response is null
+   */
+  public static BufferedResponse of(@NonNull HttpResponse<byte[]> response) {
+    return new BufferedResponse(
+      response.statusCode(),
+      response.headers(),
+      response.version(),
+      response.uri(),
+      response.sslSession().orElse(null),
+      response.body() == null ? new byte[0] : response.body());
+  }
+
+  /**
+   * @return a read only view of the body
+   */
+  public ByteBuffer body() {
+    return body.duplicate();
+  }
+
+  /**
+   * @return the size of the body in bytes
+   */
+  public int bodyLength() {
+    return body.remaining();
+  }
+
+  /**
+   * @param headers the headers of the new response
+   * @return a new buffered response with the given headers, sharing the body of this response
+   * @throws NullPointerException if the headers are null
+   */
+  public BufferedResponse withHeaders(@NonNull HttpHeaders headers) {
+    return new BufferedResponse(statusCode, headers, version, uri, sslSession, body);
+  }
+
+  /**
+   * Replays this response into the given {@link BodyHandler}, as if it was received from the network
+   *
+   * @param request the request this response answers to, returned by {@link HttpResponse#request()}
+   * @param handler the handler reading the body
+   * @return a future completed with a new {@link HttpResponse} once the handler read the body
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public <T> CompletableFuture<HttpResponse<T>> replay(@NonNull HttpRequest request, @NonNull BodyHandler<T> handler) {
+    try {
+      val subscriber = handler.apply(new Info(statusCode, headers, version));
+      subscriber.onSubscribe(new ReplaySubscription(subscriber, body));
+      return subscriber.getBody()
+        .toCompletableFuture()
+        .thenApply(value -> new ReplayedResponse<>(statusCode, request, headers, value, Optional.ofNullable(sslSession), uri, version));
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private record Info(int statusCode, HttpHeaders headers, Version version) implements ResponseInfo {
+  }
+
+  private static final class ReplaySubscription implements Flow.Subscription {
+
+    private final Flow.Subscriber<List<ByteBuffer>> subscriber;
+    private final ByteBuffer body;
+    private boolean done;
+
+    private ReplaySubscription(Flow.Subscriber<List<ByteBuffer>> subscriber, ByteBuffer body) {
+      this.subscriber = subscriber;
+      this.body = body;
+    }
+
+    @Override
+    public void request(long n) {
+      if (done) {
+        return;
+      }
+      done = true;
+      if (n <= 0) {
+        subscriber.onError(new IllegalArgumentException("The number of requested buffers must be strictly positive"));
+        return;
+      }
+      if (body.hasRemaining()) {
+        subscriber.onNext(List.of(body.duplicate()));
+      }
+      subscriber.onComplete();
+    }
+
+    @Override
+    public void cancel() {
+      done = true;
+    }
+  }
+}
@@ -1,8 +1,14 @@
 package com.github.badpop.easyhttp.control;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.github.badpop.easyhttp.AbstractEasyHttpClient;
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
 import com.github.badpop.easyhttp.exception.ReadBodyException;
+import com.github.badpop.easyhttp.json.JsonBody;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
+import io.vavr.collection.Iterator;
 import io.vavr.concurrent.Future;
 import io.vavr.control.Either;
 import io.vavr.control.Option;
@@ -14,8 +20,10 @@ import java.io.InputStream;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.Path;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.vavr.API.*;
 
@@ -45,8 +53,14 @@ import static io.vavr.API.*;
  *   <li>{@link #readBody(TypeReference)}</li>
  *   <li>{@link #readBodyForStatus(int, Class)}</li>
  *   <li>{@link #readBodyForStatus(int, TypeReference)}</li>
+ *   <li>{@link #readBodyAsStream(Class)}</li>
+ *   <li>{@link #readBodyAsStream(TypeReference)}</li>
+ *   <li>{@link #readBodyAsIterator(Class)}</li>
+ *   <li>{@link #readBodyAsIterator(TypeReference)}</li>
  *   <li>{@link #retry()}</li>
  *   <li>{@link #retryAsync()}</li>
+ *   <li>{@link #retry(RetryPolicy)}</li>
+ *   <li>{@link #retryAsync(RetryPolicy)}</li>
  *   <li>{@link #onOk(Runnable)}</li>
  *   <li>{@link #on2xx(Runnable)}</li>
  *   <li>{@link #onKo(Runnable)}</li>
@@ -67,6 +81,8 @@ public class EasyHttpResponse<T> extends AbstractEasyHttpResponse<T> {
 
   /**
    * This method will attempt to deserialize the body of the current request into an instance of the requested {@link Class}.
+   * <p>
+   * Supported body types are {@link String}, byte[], {@link InputStream}, {@link Path}, {@link Stream} of strings and {@link JsonBody}.
    *
    * @param targetClass The class whose instance you want to build from the body of the response
    * @return An {@link Either.Right} if the deserialization is successful.
@@ -126,45 +142,131 @@ public class EasyHttpResponse<T> extends AbstractEasyHttpResponse<T> {
     return Right(None());
   }
 
-  private <U> U readBodyForClass(Class<U> clazz) throws IOException {
+  /**
+   * This method will attempt to lazily deserialize the body of the current request into a {@link Stream} of instances of the requested {@link Class}.
+   * <p>
+   * The body can either be a top level json array, whose elements are streamed, or a sequence of json values such as newline delimited json.
+   * Elements are read one at a time from {@link InputStream}, {@link Path} or {@link Stream} of strings bodies, so the memory used does not depend on the number of elements.
+   * A failure occurring while reading an element is thrown by the stream as an unchecked exception.
+   * The returned stream should be closed to release the body resources if it is not fully consumed.
+   *
+   * @param targetClass The class whose instances you want to build from the body of the response
+   * @return An {@link Either.Right} containing the lazy stream if the body can be read.
+   * Otherwise, returns an {@link Either.Left} containing a {@link ReadBodyException} containing the cause of the failure.
+   * @throws NullPointerException if the given class is null
+   */
+  public <U> Either<ReadBodyException, Stream<U>> readBodyAsStream(@NonNull final Class<U> targetClass) {
+    return this.<U>readBodyValues(usedClient.getJsonCodecs().readerFor(targetClass)).map(EasyHttpResponse::toStream);
+  }
+
+  /**
+   * Same as {@link #readBodyAsStream(Class)} but for a type referenced by a Jackson {@link TypeReference}
+   *
+   * @param targetTypeReference a Jackson {@link TypeReference} defining which type of object you want to deserialize
+   * @throws NullPointerException if the given TypeReference is null
+   */
+  public <U> Either<ReadBodyException, Stream<U>> readBodyAsStream(@NonNull final TypeReference<U> targetTypeReference) {
+    return this.<U>readBodyValues(usedClient.getJsonCodecs().readerFor(targetTypeReference)).map(EasyHttpResponse::toStream);
+  }
+
+  /**
+   * Same as {@link #readBodyAsStream(Class)} but provides an {@link Iterator}.
+   * The body resources are released once the iterator is exhausted.
+   *
+   * @param targetClass The class whose instances you want to build from the body of the response
+   * @throws NullPointerException if the given class is null
+   */
+  public <U> Either<ReadBodyException, Iterator<U>> readBodyAsIterator(@NonNull final Class<U> targetClass) {
+    return this.<U>readBodyValues(usedClient.getJsonCodecs().readerFor(targetClass)).map(Iterator::ofAll);
+  }
+
+  /**
+   * Same as {@link #readBodyAsIterator(Class)} but for a type referenced by a Jackson {@link TypeReference}
+   *
+   * @param targetTypeReference a Jackson {@link TypeReference} defining which type of object you want to deserialize
+   * @throws NullPointerException if the given TypeReference is null
+   */
+  public <U> Either<ReadBodyException, Iterator<U>> readBodyAsIterator(@NonNull final TypeReference<U> targetTypeReference) {
+    return this.<U>readBodyValues(usedClient.getJsonCodecs().readerFor(targetTypeReference)).map(Iterator::ofAll);
+  }
+
+  private <U> Either<ReadBodyException, MappingIterator<U>> readBodyValues(ObjectReader reader) {
+    return Try(() -> this.<U>readValuesWith(reader))
+      .toEither()
+      .mapLeft(throwable -> new ReadBodyException("An error occurred while trying to read response body", body(), throwable));
+  }
+
+  private <U> MappingIterator<U> readValuesWith(ObjectReader reader) throws IOException {
     if (body() == null) {
       throw new IllegalArgumentException("The response body is null");
     }
 
     if (body() instanceof String sBody) {
-      return usedClient.getObjectMapper().readValue(sBody, clazz);
+      return reader.readValues(sBody);
     } else if (body() instanceof Path pathBody) {
-      val file = pathBody.toFile();
-      return usedClient.getObjectMapper().readValue(file, clazz);
+      return reader.readValues(pathBody.toFile());
     } else if (body() instanceof InputStream isBody) {
-      return usedClient.getObjectMapper().readValue(isBody, clazz);
+      return reader.readValues(isBody);
     } else if (body() instanceof byte[] baBody) {
-      return usedClient.getObjectMapper().readValue(baBody, clazz);
+      return reader.readValues(baBody);
     } else if (body() instanceof Stream streamBody) {
-      return usedClient.getObjectMapper().readValue(
-        ((Stream<String>) streamBody).collect(Collectors.joining()), clazz);
+      return reader.readValues(new LinesReader((Stream<String>) streamBody));
+    } else if (body() instanceof JsonBody jsonBody) {
+      return jsonBody.readValues(reader);
     }
 
     throw new UnsupportedOperationException("Operation not supported : unknown body type, unable to read it");
   }
 
+  private static <U> Stream<U> toStream(MappingIterator<U> iterator) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+      .onClose(() -> Try.run(iterator::close));
+  }
+
+  private <U> U readBodyForClass(Class<U> clazz) throws IOException {
+    return readBodyWith(usedClient.getJsonCodecs().readerFor(clazz));
+  }
+
   private <U> U readBodyForTypeReference(TypeReference<U> tr) throws IOException {
+    return readBodyWith(usedClient.getJsonCodecs().readerFor(tr));
+  }
+
+  private <U> U readBodyWith(ObjectReader reader) throws IOException {
+    val listener = usedClient.getEventListener();
+    if (listener == EasyHttpEventListener.none() || !listener.isActive()) {
+      return readValueWith(reader);
+    }
+
+    val start = System.nanoTime();
+    listener.deserializationStart(originalRequest, reader.getValueType(), start);
+    try {
+      val value = this.<U>readValueWith(reader);
+      listener.deserializationEnd(originalRequest, reader.getValueType(), start, System.nanoTime());
+      return value;
+    } catch (IOException | RuntimeException e) {
+      listener.deserializationFailed(originalRequest, reader.getValueType(), e, start, System.nanoTime());
+      throw e;
+    }
+  }
+
+  private <U> U readValueWith(ObjectReader reader) throws IOException {
     if (body() == null) {
       throw new IllegalArgumentException("The response body is null");
     }
 
     if (body() instanceof String sBody) {
-      return usedClient.getObjectMapper().readValue(sBody, tr);
+      return reader.readValue(sBody);
     } else if (body() instanceof Path pathBody) {
       val file = pathBody.toFile();
-      return usedClient.getObjectMapper().readValue(file, tr);
+      return reader.readValue(file);
     } else if (body() instanceof InputStream isBody) {
-      return usedClient.getObjectMapper().readValue(isBody, tr);
+      return reader.readValue(isBody);
     } else if (body() instanceof byte[] baBody) {
-      return usedClient.getObjectMapper().readValue(baBody, tr);
+      return reader.readValue(baBody);
     } else if (body() instanceof Stream streamBody) {
-      return usedClient.getObjectMapper().readValue(
-        ((Stream<String>) streamBody).collect(Collectors.joining()), tr);
+      return reader.readValue(new LinesReader((Stream<String>) streamBody));
+    } else if (body() instanceof JsonBody jsonBody) {
+      return jsonBody.read(reader);
     }
 
     throw new UnsupportedOperationException("Operation not supported : unknown body type, unable to read it");
@@ -172,6 +274,8 @@ public class EasyHttpResponse<T> extends AbstractEasyHttpResponse<T> {
 
   /**
    * Try to replay synchronously the request that was sent and returned this response
+   * <p>
+   * The replayed request is itself retried according to the {@link RetryPolicy} of the client that sent the original request
    *
    * @return A new EasyHttpResponse with the same body type
    */
@@ -179,8 +283,21 @@ public class EasyHttpResponse<T> extends AbstractEasyHttpResponse<T> {
     return usedClient.sendEasy(originalRequest, originalBodyHandler);
   }
 
+  /**
+   * Try to replay synchronously the request that was sent and returned this response, retrying it according to the given {@link RetryPolicy}
+   *
+   * @param retryPolicy the policy deciding when and how the replayed request is retried
+   * @return A new EasyHttpResponse with the same body type
+   * @throws NullPointerException if the given retry policy is null
+   */
+  public Try<EasyHttpResponse<T>> retry(@NonNull RetryPolicy retryPolicy) {
+    return usedClient.sendEasy(originalRequest, originalBodyHandler, retryPolicy);
+  }
+
   /**
    * Try to replay asynchronously the request that was sent and returned this response
+   * <p>
+   * The returned future completes on the continuation executor of the client that sent the original request
    *
    * @return A new EasyHttpResponse with the same body type
    */
@@ -188,6 +305,20 @@ public class EasyHttpResponse<T> extends AbstractEasyHttpResponse<T> {
     return usedClient.sendAsyncEasy(originalRequest, originalBodyHandler);
   }
 
+  /**
+   * Try to replay asynchronously the request that was sent and returned this response, retrying it according to the given {@link RetryPolicy}
+   * <p>
+   * Retries are scheduled without blocking any thread, and the returned future completes on the continuation executor
+   * of the client that sent the original request
+   *
+   * @param retryPolicy the policy deciding when and how the replayed request is retried
+   * @return A new EasyHttpResponse with the same body type
+   * @throws NullPointerException if the given retry policy is null
+   */
+  public Future<EasyHttpResponse<T>> retryAsync(@NonNull RetryPolicy retryPolicy) {
+    return usedClient.sendAsyncEasy(originalRequest, originalBodyHandler, retryPolicy);
+  }
+
   /**
    * Execute an action if the http response status code is 200
    *
@@ -0,0 +1,59 @@
+package com.github.badpop.easyhttp.control;
+
+import lombok.val;
+
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Reader} lazily reading the lines of a {@link Stream}, each line being followed by a line feed.
+ * Only the current line is kept in memory. Closing this reader closes the stream.
+ */
+final class LinesReader extends Reader {
+
+  private final Stream<String> lines;
+  private final Iterator<String> iterator;
+  private String current = "";
+  // a position past the line feed of the current line means the next line must be pulled
+  private int position = 1;
+
+  LinesReader(Stream<String> lines) {
+    this.lines = lines;
+    this.iterator = lines.iterator();
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+
+    int read = 0;
+    while (read < length) {
+      if (position > current.length()) {
+        if (!iterator.hasNext()) {
+          break;
+        }
+        current = iterator.next();
+        position = 0;
+      }
+
+      if (position == current.length()) {
+        buffer[offset + read++] = '\n';
+        position++;
+      } else {
+        val count = Math.min(length - read, current.length() - position);
+        current.getChars(position, position + count, buffer, offset + read);
+        position += count;
+        read += count;
+      }
+    }
+    return read == 0 ? -1 : read;
+  }
+
+  @Override
+  public void close() {
+    lines.close();
+  }
+}
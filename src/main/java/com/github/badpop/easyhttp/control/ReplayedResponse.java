@@ -0,0 +1,26 @@
+package com.github.badpop.easyhttp.control;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+/**
+ * An {@link HttpResponse} built by replaying a {@link BufferedResponse} instead of being received from the network
+ */
+record ReplayedResponse<T>(int statusCode,
+                           HttpRequest request,
+                           HttpHeaders headers,
+                           T body,
+                           Optional<SSLSession> sslSession,
+                           URI uri,
+                           Version version) implements HttpResponse<T> {
+
+  @Override
+  public Optional<HttpResponse<T>> previousResponse() {
+    return Optional.empty();
+  }
+}
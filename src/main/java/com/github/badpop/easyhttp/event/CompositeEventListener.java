@@ -0,0 +1,109 @@
+package com.github.badpop.easyhttp.event;
+
+import com.fasterxml.jackson.databind.JavaType;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Notifies several listeners in turn, see {@link EasyHttpEventListener#composite(EasyHttpEventListener...)}
+ */
+@ToString
+@EqualsAndHashCode
+final class CompositeEventListener implements EasyHttpEventListener {
+
+  private final EasyHttpEventListener[] listeners;
+
+  CompositeEventListener(Seq<EasyHttpEventListener> listeners) {
+    this.listeners = listeners.toJavaArray(EasyHttpEventListener[]::new);
+  }
+
+  Seq<EasyHttpEventListener> getListeners() {
+    return List.of(listeners);
+  }
+
+  @Override
+  public boolean isActive() {
+    for (EasyHttpEventListener listener : listeners) {
+      if (listener.isActive()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void requestStart(HttpExchange exchange) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.requestStart(exchange);
+    }
+  }
+
+  @Override
+  public void bodyPublished(HttpExchange exchange, long bytes, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.bodyPublished(exchange, bytes, nanoTime);
+    }
+  }
+
+  @Override
+  public void headersReceived(HttpExchange exchange, int statusCode, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.headersReceived(exchange, statusCode, nanoTime);
+    }
+  }
+
+  @Override
+  public void bodyReceived(HttpExchange exchange, long bytes, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.bodyReceived(exchange, bytes, nanoTime);
+    }
+  }
+
+  @Override
+  public void exchangeCompleted(HttpExchange exchange, HttpResponse<?> response, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.exchangeCompleted(exchange, response, nanoTime);
+    }
+  }
+
+  @Override
+  public void exchangeFailed(HttpExchange exchange, Throwable cause, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.exchangeFailed(exchange, cause, nanoTime);
+    }
+  }
+
+  @Override
+  public void retryScheduled(HttpRequest request, int attempt, Duration delay, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.retryScheduled(request, attempt, delay, nanoTime);
+    }
+  }
+
+  @Override
+  public void deserializationStart(HttpRequest request, JavaType type, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.deserializationStart(request, type, nanoTime);
+    }
+  }
+
+  @Override
+  public void deserializationEnd(HttpRequest request, JavaType type, long startNanos, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.deserializationEnd(request, type, startNanos, nanoTime);
+    }
+  }
+
+  @Override
+  public void deserializationFailed(HttpRequest request, JavaType type, Throwable cause, long startNanos, long nanoTime) {
+    for (EasyHttpEventListener listener : listeners) {
+      listener.deserializationFailed(request, type, cause, startNanos, nanoTime);
+    }
+  }
+}
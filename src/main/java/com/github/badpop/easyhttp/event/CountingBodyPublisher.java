@@ -0,0 +1,52 @@
+package com.github.badpop.easyhttp.event;
+
+import lombok.RequiredArgsConstructor;
+
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes the body of a delegate publisher and notifies its size to an exchange once it is fully published
+ */
+@RequiredArgsConstructor
+final class CountingBodyPublisher implements BodyPublisher {
+
+  private final BodyPublisher delegate;
+  private final HttpExchange exchange;
+
+  @Override
+  public long contentLength() {
+    return delegate.contentLength();
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+    delegate.subscribe(new Flow.Subscriber<>() {
+
+      private long bytes;
+
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscriber.onSubscribe(subscription);
+      }
+
+      @Override
+      public void onNext(ByteBuffer item) {
+        bytes += item.remaining();
+        subscriber.onNext(item);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        subscriber.onError(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+        exchange.onBodyPublished(bytes);
+        subscriber.onComplete();
+      }
+    });
+  }
+}
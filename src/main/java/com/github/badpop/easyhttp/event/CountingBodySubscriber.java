@@ -0,0 +1,50 @@
+package com.github.badpop.easyhttp.event;
+
+import lombok.RequiredArgsConstructor;
+
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscribes to the body of a response with a delegate subscriber and notifies its size to an exchange once it is fully received.
+ * The exchange is notified before the delegate completes, so before the body is available.
+ */
+@RequiredArgsConstructor
+final class CountingBodySubscriber<T> implements BodySubscriber<T> {
+
+  private final BodySubscriber<T> delegate;
+  private final HttpExchange exchange;
+  private long bytes;
+
+  @Override
+  public CompletionStage<T> getBody() {
+    return delegate.getBody();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    delegate.onSubscribe(subscription);
+  }
+
+  @Override
+  public void onNext(List<ByteBuffer> item) {
+    for (ByteBuffer buffer : item) {
+      bytes += buffer.remaining();
+    }
+    delegate.onNext(item);
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    delegate.onError(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    exchange.onBodyReceived(bytes);
+    delegate.onComplete();
+  }
+}
@@ -0,0 +1,171 @@
+package com.github.badpop.easyhttp.event;
+
+import com.fasterxml.jackson.databind.JavaType;
+import io.vavr.collection.List;
+import lombok.NonNull;
+import lombok.val;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Listener notified of the lifecycle of the requests sent by an {@link com.github.badpop.easyhttp.EasyHttpClient}.
+ * <p>
+ * Each exchange with a server, including each retry attempt, is an {@link HttpExchange} notified in this order:
+ * {@link #requestStart(HttpExchange)}, {@link #bodyPublished(HttpExchange, long, long)} if the request has a body,
+ * {@link #headersReceived(HttpExchange, int, long)}, {@link #bodyReceived(HttpExchange, long, long)}, and finally either
+ * {@link #exchangeCompleted(HttpExchange, HttpResponse, long)} or {@link #exchangeFailed(HttpExchange, Throwable, long)}.
+ * A failed exchange skips the events it did not reach, and the body of a streamed response, e.g. an {@code InputStream},
+ * may be received after the exchange completed. Retries and {@code readBody} deserializations have their own events.
+ * <p>
+ * Timestamps come from {@link System#nanoTime()}. Listeners are called on the threads running the exchange, they must
+ * be thread safe and should return quickly. All the methods do nothing by default. A client without listener does not
+ * allocate nor call anything to notify events, and neither does a client whose listener is not {@link #isActive() active}.
+ *
+ * <ul>
+ *   <li>{@link #none()}</li>
+ *   <li>{@link #composite(EasyHttpEventListener...)}</li>
+ *   <li>{@link #isActive()}</li>
+ *   <li>{@link #requestStart(HttpExchange)}</li>
+ *   <li>{@link #bodyPublished(HttpExchange, long, long)}</li>
+ *   <li>{@link #headersReceived(HttpExchange, int, long)}</li>
+ *   <li>{@link #bodyReceived(HttpExchange, long, long)}</li>
+ *   <li>{@link #exchangeCompleted(HttpExchange, HttpResponse, long)}</li>
+ *   <li>{@link #exchangeFailed(HttpExchange, Throwable, long)}</li>
+ *   <li>{@link #retryScheduled(HttpRequest, int, Duration, long)}</li>
+ *   <li>{@link #deserializationStart(HttpRequest, JavaType, long)}</li>
+ *   <li>{@link #deserializationEnd(HttpRequest, JavaType, long, long)}</li>
+ *   <li>{@link #deserializationFailed(HttpRequest, JavaType, Throwable, long, long)}</li>
+ * </ul>
+ */
+public interface EasyHttpEventListener {
+
+  /**
+   * @return the listener ignoring all the events, used by clients without listener
+   */
+  static EasyHttpEventListener none() {
+    return NoEventListener.INSTANCE;
+  }
+
+  /**
+   * Builds a listener notifying each of the given listeners in turn
+   *
+   * @param listeners the listeners to notify
+   * @return {@link #none()} if no listener is given, the listener itself if only one is given, a composite listener otherwise
+   * @throws NullPointerException if one of the listeners is null
+   */
+  static EasyHttpEventListener composite(@NonNull EasyHttpEventListener... listeners) {
+    val all = List.of(listeners)
+      .map(listener -> Objects.requireNonNull(listener, "listener is marked non-null but is null"))
+      .flatMap(listener -> listener instanceof CompositeEventListener composite ? composite.getListeners() : List.of(listener))
+      .filter(listener -> listener != none());
+    return all.isEmpty() ? none() : all.size() == 1 ? all.head() : new CompositeEventListener(all);
+  }
+
+  /**
+   * Tells whether the listener currently wants to be notified. It is checked before each exchange, retry and deserialization,
+   * which are not observed at all while it is false, so it must be cheap, e.g. a volatile read.
+   *
+   * @return true by default
+   */
+  default boolean isActive() {
+    return true;
+  }
+
+  /**
+   * Called when an exchange starts, before waiting for any rate or concurrency limit
+   */
+  default void requestStart(HttpExchange exchange) {
+  }
+
+  /**
+   * Called when the whole body of the request has been handed to the http client
+   *
+   * @param bytes    the size of the body
+   * @param nanoTime the time of the event
+   */
+  default void bodyPublished(HttpExchange exchange, long bytes, long nanoTime) {
+  }
+
+  /**
+   * Called when the status code and headers of the response are received
+   *
+   * @param statusCode the status code of the response
+   * @param nanoTime   the time of the event
+   */
+  default void headersReceived(HttpExchange exchange, int statusCode, long nanoTime) {
+  }
+
+  /**
+   * Called when the whole body of the response has been received
+   *
+   * @param bytes    the size of the body
+   * @param nanoTime the time of the event
+   */
+  default void bodyReceived(HttpExchange exchange, long bytes, long nanoTime) {
+  }
+
+  /**
+   * Called when the exchange completed with a response, whatever its status code
+   *
+   * @param response the response received
+   * @param nanoTime the time of the event
+   */
+  default void exchangeCompleted(HttpExchange exchange, HttpResponse<?> response, long nanoTime) {
+  }
+
+  /**
+   * Called when the exchange failed without response
+   *
+   * @param cause    the reason of the failure
+   * @param nanoTime the time of the event
+   */
+  default void exchangeFailed(HttpExchange exchange, Throwable cause, long nanoTime) {
+  }
+
+  /**
+   * Called when a retry policy schedules a new attempt of a request
+   *
+   * @param request  the request to retry
+   * @param attempt  the number of the failed attempt, starting at 1
+   * @param delay    the delay before the next attempt
+   * @param nanoTime the time of the event
+   */
+  default void retryScheduled(HttpRequest request, int attempt, Duration delay, long nanoTime) {
+  }
+
+  /**
+   * Called when {@code readBody} starts deserializing the body of a response
+   *
+   * @param request  the request of the response
+   * @param type     the type of the deserialized value
+   * @param nanoTime the time of the event
+   */
+  default void deserializationStart(HttpRequest request, JavaType type, long nanoTime) {
+  }
+
+  /**
+   * Called when {@code readBody} deserialized the body of a response
+   *
+   * @param request    the request of the response
+   * @param type       the type of the deserialized value
+   * @param startNanos the time of the matching {@link #deserializationStart(HttpRequest, JavaType, long)}
+   * @param nanoTime   the time of the event
+   */
+  default void deserializationEnd(HttpRequest request, JavaType type, long startNanos, long nanoTime) {
+  }
+
+  /**
+   * Called when {@code readBody} failed to deserialize the body of a response
+   *
+   * @param request    the request of the response
+   * @param type       the type of the deserialized value
+   * @param cause      the reason of the failure
+   * @param startNanos the time of the matching {@link #deserializationStart(HttpRequest, JavaType, long)}
+   * @param nanoTime   the time of the event
+   */
+  default void deserializationFailed(HttpRequest request, JavaType type, Throwable cause, long startNanos, long nanoTime) {
+  }
+}
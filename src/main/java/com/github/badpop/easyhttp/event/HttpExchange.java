@@ -0,0 +1,109 @@
+package com.github.badpop.easyhttp.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.val;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.util.concurrent.CompletionException;
+
+/**
+ * One exchange with a server, notified to an {@link EasyHttpEventListener}.
+ * <p>
+ * The exchange records the sizes and the status code as its events happen, so a listener can read them in later events.
+ * The {@code observe} and {@code on*} methods are called by the client sending the request.
+ *
+ * <ul>
+ *   <li>{@link #start(EasyHttpEventListener, HttpRequest)}</li>
+ *   <li>{@link #observe(HttpRequest)}</li>
+ *   <li>{@link #observe(BodyHandler)}</li>
+ *   <li>{@link #onResponse(HttpResponse)}</li>
+ *   <li>{@link #onFailure(Throwable)}</li>
+ * </ul>
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public final class HttpExchange {
+
+  @Getter(AccessLevel.NONE)
+  private final EasyHttpEventListener listener;
+  @ToString.Include
+  private final HttpRequest request;
+  private final long startNanos;
+  private volatile long bytesSent;
+  private volatile long bytesReceived;
+  @ToString.Include
+  private volatile int statusCode = -1;
+
+  private HttpExchange(EasyHttpEventListener listener, HttpRequest request) {
+    this.listener = listener;
+    this.request = request;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts an exchange and notifies {@link EasyHttpEventListener#requestStart(HttpExchange)}
+   *
+   * @param listener the listener to notify
+   * @param request  the request sent by the exchange
+   * @return the started exchange
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public static HttpExchange start(@NonNull EasyHttpEventListener listener, @NonNull HttpRequest request) {
+    val exchange = new HttpExchange(listener, request);
+    listener.requestStart(exchange);
+    return exchange;
+  }
+
+  /**
+   * @return the given request if it has no body, a copy of it counting the bytes of its body otherwise
+   */
+  public HttpRequest observe(@NonNull HttpRequest request) {
+    return request.bodyPublisher()
+      .map(publisher -> HttpRequest.newBuilder(request, (name, value) -> true)
+        .method(request.method(), new CountingBodyPublisher(publisher, this))
+        .build())
+      .orElse(request);
+  }
+
+  /**
+   * @return a body handler notifying the headers of the response and counting the bytes of its body
+   */
+  public <T> BodyHandler<T> observe(@NonNull BodyHandler<T> bodyHandler) {
+    return responseInfo -> {
+      statusCode = responseInfo.statusCode();
+      listener.headersReceived(this, statusCode, System.nanoTime());
+      return new CountingBodySubscriber<>(bodyHandler.apply(responseInfo), this);
+    };
+  }
+
+  /**
+   * Notifies {@link EasyHttpEventListener#exchangeCompleted(HttpExchange, HttpResponse, long)}
+   */
+  public void onResponse(@NonNull HttpResponse<?> response) {
+    statusCode = response.statusCode();
+    listener.exchangeCompleted(this, response, System.nanoTime());
+  }
+
+  /**
+   * Notifies {@link EasyHttpEventListener#exchangeFailed(HttpExchange, Throwable, long)}, unwrapping {@link CompletionException}
+   */
+  public void onFailure(@NonNull Throwable throwable) {
+    val cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    listener.exchangeFailed(this, cause, System.nanoTime());
+  }
+
+  void onBodyPublished(long bytes) {
+    bytesSent = bytes;
+    listener.bodyPublished(this, bytes, System.nanoTime());
+  }
+
+  void onBodyReceived(long bytes) {
+    bytesReceived = bytes;
+    listener.bodyReceived(this, bytes, System.nanoTime());
+  }
+}
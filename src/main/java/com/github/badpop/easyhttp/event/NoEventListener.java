@@ -0,0 +1,22 @@
+package com.github.badpop.easyhttp.event;
+
+/**
+ * The listener of the clients without listener, see {@link EasyHttpEventListener#none()}
+ */
+final class NoEventListener implements EasyHttpEventListener {
+
+  static final NoEventListener INSTANCE = new NoEventListener();
+
+  private NoEventListener() {
+  }
+
+  @Override
+  public boolean isActive() {
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "NoEventListener";
+  }
+}
@@ -0,0 +1,14 @@
+package com.github.badpop.easyhttp.exception;
+
+import lombok.Getter;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+
+  @Getter
+  private final String host;
+
+  public CircuitBreakerOpenException(String message, String host) {
+    super(message);
+    this.host = host;
+  }
+}
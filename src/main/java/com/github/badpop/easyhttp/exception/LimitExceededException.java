@@ -0,0 +1,14 @@
+package com.github.badpop.easyhttp.exception;
+
+import lombok.Getter;
+
+public class LimitExceededException extends RuntimeException {
+
+  @Getter
+  private final String host;
+
+  public LimitExceededException(String message, String host) {
+    super(message);
+    this.host = host;
+  }
+}
@@ -0,0 +1,14 @@
+package com.github.badpop.easyhttp.exception;
+
+import lombok.Getter;
+
+public class RateLimitExceededException extends RuntimeException {
+
+  @Getter
+  private final String bucket;
+
+  public RateLimitExceededException(String message, String bucket) {
+    super(message);
+    this.bucket = bucket;
+  }
+}
@@ -0,0 +1,14 @@
+package com.github.badpop.easyhttp.exception;
+
+import lombok.Getter;
+
+public class ServerErrorException extends RuntimeException {
+
+  @Getter
+  private final int statusCode;
+
+  public ServerErrorException(String message, int statusCode) {
+    super(message);
+    this.statusCode = statusCode;
+  }
+}
@@ -0,0 +1,19 @@
+package com.github.badpop.easyhttp.exception;
+
+import lombok.Getter;
+
+public class WriteBodyException extends RuntimeException {
+
+  @Getter
+  private final Object body;
+
+  public WriteBodyException(String message, Object body) {
+    super(message);
+    this.body = body;
+  }
+
+  public WriteBodyException(String message, Object body, Throwable cause) {
+    super(message, cause);
+    this.body = body;
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.badpop.easyhttp.hedge;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket capping the proportion of requests that are hedged.
+ * <p>
+ * Each request deposits {@code hedgeRatio} tokens, and each hedge withdraws one token, so that in the long run at most
+ * {@code hedgeRatio} hedges are sent per request, e.g. 0.1 for at most 10% extra load. The bucket holds at most {@code burst} tokens,
+ * which is the number of hedges that can be sent in a row, e.g. when a replica suddenly slows down.
+ * <p>
+ * The bucket is lock free and is meant to be shared by all the requests using the same {@link HedgePolicy}.
+ *
+ * <ul>
+ *   <li>{@link #of(double, int)}</li>
+ *   <li>{@link #tokens()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class HedgeBudget {
+
+  private static final long SCALE = 1000;
+
+  @Getter
+  @ToString.Include
+  private final double hedgeRatio;
+  @Getter
+  @ToString.Include
+  private final int burst;
+  private final long depositMilliTokens;
+  private final long maxMilliTokens;
+  private final AtomicLong milliTokens;
+
+  private HedgeBudget(double hedgeRatio, int burst) {
+    this.hedgeRatio = hedgeRatio;
+    this.burst = burst;
+    this.depositMilliTokens = Math.round(hedgeRatio * SCALE);
+    this.maxMilliTokens = burst * SCALE;
+    this.milliTokens = new AtomicLong(maxMilliTokens);
+  }
+
+  /**
+   * Builds a new full budget
+   *
+   * @param hedgeRatio the maximum number of hedges per request in the long run, in ]0, 1]
+   * @param burst      the maximum number of hedges that can be sent in a row
+   * @return a new budget
+   * @throws IllegalArgumentException if the ratio is not in ]0, 1] or if the burst is not strictly positive
+   */
+  public static HedgeBudget of(double hedgeRatio, int burst) {
+    if (!(hedgeRatio > 0 && hedgeRatio <= 1)) {
+      throw new IllegalArgumentException("The hedge ratio must be strictly positive and lower than 1");
+    }
+    if (burst <= 0) {
+      throw new IllegalArgumentException("The burst must be strictly positive");
+    }
+    return new HedgeBudget(hedgeRatio, burst);
+  }
+
+  /**
+   * @return the number of tokens currently available
+   */
+  @ToString.Include
+  public double tokens() {
+    return milliTokens.get() / (double) SCALE;
+  }
+
+  void onRequest() {
+    milliTokens.getAndUpdate(current -> Math.min(maxMilliTokens, current + depositMilliTokens));
+  }
+
+  boolean tryAcquireHedge() {
+    long current;
+    do {
+      current = milliTokens.get();
+      if (current < SCALE) {
+        return false;
+      }
+    } while (!milliTokens.compareAndSet(current, current - SCALE));
+    return true;
+  }
+}
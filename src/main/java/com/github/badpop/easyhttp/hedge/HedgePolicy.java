@@ -0,0 +1,143 @@
+package com.github.badpop.easyhttp.hedge;
+
+import io.vavr.control.Option;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Describes when a hedged request sends duplicates of itself, see {@link com.github.badpop.easyhttp.EasyHttpClient#sendHedgedAsync}.
+ * <p>
+ * A hedge is sent when no response arrived after the hedge delay, which is either fixed or the observed percentile of the recent latencies.
+ * The budget caps the proportion of requests that are hedged, so that hedging does not double the load of the backends.
+ * Policies are immutable but their budget and latency tracker are shared by the requests using them and by the policies built with the withers,
+ * so a policy is meant to be built once per backend and reused.
+ *
+ * <ul>
+ *   <li>{@link #fixedDelay(Duration)}</li>
+ *   <li>{@link #percentileDelay(double, Duration)}</li>
+ *   <li>{@link #withMaxHedges(int)}</li>
+ *   <li>{@link #withBudget(HedgeBudget)}</li>
+ *   <li>{@link #hedgeDelay()}</li>
+ * </ul>
+ */
+@Value
+public class HedgePolicy {
+
+  /**
+   * The delay used when the policy has a fixed delay, or until enough latencies are observed otherwise
+   */
+  Duration delay;
+  /**
+   * The maximum number of duplicates sent for a single request
+   */
+  int maxHedges;
+  HedgeBudget budget;
+  /**
+   * The tracker of the observed latencies, null when the policy has a fixed delay
+   */
+  LatencyTracker latencies;
+
+  private HedgePolicy(@NonNull Duration delay, int maxHedges, @NonNull HedgeBudget budget, LatencyTracker latencies) {
+    if (delay.isNegative()) {
+      throw new IllegalArgumentException("The hedge delay must not be negative");
+    }
+    if (maxHedges <= 0) {
+      throw new IllegalArgumentException("The maximum number of hedges must be strictly positive");
+    }
+    this.delay = delay;
+    this.maxHedges = maxHedges;
+    this.budget = budget;
+    this.latencies = latencies;
+  }
+
+  /**
+   * Builds a policy sending one hedge when no response arrived after the given delay, with a budget of at most 10% hedged requests
+   *
+   * @param delay the delay after which a hedge is sent
+   * @return a new policy
+   * @throws IllegalArgumentException if the delay is negative
+   * @throws NullPointerException     if the delay is null
+   */
+  public static HedgePolicy fixedDelay(@NonNull Duration delay) {
+    return new HedgePolicy(delay, 1, defaultBudget(), null);
+  }
+
+  /**
+   * Builds a policy sending one hedge when no response arrived after the given percentile of the recent latencies,
+   * with a budget of at most 10% hedged requests. For instance, hedging after the p95 latency sends about 5% of hedges.
+   *
+   * @param percentile   the percentile of the recent latencies after which a hedge is sent, in ]0, 100[
+   * @param initialDelay the delay used until enough latencies are observed
+   * @return a new policy
+   * @throws IllegalArgumentException if the percentile is not in ]0, 100[ or if the delay is negative
+   * @throws NullPointerException     if the delay is null
+   */
+  public static HedgePolicy percentileDelay(double percentile, @NonNull Duration initialDelay) {
+    return new HedgePolicy(initialDelay, 1, defaultBudget(), new LatencyTracker(percentile));
+  }
+
+  /**
+   * @param maxHedges the maximum number of duplicates sent for a single request, each one after another hedge delay
+   * @return a new policy sharing the budget and latencies of the current one
+   * @throws IllegalArgumentException if the maximum is not strictly positive
+   */
+  public HedgePolicy withMaxHedges(int maxHedges) {
+    return this.maxHedges == maxHedges ? this : new HedgePolicy(delay, maxHedges, budget, latencies);
+  }
+
+  /**
+   * @param budget the budget capping the proportion of hedged requests
+   * @return a new policy sharing the latencies of the current one
+   * @throws NullPointerException if the budget is null
+   */
+  public HedgePolicy withBudget(@NonNull HedgeBudget budget) {
+    return this.budget == budget ? this : new HedgePolicy(delay, maxHedges, budget, latencies);
+  }
+
+  /**
+   * @return the delay after which a hedge is sent, given the latencies observed so far
+   */
+  public Duration hedgeDelay() {
+    return latencies == null ? delay : latencies.percentile().getOrElse(delay);
+  }
+
+  /**
+   * @return the tracker of the observed latencies, none when the policy has a fixed delay
+   */
+  public Option<LatencyTracker> latenciesOption() {
+    return Option.of(latencies);
+  }
+
+  /**
+   * Records a new request in the budget
+   */
+  public void onRequest() {
+    budget.onRequest();
+  }
+
+  /**
+   * @return true if the budget allows to send a hedge, in which case a token is withdrawn from the budget
+   */
+  public boolean tryAcquireHedge() {
+    return budget.tryAcquireHedge();
+  }
+
+  /**
+   * Records the time a request waited for its first response, measured from the start of its primary attempt, used to compute
+   * the percentile delay. When a hedge wins, it is a lower bound of the latency of the cancelled primary attempt, so that the
+   * slow primary attempts are still part of the percentile.
+   *
+   * @param latency the time from the start of the primary attempt to the first response
+   */
+  public void onResponse(@NonNull Duration latency) {
+    if (latencies != null) {
+      latencies.record(latency);
+    }
+  }
+
+  private static HedgeBudget defaultBudget() {
+    return HedgeBudget.of(0.1, 10);
+  }
+}
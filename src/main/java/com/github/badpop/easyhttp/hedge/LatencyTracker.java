@@ -0,0 +1,78 @@
+package com.github.badpop.easyhttp.hedge;
+
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks a percentile of the latencies recorded over a sliding window of the most recent requests.
+ * <p>
+ * Recording a latency is lock free. The percentile is recomputed by the thread recording every 64th latency,
+ * so reading it never sorts the window.
+ *
+ * <ul>
+ *   <li>{@link #record(Duration)}</li>
+ *   <li>{@link #percentile()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class LatencyTracker {
+
+  static final int WINDOW_SIZE = 1024;
+  static final int RECOMPUTE_INTERVAL = 64;
+  static final int MIN_SAMPLES = 32;
+
+  @Getter
+  @ToString.Include
+  private final double percentile;
+  private final AtomicLongArray window = new AtomicLongArray(WINDOW_SIZE);
+  private final AtomicLong recorded = new AtomicLong();
+  private volatile Duration current;
+
+  /**
+   * @param percentile the percentile to track, in ]0, 100[, e.g. 95 for the p95
+   * @throws IllegalArgumentException if the percentile is not in ]0, 100[
+   */
+  public LatencyTracker(double percentile) {
+    if (!(percentile > 0 && percentile < 100)) {
+      throw new IllegalArgumentException("The percentile must be strictly between 0 and 100");
+    }
+    this.percentile = percentile;
+  }
+
+  /**
+   * @param latency the latency of a request
+   */
+  public void record(Duration latency) {
+    val index = recorded.getAndIncrement();
+    window.set((int) (index % WINDOW_SIZE), latency.toNanos());
+    val count = index + 1;
+    if (count == MIN_SAMPLES || (count > MIN_SAMPLES && count % RECOMPUTE_INTERVAL == 0)) {
+      recompute(Math.min(count, WINDOW_SIZE));
+    }
+  }
+
+  /**
+   * @return the tracked percentile of the recent latencies, or none if too few latencies were recorded yet
+   */
+  @ToString.Include
+  public Option<Duration> percentile() {
+    return Option.of(current);
+  }
+
+  private void recompute(long samples) {
+    val latencies = new long[(int) samples];
+    for (int i = 0; i < samples; i++) {
+      latencies[i] = window.get(i);
+    }
+    Arrays.sort(latencies);
+    val rank = (int) Math.ceil(percentile / 100 * samples) - 1;
+    current = Duration.ofNanos(latencies[Math.max(0, rank)]);
+  }
+}
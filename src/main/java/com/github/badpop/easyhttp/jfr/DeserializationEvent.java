@@ -0,0 +1,36 @@
+package com.github.badpop.easyhttp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The deserialization of the body of a response by {@code readBody}
+ */
+@Name(DeserializationEvent.NAME)
+@Label("HTTP Body Deserialization")
+@Category("EasyHttp")
+@Description("The deserialization of the body of a response by EasyHttpResponse.readBody")
+@StackTrace(false)
+final class DeserializationEvent extends Event {
+
+  static final String NAME = "com.github.badpop.easyhttp.Deserialization";
+
+  @Label("Method")
+  String method;
+
+  @Label("Host")
+  String host;
+
+  @Label("Route")
+  String route;
+
+  @Label("Body Type")
+  String bodyType;
+
+  @Label("Failure")
+  String failure;
+}
@@ -0,0 +1,52 @@
+package com.github.badpop.easyhttp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * An exchange with a server, from its start to its response or failure
+ */
+@Name(ExchangeEvent.NAME)
+@Label("HTTP Exchange")
+@Category("EasyHttp")
+@Description("An exchange sent by an EasyHttp client, each retry attempt being a distinct exchange")
+@StackTrace(false)
+final class ExchangeEvent extends Event {
+
+  static final String NAME = "com.github.badpop.easyhttp.Exchange";
+
+  @Label("Method")
+  String method;
+
+  @Label("Host")
+  String host;
+
+  @Label("Route")
+  @Description("The path of the request, with its identifiers replaced by a template")
+  String route;
+
+  @Label("Status Code")
+  @Description("The status code of the response, -1 if the exchange failed before receiving it")
+  int statusCode;
+
+  @Label("Time To Headers")
+  @Timespan(Timespan.NANOSECONDS)
+  long timeToHeaders;
+
+  @Label("Bytes Sent")
+  @DataAmount
+  long bytesSent;
+
+  @Label("Bytes Received")
+  @DataAmount
+  long bytesReceived;
+
+  @Label("Failure")
+  String failure;
+}
@@ -0,0 +1,188 @@
+package com.github.badpop.easyhttp.jfr;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
+import com.github.badpop.easyhttp.event.HttpExchange;
+import com.github.badpop.easyhttp.metrics.RouteTemplater;
+import lombok.NonNull;
+import jdk.jfr.EventType;
+import lombok.val;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link EasyHttpEventListener} emitting JDK Flight Recorder events, so http stalls can be correlated with the garbage
+ * collections, safepoints and locks of the same recording:
+ * <ul>
+ *   <li>{@value ExchangeEvent#NAME} for each exchange with a server, with its method, host, route, status code, time
+ *   to headers, bytes sent and received, and failure</li>
+ *   <li>{@value DeserializationEvent#NAME} for each {@code readBody} deserialization, with the type of the body</li>
+ *   <li>{@value RetryEvent#NAME} for each retry scheduled by a retry policy, with the attempt and the delay</li>
+ * </ul>
+ * Routes are the paths of the requests templated by a {@link RouteTemplater}. The listener is only {@link #isActive() active}
+ * while a recording enables one of its events, so a client does not observe its exchanges at all otherwise.
+ *
+ * <pre>{@code
+ * var client = EasyHttpClientProvider.newClient().withEventListener(JfrEventListener.create());
+ * }</pre>
+ *
+ * <ul>
+ *   <li>{@link #create()}</li>
+ *   <li>{@link #create(RouteTemplater)}</li>
+ *   <li>{@link #isActive()}</li>
+ * </ul>
+ */
+public final class JfrEventListener implements EasyHttpEventListener {
+
+  private static final EventType EXCHANGE = EventType.getEventType(ExchangeEvent.class);
+  private static final EventType DESERIALIZATION = EventType.getEventType(DeserializationEvent.class);
+  private static final EventType RETRY = EventType.getEventType(RetryEvent.class);
+
+  private final RouteTemplater templater;
+  private final ConcurrentHashMap<HttpExchange, ExchangeEvent> exchanges;
+  private final ThreadLocal<DeserializationEvent> deserialization;
+
+  private JfrEventListener(RouteTemplater templater) {
+    this.templater = templater;
+    this.exchanges = new ConcurrentHashMap<>();
+    this.deserialization = new ThreadLocal<>();
+  }
+
+  /**
+   * Same as {@link #create(RouteTemplater)} with the {@link RouteTemplater#defaultTemplater()}
+   */
+  public static JfrEventListener create() {
+    return create(RouteTemplater.defaultTemplater());
+  }
+
+  /**
+   * @param templater the templater collapsing the paths of the requests into routes
+   * @return a new listener
+   * @throws NullPointerException if the templater is null
+   */
+  public static JfrEventListener create(@NonNull RouteTemplater templater) {
+    return new JfrEventListener(templater);
+  }
+
+  /**
+   * @return true while a recording enables one of the events of the listener
+   */
+  @Override
+  public boolean isActive() {
+    return EXCHANGE.isEnabled() || DESERIALIZATION.isEnabled() || RETRY.isEnabled();
+  }
+
+  @Override
+  public void requestStart(HttpExchange exchange) {
+    val event = new ExchangeEvent();
+    if (!event.isEnabled()) {
+      return;
+    }
+    event.begin();
+    exchanges.put(exchange, event);
+  }
+
+  @Override
+  public void headersReceived(HttpExchange exchange, int statusCode, long nanoTime) {
+    val event = exchanges.get(exchange);
+    if (event != null) {
+      event.timeToHeaders = nanoTime - exchange.getStartNanos();
+    }
+  }
+
+  @Override
+  public void exchangeCompleted(HttpExchange exchange, HttpResponse<?> response, long nanoTime) {
+    commit(exchange, null);
+  }
+
+  @Override
+  public void exchangeFailed(HttpExchange exchange, Throwable cause, long nanoTime) {
+    commit(exchange, cause);
+  }
+
+  @Override
+  public void retryScheduled(HttpRequest request, int attempt, Duration delay, long nanoTime) {
+    val event = new RetryEvent();
+    if (!event.shouldCommit()) {
+      return;
+    }
+    val uri = request.uri();
+    event.method = request.method();
+    event.host = host(uri);
+    event.route = templater.template(uri);
+    event.attempt = attempt;
+    event.delay = delay.toNanos();
+    event.commit();
+  }
+
+  @Override
+  public void deserializationStart(HttpRequest request, JavaType type, long nanoTime) {
+    val event = new DeserializationEvent();
+    if (!event.isEnabled()) {
+      return;
+    }
+    event.begin();
+    deserialization.set(event);
+  }
+
+  @Override
+  public void deserializationEnd(HttpRequest request, JavaType type, long startNanos, long nanoTime) {
+    commit(request, type, null);
+  }
+
+  @Override
+  public void deserializationFailed(HttpRequest request, JavaType type, Throwable cause, long startNanos, long nanoTime) {
+    commit(request, type, cause);
+  }
+
+  int inFlight() {
+    return exchanges.size();
+  }
+
+  private void commit(HttpExchange exchange, Throwable failure) {
+    val event = exchanges.remove(exchange);
+    if (event == null) {
+      return;
+    }
+    event.end();
+    if (!event.shouldCommit()) {
+      return;
+    }
+    val uri = exchange.getRequest().uri();
+    event.method = exchange.getRequest().method();
+    event.host = host(uri);
+    event.route = templater.template(uri);
+    event.statusCode = exchange.getStatusCode();
+    event.bytesSent = exchange.getBytesSent();
+    event.bytesReceived = exchange.getBytesReceived();
+    event.failure = failure == null ? null : failure.getClass().getName();
+    event.commit();
+  }
+
+  private void commit(HttpRequest request, JavaType type, Throwable failure) {
+    val event = deserialization.get();
+    if (event == null) {
+      return;
+    }
+    deserialization.remove();
+    event.end();
+    if (!event.shouldCommit()) {
+      return;
+    }
+    val uri = request.uri();
+    event.method = request.method();
+    event.host = host(uri);
+    event.route = templater.template(uri);
+    event.bodyType = type.toCanonical();
+    event.failure = failure == null ? null : failure.getClass().getName();
+    event.commit();
+  }
+
+  private static String host(URI uri) {
+    return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort());
+  }
+}
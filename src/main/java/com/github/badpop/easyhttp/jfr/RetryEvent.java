@@ -0,0 +1,39 @@
+package com.github.badpop.easyhttp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A new attempt of a request scheduled by a retry policy
+ */
+@Name(RetryEvent.NAME)
+@Label("HTTP Retry")
+@Category("EasyHttp")
+@Description("A new attempt of a request scheduled by the retry policy of an EasyHttp client")
+@StackTrace(false)
+final class RetryEvent extends Event {
+
+  static final String NAME = "com.github.badpop.easyhttp.Retry";
+
+  @Label("Method")
+  String method;
+
+  @Label("Host")
+  String host;
+
+  @Label("Route")
+  String route;
+
+  @Label("Attempt")
+  @Description("The number of the failed attempt, starting at 1")
+  int attempt;
+
+  @Label("Delay")
+  @Timespan(Timespan.NANOSECONDS)
+  long delay;
+}
@@ -0,0 +1,91 @@
+package com.github.badpop.easyhttp.json;
+
+import lombok.Getter;
+import lombok.val;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An {@link OutputStream} writing into a list of fixed size {@link ByteBuffer} chunks,
+ * so that large payloads never require a single contiguous array nor any copy when the stream grows.
+ * <p>
+ * Chunks can either be read all at once with {@link #chunks()}, or consumed as they are filled with {@link #pollFullChunk()} and {@link #pollChunk()}.
+ */
+final class ChunkedOutputStream extends OutputStream {
+
+  private final int chunkSize;
+  private final Deque<ByteBuffer> chunks = new ArrayDeque<>();
+  private ByteBuffer current;
+  @Getter
+  private long size;
+
+  ChunkedOutputStream(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public void write(int b) {
+    ensureCapacity();
+    current.put((byte) b);
+    size++;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) {
+    while (length > 0) {
+      ensureCapacity();
+      val count = Math.min(length, current.remaining());
+      current.put(bytes, offset, count);
+      offset += count;
+      length -= count;
+      size += count;
+    }
+  }
+
+  /**
+   * @return read only views of the written chunks, ready to be read
+   */
+  List<ByteBuffer> chunks() {
+    val result = new ArrayList<ByteBuffer>(chunks.size());
+    for (val chunk : chunks) {
+      result.add(chunk.asReadOnlyBuffer().flip());
+    }
+    return result;
+  }
+
+  /**
+   * @return the oldest written chunk, ready to be read, if it is full. Null otherwise
+   */
+  ByteBuffer pollFullChunk() {
+    val oldest = chunks.peekFirst();
+    return oldest == null || oldest.hasRemaining() ? null : poll();
+  }
+
+  /**
+   * @return the oldest written chunk, ready to be read, even if it is partially filled. Null if nothing is left to read
+   */
+  ByteBuffer pollChunk() {
+    val oldest = chunks.peekFirst();
+    return oldest == null || oldest.position() == 0 ? null : poll();
+  }
+
+  private ByteBuffer poll() {
+    val chunk = chunks.pollFirst();
+    if (chunk == current) {
+      current = null;
+    }
+    return chunk.flip();
+  }
+
+  private void ensureCapacity() {
+    if (current == null || !current.hasRemaining()) {
+      current = ByteBuffer.allocate(chunkSize);
+      chunks.addLast(current);
+    }
+  }
+}
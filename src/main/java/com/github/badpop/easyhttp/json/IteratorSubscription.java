@@ -0,0 +1,99 @@
+package com.github.badpop.easyhttp.json;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Subscription} emitting the buffers of an {@link Iterator} only when they are requested by the subscriber.
+ * <p>
+ * The iterator is only pulled from one thread at a time, so it can lazily produce its buffers.
+ * An exception thrown by the iterator is signaled through {@link Flow.Subscriber#onError(Throwable)}.
+ * If the iterator is {@link AutoCloseable}, it is closed once the subscription completes, fails or is cancelled.
+ */
+final class IteratorSubscription implements Flow.Subscription {
+
+  private final Flow.Subscriber<? super ByteBuffer> subscriber;
+  private final Iterator<ByteBuffer> iterator;
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private volatile boolean done;
+
+  IteratorSubscription(Flow.Subscriber<? super ByteBuffer> subscriber, Iterator<ByteBuffer> iterator) {
+    this.subscriber = subscriber;
+    this.iterator = iterator;
+  }
+
+  @Override
+  public void request(long n) {
+    if (done) {
+      return;
+    }
+    if (n <= 0) {
+      done = true;
+      release();
+      subscriber.onError(new IllegalArgumentException("The number of requested buffers must be strictly positive"));
+      return;
+    }
+    demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    done = true;
+    release();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+    do {
+      long requested = demand.get();
+      long emitted = 0;
+      while (emitted != requested && !done) {
+        ByteBuffer next = nextOrNull();
+        if (next == null) {
+          return;
+        }
+        subscriber.onNext(next);
+        emitted++;
+      }
+      if (emitted != 0 && requested != Long.MAX_VALUE) {
+        demand.addAndGet(-emitted);
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private ByteBuffer nextOrNull() {
+    try {
+      if (iterator.hasNext()) {
+        return iterator.next();
+      }
+      done = true;
+      release();
+      subscriber.onComplete();
+    } catch (RuntimeException e) {
+      done = true;
+      release();
+      subscriber.onError(e);
+    }
+    return null;
+  }
+
+  private void release() {
+    if (iterator instanceof AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception e) {
+        // the body is already complete or abandoned, nothing else can be done with this error
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+
+import java.io.IOException;
+
+/**
+ * A json response body that was already tokenized while it was received, see {@link JsonBodyHandlers#ofJsonBody}.
+ * <p>
+ * Binding it to an object does not require to parse any text anymore, and it can be read several times, into different types.
+ */
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class JsonBody {
+
+  @ToString.Exclude
+  private final TokenBuffer tokens;
+
+  /**
+   * Binds the tokenized body to an object using the given reader
+   *
+   * @param reader the reader defining the type of object to build
+   * @return the deserialized object
+   * @throws IOException          if the tokens do not match the type defined by the reader
+   * @throws NullPointerException if the given reader is null
+   */
+  public <T> T read(@NonNull ObjectReader reader) throws IOException {
+    try (var parser = tokens.asParser()) {
+      return reader.readValue(parser);
+    }
+  }
+
+  /**
+   * Binds the tokenized body to a sequence of objects using the given reader.
+   * The body can either be a sequence of root level values or a root level array, whose elements are then iterated.
+   *
+   * @param reader the reader defining the type of the objects to build
+   * @return an iterator deserializing the objects one at a time
+   * @throws IOException          if the tokens can not be read
+   * @throws NullPointerException if the given reader is null
+   */
+  public <T> MappingIterator<T> readValues(@NonNull ObjectReader reader) throws IOException {
+    val parser = tokens.asParser();
+    if (parser.nextToken() == JsonToken.START_ARRAY) {
+      parser.clearCurrentToken();
+      return reader.readValues(parser);
+    }
+    return reader.readValues(tokens.asParser());
+  }
+}
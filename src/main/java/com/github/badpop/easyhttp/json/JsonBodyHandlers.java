@@ -0,0 +1,93 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
+
+/**
+ * Implementations of {@link BodyHandler} deserializing json response bodies with Jackson.
+ *
+ * <ul>
+ *   <li>{@link #ofJson(ObjectReader)}</li>
+ *   <li>{@link #ofJsonSubscriber(ObjectReader)}</li>
+ *   <li>{@link #ofJsonBody(ObjectMapper)}</li>
+ *   <li>{@link #ofJsonBodySubscriber(ObjectMapper)}</li>
+ * </ul>
+ */
+@UtilityClass
+public class JsonBodyHandlers {
+
+  /**
+   * Returns a {@link BodyHandler} deserializing the body of 2xx responses straight from the received bytes,
+   * without decoding them into an intermediate {@link String}.
+   * <p>
+   * The body of any other response is discarded and replaced by null, as it is unlikely to match the expected type.
+   * An empty body is also read as null.
+   *
+   * @param reader the reader used to deserialize the response body
+   * @throws NullPointerException if the given reader is null
+   */
+  public <T> BodyHandler<T> ofJson(@NonNull ObjectReader reader) {
+    return responseInfo -> isSuccessful(responseInfo) ? ofJsonSubscriber(reader) : BodySubscribers.replacing(null);
+  }
+
+  /**
+   * Returns a {@link BodySubscriber} deserializing the received bytes with the given reader once the body is complete
+   *
+   * @param reader the reader used to deserialize the response body
+   * @throws NullPointerException if the given reader is null
+   */
+  public <T> BodySubscriber<T> ofJsonSubscriber(@NonNull ObjectReader reader) {
+    return BodySubscribers.mapping(BodySubscribers.ofByteArray(), bytes -> readValue(reader, bytes));
+  }
+
+  /**
+   * Returns a {@link BodyHandler} tokenizing the body of 2xx responses with Jackson's non-blocking parser while it is received,
+   * so that parsing overlaps with the network transfer. The resulting {@link JsonBody} is read with {@code EasyHttpResponse.readBody}.
+   * <p>
+   * The body of any other response is discarded and replaced by null, as it may not be json. An empty body is also read as null.
+   *
+   * @param objectMapper the ObjectMapper whose factory and configuration are used to tokenize the body
+   * @throws NullPointerException if the given ObjectMapper is null
+   */
+  public BodyHandler<JsonBody> ofJsonBody(@NonNull ObjectMapper objectMapper) {
+    return responseInfo -> isSuccessful(responseInfo) ? ofJsonBodySubscriber(objectMapper) : BodySubscribers.replacing(null);
+  }
+
+  /**
+   * Returns a {@link BodySubscriber} tokenizing each received chunk with Jackson's non-blocking parser
+   *
+   * @param objectMapper the ObjectMapper whose factory and configuration are used to tokenize the body
+   * @throws NullPointerException if the given ObjectMapper is null
+   */
+  public BodySubscriber<JsonBody> ofJsonBodySubscriber(@NonNull ObjectMapper objectMapper) {
+    try {
+      return new JsonBodySubscriber(objectMapper);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private boolean isSuccessful(ResponseInfo responseInfo) {
+    return responseInfo.statusCode() >= 200 && responseInfo.statusCode() <= 299;
+  }
+
+  private <T> T readValue(ObjectReader reader, byte[] bytes) {
+    if (bytes.length == 0) {
+      return null;
+    }
+    try {
+      return reader.readValue(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
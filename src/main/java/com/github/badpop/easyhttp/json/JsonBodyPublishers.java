@@ -0,0 +1,206 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.io.IOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Spliterator.ORDERED;
+
+/**
+ * Implementations of {@link BodyPublisher} serializing java objects to json with Jackson.
+ *
+ * <ul>
+ *   <li>{@link #ofJson(ObjectWriter, Object)}</li>
+ *   <li>{@link #ofJsonSequence(ObjectWriter, JsonSequenceFormat, Iterator)}</li>
+ *   <li>{@link #ofJsonSequence(ObjectWriter, JsonSequenceFormat, Stream)}</li>
+ *   <li>{@link #ofJsonSequence(ObjectWriter, JsonSequenceFormat, Supplier)}</li>
+ *   <li>{@link #ofJsonSequence(ObjectWriter, JsonSequenceFormat, Flow.Publisher)}</li>
+ * </ul>
+ */
+@UtilityClass
+public class JsonBodyPublishers {
+
+  static final int CHUNK_SIZE = 16 * 1024;
+
+  /**
+   * Serializes the given object with Jackson straight into fixed size {@link ByteBuffer} chunks, without building any
+   * intermediate {@link String} nor contiguous byte array, and returns a {@link BodyPublisher} streaming these chunks
+   * as they are requested by the http client. The content length of the publisher is the exact size of the json.
+   * <p>
+   * The publisher can be subscribed several times, for instance to retry a request.
+   *
+   * @param writer the writer used to serialize the object
+   * @param body   the object to serialize
+   * @return a new BodyPublisher streaming the json
+   * @throws IOException          if the object can not be serialized
+   * @throws NullPointerException if the given writer is null
+   */
+  public BodyPublisher ofJson(@NonNull ObjectWriter writer, Object body) throws IOException {
+    val out = new ChunkedOutputStream(CHUNK_SIZE);
+    writer.writeValue(out, body);
+    return new ChunkedBodyPublisher(out.chunks(), out.getSize());
+  }
+
+  /**
+   * Returns a {@link BodyPublisher} lazily serializing the elements of the given iterator as a json array or as NDJSON.
+   * Elements are only pulled from the iterator when the http client requests the next fixed size chunk,
+   * so the memory used by the upload does not depend on the number of elements. The content length is unknown.
+   * <p>
+   * The iterator can only be consumed once: subscribing several times to the returned publisher, for instance to retry the request,
+   * signals an {@link IllegalStateException} to the subsequent subscribers.
+   * Use {@link #ofJsonSequence(ObjectWriter, JsonSequenceFormat, Supplier)} to build a replayable publisher.
+   *
+   * @param writer   the writer used to serialize each element
+   * @param format   the format of the sequence
+   * @param elements the elements to serialize
+   * @return a new BodyPublisher streaming the json sequence
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public BodyPublisher ofJsonSequence(@NonNull ObjectWriter writer, @NonNull JsonSequenceFormat format, @NonNull Iterator<?> elements) {
+    return new SequenceBodyPublisher(writer, format, oneShot(() -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, ORDERED), false)));
+  }
+
+  /**
+   * Returns a {@link BodyPublisher} lazily serializing the elements of the given stream as a json array or as NDJSON.
+   * Elements are only pulled from the stream when the http client requests the next fixed size chunk,
+   * so the memory used by the upload does not depend on the number of elements. The content length is unknown.
+   * <p>
+   * The stream is closed once the body is entirely published, or when the http client abandons it.
+   * It can only be consumed once: subscribing several times to the returned publisher, for instance to retry the request,
+   * signals an {@link IllegalStateException} to the subsequent subscribers.
+   * Use {@link #ofJsonSequence(ObjectWriter, JsonSequenceFormat, Supplier)} to build a replayable publisher.
+   *
+   * @param writer   the writer used to serialize each element
+   * @param format   the format of the sequence
+   * @param elements the elements to serialize
+   * @return a new BodyPublisher streaming the json sequence
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public BodyPublisher ofJsonSequence(@NonNull ObjectWriter writer, @NonNull JsonSequenceFormat format, @NonNull Stream<?> elements) {
+    return new SequenceBodyPublisher(writer, format, oneShot(() -> elements));
+  }
+
+  /**
+   * Returns a replayable {@link BodyPublisher} lazily serializing the elements of the streams returned by the given supplier
+   * as a json array or as NDJSON. Elements are only pulled from the stream when the http client requests the next fixed size chunk,
+   * so the memory used by the upload does not depend on the number of elements. The content length is unknown.
+   * <p>
+   * A new stream is requested from the supplier each time the publisher is subscribed, for instance when the request is retried,
+   * and it is closed once the body is entirely published, or when the http client abandons it.
+   *
+   * @param writer   the writer used to serialize each element
+   * @param format   the format of the sequence
+   * @param elements supplies the elements to serialize, once per subscription
+   * @return a new BodyPublisher streaming the json sequence
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public BodyPublisher ofJsonSequence(@NonNull ObjectWriter writer,
+                                      @NonNull JsonSequenceFormat format,
+                                      @NonNull Supplier<? extends Stream<?>> elements) {
+    return new SequenceBodyPublisher(writer, format, elements);
+  }
+
+  /**
+   * Returns a {@link BodyPublisher} lazily serializing the elements of the given publisher as a json array or as NDJSON.
+   * Elements are requested from the publisher, by small batches, only when the http client requests the next fixed size chunk,
+   * so the memory used by the upload does not depend on the number of elements. The content length is unknown.
+   * <p>
+   * The given publisher is subscribed each time the returned publisher is subscribed, for instance when the request is retried.
+   * The returned publisher is therefore replayable if, and only if, the given publisher is.
+   *
+   * @param writer   the writer used to serialize each element
+   * @param format   the format of the sequence
+   * @param elements the elements to serialize
+   * @return a new BodyPublisher streaming the json sequence
+   * @throws NullPointerException if one of the given arguments is null
+   */
+  public BodyPublisher ofJsonSequence(@NonNull ObjectWriter writer,
+                                      @NonNull JsonSequenceFormat format,
+                                      @NonNull Flow.Publisher<?> elements) {
+    return new FlowSequenceBodyPublisher(writer, format, elements);
+  }
+
+  private record ChunkedBodyPublisher(List<ByteBuffer> chunks, long contentLength) implements BodyPublisher {
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+      val buffers = chunks.stream().map(ByteBuffer::duplicate).iterator();
+      subscriber.onSubscribe(new IteratorSubscription(subscriber, buffers));
+    }
+  }
+
+  private record FlowSequenceBodyPublisher(ObjectWriter writer, JsonSequenceFormat format, Flow.Publisher<?> elements) implements BodyPublisher {
+
+    @Override
+    public long contentLength() {
+      return -1;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+      val subscription = new JsonSequenceSubscription(subscriber, new JsonSequenceWriter(writer, format, CHUNK_SIZE));
+      subscriber.onSubscribe(subscription);
+      elements.subscribe(subscription);
+    }
+  }
+
+  private record SequenceBodyPublisher(ObjectWriter writer, JsonSequenceFormat format, Supplier<? extends Stream<?>> elements)
+    implements BodyPublisher {
+
+    @Override
+    public long contentLength() {
+      return -1;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+      final Stream<?> stream;
+      try {
+        stream = elements.get();
+      } catch (RuntimeException e) {
+        subscriber.onSubscribe(FailedSubscription.INSTANCE);
+        subscriber.onError(e);
+        return;
+      }
+      val chunks = new JsonSequenceIterator(stream.iterator(), new JsonSequenceWriter(writer, format, CHUNK_SIZE), stream::close);
+      subscriber.onSubscribe(new IteratorSubscription(subscriber, chunks));
+    }
+  }
+
+  private enum FailedSubscription implements Flow.Subscription {
+    INSTANCE;
+
+    @Override
+    public void request(long n) {
+      // the subscriber already received an error
+    }
+
+    @Override
+    public void cancel() {
+      // nothing to release
+    }
+  }
+
+  private Supplier<Stream<?>> oneShot(Supplier<Stream<?>> elements) {
+    val consumed = new AtomicBoolean();
+    return () -> {
+      if (consumed.getAndSet(true)) {
+        throw new IllegalStateException("The elements of this body publisher can only be published once");
+      }
+      return elements.get();
+    };
+  }
+}
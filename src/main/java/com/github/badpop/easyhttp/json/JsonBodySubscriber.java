@@ -0,0 +1,98 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.val;
+
+import java.io.IOException;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+
+import static com.fasterxml.jackson.databind.DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS;
+
+/**
+ * A {@link BodySubscriber} feeding each received chunk to Jackson's non-blocking parser, so that the body is tokenized
+ * while it is still being received. Chunks are requested one at a time and the resulting tokens are kept in a {@link TokenBuffer}.
+ */
+final class JsonBodySubscriber implements BodySubscriber<JsonBody> {
+
+  private static final int CHUNK_SIZE = 8192;
+
+  private final CompletableFuture<JsonBody> body = new CompletableFuture<>();
+  private final JsonParser parser;
+  private final ByteArrayFeeder feeder;
+  private final TokenBuffer tokens;
+  private final byte[] chunk = new byte[CHUNK_SIZE];
+  private Subscription subscription;
+
+  JsonBodySubscriber(ObjectMapper objectMapper) throws IOException {
+    this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+    this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    this.tokens = new TokenBuffer(parser);
+    this.tokens.forceUseOfBigDecimal(objectMapper.isEnabled(USE_BIG_DECIMAL_FOR_FLOATS));
+  }
+
+  @Override
+  public CompletionStage<JsonBody> getBody() {
+    return body;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(1);
+  }
+
+  @Override
+  public void onNext(List<ByteBuffer> buffers) {
+    try {
+      for (val buffer : buffers) {
+        feed(buffer);
+      }
+      subscription.request(1);
+    } catch (IOException e) {
+      subscription.cancel();
+      body.completeExceptionally(e);
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    body.completeExceptionally(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    try {
+      feeder.endOfInput();
+      drain();
+      parser.close();
+      body.complete(tokens.firstToken() == null ? null : new JsonBody(tokens));
+    } catch (IOException e) {
+      body.completeExceptionally(e);
+    }
+  }
+
+  private void feed(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      val length = Math.min(buffer.remaining(), chunk.length);
+      buffer.get(chunk, 0, length);
+      feeder.feedInput(chunk, 0, length);
+      drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+      tokens.copyCurrentEvent(parser);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.val;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded and thread safe cache of {@link ObjectReader} and {@link ObjectWriter} built from an {@link ObjectMapper}.
+ * <p>
+ * Readers and writers are immutable and have their root (de)serializer resolved once, so reusing them avoids the type
+ * resolution and (de)serializer lookup performed by each {@link ObjectMapper#readValue} or {@link ObjectMapper#writeValueAsString} call.
+ * Note that they capture the configuration of the ObjectMapper when they are built:
+ * configuring the ObjectMapper afterwards has no effect on the codecs already cached.
+ * <p>
+ * When the cache is full, an arbitrary entry is evicted before inserting a new one.
+ *
+ * <ul>
+ *   <li>{@link #readerFor(Class)}</li>
+ *   <li>{@link #readerFor(TypeReference)}</li>
+ *   <li>{@link #readerFor(JavaType)}</li>
+ *   <li>{@link #writerFor(Class)}</li>
+ *   <li>{@link #size()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class JsonCodecs {
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 512;
+
+  @Getter
+  private final ObjectMapper objectMapper;
+  @Getter
+  @ToString.Include
+  private final int maximumSize;
+  private final Map<Type, ObjectReader> readers;
+  private final Map<Class<?>, Option<ObjectWriter>> writers;
+
+  public JsonCodecs(@NonNull ObjectMapper objectMapper) {
+    this(objectMapper, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param objectMapper the ObjectMapper used to build readers and writers
+   * @param maximumSize  the maximum number of readers, and of writers, kept in the cache
+   * @throws IllegalArgumentException if the maximum size is not strictly positive
+   */
+  public JsonCodecs(@NonNull ObjectMapper objectMapper, int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("The maximum size must be strictly positive");
+    }
+    this.objectMapper = objectMapper;
+    this.maximumSize = maximumSize;
+    this.readers = new ConcurrentHashMap<>();
+    this.writers = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Provides a cached {@link ObjectReader} deserializing json into instances of the given class
+   *
+   * @throws NullPointerException if the given class is null
+   */
+  public ObjectReader readerFor(@NonNull Class<?> targetClass) {
+    return reader(targetClass);
+  }
+
+  /**
+   * Provides a cached {@link ObjectReader} deserializing json into instances of the type referenced by the given {@link TypeReference}
+   *
+   * @throws NullPointerException if the given TypeReference is null
+   */
+  public ObjectReader readerFor(@NonNull TypeReference<?> targetTypeReference) {
+    return reader(targetTypeReference.getType());
+  }
+
+  /**
+   * Provides a cached {@link ObjectReader} deserializing json into instances of the given {@link JavaType}
+   *
+   * @throws NullPointerException if the given JavaType is null
+   */
+  public ObjectReader readerFor(@NonNull JavaType targetType) {
+    return reader(targetType);
+  }
+
+  /**
+   * Provides a cached {@link ObjectWriter} serializing instances of the given class into json
+   *
+   * @return an {@link Option} containing the writer, or an empty Option if the ObjectMapper is unable to serialize the given class
+   * @throws NullPointerException if the given class is null
+   */
+  public Option<ObjectWriter> writerFor(@NonNull Class<?> sourceClass) {
+    val cached = writers.get(sourceClass);
+    if (cached != null) {
+      return cached;
+    }
+    evictIfFull(writers);
+    return writers.computeIfAbsent(sourceClass, clazz -> objectMapper.canSerialize(clazz)
+      ? Option.of(objectMapper.writerFor(clazz))
+      : Option.none());
+  }
+
+  /**
+   * @return the number of readers and writers currently cached
+   */
+  public int size() {
+    return readers.size() + writers.size();
+  }
+
+  private ObjectReader reader(Type type) {
+    val cached = readers.get(type);
+    if (cached != null) {
+      return cached;
+    }
+    evictIfFull(readers);
+    return readers.computeIfAbsent(type, key -> objectMapper.readerFor(objectMapper.constructType(key)));
+  }
+
+  private void evictIfFull(Map<?, ?> cache) {
+    if (cache.size() >= maximumSize) {
+      val keys = cache.keySet().iterator();
+      if (keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.github.badpop.easyhttp.json;
+
+/**
+ * The formats used to serialize a sequence of java objects into a single json body.
+ *
+ * <ul>
+ *   <li>{@link #ARRAY}</li>
+ *   <li>{@link #NDJSON}</li>
+ * </ul>
+ */
+public enum JsonSequenceFormat {
+
+  /**
+   * Elements are written as the values of a single json array, e.g. {@code [{"id":1},{"id":2}]}
+   */
+  ARRAY,
+
+  /**
+   * Elements are written as newline delimited json documents, e.g. {@code {"id":1}\n{"id":2}\n}
+   */
+  NDJSON
+}
@@ -0,0 +1,61 @@
+package com.github.badpop.easyhttp.json;
+
+import lombok.val;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} of chunks lazily serializing the elements of a source iterator only when the next chunk is requested.
+ * <p>
+ * Closing it runs the given close action, used to release the resources of the source, e.g. a database cursor behind a stream.
+ */
+final class JsonSequenceIterator implements Iterator<ByteBuffer>, AutoCloseable {
+
+  private final Iterator<?> source;
+  private final JsonSequenceWriter writer;
+  private final Runnable onClose;
+  private ByteBuffer next;
+
+  JsonSequenceIterator(Iterator<?> source, JsonSequenceWriter writer, Runnable onClose) {
+    this.source = source;
+    this.writer = writer;
+    this.onClose = onClose;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      next = produce();
+    }
+    return next != null;
+  }
+
+  @Override
+  public ByteBuffer next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    val result = next;
+    next = null;
+    return result;
+  }
+
+  @Override
+  public void close() {
+    onClose.run();
+  }
+
+  private ByteBuffer produce() {
+    ByteBuffer chunk;
+    while ((chunk = writer.pollChunk()) == null && !writer.isFinished()) {
+      if (source.hasNext()) {
+        writer.write(source.next());
+      } else {
+        writer.finish();
+      }
+    }
+    return chunk;
+  }
+}
@@ -0,0 +1,156 @@
+package com.github.badpop.easyhttp.json;
+
+import lombok.val;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bridges a {@link Flow.Publisher} of elements to a subscriber of json chunks.
+ * <p>
+ * Elements are only requested from the upstream publisher, by batches of {@link #PREFETCH}, when the downstream subscriber
+ * requested a chunk that can not be filled with the elements already received. All the serialization happens in the drain loop,
+ * which only runs on one thread at a time.
+ */
+final class JsonSequenceSubscription implements Flow.Subscription, Flow.Subscriber<Object> {
+
+  static final int PREFETCH = 64;
+
+  private final Flow.Subscriber<? super ByteBuffer> downstream;
+  private final JsonSequenceWriter writer;
+  private final Queue<Object> elements = new ConcurrentLinkedQueue<>();
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicLong outstanding = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private volatile Flow.Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile Throwable upstreamError;
+  private volatile boolean done;
+
+  JsonSequenceSubscription(Flow.Subscriber<? super ByteBuffer> downstream, JsonSequenceWriter writer) {
+    this.downstream = downstream;
+    this.writer = writer;
+  }
+
+  @Override
+  public void request(long n) {
+    if (done) {
+      return;
+    }
+    if (n <= 0) {
+      terminate(new IllegalArgumentException("The number of requested buffers must be strictly positive"));
+      return;
+    }
+    demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    done = true;
+    cancelUpstream();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    if (upstream != null || done) {
+      subscription.cancel();
+      return;
+    }
+    upstream = subscription;
+    drain();
+  }
+
+  @Override
+  public void onNext(Object element) {
+    elements.add(element);
+    outstanding.decrementAndGet();
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    upstreamError = throwable;
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    upstreamDone = true;
+    drain();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+    do {
+      try {
+        drainLoop();
+      } catch (RuntimeException e) {
+        terminate(e);
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void drainLoop() {
+    while (!done && demand.get() != 0) {
+      val chunk = writer.pollChunk();
+      if (chunk != null) {
+        emit(chunk);
+        continue;
+      }
+      val element = elements.poll();
+      if (element != null) {
+        writer.write(element);
+      } else if (upstreamError != null) {
+        terminate(upstreamError);
+      } else if (writer.isFinished()) {
+        done = true;
+        downstream.onComplete();
+      } else if (upstreamDone) {
+        writer.finish();
+      } else {
+        requestUpstream();
+        return;
+      }
+    }
+  }
+
+  private void emit(ByteBuffer chunk) {
+    downstream.onNext(chunk);
+    if (demand.get() != Long.MAX_VALUE) {
+      demand.decrementAndGet();
+    }
+  }
+
+  private void requestUpstream() {
+    val subscription = upstream;
+    if (subscription != null && outstanding.compareAndSet(0, PREFETCH)) {
+      subscription.request(PREFETCH);
+    }
+  }
+
+  private void terminate(Throwable throwable) {
+    if (!done) {
+      done = true;
+      cancelUpstream();
+      downstream.onError(throwable);
+    }
+  }
+
+  private void cancelUpstream() {
+    val subscription = upstream;
+    if (subscription != null && !upstreamDone) {
+      subscription.cancel();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes the elements of a sequence one by one into fixed size chunks, so that only the chunk being filled
+ * and the element being written are kept in memory.
+ * <p>
+ * Serialization failures are thrown as {@link UncheckedIOException}.
+ */
+final class JsonSequenceWriter {
+
+  private final JsonSequenceFormat format;
+  private final ChunkedOutputStream out;
+  private final SequenceWriter sequence;
+  private boolean empty = true;
+  private boolean finished;
+
+  JsonSequenceWriter(ObjectWriter writer, JsonSequenceFormat format, int chunkSize) {
+    this.format = format;
+    this.out = new ChunkedOutputStream(chunkSize);
+    try {
+      this.sequence = format == JsonSequenceFormat.ARRAY
+        ? writer.writeValuesAsArray(out)
+        : writer.without(SerializationFeature.INDENT_OUTPUT).withRootValueSeparator("\n").writeValues(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  void write(Object element) {
+    try {
+      sequence.write(element);
+      sequence.flush();
+      empty = false;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the end of the sequence, does nothing if it was already written
+   */
+  void finish() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    try {
+      sequence.close();
+      if (format == JsonSequenceFormat.NDJSON && !empty) {
+        out.write('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * @return the next chunk to publish: a full chunk while the sequence is being written, then the remaining partial chunk once it is finished.
+   * Null if more elements must be written before a chunk can be published, or if everything was already published
+   */
+  ByteBuffer pollChunk() {
+    val chunk = out.pollFullChunk();
+    return chunk != null || !finished ? chunk : out.pollChunk();
+  }
+}
@@ -0,0 +1,127 @@
+package com.github.badpop.easyhttp.limit;
+
+import com.github.badpop.easyhttp.exception.LimitExceededException;
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests in flight to each host, and adjusts each limit from the latency and the failures observed,
+ * according to a {@link LimitPolicy}.
+ * <p>
+ * When a host slows down, its limit decreases so that new requests wait in a queue or are rejected with a {@link LimitExceededException}
+ * instead of piling up until they all time out. This keeps the latency of the accepted requests stable and protects both the host and
+ * the threads of the client. Hosts are identified by their scheme, name and port.
+ *
+ * <ul>
+ *   <li>{@link #disabled()}</li>
+ *   <li>{@link #perHost(LimitPolicy)}</li>
+ *   <li>{@link #isEnabled()}</li>
+ *   <li>{@link #acquire(URI)}</li>
+ *   <li>{@link #limit(URI)}</li>
+ *   <li>{@link #inFlight(URI)}</li>
+ *   <li>{@link #queueDepth(URI)}</li>
+ *   <li>{@link #rejected()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class ConcurrencyLimiter {
+
+  private static final ConcurrencyLimiter DISABLED = new ConcurrencyLimiter(null);
+
+  @Getter
+  @ToString.Include
+  private final LimitPolicy policy;
+  private final Map<String, HostLimit> hosts = new ConcurrentHashMap<>();
+  private final LongAdder rejected = new LongAdder();
+
+  private ConcurrencyLimiter(LimitPolicy policy) {
+    this.policy = policy;
+  }
+
+  /**
+   * @return a limiter never limiting any request, it is the limiter of a client unless configured otherwise
+   */
+  public static ConcurrencyLimiter disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @param policy the policy applied to each host
+   * @return a new limiter with a limit per host
+   * @throws NullPointerException if the policy is null
+   */
+  public static ConcurrencyLimiter perHost(@NonNull LimitPolicy policy) {
+    return new ConcurrencyLimiter(policy);
+  }
+
+  /**
+   * @return true if this limiter limits requests
+   */
+  public boolean isEnabled() {
+    return policy != null;
+  }
+
+  /**
+   * Asks for the right to send a request to the host of the given URI
+   *
+   * @param uri the URI of the request
+   * @return a future completed with a {@link Permit} once the request can be sent, which must be released once the request completed,
+   * or failed with a {@link LimitExceededException} if the queue of the host is full or if the request waited too long in the queue.
+   * Cancelling the future removes the request from the queue.
+   * @throws NullPointerException  if the uri is null
+   * @throws IllegalStateException if the limiter is disabled
+   */
+  public CompletableFuture<Permit> acquire(@NonNull URI uri) {
+    if (policy == null) {
+      throw new IllegalStateException("The limiter is disabled");
+    }
+    return hosts.computeIfAbsent(hostOf(uri), host -> new HostLimit(host, policy, rejected)).acquire();
+  }
+
+  /**
+   * @param uri any URI of the host
+   * @return the current limit of requests in flight to the host
+   */
+  public int limit(@NonNull URI uri) {
+    return host(uri).map(HostLimit::limit).getOrElse(() -> policy == null ? Integer.MAX_VALUE : policy.getInitialLimit());
+  }
+
+  /**
+   * @param uri any URI of the host
+   * @return the number of requests in flight to the host
+   */
+  public int inFlight(@NonNull URI uri) {
+    return host(uri).map(HostLimit::inFlight).getOrElse(0);
+  }
+
+  /**
+   * @param uri any URI of the host
+   * @return the number of requests waiting for the number of requests in flight to the host to go under its limit
+   */
+  public int queueDepth(@NonNull URI uri) {
+    return host(uri).map(HostLimit::queueDepth).getOrElse(0);
+  }
+
+  /**
+   * @return the number of requests rejected, for all hosts
+   */
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  private Option<HostLimit> host(URI uri) {
+    return Option.of(hosts.get(hostOf(uri)));
+  }
+
+  private static String hostOf(URI uri) {
+    return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+  }
+}
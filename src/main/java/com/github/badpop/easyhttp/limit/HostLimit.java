@@ -0,0 +1,150 @@
+package com.github.badpop.easyhttp.limit;
+
+import com.github.badpop.easyhttp.exception.LimitExceededException;
+import lombok.val;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The limit, the requests in flight and the queued requests of a single host
+ */
+final class HostLimit {
+
+  /**
+   * The number of samples over which the average latency is smoothed
+   */
+  private static final int LATENCY_SAMPLES = 256;
+
+  private final String host;
+  private final LimitPolicy policy;
+  private final LongAdder rejected;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ArrayDeque<CompletableFuture<Permit>> queue = new ArrayDeque<>();
+  private double limit;
+  private int inFlight;
+  private double averageLatencyNanos;
+
+  HostLimit(String host, LimitPolicy policy, LongAdder rejected) {
+    this.host = host;
+    this.policy = policy;
+    this.rejected = rejected;
+    this.limit = policy.getInitialLimit();
+  }
+
+  CompletableFuture<Permit> acquire() {
+    final CompletableFuture<Permit> waiter;
+    lock.lock();
+    try {
+      if (queue.isEmpty() && inFlight < (int) limit) {
+        inFlight++;
+        return CompletableFuture.completedFuture(new Permit(this, inFlight));
+      }
+      if (queue.size() >= policy.getMaxQueueSize()) {
+        rejected.increment();
+        return CompletableFuture.failedFuture(new LimitExceededException("Too many requests in flight to " + host, host));
+      }
+      waiter = new CompletableFuture<>();
+      queue.add(waiter);
+    } finally {
+      lock.unlock();
+    }
+
+    waiter.whenComplete((permit, throwable) -> {
+      if (waiter.isCancelled()) {
+        dequeue(waiter);
+      }
+    });
+    CompletableFuture.delayedExecutor(policy.getMaxQueueTime().toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+      if (dequeue(waiter)) {
+        rejected.increment();
+        waiter.completeExceptionally(new LimitExceededException("Request queued for too long before being sent to " + host, host));
+      }
+    });
+    return waiter;
+  }
+
+  void release(int inFlightAtAcquire, long latencyNanos, Permit.Outcome outcome) {
+    val granted = new ArrayList<CompletableFuture<Permit>>();
+    val permits = new ArrayList<Permit>();
+    lock.lock();
+    try {
+      inFlight--;
+      adjust(inFlightAtAcquire, latencyNanos, outcome);
+      while (!queue.isEmpty() && inFlight < (int) limit) {
+        inFlight++;
+        granted.add(queue.poll());
+        permits.add(new Permit(this, inFlight));
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // waiters are completed outside the lock since their continuations send the next requests
+    for (int i = 0; i < granted.size(); i++) {
+      if (!granted.get(i).complete(permits.get(i))) {
+        permits.get(i).onIgnore();
+      }
+    }
+  }
+
+  int limit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int inFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int queueDepth() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void adjust(int inFlightAtAcquire, long latencyNanos, Permit.Outcome outcome) {
+    if (outcome == Permit.Outcome.IGNORED) {
+      return;
+    }
+    val slow = outcome == Permit.Outcome.SUCCESS
+      && averageLatencyNanos > 0
+      && latencyNanos > policy.getLatencyTolerance() * averageLatencyNanos;
+    if (outcome == Permit.Outcome.DROPPED || slow) {
+      limit = Math.max(policy.getMinLimit(), limit * policy.getBackoffRatio());
+    } else if (inFlightAtAcquire * 2 >= limit) {
+      // the limit only grows when it is actually used, otherwise an idle host would get an unbounded limit
+      limit = Math.min(policy.getMaxLimit(), limit + 1);
+    }
+    if (outcome == Permit.Outcome.SUCCESS) {
+      averageLatencyNanos = averageLatencyNanos == 0
+        ? latencyNanos
+        : averageLatencyNanos + (latencyNanos - averageLatencyNanos) / LATENCY_SAMPLES;
+    }
+  }
+
+  private boolean dequeue(CompletableFuture<Permit> waiter) {
+    lock.lock();
+    try {
+      return queue.remove(waiter);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
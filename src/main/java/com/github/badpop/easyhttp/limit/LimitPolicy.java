@@ -0,0 +1,78 @@
+package com.github.badpop.easyhttp.limit;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+import java.time.Duration;
+
+/**
+ * Describes how a {@link ConcurrencyLimiter} adjusts the number of requests in flight to a host.
+ * <p>
+ * The limit follows an additive increase / multiplicative decrease (AIMD) algorithm. Each request completing while the limit is
+ * actually used increases the limit by one. Each request showing congestion multiplies the limit by {@code backoffRatio}.
+ * A request shows congestion when it fails with an {@link java.io.IOException}, e.g. a timeout, when it is answered with a 429 or
+ * 503 status code, or when its latency exceeds {@code latencyTolerance} times the average latency of the host.
+ * <p>
+ * Requests over the limit wait in a queue of at most {@code maxQueueSize} requests, for at most {@code maxQueueTime},
+ * and are rejected otherwise. Policies are immutable, use the withers to customize them.
+ *
+ * <ul>
+ *   <li>{@link #aimd()}</li>
+ * </ul>
+ */
+@Value
+@With
+public class LimitPolicy {
+
+  int initialLimit;
+  int minLimit;
+  int maxLimit;
+  double backoffRatio;
+  double latencyTolerance;
+  int maxQueueSize;
+  Duration maxQueueTime;
+
+  private LimitPolicy(int initialLimit,
+                      int minLimit,
+                      int maxLimit,
+                      double backoffRatio,
+                      double latencyTolerance,
+                      int maxQueueSize,
+                      @NonNull Duration maxQueueTime) {
+    if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException("The limits must be strictly positive and such that minLimit <= initialLimit <= maxLimit");
+    }
+    if (!(backoffRatio > 0 && backoffRatio < 1)) {
+      throw new IllegalArgumentException("The backoff ratio must be in ]0, 1[");
+    }
+    if (!(latencyTolerance > 1)) {
+      throw new IllegalArgumentException("The latency tolerance must be greater than 1");
+    }
+    if (maxQueueSize < 0 || maxQueueTime.isNegative()) {
+      throw new IllegalArgumentException("The maximum queue size and time must be positive");
+    }
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.latencyTolerance = latencyTolerance;
+    this.maxQueueSize = maxQueueSize;
+    this.maxQueueTime = maxQueueTime;
+  }
+
+  /**
+   * Builds a policy with:
+   * <ul>
+   *   <li>an initial limit of 20 requests in flight, between 1 and 200</li>
+   *   <li>a limit multiplied by 0.9 on congestion</li>
+   *   <li>a latency tolerance of 2 times the average latency</li>
+   *   <li>at most 100 queued requests, for at most 1 second</li>
+   * </ul>
+   *
+   * @return a new policy
+   */
+  public static LimitPolicy aimd() {
+    return new LimitPolicy(20, 1, 200, 0.9, 2, 100, Duration.ofSeconds(1));
+  }
+}
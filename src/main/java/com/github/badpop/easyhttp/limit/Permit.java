@@ -0,0 +1,71 @@
+package com.github.badpop.easyhttp.limit;
+
+import lombok.val;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The right to send one request, given by a {@link ConcurrencyLimiter}.
+ * <p>
+ * A permit must be released exactly once, by reporting the outcome of the request with one of its methods.
+ * Reporting the outcome lets the limiter adjust its limit. Releasing a permit twice has no effect.
+ *
+ * <ul>
+ *   <li>{@link #onResponse(Duration, int)}</li>
+ *   <li>{@link #onFailure(Throwable)}</li>
+ *   <li>{@link #onIgnore()}</li>
+ * </ul>
+ */
+public final class Permit {
+
+  private final HostLimit hostLimit;
+  private final int inFlight;
+  private final AtomicBoolean released = new AtomicBoolean();
+
+  Permit(HostLimit hostLimit, int inFlight) {
+    this.hostLimit = hostLimit;
+    this.inFlight = inFlight;
+  }
+
+  /**
+   * Releases the permit of a request that received a response
+   *
+   * @param latency    the time elapsed between the sending of the request and the reception of its response
+   * @param statusCode the status code of the response, 429 and 503 are considered as congestion
+   */
+  public void onResponse(Duration latency, int statusCode) {
+    if (released.compareAndSet(false, true)) {
+      hostLimit.release(inFlight, latency.toNanos(), statusCode == 429 || statusCode == 503 ? Outcome.DROPPED : Outcome.SUCCESS);
+    }
+  }
+
+  /**
+   * Releases the permit of a request that failed, an {@link IOException} is considered as congestion
+   *
+   * @param throwable the failure of the request
+   */
+  public void onFailure(Throwable throwable) {
+    if (released.compareAndSet(false, true)) {
+      val cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+      hostLimit.release(inFlight, 0, cause instanceof IOException ? Outcome.DROPPED : Outcome.IGNORED);
+    }
+  }
+
+  /**
+   * Releases the permit of a request that was not sent or whose outcome says nothing about the host, e.g. a cancelled request
+   */
+  public void onIgnore() {
+    if (released.compareAndSet(false, true)) {
+      hostLimit.release(inFlight, 0, Outcome.IGNORED);
+    }
+  }
+
+  enum Outcome {
+    SUCCESS,
+    DROPPED,
+    IGNORED
+  }
+}
@@ -0,0 +1,71 @@
+package com.github.badpop.easyhttp.metrics;
+
+import lombok.val;
+
+import java.net.URI;
+
+/**
+ * See {@link RouteTemplater#defaultTemplater()}
+ */
+final class DefaultRouteTemplater implements RouteTemplater {
+
+  static final DefaultRouteTemplater INSTANCE = new DefaultRouteTemplater();
+  static final String ID = "{id}";
+
+  private DefaultRouteTemplater() {
+  }
+
+  @Override
+  public String template(URI uri) {
+    val path = uri.getRawPath();
+    if (path == null || path.isEmpty()) {
+      return "/";
+    }
+
+    val template = new StringBuilder(path.length());
+    int start = 0;
+    while (start <= path.length()) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = path.length();
+      }
+      if (start > 0) {
+        template.append('/');
+      }
+      if (isIdentifier(path, start, end)) {
+        template.append(ID);
+      } else {
+        template.append(path, start, end);
+      }
+      start = end + 1;
+    }
+    return template.toString();
+  }
+
+  private static boolean isIdentifier(String path, int start, int end) {
+    val length = end - start;
+    if (length == 0) {
+      return false;
+    }
+
+    int digits = 0;
+    int hexLetters = 0;
+    int dashes = 0;
+    for (int i = start; i < end; i++) {
+      val c = path.charAt(i);
+      if (c >= '0' && c <= '9') {
+        digits++;
+      } else if ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+        hexLetters++;
+      } else if (c == '-') {
+        dashes++;
+      }
+    }
+
+    val numeric = digits == length;
+    val uuid = length == 36 && dashes == 4 && digits + hexLetters == 32;
+    val hex = length >= 8 && digits > 0 && digits + hexLetters == length;
+    val token = length >= 16 && digits > 0;
+    return numeric || uuid || hex || token;
+  }
+}
@@ -0,0 +1,124 @@
+package com.github.badpop.easyhttp.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+import lombok.val;
+
+import java.time.Duration;
+
+import static com.github.badpop.easyhttp.metrics.LatencyHistogram.BUCKETS;
+import static com.github.badpop.easyhttp.metrics.LatencyHistogram.lowerBoundMicros;
+import static com.github.badpop.easyhttp.metrics.LatencyHistogram.micros;
+import static com.github.badpop.easyhttp.metrics.LatencyHistogram.upperBoundMicros;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}.
+ * <p>
+ * Percentiles are the upper bound of the bucket holding them, capped by the maximum latency, so they overestimate the
+ * recorded latencies by at most 6.25%.
+ *
+ * <ul>
+ *   <li>{@code getCount()}</li>
+ *   <li>{@link #mean()}</li>
+ *   <li>{@link #max()}</li>
+ *   <li>{@link #percentile(double)}</li>
+ *   <li>{@link #countAtOrBelow(Duration)}</li>
+ *   <li>{@link #merge(HistogramSnapshot)}</li>
+ * </ul>
+ */
+@Value
+public class HistogramSnapshot {
+
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  long[] counts;
+  long count;
+  long sumNanos;
+  long maxNanos;
+
+  HistogramSnapshot(long[] counts, long sumNanos, long maxNanos) {
+    this.counts = counts;
+    this.sumNanos = sumNanos;
+    this.maxNanos = maxNanos;
+    var total = 0L;
+    for (val bucketCount : counts) {
+      total += bucketCount;
+    }
+    this.count = total;
+  }
+
+  /**
+   * @return the mean latency, zero if nothing was recorded
+   */
+  public Duration mean() {
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(sumNanos / count);
+  }
+
+  /**
+   * @return the maximum latency, zero if nothing was recorded
+   */
+  public Duration max() {
+    return Duration.ofNanos(maxNanos);
+  }
+
+  /**
+   * @param percentile the percentile, between 0 and 100, e.g. 99.9
+   * @return the latency under which the given percentage of the recorded latencies are, zero if nothing was recorded
+   * @throws IllegalArgumentException if the percentile is not between 0 and 100
+   */
+  public Duration percentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100");
+    }
+    if (count == 0) {
+      return Duration.ZERO;
+    }
+
+    val rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    var seen = 0L;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        val upperBound = micros(upperBoundMicros(i));
+        return upperBound.compareTo(max()) > 0 ? max() : upperBound;
+      }
+    }
+    return max();
+  }
+
+  /**
+   * Counts the latencies lower than or equal to the given one, bucket by bucket: a bucket is counted if its lower bound
+   * is lower than or equal to the given latency
+   *
+   * @param latency the latency
+   * @return the number of latencies at or below the given one
+   * @throws NullPointerException if the latency is null
+   */
+  public long countAtOrBelow(@NonNull Duration latency) {
+    val limit = latency.toNanos() / 1000;
+    var total = 0L;
+    for (int i = 0; i < BUCKETS && lowerBoundMicros(i) <= limit; i++) {
+      total += counts[i];
+    }
+    return total;
+  }
+
+  /**
+   * @return a snapshot holding the latencies of both this snapshot and the given one
+   * @throws NullPointerException if the given snapshot is null
+   */
+  public HistogramSnapshot merge(@NonNull HistogramSnapshot other) {
+    val merged = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      merged[i] = counts[i] + other.counts[i];
+    }
+    return new HistogramSnapshot(merged, sumNanos + other.sumNanos, Math.max(maxNanos, other.maxNanos));
+  }
+
+  static HistogramSnapshot empty() {
+    return new HistogramSnapshot(new long[BUCKETS], 0, 0);
+  }
+}
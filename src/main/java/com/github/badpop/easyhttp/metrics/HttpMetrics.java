@@ -0,0 +1,213 @@
+package com.github.badpop.easyhttp.metrics;
+
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
+import com.github.badpop.easyhttp.event.HttpExchange;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Try;
+import lombok.NonNull;
+import lombok.val;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link EasyHttpEventListener} recording, for each route of each host, the number of responses by status class, the
+ * number of failed exchanges and a {@link LatencyHistogram} of the exchange durations.
+ * <p>
+ * Routes are identified by the host, the method and the path template given by a {@link RouteTemplater}. The number of
+ * routes is capped: once it is reached, the exchanges of new routes are recorded in a single overflow route whose host,
+ * method and route are {@value #OVERFLOW}, so identifiers left in the paths cannot exhaust the memory.
+ * Recording is lock free, the snapshots and the Prometheus exposition are computed when they are pulled.
+ *
+ * <pre>{@code
+ * var metrics = HttpMetrics.create();
+ * var client = EasyHttpClientProvider.newClient().withEventListener(metrics);
+ * String scrape = metrics.toPrometheus();
+ * }</pre>
+ *
+ * <ul>
+ *   <li>{@link #create()}</li>
+ *   <li>{@link #create(RouteTemplater, int)}</li>
+ *   <li>{@link #routes()}</li>
+ *   <li>{@link #hosts()}</li>
+ *   <li>{@link #writePrometheus(Appendable)}</li>
+ *   <li>{@link #toPrometheus()}</li>
+ * </ul>
+ */
+public final class HttpMetrics implements EasyHttpEventListener {
+
+  public static final String OVERFLOW = "{other}";
+  public static final String ALL = "*";
+  public static final int DEFAULT_MAX_ROUTES = 1000;
+
+  private static final String REQUESTS = "easyhttp_client_requests_total";
+  private static final String DURATION = "easyhttp_client_request_duration_seconds";
+  private static final double[] BUCKETS_SECONDS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+  private static final RouteKey OVERFLOW_KEY = new RouteKey(OVERFLOW, OVERFLOW, OVERFLOW);
+
+  private final RouteTemplater templater;
+  private final int maxRoutes;
+  private final ConcurrentHashMap<RouteKey, RouteStats> routes;
+  private final AtomicInteger routeCount;
+  private final RouteStats overflow;
+
+  private HttpMetrics(RouteTemplater templater, int maxRoutes) {
+    this.templater = templater;
+    this.maxRoutes = maxRoutes;
+    this.routes = new ConcurrentHashMap<>();
+    this.routeCount = new AtomicInteger();
+    this.overflow = new RouteStats();
+  }
+
+  /**
+   * Same as {@link #create(RouteTemplater, int)} with the {@link RouteTemplater#defaultTemplater()} and at most {@value #DEFAULT_MAX_ROUTES} routes
+   */
+  public static HttpMetrics create() {
+    return create(RouteTemplater.defaultTemplater(), DEFAULT_MAX_ROUTES);
+  }
+
+  /**
+   * @param templater the templater collapsing the paths of the requests into routes
+   * @param maxRoutes the maximum number of routes, the overflow route excluded
+   * @return new metrics
+   * @throws NullPointerException     if the templater is null
+   * @throws IllegalArgumentException if the maximum number of routes is not strictly positive
+   */
+  public static HttpMetrics create(@NonNull RouteTemplater templater, int maxRoutes) {
+    if (maxRoutes <= 0) {
+      throw new IllegalArgumentException("The maximum number of routes must be strictly positive");
+    }
+    return new HttpMetrics(templater, maxRoutes);
+  }
+
+  @Override
+  public void exchangeCompleted(HttpExchange exchange, HttpResponse<?> response, long nanoTime) {
+    stats(exchange.getRequest()).onResponse(response.statusCode(), nanoTime - exchange.getStartNanos());
+  }
+
+  @Override
+  public void exchangeFailed(HttpExchange exchange, Throwable cause, long nanoTime) {
+    stats(exchange.getRequest()).onFailure(nanoTime - exchange.getStartNanos());
+  }
+
+  /**
+   * @return a snapshot of each route, sorted by host, route and method
+   */
+  public Seq<RouteSnapshot> routes() {
+    val snapshots = List.ofAll(routes.entrySet()).map(route -> route.getValue().snapshot(route.getKey()));
+    val all = routeCount.get() > maxRoutes ? snapshots.append(overflow.snapshot(OVERFLOW_KEY)) : snapshots;
+    return all.sorted(Comparator.comparing(RouteSnapshot::getHost)
+      .thenComparing(RouteSnapshot::getRoute)
+      .thenComparing(RouteSnapshot::getMethod));
+  }
+
+  /**
+   * @return a snapshot of each host, merging the snapshots of its routes under the {@value #ALL} method and route
+   */
+  public Seq<RouteSnapshot> hosts() {
+    return routes()
+      .groupBy(RouteSnapshot::getHost)
+      .values()
+      .map(host -> host.reduce((left, right) -> left.merge(right, ALL, ALL)))
+      .map(host -> host.merge(empty(host.getHost()), ALL, ALL))
+      .toList()
+      .sortBy(RouteSnapshot::getHost);
+  }
+
+  /**
+   * Writes the metrics of each route in the Prometheus text exposition format: a {@value #REQUESTS} counter by status class,
+   * {@code failure} for the exchanges without response, and a {@value #DURATION} histogram.
+   *
+   * @param output where to write the metrics
+   * @throws IOException          if the output fails
+   * @throws NullPointerException if the output is null
+   */
+  public void writePrometheus(@NonNull Appendable output) throws IOException {
+    val snapshots = routes();
+
+    output.append("# HELP ").append(REQUESTS).append(" Exchanges sent by the EasyHttp client, by status class\n");
+    output.append("# TYPE ").append(REQUESTS).append(" counter\n");
+    for (val route : snapshots) {
+      writeCount(output, route, "1xx", route.getStatus1xx());
+      writeCount(output, route, "2xx", route.getStatus2xx());
+      writeCount(output, route, "3xx", route.getStatus3xx());
+      writeCount(output, route, "4xx", route.getStatus4xx());
+      writeCount(output, route, "5xx", route.getStatus5xx());
+      writeCount(output, route, "failure", route.getFailures());
+    }
+
+    output.append("# HELP ").append(DURATION).append(" Duration of the exchanges sent by the EasyHttp client\n");
+    output.append("# TYPE ").append(DURATION).append(" histogram\n");
+    for (val route : snapshots) {
+      val latency = route.getLatency();
+      for (val bound : BUCKETS_SECONDS) {
+        writeSample(output, DURATION + "_bucket", route, "le", Double.toString(bound),
+          Long.toString(latency.countAtOrBelow(Duration.ofNanos((long) (bound * 1_000_000_000)))));
+      }
+      writeSample(output, DURATION + "_bucket", route, "le", "+Inf", Long.toString(latency.getCount()));
+      writeSample(output, DURATION + "_sum", route, null, null, Double.toString(latency.getSumNanos() / 1e9));
+      writeSample(output, DURATION + "_count", route, null, null, Long.toString(latency.getCount()));
+    }
+  }
+
+  /**
+   * @return the metrics of each route in the Prometheus text exposition format, see {@link #writePrometheus(Appendable)}
+   */
+  public String toPrometheus() {
+    val output = new StringBuilder();
+    Try.run(() -> writePrometheus(output)).get();
+    return output.toString();
+  }
+
+  private RouteStats stats(HttpRequest request) {
+    val uri = request.uri();
+    val key = new RouteKey(host(uri), request.method(), templater.template(uri));
+    val stats = routes.get(key);
+    if (stats != null) {
+      return stats;
+    }
+    val created = routes.computeIfAbsent(key, ignored -> {
+      if (routeCount.incrementAndGet() <= maxRoutes) {
+        return new RouteStats();
+      }
+      routeCount.set(maxRoutes + 1);
+      return null;
+    });
+    return created != null ? created : overflow;
+  }
+
+  private static String host(URI uri) {
+    return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort());
+  }
+
+  private static RouteSnapshot empty(String host) {
+    return new RouteSnapshot(host, ALL, ALL, 0, 0, 0, 0, 0, 0, HistogramSnapshot.empty());
+  }
+
+  private static void writeCount(Appendable output, RouteSnapshot route, String status, long count) throws IOException {
+    writeSample(output, REQUESTS, route, "status", status, Long.toString(count));
+  }
+
+  private static void writeSample(Appendable output, String name, RouteSnapshot route, String label, String labelValue, String value)
+    throws IOException {
+    output.append(name)
+      .append("{host=\"").append(escape(route.getHost()))
+      .append("\",method=\"").append(escape(route.getMethod()))
+      .append("\",route=\"").append(escape(route.getRoute())).append('"');
+    if (label != null) {
+      output.append(',').append(label).append("=\"").append(labelValue).append('"');
+    }
+    output.append("} ").append(value).append('\n');
+  }
+
+  private static String escape(String labelValue) {
+    return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.badpop.easyhttp.metrics;
+
+import lombok.val;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of latencies, with log-linear buckets in the manner of HdrHistogram.
+ * <p>
+ * Latencies are recorded in microseconds. Each power of two is split into 16 buckets, so a recorded latency is known within
+ * 6.25%, from 1 microsecond up to 19 hours, longer latencies being recorded in the last bucket. Each bucket is a striped
+ * {@link LongAdder} created on its first recording, so concurrent recordings do not contend and a histogram only holds
+ * the buckets it uses.
+ *
+ * <ul>
+ *   <li>{@link #record(long)}</li>
+ *   <li>{@link #snapshot()}</li>
+ * </ul>
+ */
+public final class LatencyHistogram {
+
+  static final int SUB_BUCKET_BITS = 4;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int MAX_EXPONENT = 35;
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+  private final LongAdder sumNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records a latency, negative latencies being recorded as 0
+   *
+   * @param nanos the latency in nanoseconds
+   */
+  public void record(long nanos) {
+    val latency = Math.max(0, nanos);
+    bucket(index(latency / 1000)).increment();
+    sumNanos.add(latency);
+    maxNanos.accumulate(latency);
+  }
+
+  /**
+   * Takes a snapshot of the histogram. Recordings made during the snapshot may be only partially visible in it.
+   *
+   * @return a new snapshot
+   */
+  public HistogramSnapshot snapshot() {
+    val counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      val bucket = buckets.get(i);
+      counts[i] = bucket == null ? 0 : bucket.sum();
+    }
+    return new HistogramSnapshot(counts, sumNanos.sum(), maxNanos.get());
+  }
+
+  private LongAdder bucket(int index) {
+    val bucket = buckets.get(index);
+    if (bucket != null) {
+      return bucket;
+    }
+    buckets.compareAndSet(index, null, new LongAdder());
+    return buckets.get(index);
+  }
+
+  static int index(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) micros;
+    }
+    val exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+    if (exponent == MAX_EXPONENT && micros >= 2L << MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    val subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long lowerBoundMicros(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    val exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+  }
+
+  static long upperBoundMicros(int index) {
+    if (index < SUB_BUCKETS) {
+      return index + 1L;
+    }
+    val exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    return lowerBoundMicros(index) + (1L << (exponent - SUB_BUCKET_BITS));
+  }
+
+  static Duration micros(long micros) {
+    return Duration.ofNanos(micros * 1000);
+  }
+}
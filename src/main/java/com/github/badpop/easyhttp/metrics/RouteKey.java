@@ -0,0 +1,7 @@
+package com.github.badpop.easyhttp.metrics;
+
+/**
+ * Identifies the requests of a route: a method and a route template of a host
+ */
+record RouteKey(String host, String method, String route) {
+}
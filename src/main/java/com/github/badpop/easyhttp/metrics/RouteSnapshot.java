@@ -0,0 +1,57 @@
+package com.github.badpop.easyhttp.metrics;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * The metrics of a route, or of a whole host, at a point in time.
+ * <p>
+ * The latency histogram holds the duration of every exchange, from its start to its response or failure.
+ *
+ * <ul>
+ *   <li>{@link #total()}</li>
+ *   <li>{@link #merge(RouteSnapshot, String, String)}</li>
+ * </ul>
+ */
+@Value
+public class RouteSnapshot {
+
+  String host;
+  String method;
+  String route;
+  long status1xx;
+  long status2xx;
+  long status3xx;
+  long status4xx;
+  long status5xx;
+  long failures;
+  HistogramSnapshot latency;
+
+  /**
+   * @return the number of exchanges, with or without response
+   */
+  public long total() {
+    return status1xx + status2xx + status3xx + status4xx + status5xx + failures;
+  }
+
+  /**
+   * @param other  the snapshot to merge with this one
+   * @param method the method of the merged snapshot
+   * @param route  the route of the merged snapshot
+   * @return a snapshot of the host of this snapshot, holding the metrics of both snapshots
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public RouteSnapshot merge(@NonNull RouteSnapshot other, @NonNull String method, @NonNull String route) {
+    return new RouteSnapshot(
+      host,
+      method,
+      route,
+      status1xx + other.status1xx,
+      status2xx + other.status2xx,
+      status3xx + other.status3xx,
+      status4xx + other.status4xx,
+      status5xx + other.status5xx,
+      failures + other.failures,
+      latency.merge(other.latency));
+  }
+}
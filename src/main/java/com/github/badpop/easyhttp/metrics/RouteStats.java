@@ -0,0 +1,42 @@
+package com.github.badpop.easyhttp.metrics;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock free counters and latency histogram of a route
+ */
+final class RouteStats {
+
+  private final LongAdder[] statusClasses = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+  private final LongAdder failures = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  void onResponse(int statusCode, long latencyNanos) {
+    val statusClass = statusCode / 100 - 1;
+    if (statusClass >= 0 && statusClass < statusClasses.length) {
+      statusClasses[statusClass].increment();
+    }
+    latency.record(latencyNanos);
+  }
+
+  void onFailure(long latencyNanos) {
+    failures.increment();
+    latency.record(latencyNanos);
+  }
+
+  RouteSnapshot snapshot(RouteKey key) {
+    return new RouteSnapshot(
+      key.host(),
+      key.method(),
+      key.route(),
+      statusClasses[0].sum(),
+      statusClasses[1].sum(),
+      statusClasses[2].sum(),
+      statusClasses[3].sum(),
+      statusClasses[4].sum(),
+      failures.sum(),
+      latency.snapshot());
+  }
+}
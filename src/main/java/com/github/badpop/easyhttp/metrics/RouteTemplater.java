@@ -0,0 +1,33 @@
+package com.github.badpop.easyhttp.metrics;
+
+import java.net.URI;
+
+/**
+ * Collapses the path of a request into a route template, e.g. {@code /users/42/orders} into {@code /users/{id}/orders},
+ * so that metrics and events are grouped per route instead of per resource.
+ *
+ * <ul>
+ *   <li>{@link #defaultTemplater()}</li>
+ *   <li>{@link #template(URI)}</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface RouteTemplater {
+
+  /**
+   * Provides the templater replacing with {@code {id}} the path segments looking like identifiers: numbers, UUIDs,
+   * hexadecimal strings of at least 8 characters and strings of at least 16 characters containing digits.
+   * The query string is dropped and an empty path becomes {@code /}.
+   *
+   * @return the default templater
+   */
+  static RouteTemplater defaultTemplater() {
+    return DefaultRouteTemplater.INSTANCE;
+  }
+
+  /**
+   * @param uri the uri of a request
+   * @return the route template of the uri
+   */
+  String template(URI uri);
+}
@@ -0,0 +1,59 @@
+package com.github.badpop.easyhttp.ratelimit;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+import java.time.Duration;
+
+/**
+ * Describes the rate at which a {@link RateLimiter} lets requests through to a host or a route.
+ * <p>
+ * Requests are spread evenly at {@code permitsPerSecond}, and up to {@code burst} requests may be sent at once after an idle period.
+ * A request waits until the rate allows it, unless it would wait longer than {@code maxWait}, in which case it is rejected.
+ * When {@code respectRetryAfter} is true, a 429 response carrying a {@code Retry-After} header pauses the bucket for the given delay.
+ * Limits are immutable, use the withers to customize them.
+ *
+ * <ul>
+ *   <li>{@link #perSecond(double)}</li>
+ * </ul>
+ */
+@Value
+@With
+public class RateLimit {
+
+  double permitsPerSecond;
+  int burst;
+  Duration maxWait;
+  boolean respectRetryAfter;
+
+  private RateLimit(double permitsPerSecond, int burst, @NonNull Duration maxWait, boolean respectRetryAfter) {
+    if (!(permitsPerSecond > 0) || permitsPerSecond > 1_000_000_000) {
+      throw new IllegalArgumentException("The number of permits per second must be in ]0, 1e9]");
+    }
+    if (burst <= 0) {
+      throw new IllegalArgumentException("The burst must be strictly positive");
+    }
+    if (maxWait.isNegative()) {
+      throw new IllegalArgumentException("The maximum wait must be positive");
+    }
+    this.permitsPerSecond = permitsPerSecond;
+    this.burst = burst;
+    this.maxWait = maxWait;
+    this.respectRetryAfter = respectRetryAfter;
+  }
+
+  /**
+   * Builds a limit with a burst of 1 request, a maximum wait of 30 seconds and respecting {@code Retry-After} headers
+   *
+   * @param permitsPerSecond the number of requests allowed per second, e.g. 0.5 for one request every 2 seconds
+   * @return a new limit
+   */
+  public static RateLimit perSecond(double permitsPerSecond) {
+    return new RateLimit(permitsPerSecond, 1, Duration.ofSeconds(30), true);
+  }
+
+  long emissionIntervalNanos() {
+    return Math.max(1, Math.round(1_000_000_000 / permitsPerSecond));
+  }
+}
@@ -0,0 +1,214 @@
+package com.github.badpop.easyhttp.ratelimit;
+
+import com.github.badpop.easyhttp.exception.RateLimitExceededException;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.val;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the requests sent to a host or a route under a {@link RateLimit}, to stay inside the quotas of an upstream API.
+ * <p>
+ * Each host, or each configured route, has its own lock free token bucket. A request to a route whose URI starts with a prefix given
+ * to {@link #withRoute(String, RateLimit)} uses the bucket of the longest matching prefix, any other request uses the bucket of its host
+ * when the limiter was built with {@link #perHost(RateLimit)}, and is not limited otherwise.
+ * <p>
+ * Synchronous requests park their thread until the rate allows them. Asynchronous requests are delayed through the shared timer of
+ * {@link CompletableFuture#delayedExecutor(long, TimeUnit, Executor)}, so no thread sleeps for a waiting request.
+ *
+ * <ul>
+ *   <li>{@link #disabled()}</li>
+ *   <li>{@link #perHost(RateLimit)}</li>
+ *   <li>{@link #withRoute(String, RateLimit)}</li>
+ *   <li>{@link #isEnabled()}</li>
+ *   <li>{@link #acquire(URI)}</li>
+ *   <li>{@link #acquireAsync(URI, Executor)}</li>
+ *   <li>{@link #onResponse(URI, HttpResponse)}</li>
+ *   <li>{@link #throttled()}</li>
+ *   <li>{@link #rejected()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class RateLimiter {
+
+  private static final RateLimiter DISABLED = new RateLimiter(null, List.empty(), System::nanoTime);
+  private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+  @Getter
+  @ToString.Include
+  private final RateLimit hostLimit;
+  @ToString.Include
+  private final List<Tuple2<String, RateLimit>> routes;
+  private final LongSupplier nanoClock;
+  private final Map<String, TokenBucket> hostBuckets = new ConcurrentHashMap<>();
+  private final Map<String, TokenBucket> routeBuckets = new ConcurrentHashMap<>();
+  private final LongAdder throttled = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  private RateLimiter(RateLimit hostLimit, List<Tuple2<String, RateLimit>> routes, LongSupplier nanoClock) {
+    this.hostLimit = hostLimit;
+    this.routes = routes;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * @return a limiter never delaying any request, it is the limiter of a client unless configured otherwise
+   */
+  public static RateLimiter disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @param limit the limit applied to each host
+   * @return a new limiter with a bucket per host
+   * @throws NullPointerException if the limit is null
+   */
+  public static RateLimiter perHost(@NonNull RateLimit limit) {
+    return new RateLimiter(limit, List.empty(), System::nanoTime);
+  }
+
+  static RateLimiter perHost(RateLimit limit, LongSupplier nanoClock) {
+    return new RateLimiter(limit, List.empty(), nanoClock);
+  }
+
+  /**
+   * Builds a new limiter applying the given limit to the requests whose URI starts with the given prefix, e.g. {@code https://api.domain.com/v1/search}.
+   * <p>
+   * All the requests of the route share a single bucket. The buckets of the current limiter are not shared with the new one.
+   *
+   * @param uriPrefix the prefix of the URIs of the route
+   * @param limit     the limit of the route
+   * @return a new limiter
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public RateLimiter withRoute(@NonNull String uriPrefix, @NonNull RateLimit limit) {
+    val others = routes.filter(route -> !route._1.equals(uriPrefix));
+    return new RateLimiter(hostLimit, others.append(Tuple.of(uriPrefix, limit)).sortBy(route -> -route._1.length()), nanoClock);
+  }
+
+  /**
+   * @return true if this limiter may delay requests
+   */
+  public boolean isEnabled() {
+    return hostLimit != null || !routes.isEmpty();
+  }
+
+  /**
+   * Waits until the rate of the bucket of the given URI allows sending a request, parking the calling thread
+   *
+   * @param uri the URI of the request
+   * @throws RateLimitExceededException if the request would wait longer than the maximum wait of its limit
+   * @throws InterruptedException       if the calling thread is interrupted while waiting
+   * @throws NullPointerException       if the uri is null
+   */
+  public void acquire(@NonNull URI uri) throws InterruptedException {
+    val wait = reserve(uri);
+    if (wait == 0) {
+      return;
+    }
+    val deadline = System.nanoTime() + wait;
+    for (long remaining = wait; remaining > 0; remaining = deadline - System.nanoTime()) {
+      LockSupport.parkNanos(this, remaining);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #acquire(URI)} without blocking any thread
+   *
+   * @param uri      the URI of the request
+   * @param executor the executor completing the returned future once the wait is over
+   * @return a future completing once the request can be sent, or failing with a {@link RateLimitExceededException}
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public CompletableFuture<Void> acquireAsync(@NonNull URI uri, @NonNull Executor executor) {
+    final long wait;
+    try {
+      wait = reserve(uri);
+    } catch (RateLimitExceededException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return wait == 0
+      ? GRANTED
+      : CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor));
+  }
+
+  /**
+   * Pauses the bucket of the given URI when the response is a 429 carrying a {@code Retry-After} header, if its limit respects it
+   *
+   * @param uri      the URI of the request
+   * @param response the response of the request
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public void onResponse(@NonNull URI uri, @NonNull HttpResponse<?> response) {
+    if (response.statusCode() != 429) {
+      return;
+    }
+    bucketOf(uri)
+      .filter(bucket -> bucket.limit().isRespectRetryAfter())
+      .forEach(bucket -> RetryPolicy.retryAfter(response).forEach(delay -> bucket.pause(delay.toNanos())));
+  }
+
+  /**
+   * @return the number of requests that waited for their bucket, for all buckets
+   */
+  public long throttled() {
+    return throttled.sum();
+  }
+
+  /**
+   * @return the number of requests rejected because they would have waited too long, for all buckets
+   */
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  long reserve(URI uri) {
+    val bucket = bucketOf(uri);
+    if (bucket.isEmpty()) {
+      return 0;
+    }
+    val wait = bucket.get().reserve();
+    if (wait == TokenBucket.REJECTED) {
+      rejected.increment();
+      throw new RateLimitExceededException("The rate limit of " + bucket.get().key() + " is exceeded", bucket.get().key());
+    }
+    if (wait > 0) {
+      throttled.increment();
+    }
+    return wait;
+  }
+
+  private Option<TokenBucket> bucketOf(URI uri) {
+    if (!routes.isEmpty()) {
+      val target = uri.toString();
+      val route = routes.find(candidate -> target.startsWith(candidate._1));
+      if (route.isDefined()) {
+        return Option.some(routeBuckets.computeIfAbsent(route.get()._1, prefix -> new TokenBucket(prefix, route.get()._2, nanoClock)));
+      }
+    }
+    return Option.of(hostLimit).map(limit -> hostBuckets.computeIfAbsent(hostOf(uri), host -> new TokenBucket(host, limit, nanoClock)));
+  }
+
+  private static String hostOf(URI uri) {
+    return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+  }
+}
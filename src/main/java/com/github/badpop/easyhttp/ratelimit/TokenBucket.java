@@ -0,0 +1,70 @@
+package com.github.badpop.easyhttp.ratelimit;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock free token bucket, implemented as a generic cell rate algorithm (GCRA).
+ * <p>
+ * Instead of a number of tokens refilled over time, the bucket only stores the theoretical arrival time of the next request.
+ * Each reservation pushes it by one emission interval with a compare-and-set, and the request waits until this time minus the
+ * tolerance given by the burst. This is equivalent to a token bucket refilled continuously, without any refill task or lock.
+ */
+final class TokenBucket {
+
+  static final long REJECTED = -1;
+
+  private final String key;
+  private final RateLimit limit;
+  private final long emissionNanos;
+  private final long toleranceNanos;
+  private final long maxWaitNanos;
+  private final LongSupplier nanoClock;
+  private final AtomicLong theoreticalArrival;
+
+  TokenBucket(String key, RateLimit limit, LongSupplier nanoClock) {
+    this.key = key;
+    this.limit = limit;
+    this.emissionNanos = limit.emissionIntervalNanos();
+    this.toleranceNanos = emissionNanos * (limit.getBurst() - 1);
+    this.maxWaitNanos = limit.getMaxWait().toNanos();
+    this.nanoClock = nanoClock;
+    this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  String key() {
+    return key;
+  }
+
+  RateLimit limit() {
+    return limit;
+  }
+
+  /**
+   * @return the number of nanoseconds the request must wait before being sent, or {@link #REJECTED} if it would wait too long
+   */
+  long reserve() {
+    while (true) {
+      val now = nanoClock.getAsLong();
+      val current = theoreticalArrival.get();
+      val start = current - now > 0 ? current : now;
+      val wait = start - toleranceNanos - now;
+      if (wait > maxWaitNanos) {
+        return REJECTED;
+      }
+      if (theoreticalArrival.compareAndSet(current, start + emissionNanos)) {
+        return Math.max(0, wait);
+      }
+    }
+  }
+
+  /**
+   * Delays the next reservation by the given number of nanoseconds from now, without allowing a burst afterwards
+   */
+  void pause(long nanos) {
+    val resume = nanoClock.getAsLong() + nanos + toleranceNanos;
+    theoreticalArrival.accumulateAndGet(resume, (current, candidate) -> current - candidate > 0 ? current : candidate);
+  }
+}
@@ -0,0 +1,99 @@
+package com.github.badpop.easyhttp.retry;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the delay to wait before each retry of a request.
+ * <p>
+ * The exponential backoff with full jitter picks a random delay between zero and an exponentially growing ceiling,
+ * so that the clients retrying against the same struggling backend spread their retries instead of retrying in lockstep.
+ *
+ * <ul>
+ *   <li>{@link #none()}</li>
+ *   <li>{@link #fixed(Duration)}</li>
+ *   <li>{@link #exponentialWithFullJitter(Duration, Duration)}</li>
+ *   <li>{@link #delayBeforeRetry(int)}</li>
+ * </ul>
+ */
+@Value
+public class Backoff {
+
+  Duration base;
+  Duration cap;
+  boolean exponential;
+
+  private Backoff(Duration base, Duration cap, boolean exponential) {
+    this.base = base;
+    this.cap = cap;
+    this.exponential = exponential;
+  }
+
+  /**
+   * @return a backoff retrying right away
+   */
+  public static Backoff none() {
+    return fixed(Duration.ZERO);
+  }
+
+  /**
+   * @param delay the delay to wait before each retry
+   * @return a backoff always waiting the same delay
+   * @throws IllegalArgumentException if the given delay is negative
+   * @throws NullPointerException     if the given delay is null
+   */
+  public static Backoff fixed(@NonNull Duration delay) {
+    requirePositiveOrZero(delay);
+    return new Backoff(delay, delay, false);
+  }
+
+  /**
+   * Builds a backoff waiting a random delay between zero and {@code min(cap, base * 2^(retry - 1))} before each retry
+   *
+   * @param base the ceiling of the delay before the first retry
+   * @param cap  the maximum ceiling of the delay
+   * @return a new exponential backoff with full jitter
+   * @throws IllegalArgumentException if a given duration is negative or if the base is greater than the cap
+   * @throws NullPointerException     if a given duration is null
+   */
+  public static Backoff exponentialWithFullJitter(@NonNull Duration base, @NonNull Duration cap) {
+    requirePositiveOrZero(base);
+    requirePositiveOrZero(cap);
+    if (base.compareTo(cap) > 0) {
+      throw new IllegalArgumentException("The base delay must not be greater than the cap");
+    }
+    return new Backoff(base, cap, true);
+  }
+
+  /**
+   * @param retry the number of the retry, starting at 1 for the first retry
+   * @return the delay to wait before this retry
+   */
+  public Duration delayBeforeRetry(int retry) {
+    if (!exponential) {
+      return base;
+    }
+    val ceiling = ceilingNanos(retry);
+    return ceiling == 0 ? Duration.ZERO : Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+  }
+
+  long ceilingNanos(int retry) {
+    val capNanos = cap.toNanos();
+    val shift = Math.max(0, retry - 1);
+    val baseNanos = base.toNanos();
+    if (shift >= Long.numberOfLeadingZeros(Math.max(baseNanos, 1)) - 1) {
+      return capNanos;
+    }
+    return Math.min(capNanos, baseNanos << shift);
+  }
+
+  private static void requirePositiveOrZero(Duration duration) {
+    if (duration.isNegative()) {
+      throw new IllegalArgumentException("A backoff delay must not be negative");
+    }
+  }
+}
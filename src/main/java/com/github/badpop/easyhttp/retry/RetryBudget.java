@@ -0,0 +1,88 @@
+package com.github.badpop.easyhttp.retry;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket limiting the proportion of retries sent by all the requests sharing it.
+ * <p>
+ * Each attempt that should be retried withdraws one token, and each attempt that should not be retried deposits {@code tokenRatio} tokens.
+ * Retries are only allowed while the bucket is more than half full: when a backend fails most requests,
+ * the bucket drains and the requests stop being retried, instead of multiplying the load of the backend by the maximum number of attempts.
+ * <p>
+ * The bucket is lock free and is meant to be shared, e.g. by all the requests of a client through its {@link RetryPolicy}.
+ *
+ * <ul>
+ *   <li>{@link #of(int, double)}</li>
+ *   <li>{@link #tokens()}</li>
+ *   <li>{@link #isRetryAllowed()}</li>
+ * </ul>
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class RetryBudget {
+
+  private static final long SCALE = 1000;
+
+  @Getter
+  @ToString.Include
+  private final int maxTokens;
+  @Getter
+  @ToString.Include
+  private final double tokenRatio;
+  private final long maxMilliTokens;
+  private final long depositMilliTokens;
+  private final AtomicLong milliTokens;
+
+  private RetryBudget(int maxTokens, double tokenRatio) {
+    this.maxTokens = maxTokens;
+    this.tokenRatio = tokenRatio;
+    this.maxMilliTokens = maxTokens * SCALE;
+    this.depositMilliTokens = Math.round(tokenRatio * SCALE);
+    this.milliTokens = new AtomicLong(maxMilliTokens);
+  }
+
+  /**
+   * Builds a new full budget
+   *
+   * @param maxTokens  the capacity of the bucket
+   * @param tokenRatio the number of tokens deposited by each attempt that should not be retried, e.g. 0.1 to allow about one retry every ten requests
+   * @return a new budget
+   * @throws IllegalArgumentException if the capacity is not strictly positive or if the ratio is not in ]0, maxTokens]
+   */
+  public static RetryBudget of(int maxTokens, double tokenRatio) {
+    if (maxTokens <= 0) {
+      throw new IllegalArgumentException("The maximum number of tokens must be strictly positive");
+    }
+    if (!(tokenRatio > 0 && tokenRatio <= maxTokens)) {
+      throw new IllegalArgumentException("The token ratio must be strictly positive and lower than the maximum number of tokens");
+    }
+    return new RetryBudget(maxTokens, tokenRatio);
+  }
+
+  /**
+   * @return the number of tokens currently available
+   */
+  @ToString.Include
+  public double tokens() {
+    return milliTokens.get() / (double) SCALE;
+  }
+
+  /**
+   * @return true if the bucket is more than half full
+   */
+  public boolean isRetryAllowed() {
+    return milliTokens.get() * 2 > maxMilliTokens;
+  }
+
+  void onRetryableAttempt() {
+    milliTokens.getAndUpdate(current -> Math.max(0, current - SCALE));
+  }
+
+  void onSuccessfulAttempt() {
+    val deposit = depositMilliTokens;
+    milliTokens.getAndUpdate(current -> Math.min(maxMilliTokens, current + deposit));
+  }
+}
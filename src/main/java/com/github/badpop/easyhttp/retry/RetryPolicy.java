@@ -0,0 +1,197 @@
+package com.github.badpop.easyhttp.retry;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+import lombok.val;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Describes when and how a request is retried by an {@link com.github.badpop.easyhttp.EasyHttpClient}.
+ * <p>
+ * A policy can be attached to a client with {@link com.github.badpop.easyhttp.EasyHttpClient#withRetryPolicy(RetryPolicy)}
+ * or passed to a single call. Policies are immutable, use the withers to customize them:
+ *
+ * <pre>{@code
+ * RetryPolicy.defaultPolicy()
+ *   .withMaxAttempts(5)
+ *   .withRetryOnResponse(RetryPredicates.is5xx().or(RetryPredicates.hasStatus(429)))
+ *   .withBudget(RetryBudget.of(100, 0.1));
+ * }</pre>
+ * <p>
+ * An attempt is retried if its response matches {@code retryOnResponse}, or if its failure matches {@code retryOnException},
+ * as long as {@code maxAttempts} is not reached and the {@code budget}, if any, allows it.
+ * The delay before a retry is given by the {@code Retry-After} header of the response when {@code respectRetryAfter} is true,
+ * and by the {@code backoff} otherwise. A response asking to wait longer than {@code maxRetryAfter} is not retried.
+ * <p>
+ * Note: the response of an attempt that is retried is discarded. The request body publisher must support several subscriptions
+ * for a request with a body to be retried.
+ *
+ * <ul>
+ *   <li>{@link #none()}</li>
+ *   <li>{@link #defaultPolicy()}</li>
+ *   <li>{@link #isEnabled()}</li>
+ *   <li>{@link #delayBeforeRetry(int, Try)}</li>
+ *   <li>{@link #retryAfter(HttpResponse)}</li>
+ * </ul>
+ */
+@Value
+@With
+public class RetryPolicy {
+
+  private static final RetryPolicy NONE = new RetryPolicy(1, Backoff.none(), response -> false, throwable -> false, false, Duration.ZERO, null);
+
+  /**
+   * The maximum number of attempts, including the first one
+   */
+  int maxAttempts;
+  Backoff backoff;
+  Predicate<EasyHttpResponse<?>> retryOnResponse;
+  Predicate<Throwable> retryOnException;
+  boolean respectRetryAfter;
+  Duration maxRetryAfter;
+  /**
+   * The budget shared by all the requests using this policy, or null to retry without limit
+   */
+  RetryBudget budget;
+
+  private RetryPolicy(int maxAttempts,
+                      @NonNull Backoff backoff,
+                      @NonNull Predicate<EasyHttpResponse<?>> retryOnResponse,
+                      @NonNull Predicate<Throwable> retryOnException,
+                      boolean respectRetryAfter,
+                      @NonNull Duration maxRetryAfter,
+                      RetryBudget budget) {
+    if (maxAttempts <= 0) {
+      throw new IllegalArgumentException("The maximum number of attempts must be strictly positive");
+    }
+    this.maxAttempts = maxAttempts;
+    this.backoff = backoff;
+    this.retryOnResponse = retryOnResponse;
+    this.retryOnException = retryOnException;
+    this.respectRetryAfter = respectRetryAfter;
+    this.maxRetryAfter = maxRetryAfter;
+    this.budget = budget;
+  }
+
+  /**
+   * @return a policy never retrying, it is the policy of a client unless configured otherwise
+   */
+  public static RetryPolicy none() {
+    return NONE;
+  }
+
+  /**
+   * Builds a policy with:
+   * <ul>
+   *   <li>at most 3 attempts</li>
+   *   <li>an exponential backoff with full jitter from 100 milliseconds, capped at 10 seconds</li>
+   *   <li>retries of the responses with a 429, 502, 503 or 504 status code</li>
+   *   <li>retries of the {@link IOException}, which include connection failures and timeouts</li>
+   *   <li>a {@code Retry-After} header respected up to 1 minute</li>
+   *   <li>no budget</li>
+   * </ul>
+   *
+   * @return a new policy
+   */
+  public static RetryPolicy defaultPolicy() {
+    return new RetryPolicy(
+      3,
+      Backoff.exponentialWithFullJitter(Duration.ofMillis(100), Duration.ofSeconds(10)),
+      RetryPredicates.hasStatus(429, 502, 503, 504),
+      RetryPredicates.isInstanceOf(IOException.class),
+      true,
+      Duration.ofMinutes(1),
+      null);
+  }
+
+  /**
+   * @return true if this policy may retry a request
+   */
+  public boolean isEnabled() {
+    return maxAttempts > 1;
+  }
+
+  /**
+   * @return the budget shared by all the requests using this policy
+   */
+  public Option<RetryBudget> budgetOption() {
+    return Option.of(budget);
+  }
+
+  /**
+   * Decides if the given attempt must be retried, and records its outcome in the budget of the policy
+   *
+   * @param attempt the number of the attempt that completed, starting at 1 for the original request
+   * @param outcome the response or the failure of the attempt
+   * @return the delay to wait before the next attempt, or none if the outcome is final
+   */
+  public Option<Duration> delayBeforeRetry(int attempt, @NonNull Try<? extends EasyHttpResponse<?>> outcome) {
+    val retryable = outcome.isSuccess() ? retryOnResponse.test(outcome.get()) : retryOnException.test(unwrap(outcome.getCause()));
+    if (budget != null) {
+      if (retryable) {
+        budget.onRetryableAttempt();
+      } else {
+        budget.onSuccessfulAttempt();
+      }
+    }
+
+    if (!retryable || attempt >= maxAttempts || (budget != null && !budget.isRetryAllowed())) {
+      return Option.none();
+    }
+
+    val retryAfter = respectRetryAfter && outcome.isSuccess() ? retryAfter(outcome.get()) : Option.<Duration>none();
+    if (retryAfter.isDefined()) {
+      return retryAfter.get().compareTo(maxRetryAfter) > 0 ? Option.none() : retryAfter;
+    }
+    return Option.some(backoff.delayBeforeRetry(attempt));
+  }
+
+  /**
+   * Reads the {@code Retry-After} header of a response, given either as a number of seconds or as an http date
+   *
+   * @param response the response
+   * @return the delay the server asks to wait before sending a new request, if any
+   */
+  public static Option<Duration> retryAfter(@NonNull HttpResponse<?> response) {
+    return retryAfter(response, Clock.systemUTC());
+  }
+
+  static Option<Duration> retryAfter(HttpResponse<?> response, Clock clock) {
+    return Option.ofOptional(response.headers().firstValue("Retry-After"))
+      .map(String::trim)
+      .flatMap(value -> parseSeconds(value).orElse(() -> parseDate(value, clock)));
+  }
+
+  private static Option<Duration> parseSeconds(String value) {
+    return Try.of(() -> Long.parseLong(value))
+      .filter(seconds -> seconds >= 0)
+      .map(Duration::ofSeconds)
+      .toOption();
+  }
+
+  private static Option<Duration> parseDate(String value, Clock clock) {
+    return Try.of(() -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME))
+      .map(date -> Duration.between(clock.instant(), date.toInstant()))
+      .map(delay -> delay.isNegative() ? Duration.ZERO : delay)
+      .toOption();
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return (throwable instanceof CompletionException || throwable instanceof ExecutionException) && throwable.getCause() != null
+      ? throwable.getCause()
+      : throwable;
+  }
+}
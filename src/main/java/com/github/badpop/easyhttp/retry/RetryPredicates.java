@@ -0,0 +1,70 @@
+package com.github.badpop.easyhttp.retry;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.util.function.Predicate;
+
+/**
+ * Predicates to build the retry conditions of a {@link RetryPolicy}, they can be combined with {@link Predicate#or(Predicate)}.
+ *
+ * <ul>
+ *   <li>{@link #is4xx()}</li>
+ *   <li>{@link #is5xx()}</li>
+ *   <li>{@link #hasStatus(int...)}</li>
+ *   <li>{@link #isInstanceOf(Class[])}</li>
+ * </ul>
+ */
+@UtilityClass
+public class RetryPredicates {
+
+  /**
+   * @return a predicate matching the responses whose status code is 4xx
+   */
+  public Predicate<EasyHttpResponse<?>> is4xx() {
+    return EasyHttpResponse::is4xx;
+  }
+
+  /**
+   * @return a predicate matching the responses whose status code is 5xx
+   */
+  public Predicate<EasyHttpResponse<?>> is5xx() {
+    return EasyHttpResponse::is5xx;
+  }
+
+  /**
+   * @param statusCodes the status codes to match
+   * @return a predicate matching the responses having one of the given status codes
+   */
+  public Predicate<EasyHttpResponse<?>> hasStatus(int... statusCodes) {
+    val codes = HashSet.ofAll(statusCodes);
+    return response -> codes.contains(response.statusCode());
+  }
+
+  /**
+   * @param types the exception types to match
+   * @return a predicate matching the exceptions that are an instance of one of the given types, or caused by one of them
+   * @throws NullPointerException if the given types are null
+   */
+  @SafeVarargs
+  public Predicate<Throwable> isInstanceOf(@NonNull Class<? extends Throwable>... types) {
+    // copied element by element, handing the generic varargs array over to another method would not be type safe
+    val classes = List.range(0, types.length).map(index -> types[index]);
+    return throwable -> {
+      for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+        val current = cause;
+        if (classes.exists(type -> type.isInstance(current))) {
+          return true;
+        }
+        if (cause.getCause() == cause) {
+          return false;
+        }
+      }
+      return false;
+    };
+  }
+}
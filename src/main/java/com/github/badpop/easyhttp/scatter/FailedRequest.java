@@ -0,0 +1,14 @@
+package com.github.badpop.easyhttp.scatter;
+
+import lombok.Value;
+
+import java.net.http.HttpRequest;
+
+/**
+ * A request of a scatter-gather that failed, with the reason of its failure
+ */
+@Value
+public class FailedRequest {
+  HttpRequest request;
+  Throwable cause;
+}
@@ -0,0 +1,112 @@
+package com.github.badpop.easyhttp.scatter;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.exception.ServerErrorException;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import io.vavr.control.Try;
+import lombok.val;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Sends all the requests of a scatter-gather at once and completes as soon as the required number of successes is reached,
+ * cannot be reached anymore, or all the requests completed. The requests still in flight are then cancelled.
+ */
+final class Scatter<T> {
+
+  private final Seq<HttpRequest> requests;
+  private final int required;
+  private final CompletableFuture<ScatterResult<EasyHttpResponse<T>>> result = new CompletableFuture<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ArrayList<CompletableFuture<EasyHttpResponse<T>>> exchanges;
+  private final ArrayList<EasyHttpResponse<T>> successes = new ArrayList<>();
+  private final ArrayList<FailedRequest> failures = new ArrayList<>();
+  private final boolean[] recorded;
+
+  Scatter(Seq<HttpRequest> requests, int required) {
+    this.requests = requests;
+    this.required = required;
+    this.exchanges = new ArrayList<>(requests.size());
+    this.recorded = new boolean[requests.size()];
+    result.whenComplete((outcome, throwable) -> {
+      if (result.isCancelled()) {
+        exchanges.forEach(exchange -> exchange.cancel(true));
+      }
+    });
+  }
+
+  CompletableFuture<ScatterResult<EasyHttpResponse<T>>> start(Function<HttpRequest, CompletableFuture<EasyHttpResponse<T>>> send) {
+    lock.lock();
+    try {
+      requests.forEach(request -> exchanges.add(Try.of(() -> send.apply(request)).getOrElseGet(CompletableFuture::failedFuture)));
+    } finally {
+      lock.unlock();
+    }
+    for (int index = 0; index < exchanges.size(); index++) {
+      val current = index;
+      exchanges.get(index).whenComplete((response, throwable) -> record(current, response, throwable));
+    }
+    if (requests.isEmpty()) {
+      finish();
+    }
+    return result;
+  }
+
+  /**
+   * Completes the result with the outcomes received so far and cancels the requests still in flight
+   */
+  void finish() {
+    lock.lock();
+    try {
+      if (result.isDone()) {
+        return;
+      }
+      val cancelled = Vector.ofAll(requests).zipWithIndex().filter(request -> !recorded[request._2]).map(request -> request._1);
+      result.complete(new ScatterResult<>(Vector.ofAll(successes), Vector.ofAll(failures), cancelled, required));
+    } finally {
+      lock.unlock();
+    }
+    exchanges.forEach(exchange -> exchange.cancel(true));
+  }
+
+  private void record(int index, EasyHttpResponse<T> response, Throwable throwable) {
+    val request = requests.get(index);
+    lock.lock();
+    try {
+      if (result.isDone()) {
+        if (response != null) {
+          discard(response);
+        }
+        return;
+      }
+      recorded[index] = true;
+      if (throwable != null) {
+        failures.add(new FailedRequest(request, throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable));
+      } else if (response.is5xx()) {
+        discard(response);
+        failures.add(new FailedRequest(request, new ServerErrorException("The server answered with a " + response.statusCode(), response.statusCode())));
+      } else {
+        successes.add(response);
+      }
+      val completed = successes.size() + failures.size();
+      if (successes.size() < required && successes.size() + requests.size() - completed >= required && completed < requests.size()) {
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+    finish();
+  }
+
+  private static void discard(EasyHttpResponse<?> response) {
+    if (response.body() instanceof AutoCloseable closeable) {
+      Try.run(closeable::close);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.github.badpop.easyhttp.scatter;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import io.vavr.collection.List;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Utility methods to send the same kind of request to several shards or replicas at once and gather their responses.
+ * <p>
+ * All the requests are sent at once. A request succeeds when it is answered with a status code other than 5xx, and fails with
+ * a {@link com.github.badpop.easyhttp.exception.ServerErrorException} on a 5xx response or with the exception of the exchange.
+ * As soon as the result is known, the requests still in flight are cancelled to free their connections, and the result lists them.
+ * Cancelling the returned future cancels all the requests.
+ *
+ * <ul>
+ *   <li>{@link #firstSuccessful(Iterable, Function)}</li>
+ *   <li>{@link #quorum(Iterable, Function, int)}</li>
+ *   <li>{@link #allWithin(Iterable, Function, Duration, Executor)}</li>
+ * </ul>
+ */
+@UtilityClass
+public class ScatterGather {
+
+  /**
+   * Completes with the first successful response, or once all the requests failed
+   *
+   * @param requests the requests to send
+   * @param send     the function sending a request
+   * @return the result, satisfied if one request succeeded
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public <T> CompletableFuture<ScatterResult<EasyHttpResponse<T>>> firstSuccessful(@NonNull Iterable<HttpRequest> requests,
+                                                                                  @NonNull Function<HttpRequest, CompletableFuture<EasyHttpResponse<T>>> send) {
+    return quorum(requests, send, 1);
+  }
+
+  /**
+   * Completes once {@code quorum} requests succeeded, or as soon as too many requests failed for the quorum to be reached
+   *
+   * @param requests the requests to send
+   * @param send     the function sending a request
+   * @param quorum   the number of successful responses to wait for
+   * @return the result, satisfied if the quorum was reached
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the quorum is not between 1 and the number of requests
+   */
+  public <T> CompletableFuture<ScatterResult<EasyHttpResponse<T>>> quorum(@NonNull Iterable<HttpRequest> requests,
+                                                                         @NonNull Function<HttpRequest, CompletableFuture<EasyHttpResponse<T>>> send,
+                                                                         int quorum) {
+    val all = List.ofAll(requests);
+    if (quorum <= 0 || quorum > Math.max(1, all.size())) {
+      throw new IllegalArgumentException("The quorum must be between 1 and the number of requests");
+    }
+    return new Scatter<T>(all, quorum).start(send);
+  }
+
+  /**
+   * Completes once all the requests completed, or when the deadline is over with the responses received so far
+   *
+   * @param requests the requests to send
+   * @param send     the function sending a request
+   * @param deadline the maximum time to wait for the responses
+   * @param executor the executor completing the result when the deadline is over
+   * @return the result, satisfied if all the requests succeeded
+   * @throws NullPointerException     if one of the parameters is null
+   * @throws IllegalArgumentException if the deadline is negative
+   */
+  public <T> CompletableFuture<ScatterResult<EasyHttpResponse<T>>> allWithin(@NonNull Iterable<HttpRequest> requests,
+                                                                            @NonNull Function<HttpRequest, CompletableFuture<EasyHttpResponse<T>>> send,
+                                                                            @NonNull Duration deadline,
+                                                                            @NonNull Executor executor) {
+    if (deadline.isNegative()) {
+      throw new IllegalArgumentException("The deadline must be positive");
+    }
+    val all = List.ofAll(requests);
+    val scatter = new Scatter<T>(all, all.size());
+    val result = scatter.start(send);
+    CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS, executor).execute(scatter::finish);
+    return result;
+  }
+}
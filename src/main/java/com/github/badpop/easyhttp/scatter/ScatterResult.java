@@ -0,0 +1,33 @@
+package com.github.badpop.easyhttp.scatter;
+
+import io.vavr.collection.Seq;
+import lombok.Value;
+
+import java.net.http.HttpRequest;
+
+/**
+ * The outcome of a scatter-gather, possibly partial.
+ * <p>
+ * Each request of the scatter-gather ends up in exactly one of the {@code successes}, the {@code failures} or the
+ * {@code cancelled} requests, the latter being the requests still in flight when the result was complete.
+ * Successes and failures are in completion order.
+ *
+ * <ul>
+ *   <li>{@link #isSatisfied()}</li>
+ * </ul>
+ */
+@Value
+public class ScatterResult<T> {
+
+  Seq<T> successes;
+  Seq<FailedRequest> failures;
+  Seq<HttpRequest> cancelled;
+  int required;
+
+  /**
+   * @return true if at least the required number of requests succeeded
+   */
+  public boolean isSatisfied() {
+    return successes.size() >= required;
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.badpop.easyhttp.warmup;
+
+import com.github.badpop.easyhttp.json.JsonCodecs;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Try;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Utility methods to warm up a client according to a {@link WarmUpPlan}.
+ * <p>
+ * Connections are opened while the codecs are built on the executor, then the synthetic requests are sent.
+ *
+ * <ul>
+ *   <li>{@link #run(WarmUpPlan, JsonCodecs, Function, Function, Executor)}</li>
+ * </ul>
+ */
+@UtilityClass
+public class WarmUp {
+
+  /**
+   * Runs the given plan
+   *
+   * @param plan     the plan to run
+   * @param codecs   the codecs caching the readers and writers of the plan types
+   * @param connect  the function sending a {@code HEAD} request to open a connection, bypassing any cache or limiter
+   * @param send     the function sending a synthetic request
+   * @param executor the executor building the codecs
+   * @return a future completed with the report once the warm-up is done, never failed
+   * @throws NullPointerException if one of the parameters is null
+   */
+  public CompletableFuture<WarmUpReport> run(@NonNull WarmUpPlan plan,
+                                             @NonNull JsonCodecs codecs,
+                                             @NonNull Function<HttpRequest, ? extends CompletableFuture<?>> connect,
+                                             @NonNull Function<HttpRequest, ? extends CompletableFuture<?>> send,
+                                             @NonNull Executor executor) {
+    val failures = new ConcurrentLinkedQueue<Throwable>();
+    val connections = new AtomicInteger();
+    val requests = new AtomicInteger();
+
+    val warmedCodecs = CompletableFuture.supplyAsync(() -> warmCodecs(plan, codecs, failures), executor);
+    // HTTP/2 hosts multiplex these requests on a single connection, only HTTP/1.1 hosts get connectionsPerHost connections
+    val connected = sendAll(plan.getHosts().flatMap(host -> List.fill(plan.getConnectionsPerHost(), () -> connectRequest(host, plan))),
+      connect, connections, failures);
+
+    var sent = connected;
+    for (int i = 0; i < plan.getIterations(); i++) {
+      sent = sent.thenCompose(ignored -> sendAll(plan.getRequests(), send, requests, failures));
+    }
+
+    return sent.thenCombine(warmedCodecs, (ignored, codecCount) ->
+      new WarmUpReport(connections.get(), codecCount, requests.get(), List.ofAll(failures)));
+  }
+
+  private static int warmCodecs(WarmUpPlan plan, JsonCodecs codecs, Queue<Throwable> failures) {
+    val readers = plan.getTypes().map(type -> Try.of(() -> codecs.readerFor(type)))
+      .appendAll(plan.getTypeReferences().map(reference -> Try.of(() -> codecs.readerFor(reference))));
+    val writers = plan.getTypes().map(type -> Try.of(() -> codecs.writerFor(type)));
+
+    readers.forEach(reader -> reader.onFailure(failures::add));
+    writers.forEach(writer -> writer.onFailure(failures::add));
+    return readers.count(Try::isSuccess) + writers.count(writer -> writer.isSuccess() && writer.get().isDefined());
+  }
+
+  private static HttpRequest connectRequest(URI host, WarmUpPlan plan) {
+    return HttpRequest.newBuilder(host)
+      .method("HEAD", BodyPublishers.noBody())
+      .timeout(plan.getConnectTimeout())
+      .build();
+  }
+
+  private static CompletableFuture<Void> sendAll(Seq<HttpRequest> requests,
+                                                 Function<HttpRequest, ? extends CompletableFuture<?>> send,
+                                                 AtomicInteger succeeded,
+                                                 Queue<Throwable> failures) {
+    return CompletableFuture.allOf(requests
+      .map(request -> Try.<CompletableFuture<?>>of(() -> send.apply(request)).getOrElseGet(CompletableFuture::failedFuture)
+        .handle((response, throwable) -> {
+          if (throwable == null) {
+            succeeded.incrementAndGet();
+          } else {
+            failures.add(unwrap(throwable));
+          }
+          return null;
+        }))
+      .toJavaList()
+      .toArray(new CompletableFuture<?>[0]));
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+  }
+}
@@ -0,0 +1,74 @@
+package com.github.badpop.easyhttp.warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Describes what a client warms up before receiving traffic.
+ * <p>
+ * {@code connectionsPerHost} concurrent {@code HEAD} requests are sent to each of the {@code hosts} so that the
+ * client keeps as many open connections to them, with their TLS session, each one failing after {@code connectTimeout}.
+ * This only holds for HTTP/1.1 hosts: the requests to an HTTP/2 host are multiplexed on a single connection, whatever
+ * {@code connectionsPerHost} is. Json readers, and writers when they are serializable, are built and cached for the {@code types} and the
+ * {@code typeReferences}. Finally, the synthetic {@code requests} are all sent {@code iterations} times,
+ * one iteration after the other, to warm up the JIT compilation of the whole send pipeline.
+ * Plans are immutable, use the withers to customize them.
+ *
+ * <ul>
+ *   <li>{@link #empty()}</li>
+ * </ul>
+ */
+@Value
+@With
+public class WarmUpPlan {
+
+  Seq<URI> hosts;
+  int connectionsPerHost;
+  Duration connectTimeout;
+  Seq<Class<?>> types;
+  Seq<TypeReference<?>> typeReferences;
+  Seq<HttpRequest> requests;
+  int iterations;
+
+  private WarmUpPlan(@NonNull Seq<URI> hosts,
+                     int connectionsPerHost,
+                     @NonNull Duration connectTimeout,
+                     @NonNull Seq<Class<?>> types,
+                     @NonNull Seq<TypeReference<?>> typeReferences,
+                     @NonNull Seq<HttpRequest> requests,
+                     int iterations) {
+    if (connectionsPerHost <= 0) {
+      throw new IllegalArgumentException("The number of connections per host must be strictly positive");
+    }
+    if (connectTimeout.isNegative() || connectTimeout.isZero()) {
+      throw new IllegalArgumentException("The connect timeout must be strictly positive");
+    }
+    if (iterations < 0) {
+      throw new IllegalArgumentException("The number of iterations must be positive");
+    }
+    this.hosts = hosts;
+    this.connectionsPerHost = connectionsPerHost;
+    this.connectTimeout = connectTimeout;
+    this.types = types;
+    this.typeReferences = typeReferences;
+    this.requests = requests;
+    this.iterations = iterations;
+  }
+
+  /**
+   * Builds a plan warming up nothing, with 1 connection per host, a connect timeout of 10 seconds and 1 iteration
+   *
+   * @return a new plan
+   */
+  public static WarmUpPlan empty() {
+    return new WarmUpPlan(List.empty(), 1, Duration.ofSeconds(10), List.empty(), List.empty(), List.empty(), 1);
+  }
+}
@@ -0,0 +1,31 @@
+package com.github.badpop.easyhttp.warmup;
+
+import io.vavr.collection.Seq;
+import lombok.Value;
+
+/**
+ * The outcome of a warm-up.
+ * <p>
+ * A failed connection, codec or request does not stop the warm-up, its exception is listed in {@code failures}.
+ * {@code connections} counts the successful {@code HEAD} requests, not the distinct connections: on an HTTP/2 host
+ * they all share a single connection.
+ *
+ * <ul>
+ *   <li>{@link #isSuccessful()}</li>
+ * </ul>
+ */
+@Value
+public class WarmUpReport {
+
+  int connections;
+  int codecs;
+  int requests;
+  Seq<Throwable> failures;
+
+  /**
+   * @return true if nothing failed during the warm-up
+   */
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+}
@@ -1,8 +1,18 @@
 package com.github.badpop.easyhttp;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.cache.HttpCache;
+import com.github.badpop.easyhttp.circuit.CircuitBreaker;
+import com.github.badpop.easyhttp.circuit.CircuitBreakerPolicy;
+import com.github.badpop.easyhttp.coalescing.RequestCoalescer;
 import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
+import com.github.badpop.easyhttp.limit.ConcurrencyLimiter;
+import com.github.badpop.easyhttp.limit.LimitPolicy;
+import com.github.badpop.easyhttp.ratelimit.RateLimit;
+import com.github.badpop.easyhttp.ratelimit.RateLimiter;
 import com.github.badpop.easyhttp.extension.MockServerExtension;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
 import io.vavr.Function0;
 import io.vavr.concurrent.Future;
 import lombok.val;
@@ -21,6 +31,7 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static java.lang.Boolean.TRUE;
 import static org.assertj.core.api.Assertions.*;
@@ -87,6 +98,182 @@ class AbstractEasyHttpClientTest {
     void should_not_clone_with_null_httpClient() {
       assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withClient(null));
     }
+
+    @Test
+    void should_clone_with_new_executor() {
+      val om = new ObjectMapper();
+      val hc = HttpClient.newHttpClient();
+      val client = new EasyHttpClient(om, hc);
+      final Executor newExecutor = Runnable::run;
+
+      val actual = client.withExecutor(newExecutor);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(actual.getExecutor()).isEqualTo(newExecutor);
+      assertThat(actual.getObjectMapper()).isEqualTo(om);
+      assertThat(actual.getClient()).isEqualTo(hc);
+    }
+
+    @Test
+    void should_not_clone_with_same_executor() {
+      final Executor executor = Runnable::run;
+      val client = new EasyHttpClient(new ObjectMapper(), HttpClient.newHttpClient(), executor);
+
+      val actual = client.withExecutor(executor);
+      assertThat(actual).isEqualTo(client);
+    }
+
+    @Test
+    void should_not_clone_with_null_executor() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withExecutor(null));
+    }
+
+    @Test
+    void should_clone_with_new_retry_policy() {
+      val om = new ObjectMapper();
+      val hc = HttpClient.newHttpClient();
+      val client = new EasyHttpClient(om, hc);
+      val policy = RetryPolicy.defaultPolicy();
+
+      val actual = client.withRetryPolicy(policy);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(client.getRetryPolicy()).isEqualTo(RetryPolicy.none());
+      assertThat(actual.getRetryPolicy()).isEqualTo(policy);
+      assertThat(actual.getObjectMapper()).isEqualTo(om);
+      assertThat(actual.getClient()).isEqualTo(hc);
+      assertThat(actual.withExecutor(Runnable::run).getRetryPolicy()).isEqualTo(policy);
+    }
+
+    @Test
+    void should_not_clone_with_same_retry_policy() {
+      val client = new EasyHttpClient();
+
+      val actual = client.withRetryPolicy(RetryPolicy.none());
+      assertThat(actual).isSameAs(client);
+    }
+
+    @Test
+    void should_not_clone_with_null_retry_policy() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withRetryPolicy(null));
+    }
+
+    @Test
+    void should_clone_with_new_request_coalescer() {
+      val policy = RetryPolicy.defaultPolicy();
+      val client = new EasyHttpClient().withRetryPolicy(policy);
+      val coalescer = RequestCoalescer.onAllHeaders();
+
+      val actual = client.withRequestCoalescer(coalescer);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(client.getRequestCoalescer()).isSameAs(RequestCoalescer.disabled());
+      assertThat(actual.getRequestCoalescer()).isSameAs(coalescer);
+      assertThat(actual.getRetryPolicy()).isSameAs(policy);
+      assertThat(actual.withRetryPolicy(RetryPolicy.none()).getRequestCoalescer()).isSameAs(coalescer);
+    }
+
+    @Test
+    void should_not_clone_with_null_request_coalescer() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withRequestCoalescer(null));
+    }
+
+    @Test
+    void should_clone_with_new_http_cache() {
+      val coalescer = RequestCoalescer.onAllHeaders();
+      val client = new EasyHttpClient().withRequestCoalescer(coalescer);
+      val cache = HttpCache.inMemory(1024);
+
+      val actual = client.withHttpCache(cache);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(client.getHttpCache()).isSameAs(HttpCache.disabled());
+      assertThat(actual.getHttpCache()).isSameAs(cache);
+      assertThat(actual.getRequestCoalescer()).isSameAs(coalescer);
+      assertThat(actual.withHttpCache(cache)).isSameAs(actual);
+      assertThat(actual.withRetryPolicy(RetryPolicy.defaultPolicy()).getHttpCache()).isSameAs(cache);
+    }
+
+    @Test
+    void should_not_clone_with_null_http_cache() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withHttpCache(null));
+    }
+
+    @Test
+    void should_clone_with_new_concurrency_limiter() {
+      val cache = HttpCache.inMemory(1024);
+      val client = new EasyHttpClient().withHttpCache(cache);
+      val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd());
+
+      val actual = client.withConcurrencyLimiter(limiter);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(client.getConcurrencyLimiter()).isSameAs(ConcurrencyLimiter.disabled());
+      assertThat(actual.getConcurrencyLimiter()).isSameAs(limiter);
+      assertThat(actual.getHttpCache()).isSameAs(cache);
+      assertThat(actual.withConcurrencyLimiter(limiter)).isSameAs(actual);
+      assertThat(actual.withRetryPolicy(RetryPolicy.defaultPolicy()).getConcurrencyLimiter()).isSameAs(limiter);
+    }
+
+    @Test
+    void should_not_clone_with_null_concurrency_limiter() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withConcurrencyLimiter(null));
+    }
+
+    @Test
+    void should_clone_with_new_circuit_breaker() {
+      val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd());
+      val client = new EasyHttpClient().withConcurrencyLimiter(limiter);
+      val breaker = CircuitBreaker.perHost(CircuitBreakerPolicy.defaultPolicy());
+
+      val actual = client.withCircuitBreaker(breaker);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(client.getCircuitBreaker()).isSameAs(CircuitBreaker.disabled());
+      assertThat(actual.getCircuitBreaker()).isSameAs(breaker);
+      assertThat(actual.getConcurrencyLimiter()).isSameAs(limiter);
+      assertThat(actual.withCircuitBreaker(breaker)).isSameAs(actual);
+      assertThat(actual.withConcurrencyLimiter(ConcurrencyLimiter.disabled()).getCircuitBreaker()).isSameAs(breaker);
+    }
+
+    @Test
+    void should_not_clone_with_null_circuit_breaker() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withCircuitBreaker(null));
+    }
+
+    @Test
+    void should_clone_with_new_rate_limiter() {
+      val breaker = CircuitBreaker.perHost(CircuitBreakerPolicy.defaultPolicy());
+      val client = new EasyHttpClient().withCircuitBreaker(breaker);
+      val limiter = RateLimiter.perHost(RateLimit.perSecond(10));
+
+      val actual = client.withRateLimiter(limiter);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(client.getRateLimiter()).isSameAs(RateLimiter.disabled());
+      assertThat(actual.getRateLimiter()).isSameAs(limiter);
+      assertThat(actual.getCircuitBreaker()).isSameAs(breaker);
+      assertThat(actual.withRateLimiter(limiter)).isSameAs(actual);
+      assertThat(actual.withCircuitBreaker(CircuitBreaker.disabled()).getRateLimiter()).isSameAs(limiter);
+    }
+
+    @Test
+    void should_not_clone_with_null_rate_limiter() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withRateLimiter(null));
+    }
+
+    @Test
+    void should_clone_with_new_event_listener() {
+      val limiter = RateLimiter.perHost(RateLimit.perSecond(10));
+      val client = new EasyHttpClient().withRateLimiter(limiter);
+      val listener = new EasyHttpEventListener() {};
+
+      val actual = client.withEventListener(listener);
+      assertThat(actual).isNotEqualTo(client);
+      assertThat(client.getEventListener()).isSameAs(EasyHttpEventListener.none());
+      assertThat(actual.getEventListener()).isSameAs(listener);
+      assertThat(actual.getRateLimiter()).isSameAs(limiter);
+      assertThat(actual.withEventListener(listener)).isSameAs(actual);
+      assertThat(actual.withRateLimiter(RateLimiter.disabled()).getEventListener()).isSameAs(listener);
+    }
+
+    @Test
+    void should_not_clone_with_null_event_listener() {
+      assertThatNullPointerException().isThrownBy(() -> new EasyHttpClient().withEventListener(null));
+    }
   }
 
   @Nested
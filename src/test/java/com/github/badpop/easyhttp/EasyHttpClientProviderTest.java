@@ -1,14 +1,22 @@
 package com.github.badpop.easyhttp;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.concurrent.VirtualThreads;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
 import java.net.http.HttpClient;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import static com.github.badpop.easyhttp.EasyHttpClientProvider.newClient;
+import static com.github.badpop.easyhttp.EasyHttpClientProvider.newVirtualThreadClient;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class EasyHttpClientProviderTest {
 
@@ -21,6 +29,31 @@ class EasyHttpClientProviderTest {
     assertThat(actual.getClient()).isNotNull();
   }
 
+  @Test
+  void should_share_default_httpClient_but_not_objectMapper() {
+    val executor = Executors.newSingleThreadExecutor();
+    val first = newClient();
+    val second = newClient(executor);
+
+    second.getObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    assertThat(second.getClient()).isSameAs(first.getClient());
+    assertThat(second.getObjectMapper()).isNotSameAs(first.getObjectMapper());
+    assertThat(second.getJsonCodecs()).isNotSameAs(first.getJsonCodecs());
+    assertThat(first.getObjectMapper().isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isTrue();
+    assertThat(newClient().getObjectMapper().isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isTrue();
+    assertThat(first.getObjectMapper().getRegisteredModuleIds()).hasSize(2);
+    executor.shutdown();
+  }
+
+  @Test
+  void should_not_share_codecs_of_custom_objectMapper() {
+    val om = new ObjectMapper();
+
+    assertThat(newClient(om).getJsonCodecs()).isNotSameAs(newClient(om).getJsonCodecs()).isNotSameAs(newClient().getJsonCodecs());
+    assertThat(newClient(om).getClient()).isSameAs(newClient().getClient());
+  }
+
   @Test
   void should_build_client_with_custom_objectMapper() {
     val om = new ObjectMapper();
@@ -70,4 +103,62 @@ class EasyHttpClientProviderTest {
     assertThatNullPointerException().isThrownBy(() -> newClient(om, null));
     assertThatNullPointerException().isThrownBy(() -> newClient(null, hc));
   }
+
+  @Test
+  void should_build_client_with_custom_executor() {
+    val executor = Executors.newSingleThreadExecutor();
+    val actual = newClient(executor);
+
+    assertThat(actual).isNotNull();
+    assertThat(actual.getObjectMapper()).isNotNull();
+    assertThat(actual.getClient()).isNotNull();
+    assertThat(actual.getExecutor()).isEqualTo(executor);
+    executor.shutdown();
+  }
+
+  @Test
+  void should_build_custom_client_with_executor() {
+    val om = new ObjectMapper();
+    val hc = HttpClient.newHttpClient();
+    val executor = Executors.newSingleThreadExecutor();
+    val actual = newClient(om, hc, executor);
+
+    assertThat(actual).isNotNull();
+    assertThat(actual.getObjectMapper()).isEqualTo(om);
+    assertThat(actual.getClient()).isEqualTo(hc);
+    assertThat(actual.getExecutor()).isEqualTo(executor);
+    executor.shutdown();
+  }
+
+  @Test
+  void should_not_build_client_on_null_executor() {
+    val om = new ObjectMapper();
+    val hc = HttpClient.newHttpClient();
+    assertThatNullPointerException().isThrownBy(() -> newClient((Executor) null));
+    assertThatNullPointerException().isThrownBy(() -> newClient(om, hc, null));
+  }
+
+  @Test
+  void should_build_virtual_thread_client_when_supported() {
+    assumeTrue(VirtualThreads.isSupported(), "virtual threads are not supported");
+
+    val actual = newVirtualThreadClient();
+
+    assertThat(actual.getObjectMapper().getRegisteredModuleIds()).hasSize(2);
+    assertThat(actual.getClient().executor()).contains(actual.getExecutor());
+    assertThat(newVirtualThreadClient(new ObjectMapper()).getClient()).isSameAs(actual.getClient());
+  }
+
+  @Test
+  void should_not_build_virtual_thread_client_without_virtual_threads() {
+    assumeFalse(VirtualThreads.isSupported(), "virtual threads are supported");
+
+    assertThatThrownBy(EasyHttpClientProvider::newVirtualThreadClient).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(EasyHttpClientProvider::newVirtualThreadClient).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void should_not_build_virtual_thread_client_on_null_objectMapper() {
+    assertThatNullPointerException().isThrownBy(() -> newVirtualThreadClient(null));
+  }
 }
@@ -1,14 +1,46 @@
 package com.github.badpop.easyhttp;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.badpop.easyhttp.cache.DiskCacheStore;
+import com.github.badpop.easyhttp.cache.HttpCache;
+import com.github.badpop.easyhttp.circuit.CircuitBreaker;
+import com.github.badpop.easyhttp.circuit.CircuitBreakerPolicy;
+import com.github.badpop.easyhttp.circuit.CircuitState;
+import com.github.badpop.easyhttp.coalescing.RequestCoalescer;
 import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
+import com.github.badpop.easyhttp.event.HttpExchange;
+import com.github.badpop.easyhttp.exception.CircuitBreakerOpenException;
+import com.github.badpop.easyhttp.exception.LimitExceededException;
+import com.github.badpop.easyhttp.exception.RateLimitExceededException;
+import com.github.badpop.easyhttp.exception.ServerErrorException;
+import com.github.badpop.easyhttp.exception.WriteBodyException;
 import com.github.badpop.easyhttp.extension.MockServerExtension;
 import com.github.badpop.easyhttp.extension.Value;
+import com.github.badpop.easyhttp.hedge.HedgeBudget;
+import com.github.badpop.easyhttp.hedge.HedgePolicy;
+import com.github.badpop.easyhttp.hedge.LatencyTracker;
+import com.github.badpop.easyhttp.json.JsonSequenceFormat;
+import com.github.badpop.easyhttp.limit.ConcurrencyLimiter;
+import com.github.badpop.easyhttp.limit.LimitPolicy;
+import com.github.badpop.easyhttp.metrics.HttpMetrics;
+import com.github.badpop.easyhttp.ratelimit.RateLimit;
+import com.github.badpop.easyhttp.ratelimit.RateLimiter;
+import com.github.badpop.easyhttp.retry.Backoff;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
+import com.github.badpop.easyhttp.warmup.WarmUpPlan;
+import io.vavr.collection.List;
 import lombok.val;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockserver.integration.ClientAndServer;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.Delay;
 import org.mockserver.model.HttpError;
 
 import java.io.IOException;
@@ -16,12 +48,24 @@ import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Queue;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static java.lang.Boolean.TRUE;
 import static org.assertj.vavr.api.VavrAssertions.assertThat;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockserver.verify.VerificationTimes.exactly;
 
 @ExtendWith(MockServerExtension.class)
@@ -130,6 +174,79 @@ class EasyHttpClientTest {
     mockServer.verify(request().withMethod("GET").withPath(path));
   }
 
+  @Test
+  void should_complete_async_request_on_client_executor(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val bodyHandler = BodyHandlers.discarding();
+    val executor = Executors.newFixedThreadPool(1, runnable -> new Thread(runnable, "continuation-thread"));
+    val customClient = client.withExecutor(executor);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(
+        response().withStatusCode(200));
+
+    val actual = customClient.sendAsyncEasy(request, bodyHandler)
+      .map(response -> Thread.currentThread().getName())
+      .await();
+
+    Assertions.assertThat(actual.get()).isEqualTo("continuation-thread");
+    Assertions.assertThat(customClient.executorGauges().queueDepth().get()).isZero();
+    executor.shutdown();
+  }
+
+  @Test
+  void should_send_typed_request_and_read_body(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(
+        response().withStatusCode(200).withBody("{\"value\": 200}"));
+
+    val actualForClass = client.sendEasy(request, Value.class);
+    val actualForTypeRef = client.sendEasy(request, new TypeReference<List<Value>>() {
+    });
+    val actualAsyncForClass = client.sendAsyncEasy(request, Value.class).await();
+    val actualAsyncForTypeRef = client.sendAsyncEasy(request, new TypeReference<Value>() {
+    }).await();
+
+    assertThat(actualForClass).isSuccess();
+    Assertions.assertThat(actualForClass.get().body()).isEqualTo(new Value(200));
+    assertThat(actualForTypeRef).isFailure();
+    Assertions.assertThat(actualAsyncForClass.get().body()).isEqualTo(new Value(200));
+    Assertions.assertThat(actualAsyncForTypeRef.get().body()).isEqualTo(new Value(200));
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(4));
+  }
+
+  @Test
+  void should_send_typed_request_and_not_read_body_on_error_status(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(
+        response().withStatusCode(500).withBody("<html>Internal Server Error</html>"));
+
+    val actual = client.sendEasy(request, Value.class);
+
+    assertThat(actual).isSuccess();
+    Assertions.assertThat(actual.get().is5xx()).isTrue();
+    Assertions.assertThat(actual.get().body()).isNull();
+  }
+
   @Test
   void should_provide_string_publisher() throws JsonProcessingException {
     val value = new Value(0);
@@ -138,4 +255,920 @@ class EasyHttpClientTest {
     val expectedJson = client.objectMapper.writeValueAsString(value);
     Assertions.assertThat(actual.contentLength()).isEqualTo(expectedJson.length());
   }
+
+  @Test
+  void should_provide_json_publisher_streaming_exact_bytes() throws JsonProcessingException {
+    val value = new Value(0);
+    val actual = client.tryCreateBodyPublisher(value);
+
+    val expectedJson = client.objectMapper.writeValueAsBytes(value);
+    assertThat(actual).isSuccess();
+    Assertions.assertThat(actual.get().contentLength()).isEqualTo(expectedJson.length);
+  }
+
+  @Test
+  void should_fail_to_create_publisher_for_null_body() {
+    val actual = client.tryCreateBodyPublisher(null);
+
+    assertThat(actual).failBecauseOf(WriteBodyException.class);
+  }
+
+  @Test
+  void should_fail_to_create_publisher_for_unserializable_body() {
+    val actual = client.tryCreateBodyPublisher(new Object());
+
+    assertThat(actual).failBecauseOf(WriteBodyException.class);
+    Assertions.assertThat(client.createBodyPublisher(new Object()).contentLength()).isZero();
+  }
+
+  @Test
+  void should_retry_request_with_replayable_ndjson_body(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val body = client.createBodyPublisher(() -> Stream.of(new Value(1), new Value(2)), JsonSequenceFormat.NDJSON);
+    val request = HttpRequest.newBuilder()
+      .POST(body)
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("POST").withPath(path).withBody("{\"value\":1}\n{\"value\":2}\n"))
+      .respond(response().withStatusCode(503));
+
+    val actual = client.sendEasy(request, BodyHandlers.discarding()).flatMap(EasyHttpResponse::retry);
+
+    assertThat(actual).isSuccess();
+    Assertions.assertThat(actual.get().statusCode()).isEqualTo(503);
+    mockServer.verify(request().withMethod("POST").withPath(path), exactly(2));
+  }
+
+  @Test
+  void should_retry_with_client_policy_until_success(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val retryingClient = client.withRetryPolicy(RetryPolicy.defaultPolicy().withBackoff(Backoff.fixed(Duration.ofMillis(10))));
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path), Times.exactly(2))
+      .respond(response().withStatusCode(503));
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200));
+
+    val actual = retryingClient.sendEasy(request, BodyHandlers.discarding());
+
+    assertThat(actual).isSuccess();
+    Assertions.assertThat(actual.get().statusCode()).isEqualTo(200);
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(3));
+  }
+
+  @Test
+  void should_retry_async_with_call_policy_and_return_last_response(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val policy = RetryPolicy.defaultPolicy().withMaxAttempts(4).withBackoff(Backoff.fixed(Duration.ofMillis(10)));
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(503).withHeader("Retry-After", "0"));
+
+    val actual = client.sendAsyncEasy(request, BodyHandlers.ofString(), policy).await();
+
+    Assertions.assertThat(actual.isSuccess()).isTrue();
+    Assertions.assertThat(actual.get().statusCode()).isEqualTo(503);
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(4));
+  }
+
+  @Test
+  void should_retry_async_on_dropped_connection(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val retryingClient = client.withRetryPolicy(RetryPolicy.defaultPolicy().withBackoff(Backoff.none()));
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path), Times.once())
+      .error(HttpError.error().withDropConnection(TRUE));
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200));
+
+    val actual = retryingClient.sendAsync(request, BodyHandlers.discarding()).await();
+
+    Assertions.assertThat(actual.isSuccess()).isTrue();
+    Assertions.assertThat(actual.get().statusCode()).isEqualTo(200);
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(2));
+  }
+
+  @Test
+  void should_cancel_scheduled_async_retry(String host, Integer port, ClientAndServer mockServer) throws InterruptedException {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val policy = RetryPolicy.defaultPolicy().withBackoff(Backoff.fixed(Duration.ofMillis(300)));
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(503));
+
+    val actual = client.sendAsyncEasy(request, BodyHandlers.discarding(), policy);
+    Thread.sleep(150);
+    actual.cancel();
+    Thread.sleep(500);
+
+    Assertions.assertThat(actual.isCancelled()).isTrue();
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+  }
+
+  @Test
+  void should_hedge_slow_request_and_return_first_response(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path), Times.once())
+      .respond(response().withStatusCode(200).withBody("slow").withDelay(Delay.seconds(5)));
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withBody("fast"));
+
+    val start = System.nanoTime();
+    val actual = client.sendHedgedAsync(request, BodyHandlers.ofString(), HedgePolicy.fixedDelay(Duration.ofMillis(100))).await();
+
+    Assertions.assertThat(actual.isSuccess()).isTrue();
+    Assertions.assertThat(actual.get().body()).isEqualTo("fast");
+    Assertions.assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(4));
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(2));
+  }
+
+  @Test
+  void should_record_time_to_first_response_once_per_request(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val policy = spy(HedgePolicy.percentileDelay(95, Duration.ofMillis(100)));
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path), Times.once())
+      .respond(response().withStatusCode(200).withBody("slow").withDelay(Delay.seconds(5)));
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withBody("fast"));
+
+    val hedged = client.sendHedgedAsync(request, BodyHandlers.ofString(), policy).await();
+    val primary = client.sendHedgedAsync(request, BodyHandlers.ofString(), policy).await();
+
+    Assertions.assertThat(hedged.get().body()).isEqualTo("fast");
+    Assertions.assertThat(primary.get().body()).isEqualTo("fast");
+    val latencies = ArgumentCaptor.forClass(Duration.class);
+    verify(policy, times(2)).onResponse(latencies.capture());
+    Assertions.assertThat(latencies.getAllValues().get(0)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+  }
+
+  @Test
+  void should_not_lower_hedge_delay_while_hedges_win(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val initialDelay = Duration.ofMillis(100);
+    val policy = HedgePolicy.percentileDelay(50, initialDelay).withBudget(HedgeBudget.of(1, 100));
+
+    // 32 primary attempts answer at once, the 48 others are so slow that their hedge always wins
+    for (int i = 0; i < 80; i++) {
+      if (i % 5 < 2) {
+        mockServer
+          .when(request().withMethod("GET").withPath(path), Times.once())
+          .respond(response().withStatusCode(200));
+      } else {
+        mockServer
+          .when(request().withMethod("GET").withPath(path), Times.once())
+          .respond(response().withStatusCode(200).withDelay(Delay.seconds(2)));
+        mockServer
+          .when(request().withMethod("GET").withPath(path), Times.once())
+          .respond(response().withStatusCode(200));
+      }
+    }
+
+    for (int i = 0; i < 80; i++) {
+      Assertions.assertThat(client.sendHedgedAsync(request, BodyHandlers.discarding(), policy).await().isSuccess()).isTrue();
+    }
+
+    Assertions.assertThat(policy.latenciesOption().flatMap(LatencyTracker::percentile)).isNotEmpty();
+    Assertions.assertThat(policy.hedgeDelay()).isGreaterThanOrEqualTo(initialDelay);
+  }
+
+  @Test
+  void should_not_hedge_fast_request(String host, Integer port, ClientAndServer mockServer) throws InterruptedException {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200));
+
+    val actual = client.sendHedgedAsync(request, BodyHandlers.discarding(), HedgePolicy.fixedDelay(Duration.ofMillis(300))).await();
+    Thread.sleep(500);
+
+    Assertions.assertThat(actual.isSuccess()).isTrue();
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+  }
+
+  @Test
+  void should_not_hedge_when_budget_is_exhausted(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val policy = HedgePolicy.fixedDelay(Duration.ofMillis(50)).withBudget(HedgeBudget.of(0.1, 1));
+    policy.tryAcquireHedge();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withDelay(Delay.milliseconds(300)));
+
+    val actual = client.sendHedgedAsync(request, BodyHandlers.discarding(), policy).await();
+
+    Assertions.assertThat(actual.isSuccess()).isTrue();
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+  }
+
+  @Test
+  void should_fail_hedged_request_when_all_attempts_fail(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .error(HttpError.error().withDropConnection(TRUE));
+
+    val actual = client.sendHedgedAsync(request, BodyHandlers.discarding(), HedgePolicy.fixedDelay(Duration.ofSeconds(1))).await();
+
+    Assertions.assertThat(actual.isFailure()).isTrue();
+    assertThat(actual.getCause()).containsInstanceOf(CompletionException.class);
+  }
+
+  @Test
+  void should_coalesce_identical_requests_in_flight(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val coalescer = RequestCoalescer.onAllHeaders();
+    val coalescingClient = client.withRequestCoalescer(coalescer);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withBody("{\"value\": 5}").withDelay(Delay.milliseconds(500)));
+
+    val typed = coalescingClient.sendAsyncEasy(request, Value.class);
+    val strings = List.fill(20, () -> coalescingClient.sendAsyncEasy(request, BodyHandlers.ofString()));
+    val blocking = coalescingClient.sendEasy(request, BodyHandlers.ofString());
+
+    Assertions.assertThat(typed.get().body()).isEqualTo(new Value(5));
+    strings.forEach(response -> Assertions.assertThat(response.get().body()).isEqualTo("{\"value\": 5}"));
+    assertThat(blocking).isSuccess();
+    Assertions.assertThat(blocking.get().body()).isEqualTo("{\"value\": 5}");
+    Assertions.assertThat(blocking.get().request()).isSameAs(request);
+    Assertions.assertThat(coalescer.exchanges()).isEqualTo(1);
+    Assertions.assertThat(coalescer.coalesced()).isEqualTo(21);
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+  }
+
+  @Test
+  void should_share_coalesced_failure(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val coalescingClient = client.withRequestCoalescer(RequestCoalescer.onAllHeaders());
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .error(HttpError.error().withDropConnection(TRUE));
+
+    val actual = coalescingClient.sendEasy(request, BodyHandlers.ofString());
+
+    assertThat(actual).failBecauseOf(IOException.class);
+  }
+
+  @Test
+  void should_answer_fresh_requests_from_cache(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val cache = HttpCache.inMemory(1024 * 1024);
+    val cachingClient = client.withHttpCache(cache);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withHeader("Cache-Control", "max-age=60").withBody("{\"value\": 5}"));
+
+    val typed = cachingClient.sendEasy(request, Value.class);
+    val string = cachingClient.sendAsyncEasy(request, BodyHandlers.ofString()).get();
+    val raw = cachingClient.send(request, BodyHandlers.ofString());
+
+    Assertions.assertThat(typed.get().body()).isEqualTo(new Value(5));
+    Assertions.assertThat(string.body()).isEqualTo("{\"value\": 5}");
+    Assertions.assertThat(raw.get().body()).isEqualTo("{\"value\": 5}");
+    Assertions.assertThat(raw.get().headers().firstValue("Age")).isPresent();
+    Assertions.assertThat(cache.hits()).isEqualTo(2);
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+  }
+
+  @Test
+  void should_answer_requests_from_disk_cache(String host, Integer port, ClientAndServer mockServer, @TempDir Path directory) throws IOException {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withHeader("Cache-Control", "max-age=60").withBody("{\"value\": 5}"));
+
+    try (val store = DiskCacheStore.open(directory, 1024 * 1024)) {
+      val cache = HttpCache.of(store);
+      val cachingClient = client.withHttpCache(cache);
+
+      val sent = cachingClient.sendEasy(request, Value.class);
+      val cached = cachingClient.sendEasy(request, Value.class);
+
+      Assertions.assertThat(sent.get().body()).isEqualTo(new Value(5));
+      Assertions.assertThat(cached.get().body()).isEqualTo(new Value(5));
+      Assertions.assertThat(cache.hits()).isEqualTo(1);
+      Assertions.assertThat(store.size()).isPositive();
+      mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+    }
+  }
+
+  @Test
+  void should_revalidate_cached_response(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val cache = HttpCache.inMemory(1024 * 1024);
+    val cachingClient = client.withHttpCache(cache);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path).withHeader("If-None-Match", "\"v1\""))
+      .respond(response().withStatusCode(304).withHeader("ETag", "\"v1\""));
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withHeader("ETag", "\"v1\"").withBody("{\"value\": 5}"));
+
+    val first = cachingClient.sendEasy(request, Value.class);
+    val second = cachingClient.sendEasy(request, Value.class);
+
+    Assertions.assertThat(first.get().body()).isEqualTo(new Value(5));
+    Assertions.assertThat(second.get().statusCode()).isEqualTo(200);
+    Assertions.assertThat(second.get().body()).isEqualTo(new Value(5));
+    Assertions.assertThat(cache.notModified()).isEqualTo(1);
+    mockServer.verify(request().withMethod("GET").withPath(path).withHeader("If-None-Match", "\"v1\""), exactly(1));
+  }
+
+  @Test
+  void should_invalidate_cached_response_on_unsafe_request(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val uri = URI.create(String.format("%s:%s%s", host, port, path));
+    val request = HttpRequest.newBuilder().GET().uri(uri).build();
+    val cachingClient = client.withHttpCache(HttpCache.inMemory(1024 * 1024));
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withHeader("Cache-Control", "max-age=60"));
+    mockServer
+      .when(request().withMethod("DELETE").withPath(path))
+      .respond(response().withStatusCode(204));
+
+    cachingClient.sendEasy(request, BodyHandlers.discarding());
+    cachingClient.sendEasy(HttpRequest.newBuilder().DELETE().uri(uri).build(), BodyHandlers.discarding());
+    cachingClient.sendEasy(request, BodyHandlers.discarding());
+
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(2));
+  }
+
+  @Test
+  void should_reject_requests_over_concurrency_limit(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(1).withMinLimit(1).withMaxQueueSize(0));
+    val limitedClient = client.withConcurrencyLimiter(limiter);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withDelay(Delay.milliseconds(300)));
+
+    val first = limitedClient.sendAsyncEasy(request, BodyHandlers.discarding());
+    val rejectedAsync = limitedClient.sendAsyncEasy(request, BodyHandlers.discarding());
+    val rejectedSync = limitedClient.sendEasy(request, BodyHandlers.discarding());
+
+    assertThat(first.await().getValue().get()).isSuccess();
+    assertThat(rejectedAsync.await().getValue().get()).failBecauseOf(CompletionException.class);
+    Assertions.assertThat(rejectedAsync.getCause().get()).hasCauseInstanceOf(LimitExceededException.class);
+    assertThat(rejectedSync).failBecauseOf(LimitExceededException.class);
+    Assertions.assertThat(limiter.rejected()).isEqualTo(2);
+    Assertions.assertThat(limiter.inFlight(request.uri())).isZero();
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+  }
+
+  @Test
+  void should_queue_requests_over_concurrency_limit(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(1).withMaxQueueTime(Duration.ofSeconds(5)));
+    val limitedClient = client.withConcurrencyLimiter(limiter);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withDelay(Delay.milliseconds(100)));
+
+    val responses = List.fill(3, () -> limitedClient.sendAsyncEasy(request, BodyHandlers.discarding()));
+
+    Assertions.assertThat(limiter.queueDepth(request.uri())).isEqualTo(2);
+    responses.forEach(response -> assertThat(response.await().getValue().get()).isSuccess());
+    Assertions.assertThat(limiter.inFlight(request.uri())).isZero();
+    Assertions.assertThat(limiter.queueDepth(request.uri())).isZero();
+  }
+
+  @Test
+  void should_fail_fast_while_circuit_is_open_then_probe(String host, Integer port, ClientAndServer mockServer) throws InterruptedException {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val breaker = CircuitBreaker.perHost(CircuitBreakerPolicy.defaultPolicy()
+      .withMinimumCalls(2)
+      .withWindowSize(2)
+      .withOpenDuration(Duration.ofMillis(200))
+      .withHalfOpenCalls(1));
+    val breakingClient = client.withCircuitBreaker(breaker);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path), Times.exactly(2))
+      .respond(response().withStatusCode(503));
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200));
+
+    val failures = List.fill(2, () -> breakingClient.sendEasy(request, BodyHandlers.discarding()));
+    val rejectedSync = breakingClient.sendEasy(request, BodyHandlers.discarding());
+    val rejectedAsync = breakingClient.sendAsyncEasy(request, BodyHandlers.discarding());
+
+    failures.forEach(failure -> Assertions.assertThat(failure.get().statusCode()).isEqualTo(503));
+    assertThat(rejectedSync).failBecauseOf(CircuitBreakerOpenException.class);
+    assertThat(rejectedAsync.await().getValue().get()).failBecauseOf(CompletionException.class);
+    Assertions.assertThat(rejectedAsync.getCause().get()).hasCauseInstanceOf(CircuitBreakerOpenException.class);
+    Assertions.assertThat(breaker.state(request.uri())).isEqualTo(CircuitState.OPEN);
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(2));
+
+    Thread.sleep(250);
+    val probe = breakingClient.sendEasy(request, BodyHandlers.discarding());
+
+    Assertions.assertThat(probe.get().statusCode()).isEqualTo(200);
+    Assertions.assertThat(breaker.state(request.uri())).isEqualTo(CircuitState.CLOSED);
+    Assertions.assertThat(breaker.rejected()).isEqualTo(2);
+  }
+
+  @Test
+  void should_open_circuit_on_transport_failures(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val breaker = CircuitBreaker.perHost(CircuitBreakerPolicy.defaultPolicy().withMinimumCalls(2).withWindowSize(2));
+    val breakingClient = client.withCircuitBreaker(breaker).withConcurrencyLimiter(ConcurrencyLimiter.perHost(LimitPolicy.aimd()));
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .error(HttpError.error().withDropConnection(true));
+
+    val failures = List.fill(2, () -> breakingClient.sendAsyncEasy(request, BodyHandlers.discarding()).await());
+    val rejected = breakingClient.sendEasy(request, BodyHandlers.discarding());
+
+    failures.forEach(failure -> Assertions.assertThat(failure.isFailure()).isTrue());
+    assertThat(rejected).failBecauseOf(CircuitBreakerOpenException.class);
+    Assertions.assertThat(breaker.state(request.uri())).isEqualTo(CircuitState.OPEN);
+  }
+
+  @Test
+  void should_record_async_outcome_in_circuit_before_completing(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val breaker = CircuitBreaker.perHost(CircuitBreakerPolicy.defaultPolicy().withMinimumCalls(1).withWindowSize(1));
+    val states = new ConcurrentLinkedQueue<CircuitState>();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(503));
+
+    client.withCircuitBreaker(breaker)
+      .withExecutor(Runnable::run)
+      .sendAsyncEasy(request, BodyHandlers.discarding())
+      .andThen(ignored -> states.add(breaker.state(request.uri())))
+      .await();
+
+    Assertions.assertThat(states).containsExactly(CircuitState.OPEN);
+  }
+
+  @Test
+  void should_open_circuit_with_custom_failure_predicate(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val breaker = CircuitBreaker.perHost(CircuitBreakerPolicy.defaultPolicy()
+      .withMinimumCalls(2)
+      .withWindowSize(2)
+      .withFailureOnResponse(response -> response.headers().firstValue("X-Degraded").isPresent()));
+    val breakingClient = client.withCircuitBreaker(breaker);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withHeader("X-Degraded", "true"));
+
+    breakingClient.sendEasy(request, BodyHandlers.discarding());
+    breakingClient.sendAsyncEasy(request, BodyHandlers.discarding()).await();
+
+    Assertions.assertThat(breaker.state(request.uri())).isEqualTo(CircuitState.OPEN);
+  }
+
+  @Test
+  void should_throttle_requests_over_rate_limit(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(20));
+    val throttledClient = client.withRateLimiter(limiter);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200));
+
+    val start = System.nanoTime();
+    val sync = List.fill(2, () -> throttledClient.sendEasy(request, BodyHandlers.discarding()));
+    val async = List.fill(2, () -> throttledClient.sendAsyncEasy(request, BodyHandlers.discarding()));
+
+    sync.forEach(response -> assertThat(response).isSuccess());
+    async.forEach(response -> assertThat(response.await().getValue().get()).isSuccess());
+    Assertions.assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+    Assertions.assertThat(limiter.throttled()).isEqualTo(3);
+  }
+
+  @Test
+  void should_slow_down_on_too_many_requests_with_retry_after(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(100).withBurst(100).withMaxWait(Duration.ZERO));
+    val throttledClient = client.withRateLimiter(limiter);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path), Times.exactly(1))
+      .respond(response().withStatusCode(429).withHeader("Retry-After", "60"));
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200));
+
+    val tooMany = throttledClient.sendAsyncEasy(request, BodyHandlers.discarding()).await();
+    val rejectedSync = throttledClient.sendEasy(request, BodyHandlers.discarding());
+    val rejectedAsync = throttledClient.sendAsyncEasy(request, BodyHandlers.discarding());
+
+    Assertions.assertThat(tooMany.get().statusCode()).isEqualTo(429);
+    assertThat(rejectedSync).failBecauseOf(RateLimitExceededException.class);
+    assertThat(rejectedAsync.await().getValue().get()).failBecauseOf(CompletionException.class);
+    Assertions.assertThat(rejectedAsync.getCause().get()).hasCauseInstanceOf(RateLimitExceededException.class);
+    Assertions.assertThat(limiter.rejected()).isEqualTo(2);
+    mockServer.verify(request().withMethod("GET").withPath(path), exactly(1));
+  }
+
+  @Test
+  void should_send_all_requests_with_bounded_parallelism_in_order(String host, Integer port, ClientAndServer mockServer) {
+    val requests = List.range(0, 20).map(id -> HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s/items/%s", host, port, id)))
+      .build());
+
+    mockServer
+      .when(request().withMethod("GET").withPath("/items/13"))
+      .respond(response().withStatusCode(404));
+    mockServer
+      .when(request().withMethod("GET").withPath("/items/.*"))
+      .respond(response().withStatusCode(200).withDelay(Delay.milliseconds(10)));
+
+    val actual = client.sendAllAsync(requests, BodyHandlers.discarding(), 4).await().getValue().get();
+
+    assertThat(actual).isSuccess();
+    Assertions.assertThat(actual.get()).hasSize(20).allMatch(outcome -> outcome.isSuccess());
+    Assertions.assertThat(actual.get().map(outcome -> outcome.get().uri().getPath()))
+      .containsExactlyElementsOf(requests.map(request -> request.uri().getPath()));
+    Assertions.assertThat(actual.get().map(outcome -> outcome.get().statusCode()).count(status -> status == 404)).isEqualTo(1);
+    mockServer.verify(request().withMethod("GET").withPath("/items/.*"), exactly(20));
+  }
+
+  @Test
+  void should_stream_all_responses_in_completion_order(String host, Integer port, ClientAndServer mockServer) {
+    val requests = List.range(0, 10).map(id -> HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s/items/%s", host, port, id)))
+      .build());
+
+    mockServer
+      .when(request().withMethod("GET").withPath("/items/0"))
+      .respond(response().withStatusCode(200).withDelay(Delay.milliseconds(300)));
+    mockServer
+      .when(request().withMethod("GET").withPath("/items/.*"))
+      .respond(response().withStatusCode(200));
+
+    try (val stream = client.streamAll(requests, BodyHandlers.discarding(), 3)) {
+      val paths = stream.map(outcome -> outcome.get().uri().getPath()).collect(List.collector());
+
+      Assertions.assertThat(paths).hasSize(10).containsAll(requests.map(request -> request.uri().getPath()));
+      Assertions.assertThat(paths.last()).isEqualTo("/items/0");
+    }
+  }
+
+  @Test
+  void should_complete_with_first_successful_replica(String host, Integer port, ClientAndServer mockServer) {
+    val replicas = List.of("/slow", "/broken", "/fast").map(path -> HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build());
+
+    mockServer
+      .when(request().withMethod("GET").withPath("/slow"))
+      .respond(response().withStatusCode(200).withDelay(Delay.seconds(5)));
+    mockServer
+      .when(request().withMethod("GET").withPath("/broken"))
+      .respond(response().withStatusCode(503));
+    mockServer
+      .when(request().withMethod("GET").withPath("/fast"))
+      .respond(response().withStatusCode(200).withDelay(Delay.milliseconds(100)));
+
+    val start = System.nanoTime();
+    val actual = client.sendFirstSuccessful(replicas, BodyHandlers.discarding()).await().getValue().get();
+
+    assertThat(actual).isSuccess();
+    Assertions.assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(4));
+    Assertions.assertThat(actual.get().isSatisfied()).isTrue();
+    Assertions.assertThat(actual.get().getSuccesses().head().uri().getPath()).isEqualTo("/fast");
+    Assertions.assertThat(actual.get().getFailures()).hasSize(1);
+    Assertions.assertThat(actual.get().getFailures().head().getCause()).isInstanceOf(ServerErrorException.class);
+    Assertions.assertThat(actual.get().getCancelled()).containsExactly(replicas.head());
+  }
+
+  @Test
+  void should_gather_shards_until_deadline(String host, Integer port, ClientAndServer mockServer) {
+    val shards = List.range(0, 4).map(shard -> HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s/shards/%s", host, port, shard)))
+      .build());
+
+    mockServer
+      .when(request().withMethod("GET").withPath("/shards/3"))
+      .respond(response().withStatusCode(200).withDelay(Delay.seconds(5)));
+    mockServer
+      .when(request().withMethod("GET").withPath("/shards/.*"))
+      .respond(response().withStatusCode(200));
+
+    val quorum = client.sendQuorum(shards, BodyHandlers.discarding(), 3).await().getValue().get();
+    val within = client.sendAllWithin(shards, BodyHandlers.discarding(), Duration.ofMillis(500)).await().getValue().get();
+
+    Assertions.assertThat(quorum.get().isSatisfied()).isTrue();
+    Assertions.assertThat(quorum.get().getSuccesses()).hasSize(3);
+    Assertions.assertThat(within.get().isSatisfied()).isFalse();
+    Assertions.assertThat(within.get().getSuccesses()).hasSize(3);
+    Assertions.assertThat(within.get().getCancelled()).containsExactly(shards.last());
+  }
+
+  @Test
+  void should_warm_up_connections_codecs_and_requests(String host, Integer port, ClientAndServer mockServer) {
+    val health = HttpRequest.newBuilder().GET().uri(URI.create(String.format("%s:%s/health", host, port))).build();
+    val plan = WarmUpPlan.empty()
+      .withHosts(List.of(URI.create(String.format("%s:%s/", host, port))))
+      .withConnectionsPerHost(2)
+      .withTypes(List.of(Value.class))
+      .withRequests(List.of(health))
+      .withIterations(3);
+
+    mockServer.when(request().withPath("/.*")).respond(response().withStatusCode(200));
+
+    val actual = client.warmUp(plan).await().getValue().get();
+
+    assertThat(actual).isSuccess();
+    Assertions.assertThat(actual.get().isSuccessful()).isTrue();
+    Assertions.assertThat(actual.get().getConnections()).isEqualTo(2);
+    Assertions.assertThat(actual.get().getCodecs()).isEqualTo(2);
+    Assertions.assertThat(actual.get().getRequests()).isEqualTo(3);
+    mockServer.verify(request().withMethod("HEAD").withPath("/"), exactly(2));
+    mockServer.verify(request().withMethod("GET").withPath("/health"), exactly(3));
+  }
+
+  @Test
+  void should_notify_event_listener_of_exchanges_retries_and_deserialization(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .POST(HttpRequest.BodyPublishers.ofString("{\"value\":1}"))
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val events = new ConcurrentLinkedQueue<String>();
+    val observedClient = client
+      .withRetryPolicy(RetryPolicy.defaultPolicy().withBackoff(Backoff.none()))
+      .withEventListener(recording(events));
+
+    mockServer
+      .when(request().withMethod("POST").withPath(path), Times.exactly(1))
+      .respond(response().withStatusCode(503));
+    mockServer
+      .when(request().withMethod("POST").withPath(path))
+      .respond(response().withStatusCode(200).withBody("{\"value\":2}"));
+
+    val actual = observedClient.sendEasy(request, BodyHandlers.ofString()).flatMap(response -> response.readBody(Value.class).toTry());
+
+    assertThat(actual).contains(new Value(2));
+    Assertions.assertThat(events).containsExactly(
+      "start", "published:11", "headers:503", "received:0", "completed:503", "retry:1",
+      "start", "published:11", "headers:200", "received:11", "completed:200",
+      "deserializing:Value", "deserialized:Value");
+  }
+
+  @Test
+  void should_notify_event_listener_before_completing_async_exchanges(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val events = new ConcurrentLinkedQueue<String>();
+    val seenByCaller = new ConcurrentLinkedQueue<String>();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200));
+
+    client.withEventListener(recording(events))
+      .withExecutor(Runnable::run)
+      .sendAsyncEasy(request, BodyHandlers.discarding())
+      .andThen(ignored -> seenByCaller.addAll(events))
+      .await();
+
+    Assertions.assertThat(seenByCaller).endsWith("completed:200");
+  }
+
+  @Test
+  void should_notify_event_listener_of_failed_async_exchanges(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val events = new ConcurrentLinkedQueue<String>();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .error(HttpError.error().withDropConnection(true));
+
+    val actual = client.withEventListener(recording(events)).sendAsyncEasy(request, BodyHandlers.ofString()).await();
+
+    Assertions.assertThat(actual.isFailure()).isTrue();
+    Assertions.assertThat(events).containsExactly("start", "failed:IOException");
+  }
+
+  @Test
+  void should_not_notify_inactive_event_listener(String host, Integer port, ClientAndServer mockServer) {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+    val events = new ConcurrentLinkedQueue<String>();
+    val recording = recording(events);
+    val inactive = mock(EasyHttpEventListener.class, delegatesTo(recording));
+    when(inactive.isActive()).thenReturn(false);
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withBody("{\"value\":2}"));
+
+    val actual = client.withEventListener(inactive).sendEasy(request, BodyHandlers.ofString()).flatMap(response -> response.readBody(Value.class).toTry());
+
+    assertThat(actual).contains(new Value(2));
+    Assertions.assertThat(events).isEmpty();
+  }
+
+  @Test
+  void should_record_metrics_of_each_route(String host, Integer port, ClientAndServer mockServer) {
+    val metrics = HttpMetrics.create();
+    val metricsClient = client.withEventListener(metrics);
+
+    mockServer
+      .when(request().withMethod("GET").withPath("/users/.*"))
+      .respond(response().withStatusCode(200));
+
+    for (val id : List.of(1, 2, 3)) {
+      metricsClient.sendEasy(HttpRequest.newBuilder(URI.create(String.format("%s:%s/users/%s", host, port, id))).build(), BodyHandlers.ofString());
+    }
+
+    Assertions.assertThat(metrics.routes())
+      .singleElement()
+      .satisfies(route -> {
+        Assertions.assertThat(route.getRoute()).isEqualTo("/users/{id}");
+        Assertions.assertThat(route.getStatus2xx()).isEqualTo(3);
+        Assertions.assertThat(route.getLatency().getCount()).isEqualTo(3);
+      });
+  }
+
+  private static EasyHttpEventListener recording(Queue<String> events) {
+    return new EasyHttpEventListener() {
+      @Override
+      public void requestStart(HttpExchange exchange) {
+        events.add("start");
+      }
+
+      @Override
+      public void bodyPublished(HttpExchange exchange, long bytes, long nanoTime) {
+        events.add("published:" + bytes);
+      }
+
+      @Override
+      public void headersReceived(HttpExchange exchange, int statusCode, long nanoTime) {
+        events.add("headers:" + statusCode);
+      }
+
+      @Override
+      public void bodyReceived(HttpExchange exchange, long bytes, long nanoTime) {
+        events.add("received:" + bytes);
+      }
+
+      @Override
+      public void exchangeCompleted(HttpExchange exchange, HttpResponse<?> response, long nanoTime) {
+        events.add("completed:" + response.statusCode());
+      }
+
+      @Override
+      public void exchangeFailed(HttpExchange exchange, Throwable cause, long nanoTime) {
+        events.add("failed:" + cause.getClass().getSimpleName());
+      }
+
+      @Override
+      public void retryScheduled(HttpRequest request, int attempt, Duration delay, long nanoTime) {
+        events.add("retry:" + attempt);
+      }
+
+      @Override
+      public void deserializationStart(HttpRequest request, JavaType type, long nanoTime) {
+        events.add("deserializing:" + type.getRawClass().getSimpleName());
+      }
+
+      @Override
+      public void deserializationEnd(HttpRequest request, JavaType type, long startNanos, long nanoTime) {
+        events.add("deserialized:" + type.getRawClass().getSimpleName());
+      }
+    };
+  }
 }
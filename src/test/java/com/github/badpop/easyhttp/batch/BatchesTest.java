@@ -0,0 +1,126 @@
+package com.github.badpop.easyhttp.batch;
+
+import io.vavr.collection.Iterator;
+import io.vavr.control.Try;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class BatchesTest {
+
+  private final HashMap<Integer, CompletableFuture<String>> exchanges = new HashMap<>();
+  private final AtomicInteger pulled = new AtomicInteger();
+
+  @Test
+  void should_collect_outcomes_in_request_order() {
+    val actual = Batches.sendAll(requests(4), this::exchange, 2);
+
+    assertThat(exchanges).containsOnlyKeys(0, 1);
+    assertThat(pulled).hasValue(2);
+
+    exchanges.get(1).complete("1");
+    assertThat(exchanges).containsOnlyKeys(0, 1, 2);
+    exchanges.get(2).completeExceptionally(new CompletionException(new IllegalStateException()));
+    exchanges.get(0).complete("0");
+    assertThat(actual).isNotDone();
+    exchanges.get(3).complete("3");
+
+    val outcomes = actual.join();
+    assertThat(outcomes.map(Try::isSuccess)).containsExactly(true, true, false, true);
+    assertThat(outcomes.get(0).get()).isEqualTo("0");
+    assertThat(outcomes.get(1).get()).isEqualTo("1");
+    assertThat(outcomes.get(2).getCause()).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void should_complete_empty_batch() {
+    assertThat(Batches.sendAll(requests(0), this::exchange, 2).join()).isEmpty();
+  }
+
+  @Test
+  void should_not_overflow_stack_with_synchronous_completions() {
+    val actual = Batches.sendAll(requests(100_000), request -> CompletableFuture.completedFuture("" + request), 1);
+
+    assertThat(actual.join()).hasSize(100_000);
+    assertThat(actual.join().last().get()).isEqualTo("99999");
+  }
+
+  @Test
+  void should_record_synchronous_send_failure() {
+    val actual = Batches.<Integer, String>sendAll(requests(2), request -> {
+      throw new IllegalStateException();
+    }, 2);
+
+    assertThat(actual.join().map(Try::isFailure)).containsExactly(true, true);
+  }
+
+  @Test
+  void should_cancel_requests_in_flight_when_cancelled() {
+    val actual = Batches.sendAll(requests(10), this::exchange, 3);
+
+    actual.cancel(true);
+
+    assertThat(exchanges.values()).hasSize(3).allMatch(CompletableFuture::isCancelled);
+    assertThat(pulled).hasValue(3);
+  }
+
+  @Test
+  void should_stream_outcomes_lazily() {
+    val stream = Batches.streamAll(requests(3), request -> CompletableFuture.completedFuture("" + request), 2);
+
+    assertThat(pulled).hasValue(0);
+    assertThat(stream.map(Try::get).collect(Collectors.toList())).containsExactly("0", "1", "2");
+  }
+
+  @Test
+  void should_iterate_in_completion_order_and_pull_requests_only_when_outcomes_are_consumed() {
+    val batch = new CompletionOrderBatch<>(requests(10), this::exchange, 2);
+
+    assertThat(batch.hasNext()).isTrue();
+    assertThat(pulled).hasValue(2);
+    exchanges.get(1).complete("1");
+    exchanges.get(0).complete("0");
+
+    assertThat(batch.next().get()).isEqualTo("1");
+    assertThat(pulled).hasValue(2);
+    assertThat(batch.next().get()).isEqualTo("0");
+    assertThat(pulled).hasValue(3);
+  }
+
+  @Test
+  void should_cancel_requests_in_flight_when_closed() {
+    val batch = new CompletionOrderBatch<>(requests(10), this::exchange, 2);
+    batch.hasNext();
+
+    batch.close();
+
+    assertThat(exchanges.values()).hasSize(2).allMatch(CompletableFuture::isCancelled);
+    assertThat(batch.next().isFailure()).isTrue();
+    assertThat(batch.next().isFailure()).isTrue();
+    assertThat(batch.hasNext()).isFalse();
+  }
+
+  @Test
+  void should_not_send_batch_without_parallelism() {
+    assertThatIllegalArgumentException().isThrownBy(() -> Batches.sendAll(requests(1), this::exchange, 0));
+    assertThatIllegalArgumentException().isThrownBy(() -> Batches.streamAll(requests(1), this::exchange, 0));
+  }
+
+  private java.util.Iterator<Integer> requests(int count) {
+    return Iterator.range(0, count).peek(request -> pulled.incrementAndGet());
+  }
+
+  private CompletableFuture<String> exchange(Integer request) {
+    val exchange = new CompletableFuture<String>();
+    exchanges.put(request, exchange);
+    return exchange;
+  }
+}
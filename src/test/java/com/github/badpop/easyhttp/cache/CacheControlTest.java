@@ -0,0 +1,53 @@
+package com.github.badpop.easyhttp.cache;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+class CacheControlTest {
+
+  @Test
+  void should_parse_directives_of_all_headers() {
+    val actual = CacheControl.of(headers("Cache-Control", "public, MAX-AGE=\"60\"", "must-revalidate, stale-while-revalidate=30, no-cache=\"Set-Cookie\""));
+
+    assertThat(actual.getMaxAge()).contains(Duration.ofSeconds(60));
+    assertThat(actual.getStaleWhileRevalidate()).contains(Duration.ofSeconds(30));
+    assertThat(actual.isMustRevalidate()).isTrue();
+    assertThat(actual.isNoCache()).isTrue();
+    assertThat(actual.isNoStore()).isFalse();
+  }
+
+  @Test
+  void should_have_no_directive_without_header() {
+    val actual = CacheControl.of(headers("Content-Type", "text/plain"));
+
+    assertThat(actual.getMaxAge()).isEmpty();
+    assertThat(actual.getStaleWhileRevalidate()).isEmpty();
+    assertThat(actual.isNoStore()).isFalse();
+    assertThat(actual.isNoCache()).isFalse();
+    assertThat(actual.isMustRevalidate()).isFalse();
+  }
+
+  @Test
+  void should_consider_invalid_max_age_as_already_expired() {
+    assertThat(CacheControl.of(headers("Cache-Control", "max-age=abc")).getMaxAge()).contains(Duration.ZERO);
+    assertThat(CacheControl.of(headers("Cache-Control", "max-age=-1")).getMaxAge()).contains(Duration.ZERO);
+    assertThat(CacheControl.of(headers("Cache-Control", "max-age")).getMaxAge()).contains(Duration.ZERO);
+  }
+
+  @Test
+  void should_parse_no_store() {
+    assertThat(CacheControl.of(headers("Cache-Control", "private, no-store")).isNoStore()).isTrue();
+  }
+
+  private static HttpHeaders headers(String name, String... values) {
+    return HttpHeaders.of(Map.of(name, List.of(values)), (key, value) -> true);
+  }
+}
@@ -0,0 +1,135 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedResponseTest {
+
+  private static final URI URI_1 = URI.create("http://localhost/path");
+  private static final Instant NOW = Instant.parse("2022-05-01T10:00:00Z");
+
+  private final HttpRequest request = HttpRequest.newBuilder(URI_1).header("Accept", "application/json").GET().build();
+
+  @Test
+  void should_compute_age_from_date_age_header_and_response_delay() {
+    val response = response(200, Map.of(
+      "Date", List.of(date(NOW.minusSeconds(10))),
+      "Age", List.of("3"),
+      "Cache-Control", List.of("max-age=60")));
+
+    val actual = CachedResponse.of(request, response, NOW.minusSeconds(2), NOW);
+
+    // apparent age 10s is greater than the corrected age 3s + 2s
+    assertThat(actual.getInitialAge()).isEqualTo(Duration.ofSeconds(10));
+    assertThat(actual.age(NOW.plusSeconds(5))).isEqualTo(Duration.ofSeconds(15));
+    assertThat(actual.isFresh(NOW.plusSeconds(49))).isTrue();
+    assertThat(actual.isFresh(NOW.plusSeconds(50))).isFalse();
+  }
+
+  @Test
+  void should_compute_freshness_lifetime_from_expires() {
+    val response = response(200, Map.of(
+      "Date", List.of(date(NOW)),
+      "Expires", List.of(date(NOW.plusSeconds(120)))));
+
+    assertThat(CachedResponse.of(request, response, NOW, NOW).getFreshnessLifetime()).isEqualTo(Duration.ofSeconds(120));
+  }
+
+  @Test
+  void should_prefer_max_age_over_expires() {
+    val response = response(200, Map.of(
+      "Cache-Control", List.of("max-age=30"),
+      "Expires", List.of(date(NOW.plusSeconds(120)))));
+
+    assertThat(CachedResponse.of(request, response, NOW, NOW).getFreshnessLifetime()).isEqualTo(Duration.ofSeconds(30));
+  }
+
+  @Test
+  void should_be_stale_with_invalid_expires_or_no_cache() {
+    val invalidExpires = CachedResponse.of(request, response(200, Map.of("Expires", List.of("0"))), NOW, NOW);
+    val noCache = CachedResponse.of(request, response(200, Map.of("Cache-Control", List.of("no-cache, max-age=60"))), NOW, NOW);
+
+    assertThat(invalidExpires.isFresh(NOW)).isFalse();
+    assertThat(noCache.isFresh(NOW)).isFalse();
+  }
+
+  @Test
+  void should_serve_stale_within_stale_while_revalidate_window() {
+    val entry = CachedResponse.of(request, response(200, Map.of("Cache-Control", List.of("max-age=10, stale-while-revalidate=20"))), NOW, NOW);
+    val mustRevalidate = CachedResponse.of(request,
+      response(200, Map.of("Cache-Control", List.of("max-age=10, stale-while-revalidate=20, must-revalidate"))), NOW, NOW);
+
+    assertThat(entry.canServeStale(NOW.plusSeconds(29))).isTrue();
+    assertThat(entry.canServeStale(NOW.plusSeconds(30))).isFalse();
+    assertThat(mustRevalidate.canServeStale(NOW.plusSeconds(15))).isFalse();
+  }
+
+  @Test
+  void should_match_requests_with_same_vary_and_authorization_headers() {
+    val entry = CachedResponse.of(request, response(200, Map.of("Vary", List.of("Accept, Accept-Language"))), NOW, NOW);
+
+    assertThat(entry.getSelectingHeaders()).containsOnlyKeys("accept", "accept-language", "authorization");
+    assertThat(entry.matches(HttpRequest.newBuilder(URI_1).header("accept", "application/json").build())).isTrue();
+    assertThat(entry.matches(HttpRequest.newBuilder(URI_1).header("Accept", "text/plain").build())).isFalse();
+    assertThat(entry.matches(HttpRequest.newBuilder(URI_1).header("Accept", "application/json").header("Authorization", "token").build()))
+      .isFalse();
+  }
+
+  @Test
+  void should_update_headers_on_revalidation() {
+    val entry = CachedResponse.of(request, response(200, Map.of(
+      "ETag", List.of("\"v1\""),
+      "Cache-Control", List.of("max-age=10"),
+      "Content-Type", List.of("application/json"))), NOW, NOW);
+    val notModified = response(304, Map.of("Cache-Control", List.of("max-age=60"), "Content-Length", List.of("0")));
+
+    val actual = entry.revalidated(notModified.getHeaders(), NOW.plusSeconds(20), NOW.plusSeconds(20));
+
+    assertThat(actual.getResponse().getStatusCode()).isEqualTo(200);
+    assertThat(actual.getResponse().getHeaders().firstValue("Content-Type")).contains("application/json");
+    assertThat(actual.getResponse().getHeaders().firstValue("ETag")).contains("\"v1\"");
+    assertThat(actual.getResponse().getHeaders().firstValue("Content-Length")).isEmpty();
+    assertThat(actual.getFreshnessLifetime()).isEqualTo(Duration.ofSeconds(60));
+    assertThat(actual.isFresh(NOW.plusSeconds(50))).isTrue();
+    assertThat(actual.getResponse().body()).isEqualTo(entry.getResponse().body());
+  }
+
+  @Test
+  void should_serve_response_with_age_header() {
+    val entry = CachedResponse.of(request, response(200, Map.of("Cache-Control", List.of("max-age=60"))), NOW, NOW);
+
+    assertThat(entry.served(NOW.plusSeconds(7)).getHeaders().firstValue("age")).contains("7");
+  }
+
+  @Test
+  void should_weigh_body_and_headers() {
+    val entry = CachedResponse.of(request, response(200, Map.of("Cache-Control", List.of("max-age=60"))), NOW, NOW);
+
+    assertThat(entry.weight()).isGreaterThan(entry.getResponse().bodyLength());
+  }
+
+  private static BufferedResponse response(int status, Map<String, List<String>> headers) {
+    return new BufferedResponse(status, HttpHeaders.of(new HashMap<>(headers), (name, value) -> true), Version.HTTP_1_1, URI_1, null,
+      "{\"value\": 1}".getBytes(UTF_8));
+  }
+
+  private static String date(Instant instant) {
+    return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atZone(ZoneOffset.UTC));
+  }
+}
@@ -0,0 +1,256 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+class DiskCacheStoreTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void should_not_open_store_without_size() {
+    assertThatIllegalArgumentException().isThrownBy(() -> DiskCacheStore.open(directory, 0));
+  }
+
+  @Test
+  void should_store_and_read_entries() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      val entry = entry("{\"value\": 1}");
+
+      store.put("http://localhost/path", entry);
+      val actual = store.get("http://localhost/path");
+
+      assertThat(actual).isDefined();
+      val response = actual.get().getResponse();
+      assertThat(response.getStatusCode()).isEqualTo(200);
+      assertThat(response.getVersion()).isEqualTo(Version.HTTP_2);
+      assertThat(response.getUri()).isEqualTo(URI.create("http://localhost/path"));
+      assertThat(response.getHeaders().allValues("cache-control")).containsExactly("max-age=60");
+      assertThat(response.getHeaders().allValues("Vary")).containsExactly("Accept", "Accept-Language");
+      assertThat(UTF_8.decode(response.body()).toString()).isEqualTo("{\"value\": 1}");
+      assertThat(response.body().isDirect()).isTrue();
+      assertThat(actual.get().getSelectingHeaders()).isEqualTo(entry.getSelectingHeaders());
+      assertThat(actual.get().getResponseTime()).isEqualTo(entry.getResponseTime());
+      assertThat(actual.get().getInitialAge()).isEqualTo(entry.getInitialAge());
+      assertThat(actual.get().getFreshnessLifetime()).isEqualTo(Duration.ofSeconds(60));
+      assertThat(store.get("http://localhost/other")).isEmpty();
+    }
+  }
+
+  @Test
+  void should_store_entries_with_empty_body() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      store.put("key", entry(""));
+
+      val actual = store.get("key");
+
+      assertThat(actual).isDefined();
+      assertThat(actual.get().getResponse().bodyLength()).isZero();
+      try (val files = Files.list(directory)) {
+        val entriesSize = files.filter(path -> path.toString().endsWith(".entry")).mapToLong(path -> path.toFile().length()).sum();
+        assertThat(store.size()).isPositive().isEqualTo(entriesSize);
+      }
+    }
+  }
+
+  @Test
+  void should_serve_entries_of_previous_store() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      store.put("key", entry("before restart"));
+    }
+
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      assertThat(store.get("key").map(entry -> UTF_8.decode(entry.getResponse().body()).toString())).contains("before restart");
+      assertThat(store.size()).isPositive();
+    }
+  }
+
+  @Test
+  void should_share_directory_between_stores() throws IOException {
+    try (val first = DiskCacheStore.open(directory, 1_000_000);
+         val second = DiskCacheStore.open(directory, 1_000_000)) {
+      first.put("key", entry("v1"));
+      assertThat(second.get("key")).isDefined();
+
+      second.put("key", entry("v2"));
+      assertThat(first.get("key").map(entry -> UTF_8.decode(entry.getResponse().body()).toString())).contains("v2");
+
+      first.remove("key");
+      assertThat(second.get("key")).isEmpty();
+    }
+  }
+
+  @Test
+  void should_serialize_concurrent_writes_of_stores_sharing_directory() throws Exception {
+    try (val first = DiskCacheStore.open(directory, 1_000_000);
+         val second = DiskCacheStore.open(directory.resolve("..").resolve(directory.getFileName()), 1_000_000)) {
+      val executor = Executors.newFixedThreadPool(4);
+      try {
+        val writes = IntStream.range(0, 200)
+          .mapToObj(i -> CompletableFuture.runAsync(() -> (i % 2 == 0 ? first : second).put("key" + i, entry("v" + i)), executor))
+          .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(writes).join();
+      } finally {
+        executor.shutdown();
+      }
+
+      IntStream.range(0, 200).forEach(i -> assertThat(first.get("key" + i)).isDefined());
+    }
+  }
+
+  @Test
+  void should_evict_least_recently_used_files_over_max_size() throws IOException {
+    try (val probe = DiskCacheStore.open(directory.resolve("probe"), 1_000_000)) {
+      probe.put("a", entry("x".repeat(1000)));
+      val fileSize = probe.size();
+
+      try (val store = DiskCacheStore.open(directory.resolve("store"), fileSize * 2)) {
+        store.put("a", entry("x".repeat(1000)));
+        store.put("b", entry("x".repeat(1000)));
+        setLastModified(directory.resolve("store"), Instant.now().minusSeconds(60));
+        store.get("a");
+        store.put("c", entry("x".repeat(1000)));
+
+        assertThat(store.get("b")).isEmpty();
+        assertThat(store.get("a")).isDefined();
+        assertThat(store.get("c")).isDefined();
+        assertThat(store.size()).isEqualTo(fileSize * 2);
+        assertThat(store.evictions()).isEqualTo(1);
+      }
+    }
+  }
+
+  @Test
+  void should_not_store_entry_bigger_than_max_size() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 100)) {
+      store.put("key", entry("x".repeat(1000)));
+
+      assertThat(store.get("key")).isEmpty();
+      assertThat(store.size()).isZero();
+    }
+  }
+
+  @Test
+  void should_spool_bodies_to_mapped_files() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      val subscriber = store.bodySubscriber();
+      val requested = new AtomicLong();
+
+      subscriber.onSubscribe(subscription(requested));
+      subscriber.onNext(List.of(ByteBuffer.wrap("hello ".getBytes(UTF_8)), ByteBuffer.wrap("disk".getBytes(UTF_8))));
+      subscriber.onNext(List.of(ByteBuffer.wrap(" store".getBytes(UTF_8))));
+      subscriber.onComplete();
+
+      val body = subscriber.getBody().toCompletableFuture().join();
+      assertThat(body.isDirect()).isTrue();
+      assertThat(UTF_8.decode(body).toString()).isEqualTo("hello disk store");
+      assertThat(requested.get()).isEqualTo(3);
+      assertThat(store.maxBodySize()).isEqualTo(1_000_000);
+      try (Stream<Path> files = Files.list(directory)) {
+        assertThat(files.filter(path -> path.toString().endsWith(".tmp"))).isEmpty();
+      }
+    }
+  }
+
+  @Test
+  void should_delete_spool_file_of_failed_body() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      val subscriber = store.bodySubscriber();
+
+      subscriber.onSubscribe(subscription(new AtomicLong()));
+      subscriber.onNext(List.of(ByteBuffer.wrap("partial".getBytes(UTF_8))));
+      subscriber.onError(new IOException("reset"));
+
+      assertThat(subscriber.getBody().toCompletableFuture()).isCompletedExceptionally();
+      try (Stream<Path> files = Files.list(directory)) {
+        assertThat(files.filter(path -> path.toString().endsWith(".tmp"))).isEmpty();
+      }
+    }
+  }
+
+  @Test
+  void should_ignore_and_delete_corrupted_files() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      store.put("key", entry("value"));
+      try (Stream<Path> files = Files.list(directory)) {
+        val file = files.filter(path -> path.toString().endsWith(".entry")).findFirst().orElseThrow();
+        Files.write(file, new byte[]{1, 2, 3});
+      }
+
+      assertThat(store.get("key")).isEmpty();
+      try (Stream<Path> files = Files.list(directory)) {
+        assertThat(files.filter(path -> path.toString().endsWith(".entry"))).isEmpty();
+      }
+    }
+  }
+
+  @Test
+  void should_clear_entries() throws IOException {
+    try (val store = DiskCacheStore.open(directory, 1_000_000)) {
+      store.put("a", entry("a"));
+      store.put("b", entry("b"));
+
+      store.clear();
+
+      assertThat(store.get("a")).isEmpty();
+      assertThat(store.get("b")).isEmpty();
+      assertThat(store.size()).isZero();
+    }
+  }
+
+  private static void setLastModified(Path directory, Instant instant) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (val file : files.toList()) {
+        Files.setLastModifiedTime(file, FileTime.from(instant));
+      }
+    }
+  }
+
+  private static Flow.Subscription subscription(AtomicLong requested) {
+    return new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        requested.addAndGet(n);
+      }
+
+      @Override
+      public void cancel() {
+        // nothing to release
+      }
+    };
+  }
+
+  private static CachedResponse entry(String body) {
+    val headers = HttpHeaders.of(Map.of("Cache-Control", List.of("max-age=60"), "Vary", List.of("Accept", "Accept-Language")), (name, value) -> true);
+    val response = new BufferedResponse(200, headers, Version.HTTP_2, URI.create("http://localhost/path"), null, body.getBytes(UTF_8));
+    return new CachedResponse(response, Map.of("accept", List.of("application/json"), "authorization", List.of()),
+      Instant.parse("2022-05-01T10:00:00.123456789Z"), Duration.ofMillis(1500));
+  }
+}
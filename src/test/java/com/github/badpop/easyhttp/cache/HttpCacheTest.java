@@ -0,0 +1,294 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpCacheTest {
+
+  private static final URI URI_1 = URI.create("http://localhost/path");
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2022-05-01T10:00:00Z"));
+  private final MemoryCacheStore store = MemoryCacheStore.of(100_000);
+  private final HttpCache cache = HttpCache.of(store, clock);
+  private final Exchange exchange = new Exchange();
+  private final HttpRequest request = HttpRequest.newBuilder(URI_1).GET().build();
+
+  @Test
+  void should_never_cache_when_disabled() {
+    assertThat(HttpCache.disabled().canCache(request)).isFalse();
+  }
+
+  @Test
+  void should_only_cache_get_requests_without_body_nor_conditions() {
+    assertThat(cache.canCache(request)).isTrue();
+    assertThat(cache.canCache(HttpRequest.newBuilder(URI_1).POST(BodyPublishers.ofString("a")).build())).isFalse();
+    assertThat(cache.canCache(HttpRequest.newBuilder(URI_1).method("HEAD", BodyPublishers.noBody()).build())).isFalse();
+    assertThat(cache.canCache(HttpRequest.newBuilder(URI_1).header("If-None-Match", "\"v1\"").build())).isFalse();
+    assertThat(cache.canCache(HttpRequest.newBuilder(URI_1).header("Range", "bytes=0-10").build())).isFalse();
+    assertThat(cache.canCache(HttpRequest.newBuilder(URI_1).header("Cache-Control", "no-store").build())).isFalse();
+  }
+
+  @Test
+  void should_answer_fresh_hits_without_exchange() {
+    exchange.respond(response(200, "v1", Map.of("Cache-Control", List.of("max-age=60"))));
+
+    val first = cache.send(request, BodyHandlers.ofString(), exchange).join();
+    clock.advanceSeconds(30);
+    val second = cache.send(request, BodyHandlers.ofString(), exchange).join();
+
+    assertThat(exchange.requests).hasSize(1);
+    assertThat(first.body()).isEqualTo("v1");
+    assertThat(second.body()).isEqualTo("v1");
+    assertThat(second.headers().firstValue("Age")).contains("30");
+    assertThat(cache.misses()).isEqualTo(1);
+    assertThat(cache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  void should_revalidate_stale_entries_and_turn_304_into_stored_response() {
+    exchange.respond(response(200, "v1", Map.of("Cache-Control", List.of("max-age=10"), "ETag", List.of("\"v1\""),
+      "Last-Modified", List.of("Sun, 01 May 2022 09:00:00 GMT"))));
+    exchange.respond(response(304, "", Map.of("Cache-Control", List.of("max-age=60"))));
+
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+    clock.advanceSeconds(20);
+    val revalidated = cache.send(request, BodyHandlers.ofString(), exchange).join();
+    clock.advanceSeconds(30);
+    val fresh = cache.send(request, BodyHandlers.ofString(), exchange).join();
+
+    assertThat(exchange.requests).hasSize(2);
+    val conditional = exchange.requests.get(1);
+    assertThat(conditional.headers().firstValue("If-None-Match")).contains("\"v1\"");
+    assertThat(conditional.headers().firstValue("If-Modified-Since")).contains("Sun, 01 May 2022 09:00:00 GMT");
+    assertThat(revalidated.statusCode()).isEqualTo(200);
+    assertThat(revalidated.body()).isEqualTo("v1");
+    assertThat(fresh.body()).isEqualTo("v1");
+    assertThat(cache.revalidations()).isEqualTo(1);
+    assertThat(cache.notModified()).isEqualTo(1);
+    assertThat(cache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  void should_replace_entry_when_revalidation_returns_new_response() {
+    exchange.respond(response(200, "v1", Map.of("ETag", List.of("\"v1\""))));
+    exchange.respond(response(200, "v2", Map.of("ETag", List.of("\"v2\""))));
+    exchange.respond(response(304, "", Map.of()));
+
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+    val second = cache.send(request, BodyHandlers.ofString(), exchange).join();
+    val third = cache.send(request, BodyHandlers.ofString(), exchange).join();
+
+    assertThat(second.body()).isEqualTo("v2");
+    assertThat(third.body()).isEqualTo("v2");
+    assertThat(exchange.requests.get(2).headers().firstValue("If-None-Match")).contains("\"v2\"");
+  }
+
+  @Test
+  void should_serve_stale_while_revalidating_once_in_background() {
+    exchange.respond(response(200, "v1", Map.of("Cache-Control", List.of("max-age=10, stale-while-revalidate=60"))));
+    val refresh = new CompletableFuture<BufferedResponse>();
+    exchange.respond(refresh);
+
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+    clock.advanceSeconds(20);
+    val first = cache.send(request, BodyHandlers.ofString(), exchange).join();
+    val second = cache.send(request, BodyHandlers.ofString(), exchange).join();
+
+    assertThat(first.body()).isEqualTo("v1");
+    assertThat(second.body()).isEqualTo("v1");
+    assertThat(exchange.requests).hasSize(2);
+    assertThat(cache.staleHits()).isEqualTo(2);
+
+    refresh.complete(response(200, "v2", Map.of("Cache-Control", List.of("max-age=10, stale-while-revalidate=60"))));
+    assertThat(cache.send(request, BodyHandlers.ofString(), exchange).join().body()).isEqualTo("v2");
+    assertThat(cache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  void should_not_store_responses_without_freshness_nor_validator() {
+    exchange.respond(response(200, "v1", Map.of()));
+    exchange.respond(response(200, "v2", Map.of("Cache-Control", List.of("no-store, max-age=60"))));
+    exchange.respond(response(500, "v3", Map.of("Cache-Control", List.of("max-age=60"))));
+    exchange.respond(response(200, "v4", Map.of("Cache-Control", List.of("max-age=60"), "Vary", List.of("*"))));
+
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+
+    assertThat(store.size()).isZero();
+    assertThat(cache.misses()).isEqualTo(4);
+  }
+
+  @Test
+  void should_only_buffer_responses_that_can_be_stored() {
+    val caller = BodySubscribers.ofString(UTF_8);
+    final BodyHandler<String> handler = info -> caller;
+    val subscribers = new ArrayList<BodySubscriber<?>>();
+    val network = new HttpCache.Exchange() {
+      @Override
+      public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, BodyHandler<T> handler) {
+        subscribers.add(handler.apply(info(200, Map.of("Cache-Control", List.of("max-age=60")))));
+        subscribers.add(handler.apply(info(200, Map.of("Cache-Control", List.of("no-store, max-age=60")))));
+        subscribers.add(handler.apply(info(503, Map.of("Cache-Control", List.of("max-age=60")))));
+        subscribers.add(handler.apply(info(200, Map.of("Cache-Control", List.of("max-age=60"), "Content-Length", List.of("200000")))));
+        return new CompletableFuture<>();
+      }
+    };
+
+    cache.send(request, handler, network);
+
+    assertThat(subscribers.get(0)).isNotSameAs(caller);
+    assertThat(subscribers.subList(1, 4)).allSatisfy(subscriber -> assertThat(subscriber).isSameAs(caller));
+  }
+
+  @Test
+  void should_bypass_stored_response_when_request_requires_it() {
+    exchange.respond(response(200, "v1", Map.of("Cache-Control", List.of("max-age=60"))));
+    exchange.respond(response(200, "v2", Map.of("Cache-Control", List.of("max-age=60"))));
+    exchange.respond(response(200, "v3", Map.of("Cache-Control", List.of("max-age=60"))));
+
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+    clock.advanceSeconds(10);
+    val noCache = cache.send(HttpRequest.newBuilder(URI_1).header("Cache-Control", "no-cache").build(), BodyHandlers.ofString(), exchange).join();
+    clock.advanceSeconds(10);
+    val maxAge = cache.send(HttpRequest.newBuilder(URI_1).header("Cache-Control", "max-age=5").build(), BodyHandlers.ofString(), exchange).join();
+
+    assertThat(noCache.body()).isEqualTo("v2");
+    assertThat(maxAge.body()).isEqualTo("v3");
+  }
+
+  @Test
+  void should_not_serve_response_to_request_with_other_authorization() {
+    exchange.respond(response(200, "alice", Map.of("Cache-Control", List.of("max-age=60"))));
+    exchange.respond(response(200, "bob", Map.of("Cache-Control", List.of("max-age=60"))));
+
+    val alice = cache.send(HttpRequest.newBuilder(URI_1).header("Authorization", "alice").build(), BodyHandlers.ofString(), exchange).join();
+    val bob = cache.send(HttpRequest.newBuilder(URI_1).header("Authorization", "bob").build(), BodyHandlers.ofString(), exchange).join();
+
+    assertThat(alice.body()).isEqualTo("alice");
+    assertThat(bob.body()).isEqualTo("bob");
+  }
+
+  @Test
+  void should_invalidate_entry_on_unsafe_request() {
+    exchange.respond(response(200, "v1", Map.of("Cache-Control", List.of("max-age=60"))));
+    cache.send(request, BodyHandlers.ofString(), exchange).join();
+
+    cache.invalidate(request);
+    assertThat(store.size()).isEqualTo(1);
+
+    cache.invalidate(HttpRequest.newBuilder(URI_1).DELETE().build());
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  void should_share_exchange_failures() {
+    val actual = cache.send(request, BodyHandlers.ofString(), new HttpCache.Exchange() {
+      @Override
+      public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, BodyHandler<T> handler) {
+        throw new IllegalStateException("boom");
+      }
+    });
+
+    assertThat(actual).isCompletedExceptionally();
+  }
+
+  private static BufferedResponse response(int status, String body, Map<String, List<String>> headers) {
+    return new BufferedResponse(status, HttpHeaders.of(new HashMap<>(headers), (name, value) -> true), Version.HTTP_1_1, URI_1, null,
+      body.getBytes(UTF_8));
+  }
+
+  private static ResponseInfo info(int status, Map<String, List<String>> headers) {
+    return new ResponseInfo() {
+      @Override
+      public int statusCode() {
+        return status;
+      }
+
+      @Override
+      public HttpHeaders headers() {
+        return HttpHeaders.of(new HashMap<>(headers), (name, value) -> true);
+      }
+
+      @Override
+      public Version version() {
+        return Version.HTTP_1_1;
+      }
+    };
+  }
+
+  private static final class Exchange implements HttpCache.Exchange {
+
+    private final List<HttpRequest> requests = new ArrayList<>();
+    private final List<CompletableFuture<BufferedResponse>> responses = new ArrayList<>();
+
+    void respond(BufferedResponse response) {
+      responses.add(CompletableFuture.completedFuture(response));
+    }
+
+    void respond(CompletableFuture<BufferedResponse> response) {
+      responses.add(response);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, BodyHandler<T> handler) {
+      requests.add(request);
+      val response = responses.remove(0);
+      return response.thenCompose(received -> received.replay(request, handler));
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advanceSeconds(long seconds) {
+      now = now.plusSeconds(seconds);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
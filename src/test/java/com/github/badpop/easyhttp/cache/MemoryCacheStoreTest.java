@@ -0,0 +1,137 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+class MemoryCacheStoreTest {
+
+  @Test
+  void should_not_build_store_without_weight() {
+    assertThatIllegalArgumentException().isThrownBy(() -> MemoryCacheStore.of(0));
+  }
+
+  @Test
+  void should_bound_bodies_by_maximum_weight() {
+    assertThat(MemoryCacheStore.of(1000).maxBodySize()).isEqualTo(1000);
+    assertThat(MemoryCacheStore.of(10L * Integer.MAX_VALUE).maxBodySize()).isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  void should_store_and_remove_entries() {
+    val store = MemoryCacheStore.of(1000);
+    val entry = entry(100);
+
+    store.put("a", entry);
+    assertThat(store.get("a")).contains(entry);
+    assertThat(store.weight()).isEqualTo(entry.weight());
+
+    store.remove("a");
+    assertThat(store.get("a")).isEmpty();
+    assertThat(store.weight()).isZero();
+  }
+
+  @Test
+  void should_evict_least_recently_used_entries_over_max_weight() {
+    val entry = entry(100);
+    val store = MemoryCacheStore.of(entry.weight() * 3);
+
+    store.put("a", entry);
+    store.put("b", entry);
+    store.put("c", entry);
+    store.get("a");
+    store.put("d", entry);
+
+    assertThat(store.get("b")).isEmpty();
+    assertThat(store.get("a")).isDefined();
+    assertThat(store.get("c")).isDefined();
+    assertThat(store.get("d")).isDefined();
+    assertThat(store.size()).isEqualTo(3);
+    assertThat(store.weight()).isEqualTo(entry.weight() * 3);
+    assertThat(store.evictions()).isEqualTo(1);
+  }
+
+  @Test
+  void should_evict_as_many_entries_as_needed_for_a_heavy_entry() {
+    val light = entry(10);
+    val heavy = entry(200);
+    val store = MemoryCacheStore.of(heavy.weight() + light.weight());
+
+    store.put("a", light);
+    store.put("b", light);
+    store.put("c", heavy);
+
+    assertThat(store.get("a")).isEmpty();
+    assertThat(store.get("b")).isDefined();
+    assertThat(store.get("c")).isDefined();
+    assertThat(store.evictions()).isEqualTo(1);
+  }
+
+  @Test
+  void should_replace_entry_and_its_weight() {
+    val store = MemoryCacheStore.of(1000);
+
+    store.put("a", entry(100));
+    store.put("a", entry(10));
+
+    assertThat(store.size()).isEqualTo(1);
+    assertThat(store.weight()).isEqualTo(entry(10).weight());
+  }
+
+  @Test
+  void should_not_store_entry_heavier_than_max_weight() {
+    val store = MemoryCacheStore.of(50);
+
+    store.put("a", entry(10));
+    store.put("a", entry(100));
+
+    assertThat(store.get("a")).isEmpty();
+    assertThat(store.weight()).isZero();
+  }
+
+  @Test
+  void should_keep_weight_consistent_under_concurrent_access() {
+    val entry = entry(100);
+    val store = MemoryCacheStore.of(entry.weight() * 10);
+
+    IntStream.range(0, 10_000).parallel().forEach(i -> {
+      store.put(String.valueOf(i % 50), entry);
+      store.get(String.valueOf((i + 1) % 50));
+      if (i % 7 == 0) {
+        store.remove(String.valueOf(i % 50));
+      }
+    });
+
+    assertThat(store.size()).isLessThanOrEqualTo(10);
+    assertThat(store.weight()).isEqualTo(entry.weight() * store.size());
+  }
+
+  @Test
+  void should_clear_entries() {
+    val store = MemoryCacheStore.of(1000);
+    store.put("a", entry(10));
+
+    store.clear();
+
+    assertThat(store.size()).isZero();
+    assertThat(store.weight()).isZero();
+  }
+
+  private static CachedResponse entry(int bodyLength) {
+    val response = new BufferedResponse(200, HttpHeaders.of(Map.of(), (name, value) -> true), Version.HTTP_1_1, URI.create("http://localhost"),
+      null, new byte[bodyLength]);
+    return new CachedResponse(response, Map.of(), Instant.EPOCH, Duration.ZERO);
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.badpop.easyhttp.cache;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+class TieredCacheStoreTest {
+
+  private final MemoryCacheStore first = MemoryCacheStore.of(100_000);
+  private final MemoryCacheStore second = MemoryCacheStore.of(100_000);
+  private final TieredCacheStore store = TieredCacheStore.of(first, second);
+
+  @Test
+  void should_write_to_both_tiers() {
+    val entry = entry();
+
+    store.put("key", entry);
+
+    assertThat(first.get("key")).contains(entry);
+    assertThat(second.get("key")).contains(entry);
+  }
+
+  @Test
+  void should_copy_entry_of_second_tier_to_first_one() {
+    val entry = entry();
+    second.put("key", entry);
+
+    assertThat(store.get("key")).contains(entry);
+    assertThat(first.get("key")).contains(entry);
+  }
+
+  @Test
+  void should_bound_bodies_by_biggest_tier() {
+    assertThat(TieredCacheStore.of(MemoryCacheStore.of(10), first).maxBodySize()).isEqualTo(100_000);
+  }
+
+  @Test
+  void should_remove_from_both_tiers() {
+    store.put("a", entry());
+    store.put("b", entry());
+
+    store.remove("a");
+    assertThat(first.get("a")).isEmpty();
+    assertThat(second.get("a")).isEmpty();
+
+    store.clear();
+    assertThat(store.get("b")).isEmpty();
+  }
+
+  private static CachedResponse entry() {
+    val response = new BufferedResponse(200, HttpHeaders.of(Map.of(), (name, value) -> true), Version.HTTP_1_1, URI.create("http://localhost"),
+      null, new byte[10]);
+    return new CachedResponse(response, Map.of(), Instant.EPOCH, Duration.ZERO);
+  }
+}
@@ -0,0 +1,54 @@
+package com.github.badpop.easyhttp.circuit;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class CircuitBreakerPolicyTest {
+
+  @Test
+  void should_build_default_policy() {
+    val actual = CircuitBreakerPolicy.defaultPolicy();
+
+    assertThat(actual.getWindowSize()).isEqualTo(100);
+    assertThat(actual.getMinimumCalls()).isEqualTo(20);
+    assertThat(actual.getFailureRateThreshold()).isEqualTo(0.5);
+    assertThat(actual.getSlowCallRateThreshold()).isEqualTo(0.8);
+    assertThat(actual.getSlowCallDuration()).isEqualTo(Duration.ofSeconds(5));
+    assertThat(actual.getOpenDuration()).isEqualTo(Duration.ofSeconds(30));
+    assertThat(actual.getHalfOpenCalls()).isEqualTo(5);
+    assertThat(actual.getFailureOnException().test(new HttpTimeoutException("timeout"))).isTrue();
+    assertThat(actual.getFailureOnException().test(new IllegalStateException())).isFalse();
+  }
+
+  @Test
+  void should_not_build_inconsistent_window() {
+    val policy = CircuitBreakerPolicy.defaultPolicy();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withWindowSize(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withWindowSize(10));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withMinimumCalls(0));
+  }
+
+  @Test
+  void should_not_build_invalid_policy() {
+    val policy = CircuitBreakerPolicy.defaultPolicy();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withFailureRateThreshold(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withFailureRateThreshold(1.5));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withSlowCallRateThreshold(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withSlowCallDuration(Duration.ZERO));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withOpenDuration(Duration.ofSeconds(-1)));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withHalfOpenCalls(0));
+    assertThatNullPointerException().isThrownBy(() -> policy.withFailureOnResponse(null));
+    assertThatNullPointerException().isThrownBy(() -> policy.withFailureOnException(null));
+    assertThat(policy.withFailureOnException(IOException.class::isInstance)).isNotEqualTo(policy);
+  }
+}
@@ -0,0 +1,201 @@
+package com.github.badpop.easyhttp.circuit;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.exception.CircuitBreakerOpenException;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerTest {
+
+  private static final URI HOST_1 = URI.create("http://host-1:8080/path");
+  private static final URI HOST_2 = URI.create("http://host-2:8080/path");
+  private static final Duration FAST = Duration.ofMillis(10);
+  private static final Duration SLOW = Duration.ofSeconds(2);
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final CircuitBreaker breaker = CircuitBreaker.perHost(
+    CircuitBreakerPolicy.defaultPolicy()
+      .withMinimumCalls(4)
+      .withWindowSize(10)
+      .withSlowCallDuration(Duration.ofSeconds(1))
+      .withOpenDuration(Duration.ofSeconds(30))
+      .withHalfOpenCalls(2),
+    nanos::get);
+
+  @Test
+  void should_not_acquire_from_disabled_breaker() {
+    val disabled = CircuitBreaker.disabled();
+
+    assertThat(disabled.isEnabled()).isFalse();
+    assertThat(disabled.state(HOST_1)).isEqualTo(CircuitState.CLOSED);
+    assertThatIllegalStateException().isThrownBy(() -> disabled.acquire(HOST_1));
+  }
+
+  @Test
+  void should_stay_closed_below_minimum_calls() {
+    for (int i = 0; i < 3; i++) {
+      breaker.acquire(HOST_1).onResponse(FAST, response(500));
+    }
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.CLOSED);
+    assertThat(breaker.failureRate(HOST_1)).isEqualTo(1);
+  }
+
+  @Test
+  void should_open_on_failure_rate_and_fail_fast() {
+    breaker.acquire(HOST_1).onResponse(FAST, response(200));
+    breaker.acquire(HOST_1).onResponse(FAST, response(503));
+    breaker.acquire(HOST_1).onFailure(FAST, new CompletionException(new IOException("reset")));
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.CLOSED);
+
+    breaker.acquire(HOST_1).onResponse(FAST, response(404));
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.OPEN);
+    assertThatThrownBy(() -> breaker.acquire(HOST_1))
+      .isInstanceOf(CircuitBreakerOpenException.class)
+      .extracting("host").isEqualTo("http://host-1:8080");
+    assertThat(breaker.acquire(HOST_2)).isNotNull();
+    assertThat(breaker.rejected()).isEqualTo(1);
+  }
+
+  @Test
+  void should_open_on_failure_rate_from_status_codes() {
+    val call = breaker.acquire(HOST_1);
+    assertThat(call.needsResponse()).isFalse();
+
+    call.onResponse(FAST, 503);
+    breaker.acquire(HOST_1).onResponse(FAST, 200);
+    breaker.acquire(HOST_1).onResponse(FAST, 500);
+    breaker.acquire(HOST_1).onResponse(FAST, 404);
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.OPEN);
+  }
+
+  @Test
+  void should_need_response_for_custom_failure_predicate() {
+    val custom = CircuitBreaker.perHost(CircuitBreakerPolicy.defaultPolicy().withFailureOnResponse(response -> response.statusCode() == 404));
+    val call = custom.acquire(HOST_1);
+
+    assertThat(call.needsResponse()).isTrue();
+    assertThatIllegalStateException().isThrownBy(() -> call.onResponse(FAST, 404));
+  }
+
+  @Test
+  void should_open_on_slow_call_rate() {
+    for (int i = 0; i < 4; i++) {
+      breaker.acquire(HOST_1).onResponse(SLOW, response(200));
+    }
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.OPEN);
+  }
+
+  @Test
+  void should_not_count_ignored_outcomes() {
+    for (int i = 0; i < 4; i++) {
+      breaker.acquire(HOST_1).onFailure(FAST, new IllegalStateException());
+      breaker.acquire(HOST_1).onFailure(FAST, new CancellationException());
+      breaker.acquire(HOST_1).onIgnore();
+    }
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.CLOSED);
+    assertThat(breaker.failureRate(HOST_1)).isZero();
+  }
+
+  @Test
+  void should_slide_window() {
+    breaker.acquire(HOST_1).onResponse(FAST, response(500));
+    for (int i = 0; i < 9; i++) {
+      breaker.acquire(HOST_1).onResponse(FAST, response(200));
+    }
+    assertThat(breaker.failureRate(HOST_1)).isEqualTo(0.1);
+
+    breaker.acquire(HOST_1).onResponse(SLOW, response(200));
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.CLOSED);
+    assertThat(breaker.failureRate(HOST_1)).isZero();
+    assertThat(breaker.slowCallRate(HOST_1)).isEqualTo(0.1);
+  }
+
+  @Test
+  void should_close_after_successful_probes() {
+    open();
+    nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.HALF_OPEN);
+
+    val first = breaker.acquire(HOST_1);
+    val second = breaker.acquire(HOST_1);
+    assertThatThrownBy(() -> breaker.acquire(HOST_1)).isInstanceOf(CircuitBreakerOpenException.class);
+
+    first.onResponse(FAST, response(200));
+    second.onResponse(FAST, response(200));
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.CLOSED);
+    assertThat(breaker.failureRate(HOST_1)).isZero();
+  }
+
+  @Test
+  void should_reopen_after_failed_probe() {
+    open();
+    nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+
+    breaker.acquire(HOST_1).onResponse(SLOW, response(200));
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.OPEN);
+    nanos.addAndGet(Duration.ofSeconds(29).toNanos());
+    assertThatThrownBy(() -> breaker.acquire(HOST_1)).isInstanceOf(CircuitBreakerOpenException.class);
+  }
+
+  @Test
+  void should_give_back_ignored_probe() {
+    open();
+    nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+    breaker.acquire(HOST_1).onIgnore();
+    breaker.acquire(HOST_1).onFailure(FAST, new CancellationException());
+
+    val first = breaker.acquire(HOST_1);
+    val second = breaker.acquire(HOST_1);
+
+    assertThat(first).isNotNull();
+    assertThat(second).isNotNull();
+  }
+
+  @Test
+  void should_ignore_outcomes_of_calls_from_previous_state() {
+    val late = breaker.acquire(HOST_1);
+    open();
+    nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+    breaker.acquire(HOST_1);
+
+    late.onResponse(FAST, response(500));
+
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.HALF_OPEN);
+  }
+
+  private void open() {
+    for (int i = 0; i < 4; i++) {
+      breaker.acquire(HOST_1).onResponse(FAST, response(500));
+    }
+    assertThat(breaker.state(HOST_1)).isEqualTo(CircuitState.OPEN);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static EasyHttpResponse<?> response(int statusCode) {
+    val response = (EasyHttpResponse<Void>) mock(EasyHttpResponse.class);
+    when(response.statusCode()).thenReturn(statusCode);
+    when(response.is5xx()).thenReturn(statusCode >= 500);
+    return response;
+  }
+}
@@ -0,0 +1,114 @@
+package com.github.badpop.easyhttp.coalescing;
+
+import com.github.badpop.easyhttp.control.BufferedResponse;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescerTest {
+
+  private static final URI URI_1 = URI.create("http://localhost/one");
+
+  @Test
+  void should_never_coalesce_when_disabled() {
+    assertThat(RequestCoalescer.disabled().canCoalesce(HttpRequest.newBuilder(URI_1).GET().build())).isFalse();
+  }
+
+  @Test
+  void should_only_coalesce_get_and_head_without_body() {
+    val coalescer = RequestCoalescer.onAllHeaders();
+
+    assertThat(coalescer.canCoalesce(HttpRequest.newBuilder(URI_1).GET().build())).isTrue();
+    assertThat(coalescer.canCoalesce(HttpRequest.newBuilder(URI_1).method("HEAD", BodyPublishers.noBody()).build())).isTrue();
+    assertThat(coalescer.canCoalesce(HttpRequest.newBuilder(URI_1).POST(BodyPublishers.ofString("a")).build())).isFalse();
+    assertThat(coalescer.canCoalesce(HttpRequest.newBuilder(URI_1).method("GET", BodyPublishers.ofString("a")).build())).isFalse();
+  }
+
+  @Test
+  void should_share_exchange_of_identical_requests_in_flight() {
+    val coalescer = RequestCoalescer.onAllHeaders();
+    val pending = new CompletableFuture<BufferedResponse>();
+    val sent = new AtomicInteger();
+
+    val first = coalescer.coalesce(HttpRequest.newBuilder(URI_1).GET().build(), request -> {
+      sent.incrementAndGet();
+      return pending;
+    });
+    val second = coalescer.coalesce(HttpRequest.newBuilder(URI_1).GET().build(), request -> {
+      sent.incrementAndGet();
+      return pending;
+    });
+
+    assertThat(coalescer.inFlight()).isEqualTo(1);
+    pending.complete(response());
+
+    assertThat(first.join()).isSameAs(second.join());
+    assertThat(sent).hasValue(1);
+    assertThat(coalescer.exchanges()).isEqualTo(1);
+    assertThat(coalescer.coalesced()).isEqualTo(1);
+    assertThat(coalescer.inFlight()).isZero();
+  }
+
+  @Test
+  void should_start_new_exchange_once_previous_one_completed() {
+    val coalescer = RequestCoalescer.onAllHeaders();
+
+    coalescer.coalesce(HttpRequest.newBuilder(URI_1).GET().build(), request -> CompletableFuture.completedFuture(response())).join();
+    coalescer.coalesce(HttpRequest.newBuilder(URI_1).GET().build(), request -> CompletableFuture.completedFuture(response())).join();
+
+    assertThat(coalescer.exchanges()).isEqualTo(2);
+    assertThat(coalescer.coalesced()).isZero();
+  }
+
+  @Test
+  void should_not_share_exchange_of_different_requests() {
+    val coalescer = RequestCoalescer.onAllHeaders();
+    val pending = new CompletableFuture<BufferedResponse>();
+
+    coalescer.coalesce(HttpRequest.newBuilder(URI_1).GET().build(), request -> pending);
+    coalescer.coalesce(HttpRequest.newBuilder(URI.create("http://localhost/two")).GET().build(), request -> pending);
+    coalescer.coalesce(HttpRequest.newBuilder(URI_1).header("Authorization", "other").GET().build(), request -> pending);
+
+    assertThat(coalescer.exchanges()).isEqualTo(3);
+    assertThat(coalescer.inFlight()).isEqualTo(3);
+  }
+
+  @Test
+  void should_only_compare_selected_headers() {
+    val coalescer = RequestCoalescer.onHeaders("Accept");
+    val pending = new CompletableFuture<BufferedResponse>();
+
+    coalescer.coalesce(HttpRequest.newBuilder(URI_1).header("accept", "application/json").header("X-Trace", "1").GET().build(), request -> pending);
+    coalescer.coalesce(HttpRequest.newBuilder(URI_1).header("Accept", "application/json").header("X-Trace", "2").GET().build(), request -> pending);
+    coalescer.coalesce(HttpRequest.newBuilder(URI_1).header("Accept", "text/plain").GET().build(), request -> pending);
+
+    assertThat(coalescer.exchanges()).isEqualTo(2);
+    assertThat(coalescer.coalesced()).isEqualTo(1);
+  }
+
+  @Test
+  void should_share_failure_and_forget_failed_exchange() {
+    val coalescer = RequestCoalescer.onAllHeaders();
+
+    val actual = coalescer.coalesce(HttpRequest.newBuilder(URI_1).GET().build(), request -> {
+      throw new IllegalStateException("boom");
+    });
+
+    assertThat(actual).isCompletedExceptionally();
+    assertThat(coalescer.inFlight()).isZero();
+  }
+
+  private static BufferedResponse response() {
+    return new BufferedResponse(200, HttpHeaders.of(Map.of(), (name, value) -> true), Version.HTTP_1_1, URI_1, null, new byte[0]);
+  }
+}
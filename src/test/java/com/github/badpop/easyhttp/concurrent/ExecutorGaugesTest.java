@@ -0,0 +1,67 @@
+package com.github.badpop.easyhttp.concurrent;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+class ExecutorGaugesTest {
+
+  @Test
+  void should_read_thread_pool_gauges() throws InterruptedException {
+    val executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    val started = new CountDownLatch(1);
+    val release = new CountDownLatch(1);
+    try {
+      executor.execute(() -> {
+        started.countDown();
+        await(release);
+      });
+      executor.execute(() -> {
+      });
+      executor.execute(() -> {
+      });
+      started.await();
+
+      val actual = new ExecutorGauges(executor);
+
+      assertThat(actual.activeCount()).contains(1);
+      assertThat(actual.queueDepth()).contains(2);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void should_read_fork_join_pool_gauges() {
+    val pool = new ForkJoinPool(1);
+    try {
+      val actual = new ExecutorGauges(pool);
+
+      assertThat(actual.activeCount()).contains(0);
+      assertThat(actual.queueDepth()).contains(0);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void should_not_read_unknown_executor_gauges() {
+    val actual = new ExecutorGauges(Runnable::run);
+
+    assertThat(actual.activeCount()).isEmpty();
+    assertThat(actual.queueDepth()).isEmpty();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
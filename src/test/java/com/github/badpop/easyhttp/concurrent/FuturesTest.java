@@ -0,0 +1,76 @@
+package com.github.badpop.easyhttp.concurrent;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class FuturesTest {
+
+  @Test
+  void should_complete_with_value() {
+    val completableFuture = new CompletableFuture<String>();
+    val actual = Futures.fromCompletableFuture(completableFuture);
+
+    assertThat(actual.isCompleted()).isFalse();
+    completableFuture.complete("value");
+
+    assertThat(actual.await().isSuccess()).isTrue();
+    assertThat(actual.get()).isEqualTo("value");
+  }
+
+  @Test
+  void should_complete_with_failure() {
+    val completableFuture = new CompletableFuture<String>();
+    val exception = new IllegalStateException();
+    val actual = Futures.fromCompletableFuture(completableFuture);
+
+    completableFuture.completeExceptionally(exception);
+
+    assertThat(actual.await().isFailure()).isTrue();
+    assertThat(actual.getCause().get()).isSameAs(exception);
+  }
+
+  @Test
+  void should_not_hold_an_executor_thread_while_pending() {
+    val executor = Executors.newSingleThreadExecutor();
+    try {
+      val first = new CompletableFuture<String>();
+      val second = new CompletableFuture<String>();
+      val actualFirst = Futures.fromCompletableFuture(executor, first);
+      val actualSecond = Futures.fromCompletableFuture(executor, second);
+
+      second.complete("second");
+
+      assertThat(actualSecond.await(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+      assertThat(actualFirst.isCompleted()).isFalse();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void should_cancel_completable_future_on_cancel() {
+    val completableFuture = new CompletableFuture<String>();
+    val actual = Futures.fromCompletableFuture(completableFuture);
+
+    actual.cancel();
+
+    assertThat(actual.await().getCause().get()).isInstanceOf(CancellationException.class);
+    assertThat(completableFuture).failsWithin(Duration.ofSeconds(5));
+    assertThat(completableFuture.isCancelled()).isTrue();
+  }
+
+  @Test
+  void should_throw_NPE_on_null() {
+    assertThatNullPointerException().isThrownBy(() -> Futures.fromCompletableFuture(null));
+    assertThatNullPointerException().isThrownBy(() -> Futures.fromCompletableFuture(null, new CompletableFuture<>()));
+  }
+}
@@ -0,0 +1,39 @@
+package com.github.badpop.easyhttp.concurrent;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.jupiter.api.condition.JRE.JAVA_18;
+
+class VirtualThreadsTest {
+
+  @Test
+  void should_be_supported_from_java_21() {
+    assertThat(VirtualThreads.isSupported()).isEqualTo(Runtime.version().feature() >= 21);
+  }
+
+  @Test
+  @EnabledForJreRange(max = JAVA_18)
+  void should_not_create_executor_without_virtual_threads() {
+    assertThatThrownBy(VirtualThreads::newVirtualThreadPerTaskExecutor)
+      .isInstanceOf(UnsupportedOperationException.class)
+      .hasMessageContaining("Java 21");
+  }
+
+  @Test
+  void should_run_tasks_on_virtual_threads_when_supported() throws Exception {
+    assumeTrue(VirtualThreads.isSupported(), "virtual threads are not supported");
+
+    val executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+    val thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    assertThat(thread.getClass().getSimpleName()).isEqualTo("VirtualThread");
+  }
+}
@@ -0,0 +1,87 @@
+package com.github.badpop.easyhttp.control;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.extension.Value;
+import com.github.badpop.easyhttp.json.JsonBodyHandlers;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BufferedResponseTest {
+
+  private final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost/path")).GET().build();
+  private final BufferedResponse buffered = new BufferedResponse(
+    200,
+    HttpHeaders.of(Map.of("Content-Type", List.of("application/json")), (name, value) -> true),
+    Version.HTTP_1_1,
+    URI.create("http://localhost/path"),
+    null,
+    "{\"value\": 12}".getBytes(UTF_8));
+
+  @Test
+  void should_replay_body_into_any_handler() throws IOException {
+    val asString = buffered.replay(request, BodyHandlers.ofString()).join();
+    val asStream = buffered.replay(request, BodyHandlers.ofInputStream()).join();
+    val asJson = buffered.replay(request, JsonBodyHandlers.<Value>ofJson(new ObjectMapper().readerFor(Value.class))).join();
+
+    assertThat(asString.body()).isEqualTo("{\"value\": 12}");
+    try (InputStream body = asStream.body()) {
+      assertThat(new String(body.readAllBytes(), UTF_8)).isEqualTo("{\"value\": 12}");
+    }
+    assertThat(asJson.body()).isEqualTo(new Value(12));
+  }
+
+  @Test
+  void should_replay_status_headers_and_request() {
+    val actual = buffered.replay(request, BodyHandlers.discarding()).join();
+
+    assertThat(actual.statusCode()).isEqualTo(200);
+    assertThat(actual.headers().firstValue("content-type")).contains("application/json");
+    assertThat(actual.request()).isSameAs(request);
+    assertThat(actual.uri()).isEqualTo(URI.create("http://localhost/path"));
+    assertThat(actual.version()).isEqualTo(Version.HTTP_1_1);
+    assertThat(actual.previousResponse()).isEmpty();
+    assertThat(actual.sslSession()).isEmpty();
+  }
+
+  @Test
+  void should_replay_empty_body() {
+    val empty = new BufferedResponse(204, HttpHeaders.of(Map.of(), (name, value) -> true), Version.HTTP_1_1, request.uri(), null, new byte[0]);
+
+    assertThat(empty.replay(request, BodyHandlers.ofString()).join().body()).isEmpty();
+    assertThat(empty.bodyLength()).isZero();
+  }
+
+  @Test
+  void should_replay_remaining_content_of_buffer_without_copy() {
+    val buffer = ByteBuffer.allocateDirect(32).put("header:body".getBytes(UTF_8)).flip().position(7);
+    val sliced = new BufferedResponse(200, HttpHeaders.of(Map.of(), (name, value) -> true), Version.HTTP_1_1, request.uri(), null, buffer);
+
+    assertThat(sliced.bodyLength()).isEqualTo(4);
+    assertThat(sliced.body().isDirect()).isTrue();
+    assertThat(sliced.replay(request, BodyHandlers.ofString()).join().body()).isEqualTo("body");
+    assertThat(sliced.replay(request, BodyHandlers.ofString()).join().body()).isEqualTo("body");
+  }
+
+  @Test
+  void should_fail_when_handler_fails() {
+    val actual = buffered.replay(request, info -> {
+      throw new IllegalStateException("boom");
+    });
+
+    assertThat(actual).isCompletedExceptionally();
+  }
+}
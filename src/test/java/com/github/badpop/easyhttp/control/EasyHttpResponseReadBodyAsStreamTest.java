@@ -0,0 +1,139 @@
+package com.github.badpop.easyhttp.control;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.exception.ReadBodyException;
+import com.github.badpop.easyhttp.extension.Value;
+import com.github.badpop.easyhttp.json.JsonBodyHandlers;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EasyHttpResponseReadBodyAsStreamTest {
+
+  private static final String JSON_ARRAY = "[{\"value\": 1},\n {\"value\": 2},\n {\"value\": 3}]";
+  private static final String NDJSON = "{\"value\": 1}\n{\"value\": 2}\n{\"value\": 3}\n";
+  private static final List<Value> EXPECTED = List.of(new Value(1), new Value(2), new Value(3));
+
+  private static Stream<Arguments> provideBodies() {
+    return Stream.of(JSON_ARRAY, NDJSON)
+      .flatMap(json -> Stream.of(
+        Arguments.of(json),
+        Arguments.of(json.getBytes(UTF_8)),
+        Arguments.of(new ByteArrayInputStream(json.getBytes(UTF_8))),
+        Arguments.of(writeFile(json)),
+        Arguments.of(new BufferedReader(new StringReader(json)).lines()),
+        Arguments.of(tokenize(json))));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideBodies")
+  void should_read_body_as_stream(Object body) {
+    val actual = buildResponse(body).readBodyAsStream(Value.class);
+
+    assertThat(actual).isRight();
+    try (val stream = actual.get()) {
+      assertThat(stream.collect(Collectors.toList())).isEqualTo(EXPECTED);
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideBodies")
+  void should_read_body_as_iterator(Object body) {
+    val actual = buildResponse(body).readBodyAsIterator(new TypeReference<Value>() {
+    });
+
+    assertThat(actual).isRight();
+    assertThat(actual.get().toJavaList()).isEqualTo(EXPECTED);
+  }
+
+  @Test
+  void should_read_elements_lazily() {
+    val closed = new AtomicBoolean(false);
+    val infiniteNdjson = new InputStream() {
+      private final byte[] line = "{\"value\": 1}\n".getBytes(UTF_8);
+      private int position = 0;
+
+      @Override
+      public int read() {
+        return line[position++ % line.length];
+      }
+
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+
+    val actual = buildResponse(infiniteNdjson).readBodyAsStream(Value.class);
+
+    try (val stream = actual.get()) {
+      assertThat(stream.limit(1000).count()).isEqualTo(1000);
+    }
+    assertThat(closed).isTrue();
+  }
+
+  @Test
+  void should_not_read_body_as_stream_if_body_is_null() {
+    val actual = buildResponse(null).readBodyAsStream(Value.class);
+
+    assertThat(actual).containsLeftInstanceOf(ReadBodyException.class);
+  }
+
+  @Test
+  void should_not_read_body_as_iterator_on_unsupported_body_type() {
+    val actual = buildResponse(new Value(1)).readBodyAsIterator(Value.class);
+
+    assertThat(actual).containsLeftInstanceOf(ReadBodyException.class);
+    assertThat(actual.getLeft().getCause()).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static EasyHttpResponse<Object> buildResponse(Object body) {
+    HttpResponse<Object> response = mock(HttpResponse.class);
+    when(response.body()).thenReturn(body);
+    BodyHandler<Object> bodyHandler = mock(BodyHandler.class);
+    val request = HttpRequest.newBuilder().GET().uri(URI.create("http://localhost:8080/")).build();
+    return new EasyHttpResponse<>(response, bodyHandler, request, EasyHttpClientProvider.newClient());
+  }
+
+  @SneakyThrows
+  private static Object writeFile(String json) {
+    val file = Files.createTempFile("easy-http", ".json");
+    file.toFile().deleteOnExit();
+    return Files.writeString(file, json);
+  }
+
+  private static Object tokenize(String json) {
+    val subscriber = JsonBodyHandlers.ofJsonBodySubscriber(EasyHttpClientProvider.newClient().getObjectMapper());
+    subscriber.onSubscribe(mock(Flow.Subscription.class));
+    subscriber.onNext(List.of(ByteBuffer.wrap(json.getBytes(UTF_8))));
+    subscriber.onComplete();
+    return subscriber.getBody().toCompletableFuture().join();
+  }
+}
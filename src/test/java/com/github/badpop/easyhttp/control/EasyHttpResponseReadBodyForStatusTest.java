@@ -1,17 +1,18 @@
 package com.github.badpop.easyhttp.control;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.github.badpop.easyhttp.exception.ReadBodyException;
 import com.github.badpop.easyhttp.extension.EasyHttpResponseStringMockExtension;
 import com.github.badpop.easyhttp.extension.Value;
+import com.github.badpop.easyhttp.json.JsonCodecs;
 import lombok.val;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.io.IOException;
 import java.net.http.HttpResponse;
 
 import static org.assertj.vavr.api.VavrAssertions.assertThat;
@@ -21,17 +22,19 @@ import static org.mockito.Mockito.*;
 public class EasyHttpResponseReadBodyForStatusTest {
 
   private static final String JSON_VALUE = "{\"value\":200}";
-  private final ObjectMapper om = mock(ObjectMapper.class);
+  private final JsonCodecs codecs = mock(JsonCodecs.class);
+  private final ObjectReader reader = mock(ObjectReader.class);
 
   @Test
-  void should_read_body_for_class_for_status(EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws JsonProcessingException {
+  void should_read_body_for_class_for_status(EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws IOException {
     val status = 200;
     val value = new Value(0);
 
     when(originalResponse.statusCode()).thenReturn(status);
     when(originalResponse.body()).thenReturn(JSON_VALUE);
-    when(easyHttpResponse.usedClient.getObjectMapper()).thenReturn(om);
-    when(om.readValue(easyHttpResponse.body(), Value.class)).thenReturn(value);
+    when(easyHttpResponse.usedClient.getJsonCodecs()).thenReturn(codecs);
+    when(codecs.readerFor(Value.class)).thenReturn(reader);
+    when(reader.readValue(easyHttpResponse.body())).thenReturn(value);
 
     val actual = easyHttpResponse.readBodyForStatus(status, Value.class);
 
@@ -51,19 +54,20 @@ public class EasyHttpResponseReadBodyForStatusTest {
     assertThat(actual).isRight();
     assertThat(actual.get()).isEmpty();
 
-    verifyNoInteractions(om);
+    verifyNoInteractions(codecs);
   }
 
   @Test
   void should_read_body_for_class_for_status_but_return_left_on_json_exception(
-    EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws JsonProcessingException {
+    EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws IOException {
     val status = 200;
     val jsonException = new JsonMappingException(null, "");
 
     when(originalResponse.statusCode()).thenReturn(status);
     when(originalResponse.body()).thenReturn(JSON_VALUE);
-    when(easyHttpResponse.usedClient.getObjectMapper()).thenReturn(om);
-    when(om.readValue(easyHttpResponse.body(), Value.class)).thenThrow(jsonException);
+    when(easyHttpResponse.usedClient.getJsonCodecs()).thenReturn(codecs);
+    when(codecs.readerFor(Value.class)).thenReturn(reader);
+    when(reader.readValue(easyHttpResponse.body())).thenThrow(jsonException);
 
     val actual = easyHttpResponse.readBodyForStatus(status, Value.class);
 
@@ -72,7 +76,7 @@ public class EasyHttpResponseReadBodyForStatusTest {
   }
 
   @Test
-  void should_read_body_for_type_for_status(EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws JsonProcessingException {
+  void should_read_body_for_type_for_status(EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws IOException {
     val status = 200;
     val value = new Value(0);
     val typeRef = new TypeReference<Value>() {
@@ -80,8 +84,9 @@ public class EasyHttpResponseReadBodyForStatusTest {
 
     when(originalResponse.statusCode()).thenReturn(status);
     when(originalResponse.body()).thenReturn(JSON_VALUE);
-    when(easyHttpResponse.usedClient.getObjectMapper()).thenReturn(om);
-    when(om.readValue(easyHttpResponse.body(), typeRef)).thenReturn(value);
+    when(easyHttpResponse.usedClient.getJsonCodecs()).thenReturn(codecs);
+    when(codecs.readerFor(typeRef)).thenReturn(reader);
+    when(reader.readValue(easyHttpResponse.body())).thenReturn(value);
 
     val actual = easyHttpResponse.readBodyForStatus(status, typeRef);
 
@@ -103,12 +108,12 @@ public class EasyHttpResponseReadBodyForStatusTest {
     assertThat(actual).isRight();
     assertThat(actual.get()).isEmpty();
 
-    verifyNoInteractions(om);
+    verifyNoInteractions(codecs);
   }
 
   @Test
   void should_read_body_for_type_for_status_but_return_left_on_json_exception(
-    EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws JsonProcessingException {
+    EasyHttpResponse<String> easyHttpResponse, HttpResponse<String> originalResponse) throws IOException {
     val status = 200;
     val typeRef = new TypeReference<Value>() {
     };
@@ -116,8 +121,9 @@ public class EasyHttpResponseReadBodyForStatusTest {
 
     when(originalResponse.statusCode()).thenReturn(status);
     when(originalResponse.body()).thenReturn(JSON_VALUE);
-    when(easyHttpResponse.usedClient.getObjectMapper()).thenReturn(om);
-    when(om.readValue(easyHttpResponse.body(), typeRef)).thenThrow(jsonException);
+    when(easyHttpResponse.usedClient.getJsonCodecs()).thenReturn(codecs);
+    when(codecs.readerFor(typeRef)).thenReturn(reader);
+    when(reader.readValue(easyHttpResponse.body())).thenThrow(jsonException);
 
     val actual = easyHttpResponse.readBodyForStatus(status, typeRef);
 
@@ -2,6 +2,7 @@ package com.github.badpop.easyhttp.control;
 
 import com.github.badpop.easyhttp.EasyHttpClient;
 import com.github.badpop.easyhttp.extension.EasyHttpResponseVoidMockExtension;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
 import io.vavr.concurrent.Future;
 import lombok.val;
 import org.assertj.core.api.Assertions;
@@ -53,4 +54,21 @@ public class EasyHttpResponseRetryTest {
     Assertions.assertThat(actualFailure.isSuccess()).isFalse();
     assertThat(actualFailure.getCause()).containsSame(secondCallException);
   }
+
+  @Test
+  void should_retry_with_policy(
+    EasyHttpResponse<Void> easyHttpResponse, BodyHandler<Void> originalBodyHandler, HttpRequest originalRequest, EasyHttpClient usedClient) {
+
+    val policy = RetryPolicy.defaultPolicy();
+    when(usedClient.sendEasy(originalRequest, originalBodyHandler, policy)).thenReturn(Success(easyHttpResponse));
+    when(usedClient.sendAsyncEasy(originalRequest, originalBodyHandler, policy)).thenReturn(Future(easyHttpResponse));
+
+    val actual = easyHttpResponse.retry(policy);
+    val actualAsync = easyHttpResponse.retryAsync(policy);
+
+    assertThat(actual).containsSame(easyHttpResponse);
+    Assertions.assertThat(actualAsync.get()).isEqualTo(easyHttpResponse);
+    verify(usedClient).sendEasy(originalRequest, originalBodyHandler, policy);
+    verify(usedClient).sendAsyncEasy(originalRequest, originalBodyHandler, policy);
+  }
 }
@@ -0,0 +1,170 @@
+package com.github.badpop.easyhttp.event;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class EasyHttpEventListenerTest {
+
+  private final HttpRequest request = HttpRequest.newBuilder(URI.create("http://host/path")).build();
+
+  @Test
+  void should_build_composite_listener() {
+    val first = new EasyHttpEventListener() {};
+    val second = new EasyHttpEventListener() {};
+
+    assertThat(EasyHttpEventListener.composite()).isSameAs(EasyHttpEventListener.none());
+    assertThat(EasyHttpEventListener.composite(EasyHttpEventListener.none(), first)).isSameAs(first);
+    assertThat(EasyHttpEventListener.composite(EasyHttpEventListener.composite(first, second), first))
+      .isInstanceOfSatisfying(CompositeEventListener.class, composite -> assertThat(composite.getListeners()).containsExactly(first, second, first));
+    assertThatNullPointerException().isThrownBy(() -> EasyHttpEventListener.composite(first, null));
+  }
+
+  @Test
+  void should_be_active_if_one_of_the_listeners_is_active() {
+    val active = new EasyHttpEventListener() {};
+    val inactive = new EasyHttpEventListener() {
+      @Override
+      public boolean isActive() {
+        return false;
+      }
+    };
+
+    assertThat(EasyHttpEventListener.none().isActive()).isFalse();
+    assertThat(EasyHttpEventListener.composite(inactive, inactive).isActive()).isFalse();
+    assertThat(EasyHttpEventListener.composite(inactive, active).isActive()).isTrue();
+  }
+
+  @Test
+  void should_notify_all_listeners_in_order() {
+    val events = new ArrayList<String>();
+    val composite = EasyHttpEventListener.composite(recording("first", events), recording("second", events));
+
+    HttpExchange.start(composite, request).onFailure(new IllegalStateException());
+
+    assertThat(events).containsExactly("first:start", "second:start", "first:failed", "second:failed");
+  }
+
+  @Test
+  void should_count_bytes_of_request_body() {
+    val events = new ArrayList<String>();
+    val exchange = HttpExchange.start(recording("listener", events), request);
+    val post = HttpRequest.newBuilder(request.uri()).header("X-Id", "1").POST(BodyPublishers.ofString("0123456789")).build();
+
+    val actual = exchange.observe(post);
+    actual.bodyPublisher().orElseThrow().subscribe(new Drain());
+
+    assertThat(exchange.observe(request)).isSameAs(request);
+    assertThat(actual.headers()).isEqualTo(post.headers());
+    assertThat(actual.bodyPublisher().orElseThrow().contentLength()).isEqualTo(10);
+    assertThat(exchange.getBytesSent()).isEqualTo(10);
+    assertThat(events).containsExactly("listener:start", "listener:published:10");
+  }
+
+  @Test
+  void should_notify_headers_and_count_bytes_of_response_body() {
+    val events = new ArrayList<String>();
+    val exchange = HttpExchange.start(recording("listener", events), request);
+    val info = new Info(200);
+
+    val subscriber = exchange.observe(responseInfo -> BodySubscribers.ofString(StandardCharsets.UTF_8)).apply(info);
+    subscriber.onSubscribe(new NoSubscription());
+    subscriber.onNext(List.of(ByteBuffer.wrap("abc".getBytes()), ByteBuffer.wrap("de".getBytes())));
+    subscriber.onComplete();
+
+    assertThat(subscriber.getBody().toCompletableFuture().join()).isEqualTo("abcde");
+    assertThat(exchange.getStatusCode()).isEqualTo(200);
+    assertThat(exchange.getBytesReceived()).isEqualTo(5);
+    assertThat(events).containsExactly("listener:start", "listener:headers:200", "listener:received:5");
+  }
+
+  private static EasyHttpEventListener recording(String name, List<String> events) {
+    return new EasyHttpEventListener() {
+      @Override
+      public void requestStart(HttpExchange exchange) {
+        events.add(name + ":start");
+      }
+
+      @Override
+      public void bodyPublished(HttpExchange exchange, long bytes, long nanoTime) {
+        events.add(name + ":published:" + bytes);
+      }
+
+      @Override
+      public void headersReceived(HttpExchange exchange, int statusCode, long nanoTime) {
+        events.add(name + ":headers:" + statusCode);
+      }
+
+      @Override
+      public void bodyReceived(HttpExchange exchange, long bytes, long nanoTime) {
+        events.add(name + ":received:" + bytes);
+      }
+
+      @Override
+      public void exchangeFailed(HttpExchange exchange, Throwable cause, long nanoTime) {
+        events.add(name + ":failed");
+      }
+    };
+  }
+
+  private static class Drain implements Flow.Subscriber<ByteBuffer> {
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      item.position(item.limit());
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+  }
+
+  private static class NoSubscription implements Flow.Subscription {
+
+    @Override
+    public void request(long n) {
+    }
+
+    @Override
+    public void cancel() {
+    }
+  }
+
+  private record Info(int statusCode) implements ResponseInfo {
+
+    @Override
+    public HttpHeaders headers() {
+      return HttpHeaders.of(Map.of(), (name, value) -> true);
+    }
+
+    @Override
+    public HttpClient.Version version() {
+      return HttpClient.Version.HTTP_1_1;
+    }
+  }
+}
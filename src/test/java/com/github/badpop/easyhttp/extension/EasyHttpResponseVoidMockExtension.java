@@ -2,6 +2,7 @@ package com.github.badpop.easyhttp.extension;
 
 import com.github.badpop.easyhttp.EasyHttpClient;
 import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.event.EasyHttpEventListener;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolutionException;
@@ -13,6 +14,7 @@ import java.net.http.HttpResponse.BodyHandler;
 
 import static io.vavr.API.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class EasyHttpResponseVoidMockExtension implements ParameterResolver {
 
@@ -22,6 +24,10 @@ public class EasyHttpResponseVoidMockExtension implements ParameterResolver {
   HttpRequest request = mock(HttpRequest.class);
   EasyHttpResponse<Void> response = new EasyHttpResponse<>(originalResponse, bodyHandler, request, client);
 
+  public EasyHttpResponseVoidMockExtension() {
+    when(client.getEventListener()).thenReturn(EasyHttpEventListener.none());
+  }
+
   @Override
   public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
     return isSupported(parameterContext);
@@ -0,0 +1,45 @@
+package com.github.badpop.easyhttp.hedge;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class HedgeBudgetTest {
+
+  @Test
+  void should_allow_burst_then_ratio_of_requests() {
+    val budget = HedgeBudget.of(0.25, 2);
+
+    assertThat(budget.tryAcquireHedge()).isTrue();
+    assertThat(budget.tryAcquireHedge()).isTrue();
+    assertThat(budget.tryAcquireHedge()).isFalse();
+
+    for (int i = 0; i < 3; i++) {
+      budget.onRequest();
+    }
+    assertThat(budget.tryAcquireHedge()).isFalse();
+    budget.onRequest();
+    assertThat(budget.tryAcquireHedge()).isTrue();
+    assertThat(budget.tokens()).isZero();
+  }
+
+  @Test
+  void should_not_exceed_burst() {
+    val budget = HedgeBudget.of(1, 3);
+
+    for (int i = 0; i < 10; i++) {
+      budget.onRequest();
+    }
+
+    assertThat(budget.tokens()).isEqualTo(3);
+  }
+
+  @Test
+  void should_reject_invalid_configuration() {
+    assertThatIllegalArgumentException().isThrownBy(() -> HedgeBudget.of(0, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> HedgeBudget.of(1.5, 1));
+    assertThatIllegalArgumentException().isThrownBy(() -> HedgeBudget.of(0.1, 0));
+  }
+}
@@ -0,0 +1,54 @@
+package com.github.badpop.easyhttp.hedge;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class HedgePolicyTest {
+
+  @Test
+  void should_use_fixed_delay() {
+    val policy = HedgePolicy.fixedDelay(Duration.ofMillis(50));
+
+    policy.onResponse(Duration.ofSeconds(1));
+
+    assertThat(policy.hedgeDelay()).isEqualTo(Duration.ofMillis(50));
+    assertThat(policy.latenciesOption().isEmpty()).isTrue();
+  }
+
+  @Test
+  void should_use_initial_delay_until_percentile_is_known() {
+    val policy = HedgePolicy.percentileDelay(90, Duration.ofMillis(50));
+    assertThat(policy.hedgeDelay()).isEqualTo(Duration.ofMillis(50));
+
+    for (int i = 1; i <= 64; i++) {
+      policy.onResponse(Duration.ofMillis(i));
+    }
+
+    assertThat(policy.hedgeDelay()).isEqualTo(Duration.ofMillis(58));
+  }
+
+  @Test
+  void should_share_budget_and_latencies_with_copies() {
+    val policy = HedgePolicy.percentileDelay(90, Duration.ofMillis(50));
+    val budget = HedgeBudget.of(0.5, 1);
+
+    val actual = policy.withMaxHedges(2).withBudget(budget);
+
+    assertThat(actual.getMaxHedges()).isEqualTo(2);
+    assertThat(actual.getBudget()).isSameAs(budget);
+    assertThat(actual.getLatencies()).isSameAs(policy.getLatencies());
+    assertThat(actual.tryAcquireHedge()).isTrue();
+    assertThat(actual.tryAcquireHedge()).isFalse();
+  }
+
+  @Test
+  void should_reject_invalid_configuration() {
+    assertThatIllegalArgumentException().isThrownBy(() -> HedgePolicy.fixedDelay(Duration.ofMillis(-1)));
+    assertThatIllegalArgumentException().isThrownBy(() -> HedgePolicy.fixedDelay(Duration.ZERO).withMaxHedges(0));
+  }
+}
@@ -0,0 +1,54 @@
+package com.github.badpop.easyhttp.hedge;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+class LatencyTrackerTest {
+
+  @Test
+  void should_not_provide_percentile_without_enough_samples() {
+    val tracker = new LatencyTracker(95);
+
+    for (int i = 1; i < LatencyTracker.MIN_SAMPLES; i++) {
+      tracker.record(Duration.ofMillis(i));
+    }
+
+    assertThat(tracker.percentile()).isEmpty();
+  }
+
+  @Test
+  void should_provide_percentile_of_recorded_latencies() {
+    val tracker = new LatencyTracker(95);
+
+    for (int i = 1; i <= 128; i++) {
+      tracker.record(Duration.ofMillis(i));
+    }
+
+    assertThat(tracker.percentile()).contains(Duration.ofMillis(122));
+  }
+
+  @Test
+  void should_only_keep_recent_latencies() {
+    val tracker = new LatencyTracker(50);
+
+    for (int i = 0; i < LatencyTracker.WINDOW_SIZE; i++) {
+      tracker.record(Duration.ofSeconds(10));
+    }
+    for (int i = 0; i < LatencyTracker.WINDOW_SIZE; i++) {
+      tracker.record(Duration.ofMillis(5));
+    }
+
+    assertThat(tracker.percentile()).contains(Duration.ofMillis(5));
+  }
+
+  @Test
+  void should_reject_invalid_percentile() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new LatencyTracker(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> new LatencyTracker(100));
+  }
+}
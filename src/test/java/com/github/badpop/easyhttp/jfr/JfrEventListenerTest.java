@@ -0,0 +1,124 @@
+package com.github.badpop.easyhttp.jfr;
+
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.event.HttpExchange;
+import com.github.badpop.easyhttp.extension.MockServerExtension;
+import com.github.badpop.easyhttp.extension.Value;
+import com.github.badpop.easyhttp.retry.Backoff;
+import com.github.badpop.easyhttp.retry.RetryPolicy;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.matchers.Times;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+@ExtendWith(MockServerExtension.class)
+class JfrEventListenerTest {
+
+  @Test
+  void should_record_exchange_retry_and_deserialization_events(String host, Integer port, ClientAndServer mockServer) throws IOException {
+    val request = HttpRequest.newBuilder()
+      .POST(HttpRequest.BodyPublishers.ofString("{\"value\":1}"))
+      .uri(URI.create(String.format("%s:%s/values/42", host, port)))
+      .build();
+    val client = EasyHttpClientProvider.newClient()
+      .withRetryPolicy(RetryPolicy.defaultPolicy().withBackoff(Backoff.none()))
+      .withEventListener(JfrEventListener.create());
+
+    mockServer
+      .when(request().withMethod("POST").withPath("/values/42"), Times.exactly(1))
+      .respond(response().withStatusCode(503));
+    mockServer
+      .when(request().withMethod("POST").withPath("/values/42"))
+      .respond(response().withStatusCode(200).withBody("{\"value\":2}"));
+
+    val events = record(() -> client.sendEasy(request, BodyHandlers.ofString()).get().readBody(Value.class));
+
+    assertThat(events)
+      .extracting(event -> event.getEventType().getName())
+      .containsExactly(ExchangeEvent.NAME, RetryEvent.NAME, ExchangeEvent.NAME, DeserializationEvent.NAME);
+    assertThat(events).allSatisfy(event -> {
+      assertThat(event.getString("method")).isEqualTo("POST");
+      assertThat(event.getString("host")).isEqualTo(String.format("%s:%s", host, port));
+      assertThat(event.getString("route")).isEqualTo("/values/{id}");
+    });
+    assertThat(events.get(0).getInt("statusCode")).isEqualTo(503);
+    assertThat(events.get(1).getInt("attempt")).isEqualTo(1);
+    assertThat(events.get(2).getInt("statusCode")).isEqualTo(200);
+    assertThat(events.get(2).getLong("bytesSent")).isEqualTo(11);
+    assertThat(events.get(2).getLong("bytesReceived")).isEqualTo(11);
+    assertThat(events.get(2).getDuration("timeToHeaders")).isPositive().isLessThanOrEqualTo(events.get(2).getDuration());
+    assertThat(events.get(3).getString("bodyType")).isEqualTo(Value.class.getName());
+    assertThat(events.get(3).getString("failure")).isNull();
+  }
+
+  @Test
+  void should_record_failed_exchanges() throws IOException {
+    val listener = JfrEventListener.create();
+    val request = HttpRequest.newBuilder(URI.create("http://host/path")).build();
+
+    val events = record(() -> HttpExchange.start(listener, request).onFailure(new IOException()));
+
+    assertThat(events).singleElement().satisfies(event -> {
+      assertThat(event.getInt("statusCode")).isEqualTo(-1);
+      assertThat(event.getString("failure")).isEqualTo(IOException.class.getName());
+    });
+    assertThat(listener.inFlight()).isZero();
+  }
+
+  @Test
+  void should_not_create_events_when_not_recording() {
+    val listener = JfrEventListener.create();
+    val request = HttpRequest.newBuilder(URI.create("http://host/path")).build();
+
+    HttpExchange.start(listener, request);
+
+    assertThat(listener.isActive()).isFalse();
+    assertThat(listener.inFlight()).isZero();
+  }
+
+  @Test
+  void should_be_active_while_recording() {
+    val listener = JfrEventListener.create();
+
+    try (val recording = new Recording()) {
+      recording.enable(RetryEvent.NAME);
+      recording.start();
+      assertThat(listener.isActive()).isTrue();
+    }
+    assertThat(listener.isActive()).isFalse();
+  }
+
+  private static List<RecordedEvent> record(Runnable action) throws IOException {
+    val file = Files.createTempFile("easy-http", ".jfr");
+    try (val recording = new Recording()) {
+      recording.enable(ExchangeEvent.NAME);
+      recording.enable(RetryEvent.NAME);
+      recording.enable(DeserializationEvent.NAME);
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      val events = RecordingFile.readAllEvents(file);
+      events.sort(Comparator.comparing(RecordedEvent::getEndTime));
+      return events;
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.extension.MockServerExtension;
+import com.github.badpop.easyhttp.extension.Value;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.integration.ClientAndServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+@ExtendWith(MockServerExtension.class)
+class JsonBodyHandlersTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void should_tokenize_body_split_in_chunks() throws IOException {
+    val subscriber = JsonBodyHandlers.ofJsonBodySubscriber(objectMapper);
+    val json = "[{\"value\": 1}, {\"value\": 22222}, {\"value\": -3}]".getBytes(UTF_8);
+
+    subscribe(subscriber);
+    for (byte b : json) {
+      subscriber.onNext(List.of(ByteBuffer.wrap(new byte[]{b})));
+    }
+    subscriber.onComplete();
+
+    val actual = subscriber.getBody().toCompletableFuture().join();
+    val reader = objectMapper.readerFor(new TypeReference<List<Value>>() {
+    });
+    assertThat(actual.<List<Value>>read(reader)).containsExactly(new Value(1), new Value(22222), new Value(-3));
+    assertThat(actual.<List<Value>>read(reader)).hasSize(3);
+  }
+
+  @Test
+  void should_complete_with_null_on_empty_body() {
+    val subscriber = JsonBodyHandlers.ofJsonBodySubscriber(objectMapper);
+
+    subscribe(subscriber);
+    subscriber.onComplete();
+
+    assertThat(subscriber.getBody().toCompletableFuture().join()).isNull();
+  }
+
+  @Test
+  void should_fail_on_invalid_json() {
+    val subscriber = JsonBodyHandlers.ofJsonBodySubscriber(objectMapper);
+
+    subscribe(subscriber);
+    subscriber.onNext(List.of(ByteBuffer.wrap("{\"value\": }".getBytes(UTF_8))));
+
+    assertThat(subscriber.getBody().toCompletableFuture())
+      .failsWithin(Duration.ofSeconds(1))
+      .withThrowableOfType(Exception.class)
+      .withCauseInstanceOf(JsonParseException.class);
+  }
+
+  @Test
+  void should_fail_on_truncated_json() {
+    val subscriber = JsonBodyHandlers.ofJsonBodySubscriber(objectMapper);
+
+    subscribe(subscriber);
+    subscriber.onNext(List.of(ByteBuffer.wrap("{\"value\": 1".getBytes(UTF_8))));
+    subscriber.onComplete();
+
+    assertThat(subscriber.getBody().toCompletableFuture()).isCompletedExceptionally();
+  }
+
+  @Test
+  void should_send_async_and_read_tokenized_body(String host, Integer port, ClientAndServer mockServer) {
+    val client = EasyHttpClientProvider.newClient();
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .GET()
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("GET").withPath(path))
+      .respond(response().withStatusCode(200).withBody("{\"value\": 200}"));
+
+    val actual = client.sendAsyncEasy(request, JsonBodyHandlers.ofJsonBody(client.getObjectMapper())).await();
+
+    assertThat(actual.isSuccess()).isTrue();
+    assertThat(actual.get().body()).isInstanceOf(JsonBody.class);
+    assertThat(actual.get().readBody(Value.class)).containsOnRight(new Value(200));
+  }
+
+  private static void subscribe(BodySubscriber<JsonBody> subscriber) {
+    subscriber.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        // chunks are pushed by the test
+      }
+
+      @Override
+      public void cancel() {
+        // nothing to release
+      }
+    });
+  }
+}
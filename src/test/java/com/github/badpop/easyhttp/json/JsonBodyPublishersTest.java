@@ -0,0 +1,318 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.EasyHttpClientProvider;
+import com.github.badpop.easyhttp.extension.MockServerExtension;
+import com.github.badpop.easyhttp.extension.Value;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.JsonBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+@ExtendWith(MockServerExtension.class)
+class JsonBodyPublishersTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void should_publish_json_with_exact_content_length() throws IOException {
+    val value = new Value(42);
+
+    val actual = JsonBodyPublishers.ofJson(objectMapper.writer(), value);
+
+    val expected = objectMapper.writeValueAsBytes(value);
+    assertThat(actual.contentLength()).isEqualTo(expected.length);
+    assertThat(new CollectingSubscriber(actual).bytes()).isEqualTo(expected);
+  }
+
+  @Test
+  void should_split_large_json_in_fixed_size_chunks() throws IOException {
+    val values = IntStream.range(0, 10_000).mapToObj(Value::new).toList();
+
+    val actual = JsonBodyPublishers.ofJson(objectMapper.writer(), values);
+
+    val expected = objectMapper.writeValueAsBytes(values);
+    val subscriber = new CollectingSubscriber(actual);
+    assertThat(actual.contentLength()).isEqualTo(expected.length);
+    assertThat(subscriber.bytes()).isEqualTo(expected);
+    assertThat(subscriber.chunks).hasSize((expected.length + JsonBodyPublishers.CHUNK_SIZE - 1) / JsonBodyPublishers.CHUNK_SIZE);
+    assertThat(subscriber.chunks.get(0).remaining()).isEqualTo(JsonBodyPublishers.CHUNK_SIZE);
+  }
+
+  @Test
+  void should_be_subscribable_several_times() throws IOException {
+    val values = IntStream.range(0, 5_000).mapToObj(Value::new).toList();
+    val publisher = JsonBodyPublishers.ofJson(objectMapper.writer(), values);
+
+    val first = new CollectingSubscriber(publisher).bytes();
+    val second = new CollectingSubscriber(publisher).bytes();
+
+    assertThat(second).isEqualTo(first).isEqualTo(objectMapper.writeValueAsBytes(values));
+  }
+
+  @Test
+  void should_only_emit_requested_chunks() throws IOException {
+    val values = IntStream.range(0, 10_000).mapToObj(Value::new).toList();
+    val publisher = JsonBodyPublishers.ofJson(objectMapper.writer(), values);
+    val chunks = new ArrayList<ByteBuffer>();
+    val subscriptions = new ArrayList<Flow.Subscription>();
+
+    publisher.subscribe(new Flow.Subscriber<>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscriptions.add(subscription);
+      }
+
+      @Override
+      public void onNext(ByteBuffer item) {
+        chunks.add(item);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        // not expected
+      }
+
+      @Override
+      public void onComplete() {
+        // not expected
+      }
+    });
+
+    assertThat(chunks).isEmpty();
+    subscriptions.get(0).request(2);
+    assertThat(chunks).hasSize(2);
+    subscriptions.get(0).cancel();
+    subscriptions.get(0).request(1);
+    assertThat(chunks).hasSize(2);
+  }
+
+  @Test
+  void should_post_streamed_json(String host, Integer port, ClientAndServer mockServer) throws IOException {
+    val path = "/path";
+    val request = HttpRequest.newBuilder()
+      .POST(JsonBodyPublishers.ofJson(objectMapper.writer(), new Value(7)))
+      .uri(URI.create(String.format("%s:%s%s", host, port, path)))
+      .build();
+
+    mockServer
+      .when(request().withMethod("POST").withPath(path).withBody(JsonBody.json("{\"value\": 7}")))
+      .respond(response().withStatusCode(204));
+
+    val actual = EasyHttpClientProvider.newClient().send(request, BodyHandlers.discarding());
+
+    assertThat(actual.isSuccess()).isTrue();
+    assertThat(actual.get().statusCode()).isEqualTo(204);
+  }
+
+  @Test
+  void should_lazily_publish_iterator_as_json_array() {
+    val values = IntStream.range(0, 10_000).mapToObj(Value::new).toList();
+    val pulled = new AtomicInteger();
+    val iterator = values.stream().peek(value -> pulled.incrementAndGet()).iterator();
+
+    val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.ARRAY, iterator);
+    val chunks = new ArrayList<ByteBuffer>();
+    publisher.subscribe(new RequestingOnceSubscriber(chunks));
+
+    assertThat(publisher.contentLength()).isEqualTo(-1);
+    assertThat(chunks).hasSize(1);
+    assertThat(chunks.get(0).remaining()).isEqualTo(JsonBodyPublishers.CHUNK_SIZE);
+    assertThat(pulled.get()).isPositive().isLessThan(values.size());
+  }
+
+  @Test
+  void should_publish_iterator_as_json_array() throws IOException {
+    val values = IntStream.range(0, 10_000).mapToObj(Value::new).toList();
+
+    val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.ARRAY, values.iterator());
+
+    assertThat(new CollectingSubscriber(publisher).bytes()).isEqualTo(objectMapper.writeValueAsBytes(values));
+  }
+
+  @Test
+  void should_publish_stream_as_ndjson_and_close_it() {
+    val closed = new AtomicBoolean();
+    val stream = Stream.of(new Value(1), new Value(2)).onClose(() -> closed.set(true));
+
+    val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.NDJSON, stream);
+
+    assertThat(new String(new CollectingSubscriber(publisher).bytes(), UTF_8)).isEqualTo("{\"value\":1}\n{\"value\":2}\n");
+    assertThat(closed).isTrue();
+  }
+
+  @Test
+  void should_publish_empty_sequences() {
+    val array = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.ARRAY, Stream.empty());
+    val ndjson = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.NDJSON, Stream.empty());
+
+    assertThat(new String(new CollectingSubscriber(array).bytes(), UTF_8)).isEqualTo("[]");
+    assertThat(new CollectingSubscriber(ndjson).bytes()).isEmpty();
+  }
+
+  @Test
+  void should_signal_error_when_one_shot_sequence_is_subscribed_twice() {
+    val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.ARRAY, List.of(new Value(1)).iterator());
+
+    new CollectingSubscriber(publisher).bytes();
+
+    assertThat(new CollectingSubscriber(publisher).error()).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void should_replay_supplied_streams() {
+    val supplied = new AtomicInteger();
+    val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.ARRAY, () -> {
+      supplied.incrementAndGet();
+      return Stream.of(new Value(1), new Value(2));
+    });
+
+    val first = new CollectingSubscriber(publisher).bytes();
+    val second = new CollectingSubscriber(publisher).bytes();
+
+    assertThat(supplied).hasValue(2);
+    assertThat(new String(second, UTF_8)).isEqualTo(new String(first, UTF_8)).isEqualTo("[{\"value\":1},{\"value\":2}]");
+  }
+
+  @Test
+  void should_signal_serialization_error() {
+    val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.ARRAY, Stream.of(new Value(1), new Object()));
+
+    assertThat(new CollectingSubscriber(publisher).error()).isInstanceOf(UncheckedIOException.class);
+  }
+
+  @Test
+  void should_publish_flow_publisher_as_ndjson() throws IOException {
+    val values = IntStream.range(0, 10_000).mapToObj(Value::new).toList();
+    val expected = new ByteArrayOutputStream();
+    for (val value : values) {
+      expected.write(objectMapper.writeValueAsBytes(value));
+      expected.write('\n');
+    }
+
+    try (val elements = new SubmissionPublisher<Value>()) {
+      val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.NDJSON, elements);
+      val subscriber = new CollectingSubscriber(publisher);
+      values.forEach(elements::submit);
+      elements.close();
+
+      assertThat(subscriber.bytes()).isEqualTo(expected.toByteArray());
+    }
+  }
+
+  @Test
+  void should_cancel_flow_publisher_on_upstream_error() {
+    try (val elements = new SubmissionPublisher<Value>()) {
+      val publisher = JsonBodyPublishers.ofJsonSequence(objectMapper.writer(), JsonSequenceFormat.ARRAY, elements);
+      val subscriber = new CollectingSubscriber(publisher);
+      elements.submit(new Value(1));
+      elements.closeExceptionally(new IllegalStateException("database is down"));
+
+      assertThat(subscriber.error()).isInstanceOf(IllegalStateException.class).hasMessage("database is down");
+    }
+  }
+
+  private static class RequestingOnceSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+    private final List<ByteBuffer> chunks;
+
+    private RequestingOnceSubscriber(List<ByteBuffer> chunks) {
+      this.chunks = chunks;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(1);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      chunks.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      throw new AssertionError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      // not expected
+    }
+  }
+
+  private static class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+    private final List<ByteBuffer> chunks = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<List<ByteBuffer>> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    private CollectingSubscriber(BodyPublisher publisher) {
+      publisher.subscribe(this);
+    }
+
+    private byte[] bytes() {
+      val out = new ByteArrayOutputStream();
+      result.orTimeout(10, TimeUnit.SECONDS).join().forEach(chunk -> {
+        val bytes = new byte[chunk.remaining()];
+        chunk.duplicate().get(bytes);
+        out.writeBytes(bytes);
+      });
+      return out.toByteArray();
+    }
+
+    private Throwable error() {
+      assertThat(result).failsWithin(Duration.ofSeconds(10));
+      return result.handle((chunks, throwable) -> throwable).join();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(1);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      chunks.add(item);
+      subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      result.complete(chunks);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.github.badpop.easyhttp.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.extension.Value;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+class JsonCodecsTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void should_cache_reader_for_class() throws IOException {
+    val codecs = new JsonCodecs(objectMapper);
+
+    val actual = codecs.readerFor(Value.class);
+
+    assertThat(codecs.readerFor(Value.class)).isSameAs(actual);
+    assertThat(actual.<Value>readValue("{\"value\": 200}")).isEqualTo(new Value(200));
+  }
+
+  @Test
+  void should_cache_reader_for_type_reference() throws IOException {
+    val codecs = new JsonCodecs(objectMapper);
+
+    val actual = codecs.readerFor(new TypeReference<List<Value>>() {
+    });
+
+    assertThat(codecs.readerFor(new TypeReference<List<Value>>() {
+    })).isSameAs(actual);
+    assertThat(actual.<List<Value>>readValue("[{\"value\": 1}]")).containsExactly(new Value(1));
+  }
+
+  @Test
+  void should_cache_reader_for_java_type() {
+    val codecs = new JsonCodecs(objectMapper);
+    val javaType = objectMapper.getTypeFactory().constructCollectionType(List.class, Value.class);
+
+    val actual = codecs.readerFor(javaType);
+
+    assertThat(codecs.readerFor(javaType)).isSameAs(actual);
+    assertThat(actual.getValueType()).isEqualTo(javaType);
+  }
+
+  @Test
+  void should_cache_writer_for_class() throws IOException {
+    val codecs = new JsonCodecs(objectMapper);
+
+    val actual = codecs.writerFor(Value.class);
+
+    assertThat(actual).isDefined();
+    assertThat(codecs.writerFor(Value.class).get()).isSameAs(actual.get());
+    assertThat(actual.get().writeValueAsString(new Value(1))).isEqualTo("{\"value\":1}");
+  }
+
+  @Test
+  void should_not_provide_writer_for_unserializable_class() {
+    val codecs = new JsonCodecs(objectMapper);
+
+    assertThat(codecs.writerFor(Object.class)).isEmpty();
+  }
+
+  @Test
+  void should_be_bounded() {
+    val codecs = new JsonCodecs(objectMapper, 2);
+
+    codecs.readerFor(Value.class);
+    codecs.readerFor(String.class);
+    codecs.readerFor(Integer.class);
+    codecs.writerFor(Value.class);
+    codecs.writerFor(String.class);
+    codecs.writerFor(Integer.class);
+
+    assertThat(codecs.size()).isEqualTo(4);
+  }
+
+  @Test
+  void should_not_build_with_invalid_parameters() {
+    assertThatNullPointerException().isThrownBy(() -> new JsonCodecs(null));
+    assertThatIllegalArgumentException().isThrownBy(() -> new JsonCodecs(objectMapper, 0));
+  }
+}
@@ -0,0 +1,158 @@
+package com.github.badpop.easyhttp.limit;
+
+import com.github.badpop.easyhttp.exception.LimitExceededException;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimiterTest {
+
+  private static final URI HOST_1 = URI.create("http://host-1:8080/path");
+  private static final URI HOST_2 = URI.create("http://host-2:8080/path");
+  private static final Duration LATENCY = Duration.ofMillis(10);
+
+  @Test
+  void should_not_acquire_from_disabled_limiter() {
+    val limiter = ConcurrencyLimiter.disabled();
+
+    assertThat(limiter.isEnabled()).isFalse();
+    assertThat(limiter.limit(HOST_1)).isEqualTo(Integer.MAX_VALUE);
+    assertThatIllegalStateException().isThrownBy(() -> limiter.acquire(HOST_1));
+  }
+
+  @Test
+  void should_grant_permits_up_to_limit_then_queue_then_reject() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(2).withMaxQueueSize(1));
+
+    val first = limiter.acquire(HOST_1);
+    val second = limiter.acquire(HOST_1);
+    val queued = limiter.acquire(HOST_1);
+    val rejected = limiter.acquire(HOST_1);
+    val otherHost = limiter.acquire(HOST_2);
+
+    assertThat(first).isCompleted();
+    assertThat(second).isCompleted();
+    assertThat(queued).isNotDone();
+    assertThatThrownBy(rejected::join).hasCauseInstanceOf(LimitExceededException.class);
+    assertThat(otherHost).isCompleted();
+    assertThat(limiter.inFlight(HOST_1)).isEqualTo(2);
+    assertThat(limiter.queueDepth(HOST_1)).isEqualTo(1);
+    assertThat(limiter.rejected()).isEqualTo(1);
+
+    first.join().onIgnore();
+
+    assertThat(queued).isCompleted();
+    assertThat(limiter.inFlight(HOST_1)).isEqualTo(2);
+    assertThat(limiter.queueDepth(HOST_1)).isZero();
+  }
+
+  @Test
+  void should_release_permit_only_once() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd());
+    val permit = limiter.acquire(HOST_1).join();
+
+    permit.onIgnore();
+    permit.onIgnore();
+    permit.onResponse(LATENCY, 200);
+
+    assertThat(limiter.inFlight(HOST_1)).isZero();
+  }
+
+  @Test
+  void should_remove_cancelled_request_from_queue() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(1));
+    val first = limiter.acquire(HOST_1);
+    val queued = limiter.acquire(HOST_1);
+
+    queued.cancel(false);
+
+    assertThat(limiter.queueDepth(HOST_1)).isZero();
+    first.join().onIgnore();
+    assertThat(limiter.inFlight(HOST_1)).isZero();
+  }
+
+  @Test
+  void should_reject_request_queued_for_too_long() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(1).withMaxQueueTime(Duration.ofMillis(50)));
+    limiter.acquire(HOST_1);
+
+    val queued = limiter.acquire(HOST_1);
+
+    assertThatThrownBy(queued::join).isInstanceOf(CompletionException.class).hasCauseInstanceOf(LimitExceededException.class);
+    assertThat(limiter.queueDepth(HOST_1)).isZero();
+    assertThat(limiter.rejected()).isEqualTo(1);
+  }
+
+  @Test
+  void should_increase_limit_while_it_is_used() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(2));
+
+    for (int i = 0; i < 10; i++) {
+      val permits = new ArrayList<Permit>();
+      for (int j = 0; j < limiter.limit(HOST_1); j++) {
+        permits.add(limiter.acquire(HOST_1).join());
+      }
+      permits.forEach(permit -> permit.onResponse(LATENCY, 200));
+    }
+
+    assertThat(limiter.limit(HOST_1)).isGreaterThan(10);
+  }
+
+  @Test
+  void should_not_increase_limit_while_it_is_not_used() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(10));
+
+    for (int i = 0; i < 100; i++) {
+      limiter.acquire(HOST_1).join().onResponse(LATENCY, 200);
+    }
+
+    assertThat(limiter.limit(HOST_1)).isEqualTo(10);
+  }
+
+  @Test
+  void should_decrease_limit_on_congestion() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(100));
+
+    limiter.acquire(HOST_1).join().onResponse(LATENCY, 503);
+    assertThat(limiter.limit(HOST_1)).isEqualTo(90);
+
+    limiter.acquire(HOST_1).join().onFailure(new CompletionException(new HttpTimeoutException("timeout")));
+    assertThat(limiter.limit(HOST_1)).isEqualTo(81);
+
+    limiter.acquire(HOST_1).join().onResponse(LATENCY, 200);
+    limiter.acquire(HOST_1).join().onResponse(LATENCY.multipliedBy(3), 200);
+    assertThat(limiter.limit(HOST_1)).isEqualTo(72);
+  }
+
+  @Test
+  void should_ignore_failures_unrelated_to_host() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(100));
+
+    limiter.acquire(HOST_1).join().onFailure(new CancellationException());
+    limiter.acquire(HOST_1).join().onFailure(new IllegalStateException());
+
+    assertThat(limiter.limit(HOST_1)).isEqualTo(100);
+  }
+
+  @Test
+  void should_never_go_under_min_limit() {
+    val limiter = ConcurrencyLimiter.perHost(LimitPolicy.aimd().withInitialLimit(2).withMinLimit(2));
+
+    for (int i = 0; i < 10; i++) {
+      limiter.acquire(HOST_1).join().onFailure(new IOException());
+    }
+
+    assertThat(limiter.limit(HOST_1)).isEqualTo(2);
+  }
+}
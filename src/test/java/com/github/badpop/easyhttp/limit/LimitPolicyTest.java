@@ -0,0 +1,47 @@
+package com.github.badpop.easyhttp.limit;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class LimitPolicyTest {
+
+  @Test
+  void should_build_aimd_policy() {
+    val actual = LimitPolicy.aimd();
+
+    assertThat(actual.getInitialLimit()).isEqualTo(20);
+    assertThat(actual.getMinLimit()).isEqualTo(1);
+    assertThat(actual.getMaxLimit()).isEqualTo(200);
+    assertThat(actual.getBackoffRatio()).isEqualTo(0.9);
+    assertThat(actual.getLatencyTolerance()).isEqualTo(2);
+    assertThat(actual.getMaxQueueSize()).isEqualTo(100);
+    assertThat(actual.getMaxQueueTime()).isEqualTo(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void should_not_build_inconsistent_limits() {
+    val policy = LimitPolicy.aimd();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withMinLimit(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withInitialLimit(300));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withMaxLimit(10));
+  }
+
+  @Test
+  void should_not_build_invalid_policy() {
+    val policy = LimitPolicy.aimd();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withBackoffRatio(1));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withBackoffRatio(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withLatencyTolerance(1));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withMaxQueueSize(-1));
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withMaxQueueTime(Duration.ofSeconds(-1)));
+    assertThatNullPointerException().isThrownBy(() -> policy.withMaxQueueTime(null));
+  }
+}
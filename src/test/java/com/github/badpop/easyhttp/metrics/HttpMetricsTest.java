@@ -0,0 +1,90 @@
+package com.github.badpop.easyhttp.metrics;
+
+import com.github.badpop.easyhttp.event.HttpExchange;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HttpMetricsTest {
+
+  @Test
+  void should_not_create_metrics_with_invalid_arguments() {
+    assertThatIllegalArgumentException().isThrownBy(() -> HttpMetrics.create(RouteTemplater.defaultTemplater(), 0));
+    assertThatNullPointerException().isThrownBy(() -> HttpMetrics.create(null, 10));
+  }
+
+  @Test
+  void should_record_exchanges_by_route_and_status_class() {
+    val metrics = HttpMetrics.create();
+
+    respond(metrics, "GET", "http://host:8080/users/1", 200);
+    respond(metrics, "GET", "http://host:8080/users/2", 404);
+    respond(metrics, "POST", "http://host:8080/users", 201);
+    respond(metrics, "GET", "https://other/health", 503);
+    HttpExchange.start(metrics, request("GET", "http://host:8080/users/3")).onFailure(new IOException());
+
+    assertThat(metrics.routes())
+      .extracting(route -> route.getHost() + " " + route.getMethod() + " " + route.getRoute() + " " + route.getStatus2xx() + "/"
+        + route.getStatus4xx() + "/" + route.getStatus5xx() + "/" + route.getFailures() + " " + route.getLatency().getCount())
+      .containsExactly(
+        "http://host:8080 POST /users 1/0/0/0 1",
+        "http://host:8080 GET /users/{id} 1/1/0/1 3",
+        "https://other GET /health 0/0/1/0 1");
+    assertThat(metrics.hosts())
+      .extracting(host -> host.getHost() + " " + host.getMethod() + " " + host.getRoute() + " " + host.total())
+      .containsExactly("http://host:8080 * * 4", "https://other * * 1");
+  }
+
+  @Test
+  void should_record_new_routes_in_overflow_route_once_capped() {
+    val metrics = HttpMetrics.create(uri -> uri.getPath(), 2);
+
+    respond(metrics, "GET", "http://host/a", 200);
+    respond(metrics, "GET", "http://host/b", 200);
+    respond(metrics, "GET", "http://host/c", 200);
+    respond(metrics, "GET", "http://other/d", 500);
+    respond(metrics, "GET", "http://host/a", 200);
+
+    assertThat(metrics.routes())
+      .extracting(route -> route.getHost() + " " + route.getRoute() + " " + route.total())
+      .containsExactly("http://host /a 2", "http://host /b 1", "{other} {other} 2");
+  }
+
+  @Test
+  void should_write_prometheus_text_format() {
+    val metrics = HttpMetrics.create(uri -> "/say \"hi\"\\\n", 10);
+
+    respond(metrics, "GET", "http://host/hello", 200);
+
+    assertThat(metrics.toPrometheus())
+      .startsWith("# HELP easyhttp_client_requests_total ")
+      .contains(
+        "# TYPE easyhttp_client_requests_total counter\n",
+        "easyhttp_client_requests_total{host=\"http://host\",method=\"GET\",route=\"/say \\\"hi\\\"\\\\\\n\",status=\"2xx\"} 1\n",
+        "easyhttp_client_requests_total{host=\"http://host\",method=\"GET\",route=\"/say \\\"hi\\\"\\\\\\n\",status=\"failure\"} 0\n",
+        "# TYPE easyhttp_client_request_duration_seconds histogram\n",
+        "easyhttp_client_request_duration_seconds_bucket{host=\"http://host\",method=\"GET\",route=\"/say \\\"hi\\\"\\\\\\n\",le=\"10.0\"} 1\n",
+        "easyhttp_client_request_duration_seconds_bucket{host=\"http://host\",method=\"GET\",route=\"/say \\\"hi\\\"\\\\\\n\",le=\"+Inf\"} 1\n",
+        "easyhttp_client_request_duration_seconds_count{host=\"http://host\",method=\"GET\",route=\"/say \\\"hi\\\"\\\\\\n\"} 1\n");
+  }
+
+  private static void respond(HttpMetrics metrics, String method, String uri, int statusCode) {
+    val response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(statusCode);
+    HttpExchange.start(metrics, request(method, uri)).onResponse(response);
+  }
+
+  private static HttpRequest request(String method, String uri) {
+    return HttpRequest.newBuilder(URI.create(uri)).method(method, HttpRequest.BodyPublishers.noBody()).build();
+  }
+}
@@ -0,0 +1,62 @@
+package com.github.badpop.easyhttp.metrics;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class LatencyHistogramTest {
+
+  @Test
+  void should_map_latencies_to_buckets_within_bounds() {
+    for (long micros : new long[]{0, 1, 15, 16, 17, 31, 32, 1_000, 123_456, 10_000_000, 1L << 36}) {
+      val index = LatencyHistogram.index(micros);
+
+      assertThat(index).isBetween(0, LatencyHistogram.BUCKETS - 1);
+      assertThat(LatencyHistogram.lowerBoundMicros(index)).isLessThanOrEqualTo(micros);
+      if (index < LatencyHistogram.BUCKETS - 1) {
+        assertThat(LatencyHistogram.upperBoundMicros(index)).isGreaterThanOrEqualTo(micros);
+        assertThat(LatencyHistogram.upperBoundMicros(index) - LatencyHistogram.lowerBoundMicros(index)).isLessThanOrEqualTo(Math.max(1, micros / 16));
+      }
+    }
+    assertThat(LatencyHistogram.index(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+  }
+
+  @Test
+  void should_compute_percentiles() {
+    val histogram = new LatencyHistogram();
+    IntStream.rangeClosed(1, 1_000).forEach(millis -> histogram.record(Duration.ofMillis(millis).toNanos()));
+
+    val snapshot = histogram.snapshot();
+
+    assertThat(snapshot.getCount()).isEqualTo(1_000);
+    assertThat(snapshot.max()).isEqualTo(Duration.ofMillis(1_000));
+    assertThat(snapshot.mean()).isEqualTo(Duration.ofNanos(500_500_000));
+    assertThat(snapshot.percentile(50).toMillis()).isBetween(500L, 532L);
+    assertThat(snapshot.percentile(99).toMillis()).isBetween(990L, 1_000L);
+    assertThat(snapshot.percentile(100)).isEqualTo(Duration.ofMillis(1_000));
+    assertThat(snapshot.countAtOrBelow(Duration.ofMillis(100))).isBetween(100L, 106L);
+    assertThatIllegalArgumentException().isThrownBy(() -> snapshot.percentile(100.1));
+  }
+
+  @Test
+  void should_merge_snapshots() {
+    val first = new LatencyHistogram();
+    val second = new LatencyHistogram();
+    first.record(Duration.ofMillis(1).toNanos());
+    second.record(Duration.ofMillis(3).toNanos());
+    second.record(-1);
+
+    val merged = first.snapshot().merge(second.snapshot());
+
+    assertThat(merged.getCount()).isEqualTo(3);
+    assertThat(merged.getSumNanos()).isEqualTo(Duration.ofMillis(4).toNanos());
+    assertThat(merged.max()).isEqualTo(Duration.ofMillis(3));
+    assertThat(HistogramSnapshot.empty().percentile(99)).isEqualTo(Duration.ZERO);
+    assertThat(HistogramSnapshot.empty().mean()).isEqualTo(Duration.ZERO);
+  }
+}
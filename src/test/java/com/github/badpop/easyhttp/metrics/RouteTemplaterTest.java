@@ -0,0 +1,28 @@
+package com.github.badpop.easyhttp.metrics;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteTemplaterTest {
+
+  @ParameterizedTest
+  @CsvSource({
+    "http://host, /",
+    "http://host/, /",
+    "http://host/users, /users",
+    "http://host/users/42, /users/{id}",
+    "http://host/users/42/orders/7?page=2, /users/{id}/orders/{id}",
+    "http://host/users/123e4567-e89b-12d3-a456-426614174000, /users/{id}",
+    "http://host/commits/9fceb02d0ae598e95dc970b74767f19372d61af8, /commits/{id}",
+    "http://host/tokens/AbCdEfGh1234IjKlMn, /tokens/{id}",
+    "http://host/v2/api/health, /v2/api/health",
+    "http://host/files/deadbeef/, /files/deadbeef/",
+  })
+  void should_template_identifiers_of_path(String uri, String expected) {
+    assertThat(RouteTemplater.defaultTemplater().template(URI.create(uri))).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,36 @@
+package com.github.badpop.easyhttp.ratelimit;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class RateLimitTest {
+
+  @Test
+  void should_build_limit_per_second() {
+    val actual = RateLimit.perSecond(4);
+
+    assertThat(actual.getPermitsPerSecond()).isEqualTo(4);
+    assertThat(actual.getBurst()).isEqualTo(1);
+    assertThat(actual.getMaxWait()).isEqualTo(Duration.ofSeconds(30));
+    assertThat(actual.isRespectRetryAfter()).isTrue();
+    assertThat(actual.emissionIntervalNanos()).isEqualTo(Duration.ofMillis(250).toNanos());
+    assertThat(RateLimit.perSecond(0.5).emissionIntervalNanos()).isEqualTo(Duration.ofSeconds(2).toNanos());
+  }
+
+  @Test
+  void should_not_build_invalid_limit() {
+    val limit = RateLimit.perSecond(10);
+
+    assertThatIllegalArgumentException().isThrownBy(() -> RateLimit.perSecond(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> RateLimit.perSecond(Double.NaN));
+    assertThatIllegalArgumentException().isThrownBy(() -> limit.withBurst(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> limit.withMaxWait(Duration.ofSeconds(-1)));
+    assertThatNullPointerException().isThrownBy(() -> limit.withMaxWait(null));
+  }
+}
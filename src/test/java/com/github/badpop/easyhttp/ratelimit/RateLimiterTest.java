@@ -0,0 +1,162 @@
+package com.github.badpop.easyhttp.ratelimit;
+
+import com.github.badpop.easyhttp.exception.RateLimitExceededException;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimiterTest {
+
+  private static final URI HOST_1 = URI.create("http://host-1:8080/path");
+  private static final URI HOST_2 = URI.create("http://host-2:8080/path");
+  private static final URI SEARCH = URI.create("http://host-1:8080/v1/search?q=easy");
+  private static final long MILLIS = Duration.ofMillis(1).toNanos();
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  @Test
+  void should_not_limit_with_disabled_limiter() {
+    val limiter = RateLimiter.disabled();
+
+    assertThat(limiter.isEnabled()).isFalse();
+    assertThat(limiter.reserve(HOST_1)).isZero();
+    assertThat(limiter.withRoute("http://host-1:8080/", RateLimit.perSecond(1)).isEnabled()).isTrue();
+  }
+
+  @Test
+  void should_space_requests_evenly() {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(10), nanos::get);
+
+    assertThat(limiter.reserve(HOST_1)).isZero();
+    assertThat(limiter.reserve(HOST_1)).isEqualTo(100 * MILLIS);
+    assertThat(limiter.reserve(HOST_1)).isEqualTo(200 * MILLIS);
+    assertThat(limiter.reserve(HOST_2)).isZero();
+    assertThat(limiter.throttled()).isEqualTo(2);
+
+    nanos.addAndGet(250 * MILLIS);
+
+    assertThat(limiter.reserve(HOST_1)).isEqualTo(50 * MILLIS);
+  }
+
+  @Test
+  void should_allow_burst_after_idle_period() {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(10).withBurst(3), nanos::get);
+    nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    assertThat(limiter.reserve(HOST_1)).isZero();
+    assertThat(limiter.reserve(HOST_1)).isZero();
+    assertThat(limiter.reserve(HOST_1)).isZero();
+    assertThat(limiter.reserve(HOST_1)).isEqualTo(100 * MILLIS);
+  }
+
+  @Test
+  void should_reject_request_waiting_too_long() {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(10).withMaxWait(Duration.ofMillis(150)), nanos::get);
+
+    limiter.reserve(HOST_1);
+    limiter.reserve(HOST_1);
+
+    assertThatThrownBy(() -> limiter.reserve(HOST_1))
+      .isInstanceOf(RateLimitExceededException.class)
+      .extracting("bucket").isEqualTo("http://host-1:8080");
+    assertThat(limiter.rejected()).isEqualTo(1);
+    assertThat(limiter.reserve(HOST_2)).isZero();
+  }
+
+  @Test
+  void should_use_bucket_of_longest_route_prefix() {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(1000), nanos::get)
+      .withRoute("http://host-1:8080/v1/", RateLimit.perSecond(10))
+      .withRoute("http://host-1:8080/v1/search", RateLimit.perSecond(1));
+
+    assertThat(limiter.reserve(SEARCH)).isZero();
+    assertThat(limiter.reserve(SEARCH)).isEqualTo(1000 * MILLIS);
+    assertThat(limiter.reserve(URI.create("http://host-1:8080/v1/users"))).isZero();
+    assertThat(limiter.reserve(URI.create("http://host-1:8080/v1/users"))).isEqualTo(100 * MILLIS);
+    assertThat(limiter.reserve(HOST_1)).isZero();
+    assertThat(limiter.reserve(HOST_1)).isEqualTo(MILLIS);
+  }
+
+  @Test
+  void should_only_limit_routes_without_host_limit() {
+    val limiter = RateLimiter.disabled().withRoute("http://host-1:8080/v1/search", RateLimit.perSecond(1));
+
+    limiter.reserve(SEARCH);
+
+    assertThat(limiter.reserve(SEARCH)).isPositive();
+    assertThat(limiter.reserve(HOST_1)).isZero();
+    assertThat(limiter.reserve(HOST_1)).isZero();
+  }
+
+  @Test
+  void should_pause_bucket_on_too_many_requests_with_retry_after() {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(10).withBurst(5), nanos::get);
+    limiter.reserve(HOST_1);
+
+    limiter.onResponse(HOST_1, response(429, "2"));
+    limiter.onResponse(HOST_2, response(503, "10"));
+
+    assertThat(limiter.reserve(HOST_1)).isEqualTo(2000 * MILLIS);
+    assertThat(limiter.reserve(HOST_1)).isEqualTo(2100 * MILLIS);
+    assertThat(limiter.reserve(HOST_2)).isZero();
+  }
+
+  @Test
+  void should_ignore_retry_after_if_not_respected() {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(10).withRespectRetryAfter(false), nanos::get);
+
+    limiter.onResponse(HOST_1, response(429, "2"));
+
+    assertThat(limiter.reserve(HOST_1)).isZero();
+  }
+
+  @Test
+  void should_park_thread_until_rate_allows_request() throws InterruptedException {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(20));
+    val start = System.nanoTime();
+
+    for (int i = 0; i < 3; i++) {
+      limiter.acquire(HOST_1);
+    }
+
+    assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(100 * MILLIS);
+  }
+
+  @Test
+  void should_delay_future_until_rate_allows_request() {
+    val limiter = RateLimiter.perHost(RateLimit.perSecond(20).withMaxWait(Duration.ofMillis(60)));
+    val executor = Executors.newSingleThreadExecutor();
+    try {
+      val first = limiter.acquireAsync(HOST_1, executor);
+      val second = limiter.acquireAsync(HOST_1, executor);
+      val third = limiter.acquireAsync(HOST_1, executor);
+
+      assertThat(first).isCompleted();
+      assertThat(second).isNotDone();
+      assertThat(third).isCompletedExceptionally();
+      second.join();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static HttpResponse<?> response(int statusCode, String retryAfter) {
+    val response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(statusCode);
+    when(response.headers()).thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of(retryAfter)), (name, value) -> true));
+    return response;
+  }
+}
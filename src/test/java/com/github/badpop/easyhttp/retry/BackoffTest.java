@@ -0,0 +1,52 @@
+package com.github.badpop.easyhttp.retry;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class BackoffTest {
+
+  @Test
+  void should_not_wait_without_backoff() {
+    assertThat(Backoff.none().delayBeforeRetry(1)).isZero();
+    assertThat(Backoff.none().delayBeforeRetry(10)).isZero();
+  }
+
+  @Test
+  void should_wait_fixed_delay() {
+    val backoff = Backoff.fixed(Duration.ofMillis(250));
+
+    assertThat(backoff.delayBeforeRetry(1)).isEqualTo(Duration.ofMillis(250));
+    assertThat(backoff.delayBeforeRetry(5)).isEqualTo(Duration.ofMillis(250));
+  }
+
+  @Test
+  void should_double_ceiling_until_cap() {
+    val backoff = Backoff.exponentialWithFullJitter(Duration.ofMillis(100), Duration.ofSeconds(1));
+
+    assertThat(backoff.ceilingNanos(1)).isEqualTo(Duration.ofMillis(100).toNanos());
+    assertThat(backoff.ceilingNanos(2)).isEqualTo(Duration.ofMillis(200).toNanos());
+    assertThat(backoff.ceilingNanos(4)).isEqualTo(Duration.ofMillis(800).toNanos());
+    assertThat(backoff.ceilingNanos(5)).isEqualTo(Duration.ofSeconds(1).toNanos());
+    assertThat(backoff.ceilingNanos(Integer.MAX_VALUE)).isEqualTo(Duration.ofSeconds(1).toNanos());
+  }
+
+  @Test
+  void should_pick_jittered_delay_below_ceiling() {
+    val backoff = Backoff.exponentialWithFullJitter(Duration.ofMillis(100), Duration.ofSeconds(1));
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(backoff.delayBeforeRetry(3)).isBetween(Duration.ZERO, Duration.ofMillis(400));
+    }
+  }
+
+  @Test
+  void should_reject_invalid_durations() {
+    assertThatIllegalArgumentException().isThrownBy(() -> Backoff.fixed(Duration.ofMillis(-1)));
+    assertThatIllegalArgumentException().isThrownBy(() -> Backoff.exponentialWithFullJitter(Duration.ofSeconds(2), Duration.ofSeconds(1)));
+  }
+}
@@ -0,0 +1,60 @@
+package com.github.badpop.easyhttp.retry;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RetryBudgetTest {
+
+  @Test
+  void should_start_full() {
+    val budget = RetryBudget.of(10, 0.5);
+
+    assertThat(budget.tokens()).isEqualTo(10);
+    assertThat(budget.isRetryAllowed()).isTrue();
+  }
+
+  @Test
+  void should_forbid_retries_once_half_empty() {
+    val budget = RetryBudget.of(10, 0.5);
+
+    for (int i = 0; i < 4; i++) {
+      budget.onRetryableAttempt();
+    }
+    assertThat(budget.tokens()).isEqualTo(6);
+    assertThat(budget.isRetryAllowed()).isTrue();
+
+    budget.onRetryableAttempt();
+    assertThat(budget.tokens()).isEqualTo(5);
+    assertThat(budget.isRetryAllowed()).isFalse();
+  }
+
+  @Test
+  void should_refill_with_successful_attempts_up_to_capacity() {
+    val budget = RetryBudget.of(10, 0.5);
+    for (int i = 0; i < 20; i++) {
+      budget.onRetryableAttempt();
+    }
+    assertThat(budget.tokens()).isZero();
+
+    for (int i = 0; i < 11; i++) {
+      budget.onSuccessfulAttempt();
+    }
+    assertThat(budget.tokens()).isEqualTo(5.5);
+    assertThat(budget.isRetryAllowed()).isTrue();
+
+    for (int i = 0; i < 100; i++) {
+      budget.onSuccessfulAttempt();
+    }
+    assertThat(budget.tokens()).isEqualTo(10);
+  }
+
+  @Test
+  void should_reject_invalid_configuration() {
+    assertThatIllegalArgumentException().isThrownBy(() -> RetryBudget.of(0, 0.1));
+    assertThatIllegalArgumentException().isThrownBy(() -> RetryBudget.of(10, 0));
+    assertThatIllegalArgumentException().isThrownBy(() -> RetryBudget.of(10, 11));
+  }
+}
@@ -0,0 +1,127 @@
+package com.github.badpop.easyhttp.retry;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import io.vavr.control.Try;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RetryPolicyTest {
+
+  private final RetryPolicy policy = RetryPolicy.defaultPolicy().withBackoff(Backoff.fixed(Duration.ofMillis(10)));
+
+  @Test
+  void should_never_retry_with_none_policy() {
+    assertThat(RetryPolicy.none().isEnabled()).isFalse();
+    assertThat(RetryPolicy.none().delayBeforeRetry(1, Try.success(response(503)))).isEmpty();
+    assertThat(RetryPolicy.none().delayBeforeRetry(1, Try.failure(new ConnectException()))).isEmpty();
+  }
+
+  @Test
+  void should_retry_retryable_responses_until_max_attempts() {
+    assertThat(policy.delayBeforeRetry(1, Try.success(response(503)))).contains(Duration.ofMillis(10));
+    assertThat(policy.delayBeforeRetry(2, Try.success(response(429)))).contains(Duration.ofMillis(10));
+    assertThat(policy.delayBeforeRetry(3, Try.success(response(503)))).isEmpty();
+  }
+
+  @Test
+  void should_not_retry_other_responses() {
+    assertThat(policy.delayBeforeRetry(1, Try.success(response(200)))).isEmpty();
+    assertThat(policy.delayBeforeRetry(1, Try.success(response(500)))).isEmpty();
+    assertThat(policy.delayBeforeRetry(1, Try.success(response(404)))).isEmpty();
+  }
+
+  @Test
+  void should_retry_with_custom_response_predicate() {
+    val custom = policy.withRetryOnResponse(RetryPredicates.hasStatus(500).or(RetryPredicates.is4xx()));
+    val notFound = response(404);
+    when(notFound.is4xx()).thenReturn(true);
+
+    assertThat(custom.delayBeforeRetry(1, Try.success(response(500)))).isDefined();
+    assertThat(custom.delayBeforeRetry(1, Try.success(notFound))).isDefined();
+    assertThat(custom.delayBeforeRetry(1, Try.success(response(503)))).isEmpty();
+  }
+
+  @Test
+  void should_retry_matching_exceptions_even_wrapped() {
+    assertThat(policy.delayBeforeRetry(1, Try.failure(new ConnectException()))).isDefined();
+    assertThat(policy.delayBeforeRetry(1, Try.failure(new CompletionException(new IOException())))).isDefined();
+    assertThat(policy.delayBeforeRetry(1, Try.failure(new IllegalStateException()))).isEmpty();
+  }
+
+  @Test
+  void should_wait_retry_after_seconds() {
+    assertThat(policy.delayBeforeRetry(1, Try.success(response(503, "2")))).contains(Duration.ofSeconds(2));
+  }
+
+  @Test
+  void should_not_retry_when_retry_after_exceeds_maximum() {
+    assertThat(policy.delayBeforeRetry(1, Try.success(response(503, "120")))).isEmpty();
+  }
+
+  @Test
+  void should_ignore_retry_after_when_not_respected() {
+    val ignoring = policy.withRespectRetryAfter(false);
+
+    assertThat(ignoring.delayBeforeRetry(1, Try.success(response(503, "120")))).contains(Duration.ofMillis(10));
+  }
+
+  @Test
+  void should_fallback_to_backoff_on_invalid_retry_after() {
+    assertThat(policy.delayBeforeRetry(1, Try.success(response(503, "soon")))).contains(Duration.ofMillis(10));
+  }
+
+  @Test
+  void should_parse_retry_after_date() {
+    val clock = Clock.fixed(Instant.parse("2022-04-01T10:00:00Z"), ZoneOffset.UTC);
+
+    assertThat(RetryPolicy.retryAfter(response(503, "Fri, 01 Apr 2022 10:00:30 GMT"), clock)).contains(Duration.ofSeconds(30));
+    assertThat(RetryPolicy.retryAfter(response(503, "Fri, 01 Apr 2022 09:00:00 GMT"), clock)).contains(Duration.ZERO);
+  }
+
+  @Test
+  void should_stop_retrying_when_budget_is_exhausted() {
+    val budgeted = policy.withMaxAttempts(10).withBudget(RetryBudget.of(4, 1));
+
+    assertThat(budgeted.delayBeforeRetry(1, Try.success(response(503)))).isDefined();
+    assertThat(budgeted.delayBeforeRetry(2, Try.success(response(503)))).isEmpty();
+
+    budgeted.delayBeforeRetry(1, Try.success(response(200)));
+    assertThat(budgeted.getBudget().tokens()).isEqualTo(3);
+    assertThat(budgeted.delayBeforeRetry(1, Try.success(response(503)))).isEmpty();
+  }
+
+  @Test
+  void should_reject_invalid_max_attempts() {
+    assertThatIllegalArgumentException().isThrownBy(() -> policy.withMaxAttempts(0));
+  }
+
+  private static EasyHttpResponse<?> response(int statusCode) {
+    return response(statusCode, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static EasyHttpResponse<?> response(int statusCode, String retryAfter) {
+    val response = (EasyHttpResponse<Void>) mock(EasyHttpResponse.class);
+    when(response.statusCode()).thenReturn(statusCode);
+    val headers = retryAfter == null ? Map.<String, List<String>>of() : Map.of("Retry-After", List.of(retryAfter));
+    when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+    return response;
+  }
+}
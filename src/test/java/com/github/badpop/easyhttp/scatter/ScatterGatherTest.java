@@ -0,0 +1,142 @@
+package com.github.badpop.easyhttp.scatter;
+
+import com.github.badpop.easyhttp.control.EasyHttpResponse;
+import com.github.badpop.easyhttp.exception.ServerErrorException;
+import io.vavr.collection.List;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScatterGatherTest {
+
+  private final List<HttpRequest> requests = List.range(0, 3)
+    .map(replica -> HttpRequest.newBuilder(URI.create("http://replica-" + replica + ":8080/path")).build());
+  private final HashMap<HttpRequest, CompletableFuture<EasyHttpResponse<Void>>> exchanges = new HashMap<>();
+
+  @Test
+  void should_complete_with_first_success_and_cancel_others() {
+    val actual = ScatterGather.firstSuccessful(requests, this::exchange);
+
+    exchanges.get(requests.get(0)).completeExceptionally(new CompletionException(new IOException("reset")));
+    assertThat(actual).isNotDone();
+    exchanges.get(requests.get(2)).complete(response(200));
+
+    val result = actual.join();
+    assertThat(result.isSatisfied()).isTrue();
+    assertThat(result.getSuccesses()).hasSize(1);
+    assertThat(result.getFailures()).extracting(FailedRequest::getRequest).containsExactly(requests.get(0));
+    assertThat(result.getFailures().head().getCause()).isInstanceOf(IOException.class);
+    assertThat(result.getCancelled()).containsExactly(requests.get(1));
+    assertThat(exchanges.get(requests.get(1))).isCancelled();
+  }
+
+  @Test
+  void should_treat_server_errors_as_failures() {
+    val actual = ScatterGather.firstSuccessful(requests, this::exchange);
+
+    exchanges.get(requests.get(0)).complete(response(503));
+    exchanges.get(requests.get(1)).complete(response(500));
+    exchanges.get(requests.get(2)).complete(response(404));
+
+    val result = actual.join();
+    assertThat(result.isSatisfied()).isTrue();
+    assertThat(result.getSuccesses().head().statusCode()).isEqualTo(404);
+    assertThat(result.getFailures()).extracting(failure -> ((ServerErrorException) failure.getCause()).getStatusCode()).containsExactly(503, 500);
+  }
+
+  @Test
+  void should_complete_unsatisfied_when_all_requests_failed() {
+    val actual = ScatterGather.firstSuccessful(requests, this::exchange);
+
+    exchanges.values().forEach(exchange -> exchange.completeExceptionally(new IOException()));
+
+    val result = actual.join();
+    assertThat(result.isSatisfied()).isFalse();
+    assertThat(result.getFailures()).hasSize(3);
+    assertThat(result.getCancelled()).isEmpty();
+  }
+
+  @Test
+  void should_complete_once_quorum_is_reached() {
+    val actual = ScatterGather.quorum(requests, this::exchange, 2);
+
+    exchanges.get(requests.get(1)).complete(response(200));
+    assertThat(actual).isNotDone();
+    exchanges.get(requests.get(0)).complete(response(200));
+
+    val result = actual.join();
+    assertThat(result.isSatisfied()).isTrue();
+    assertThat(result.getSuccesses()).hasSize(2);
+    assertThat(result.getCancelled()).containsExactly(requests.get(2));
+  }
+
+  @Test
+  void should_complete_as_soon_as_quorum_cannot_be_reached() {
+    val actual = ScatterGather.quorum(requests, this::exchange, 3);
+
+    exchanges.get(requests.get(1)).complete(response(502));
+
+    val result = actual.join();
+    assertThat(result.isSatisfied()).isFalse();
+    assertThat(result.getCancelled()).containsExactly(requests.get(0), requests.get(2));
+  }
+
+  @Test
+  void should_complete_with_partial_results_at_deadline() {
+    val executor = Executors.newSingleThreadExecutor();
+    try {
+      val actual = ScatterGather.allWithin(requests, this::exchange, Duration.ofMillis(50), executor);
+      exchanges.get(requests.get(0)).complete(response(200));
+
+      val result = actual.join();
+      assertThat(result.isSatisfied()).isFalse();
+      assertThat(result.getSuccesses()).hasSize(1);
+      assertThat(result.getCancelled()).containsExactly(requests.get(1), requests.get(2));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void should_cancel_all_requests_when_cancelled() {
+    val actual = ScatterGather.quorum(requests, this::exchange, 2);
+
+    actual.cancel(true);
+
+    assertThat(exchanges.values()).allMatch(CompletableFuture::isCancelled);
+  }
+
+  @Test
+  void should_not_scatter_with_invalid_quorum() {
+    assertThatIllegalArgumentException().isThrownBy(() -> ScatterGather.quorum(requests, this::exchange, 0));
+    assertThatIllegalArgumentException().isThrownBy(() -> ScatterGather.quorum(requests, this::exchange, 4));
+    assertThat(exchanges).isEmpty();
+  }
+
+  private CompletableFuture<EasyHttpResponse<Void>> exchange(HttpRequest request) {
+    val exchange = new CompletableFuture<EasyHttpResponse<Void>>();
+    exchanges.put(request, exchange);
+    return exchange;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static EasyHttpResponse<Void> response(int statusCode) {
+    val response = (EasyHttpResponse<Void>) mock(EasyHttpResponse.class);
+    when(response.statusCode()).thenReturn(statusCode);
+    when(response.is5xx()).thenReturn(statusCode >= 500);
+    return response;
+  }
+}
@@ -0,0 +1,37 @@
+package com.github.badpop.easyhttp.warmup;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class WarmUpPlanTest {
+
+  @Test
+  void should_build_empty_plan() {
+    val actual = WarmUpPlan.empty();
+
+    assertThat(actual.getHosts()).isEmpty();
+    assertThat(actual.getConnectionsPerHost()).isEqualTo(1);
+    assertThat(actual.getConnectTimeout()).isEqualTo(Duration.ofSeconds(10));
+    assertThat(actual.getTypes()).isEmpty();
+    assertThat(actual.getTypeReferences()).isEmpty();
+    assertThat(actual.getRequests()).isEmpty();
+    assertThat(actual.getIterations()).isEqualTo(1);
+  }
+
+  @Test
+  void should_not_build_invalid_plan() {
+    val plan = WarmUpPlan.empty();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> plan.withConnectionsPerHost(0));
+    assertThatIllegalArgumentException().isThrownBy(() -> plan.withConnectTimeout(Duration.ZERO));
+    assertThatIllegalArgumentException().isThrownBy(() -> plan.withIterations(-1));
+    assertThatNullPointerException().isThrownBy(() -> plan.withHosts(null));
+    assertThatNullPointerException().isThrownBy(() -> plan.withRequests(null));
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.badpop.easyhttp.warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.badpop.easyhttp.json.JsonCodecs;
+import io.vavr.collection.List;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmUpTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ConcurrentLinkedQueue<HttpRequest> connected = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<HttpRequest> sent = new ConcurrentLinkedQueue<>();
+
+  @Test
+  void should_open_connections_to_each_host() {
+    val hosts = List.of(URI.create("http://first:8080"), URI.create("https://second"));
+    val plan = WarmUpPlan.empty().withHosts(hosts).withConnectionsPerHost(3).withConnectTimeout(Duration.ofSeconds(2));
+
+    val actual = WarmUp.run(plan, new JsonCodecs(objectMapper), this::connect, this::send, Runnable::run).join();
+
+    assertThat(actual.isSuccessful()).isTrue();
+    assertThat(actual.getConnections()).isEqualTo(6);
+    assertThat(connected).extracting(HttpRequest::uri).containsExactlyInAnyOrder(
+      hosts.get(0), hosts.get(0), hosts.get(0), hosts.get(1), hosts.get(1), hosts.get(1));
+    assertThat(connected).allSatisfy(request -> {
+      assertThat(request.method()).isEqualTo("HEAD");
+      assertThat(request.timeout()).contains(Duration.ofSeconds(2));
+    });
+  }
+
+  @Test
+  void should_cache_codecs_of_types() {
+    val codecs = new JsonCodecs(objectMapper);
+    val plan = WarmUpPlan.empty()
+      .withTypes(List.of(Dto.class, Object.class))
+      .withTypeReferences(List.of(new TypeReference<java.util.List<Dto>>() {}));
+
+    val actual = WarmUp.run(plan, codecs, this::connect, this::send, Runnable::run).join();
+
+    assertThat(actual.getCodecs()).isEqualTo(4);
+    assertThat(codecs.size()).isEqualTo(5);
+    assertThat(actual.isSuccessful()).isTrue();
+  }
+
+  @Test
+  void should_send_requests_once_per_iteration() {
+    val request = HttpRequest.newBuilder(URI.create("http://host/health")).build();
+    val plan = WarmUpPlan.empty().withRequests(List.of(request, request)).withIterations(3);
+
+    val actual = WarmUp.run(plan, new JsonCodecs(objectMapper), this::connect, this::send, Runnable::run).join();
+
+    assertThat(actual.getRequests()).isEqualTo(6);
+    assertThat(sent).hasSize(6);
+  }
+
+  @Test
+  void should_report_failures_without_failing() {
+    val plan = WarmUpPlan.empty()
+      .withHosts(List.of(URI.create("http://down:8080"), URI.create("http://up:8080")))
+      .withRequests(List.of(HttpRequest.newBuilder(URI.create("http://up:8080/health")).build()));
+
+    val actual = WarmUp.run(plan, new JsonCodecs(objectMapper), request -> request.uri().getHost().equals("down")
+      ? CompletableFuture.failedFuture(new IOException("refused"))
+      : connect(request), request -> {
+      throw new IllegalStateException("closed");
+    }, Runnable::run).join();
+
+    assertThat(actual.isSuccessful()).isFalse();
+    assertThat(actual.getConnections()).isEqualTo(1);
+    assertThat(actual.getRequests()).isZero();
+    assertThat(actual.getFailures()).hasSize(2);
+    assertThat(actual.getFailures().get(0)).isInstanceOf(IOException.class);
+    assertThat(actual.getFailures().get(1)).isInstanceOf(IllegalStateException.class);
+  }
+
+  private CompletableFuture<Void> connect(HttpRequest request) {
+    connected.add(request);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private CompletableFuture<Void> send(HttpRequest request) {
+    sent.add(request);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  public static class Dto {
+    public String name;
+  }
+}